@@ -0,0 +1,122 @@
+package com.dynop.graphhopper.matrix.sea.builder;
+
+import com.graphhopper.routing.Dijkstra;
+import com.graphhopper.routing.ev.DecimalEncodedValue;
+import com.graphhopper.routing.ev.VehicleSpeed;
+import com.graphhopper.routing.util.EncodingManager;
+import com.graphhopper.routing.util.TraversalMode;
+import com.graphhopper.routing.weighting.SpeedWeighting;
+import com.graphhopper.routing.weighting.Weighting;
+import com.graphhopper.storage.BaseGraph;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Query time on a sea-like grid graph with generation-order versus Hilbert-order node IDs.
+ *
+ * <p>The graph is a global lat/lon grid with 8-neighbour edges, numbered either row-major (the
+ * builder's generation order) or along {@link HilbertCurve}. Each invocation runs the same fixed set
+ * of long-distance Dijkstra queries, so the difference between the layouts is memory locality only.
+ *
+ * <pre>{@code
+ * java -jar target/benchmarks.jar SeaGraphLayoutBenchmark
+ * }</pre>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SeaGraphLayoutBenchmark {
+
+    private static final int QUERIES = 20;
+
+    @Param({"ROW_MAJOR", "HILBERT"})
+    public String layout;
+
+    @Param({"0.5"})
+    public double stepDegrees;
+
+    private BaseGraph graph;
+    private Weighting weighting;
+    private int[] sources;
+    private int[] targets;
+
+    @Setup
+    public void setUp() {
+        DecimalEncodedValue speedEnc = VehicleSpeed.create("car", 5, 5, true);
+        EncodingManager encodingManager = EncodingManager.start().add(speedEnc).build();
+        WaypointArrays waypoints = grid(stepDegrees);
+        int[] newIndex = identity(waypoints.size());
+        if (layout.equals("HILBERT")) {
+            int[] order = HilbertCurve.sortOrder(waypoints);
+            for (int i = 0; i < order.length; i++) {
+                newIndex[order[i]] = i;
+            }
+        }
+
+        graph = new BaseGraph.Builder(encodingManager).create();
+        for (int i = 0; i < waypoints.size(); i++) {
+            graph.getNodeAccess().setNode(newIndex[i], waypoints.lat(i), waypoints.lon(i));
+        }
+        int lonCells = (int) Math.round(360 / stepDegrees);
+        int latCells = waypoints.size() / lonCells;
+        // Add edges per node in new-ID order, as the builder does
+        int[] oldIndex = new int[newIndex.length];
+        for (int i = 0; i < newIndex.length; i++) {
+            oldIndex[newIndex[i]] = i;
+        }
+        for (int node = 0; node < oldIndex.length; node++) {
+            int row = oldIndex[node] / lonCells;
+            int col = oldIndex[node] % lonCells;
+            for (int[] d : new int[][] {{0, 1}, {1, -1}, {1, 0}, {1, 1}}) {
+                int r = row + d[0];
+                if (r >= latCells) continue;
+                int c = Math.floorMod(col + d[1], lonCells);
+                graph.edge(node, newIndex[r * lonCells + c])
+                    .setDistance(stepDegrees * 111_000 * Math.hypot(d[0], d[1]))
+                    .set(speedEnc, 30.0, 30.0);
+            }
+        }
+        weighting = new SpeedWeighting(speedEnc);
+
+        // Same query endpoints (by coordinate) for both layouts
+        Random random = new Random(42);
+        sources = new int[QUERIES];
+        targets = new int[QUERIES];
+        for (int q = 0; q < QUERIES; q++) {
+            sources[q] = newIndex[random.nextInt(waypoints.size())];
+            targets[q] = newIndex[random.nextInt(waypoints.size())];
+        }
+    }
+
+    @Benchmark
+    public double dijkstraQueries() {
+        double total = 0;
+        for (int q = 0; q < QUERIES; q++) {
+            total += new Dijkstra(graph, weighting, TraversalMode.NODE_BASED).calcPath(sources[q], targets[q]).getWeight();
+        }
+        return total;
+    }
+
+    private static WaypointArrays grid(double step) {
+        WaypointArrays waypoints = new WaypointArrays(0);
+        for (double lat = -80; lat < 80; lat += step) {
+            for (int c = 0; c < Math.round(360 / step); c++) {
+                waypoints.add(lat, -180 + c * step, WaypointArrays.NO_CHOKEPOINT);
+            }
+        }
+        return waypoints;
+    }
+
+    private static int[] identity(int size) {
+        int[] ids = new int[size];
+        for (int i = 0; i < size; i++) {
+            ids[i] = i;
+        }
+        return ids;
+    }
+}
@@ -0,0 +1,204 @@
+package com.dynop.graphhopper.matrix.api;
+
+import com.graphhopper.routing.util.EdgeFilter;
+import com.graphhopper.routing.weighting.Weighting;
+import com.graphhopper.storage.BaseGraph;
+import com.graphhopper.util.EdgeExplorer;
+import com.graphhopper.util.EdgeIterator;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+/**
+ * Per-node connected component IDs of a graph, used to reject unreachable matrix cells without searching.
+ *
+ * <p>Components are computed with an undirected BFS over the edges accepted by an access filter. Two
+ * nodes in different components can never reach each other, so the resource marks such cells as
+ * unreachable immediately instead of letting the search run into {@code MAX_VISITED_NODES} or the
+ * timeout. Nodes in the same component may still be unreachable (e.g. because of one-way edges);
+ * those cells are routed normally.
+ *
+ * <p>Persisted as a small binary file: magic, version, node count, edge count, component count,
+ * followed by one int per node. The node and edge counts guard against loading an index built for
+ * a different graph.
+ *
+ * @see ComponentIndexCache
+ */
+public final class ComponentIndex {
+
+    /**
+     * File name of the unrestricted component index in a graph directory.
+     */
+    public static final String FILE_NAME = "components.bin";
+
+    private static final int MAGIC = 0x434D5049;  // "CMPI"
+    private static final int VERSION = 1;
+
+    private final int[] componentByNode;
+    private final int edgeCount;
+    private final int componentCount;
+
+    private ComponentIndex(int[] componentByNode, int edgeCount, int componentCount) {
+        this.componentByNode = componentByNode;
+        this.edgeCount = edgeCount;
+        this.componentCount = componentCount;
+    }
+
+    /**
+     * @param variant Variant name, e.g. a profile or an excluded chokepoint ID
+     * @return File name of the component index for the variant
+     */
+    public static String fileName(String variant) {
+        return "components_" + variant + ".bin";
+    }
+
+    /**
+     * Compute components over all edges whose profile weight is finite in at least one direction.
+     *
+     * @param graph     Base graph
+     * @param weighting Profile weighting deciding edge accessibility
+     * @return Component index
+     */
+    public static ComponentIndex compute(BaseGraph graph, Weighting weighting) {
+        return compute(graph, edge -> Double.isFinite(weighting.calcEdgeWeight(edge, false))
+                || Double.isFinite(weighting.calcEdgeWeight(edge, true)));
+    }
+
+    /**
+     * Compute components over the edges accepted by the filter, ignoring edge direction.
+     *
+     * @param graph      Base graph
+     * @param edgeFilter Filter for traversable edges (e.g. chokepoint exclusion)
+     * @return Component index
+     */
+    public static ComponentIndex compute(BaseGraph graph, EdgeFilter edgeFilter) {
+        int nodeCount = graph.getNodes();
+        int[] component = new int[nodeCount];
+        Arrays.fill(component, -1);
+        int[] queue = new int[nodeCount];
+        EdgeExplorer explorer = graph.createEdgeExplorer();
+
+        int componentId = 0;
+        for (int start = 0; start < nodeCount; start++) {
+            if (component[start] != -1) {
+                continue;
+            }
+            int head = 0;
+            int tail = 0;
+            queue[tail++] = start;
+            component[start] = componentId;
+            while (head < tail) {
+                EdgeIterator iter = explorer.setBaseNode(queue[head++]);
+                while (iter.next()) {
+                    int adjNode = iter.getAdjNode();
+                    if (component[adjNode] == -1 && edgeFilter.accept(iter)) {
+                        component[adjNode] = componentId;
+                        queue[tail++] = adjNode;
+                    }
+                }
+            }
+            componentId++;
+        }
+        return new ComponentIndex(component, graph.getEdges(), componentId);
+    }
+
+    /**
+     * Load a component index and check that it matches the graph.
+     *
+     * @param file  Index file
+     * @param graph Graph the index must belong to
+     * @return Loaded index, or null if the file is missing or was built for a different graph
+     * @throws IOException if the file cannot be read or is not a component index
+     */
+    public static ComponentIndex loadFrom(Path file, BaseGraph graph) throws IOException {
+        if (!Files.exists(file)) {
+            return null;
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+                throw new IOException("Not a component index: " + file);
+            }
+            int nodeCount = in.readInt();
+            int edgeCount = in.readInt();
+            int componentCount = in.readInt();
+            if (nodeCount != graph.getNodes() || edgeCount != graph.getEdges()) {
+                return null;
+            }
+            int[] component = new int[nodeCount];
+            for (int i = 0; i < nodeCount; i++) {
+                component[i] = in.readInt();
+            }
+            return new ComponentIndex(component, edgeCount, componentCount);
+        }
+    }
+
+    /**
+     * Save the index as a binary file.
+     *
+     * @param file Path to write to
+     * @throws IOException if writing fails
+     */
+    public void saveTo(Path file) throws IOException {
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(componentByNode.length);
+            out.writeInt(edgeCount);
+            out.writeInt(componentCount);
+            for (int component : componentByNode) {
+                out.writeInt(component);
+            }
+        }
+    }
+
+    /**
+     * Check whether two base graph nodes may be connected.
+     * Nodes outside the index (e.g. virtual nodes) are conservatively treated as connected.
+     *
+     * @param nodeA First node
+     * @param nodeB Second node
+     * @return false if the nodes are guaranteed to be unreachable from each other
+     */
+    public boolean isConnected(int nodeA, int nodeB) {
+        if (nodeA < 0 || nodeB < 0 || nodeA >= componentByNode.length || nodeB >= componentByNode.length) {
+            return true;
+        }
+        return componentByNode[nodeA] == componentByNode[nodeB];
+    }
+
+    /**
+     * @param node Node ID
+     * @return Component ID of the node
+     */
+    public int getComponent(int node) {
+        return componentByNode[node];
+    }
+
+    /**
+     * @return Number of nodes covered by the index
+     */
+    public int getNodeCount() {
+        return componentByNode.length;
+    }
+
+    /**
+     * @return Number of connected components
+     */
+    public int getComponentCount() {
+        return componentCount;
+    }
+
+    /**
+     * @return Size of the largest component
+     */
+    public int getLargestComponentSize() {
+        int[] sizes = new int[componentCount];
+        int largest = 0;
+        for (int component : componentByNode) {
+            largest = Math.max(largest, ++sizes[component]);
+        }
+        return largest;
+    }
+}
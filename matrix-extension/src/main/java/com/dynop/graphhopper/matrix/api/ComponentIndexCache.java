@@ -0,0 +1,96 @@
+package com.dynop.graphhopper.matrix.api;
+
+import com.graphhopper.GraphHopper;
+import com.graphhopper.config.Profile;
+import com.graphhopper.routing.weighting.Weighting;
+import com.graphhopper.storage.BaseGraph;
+import com.graphhopper.util.PMap;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Shared per-profile {@link ComponentIndex} instances for the road graph.
+ *
+ * <p>{@link #preload} loads {@code components_<profile>.bin} for every profile from the graph directory at
+ * startup, or computes the index from the profile weighting and persists it there. Requests then only
+ * read the in-memory index. Indexes are tied to the graph instance they were built for, so a graph
+ * reload triggers a reload of the index on the next request, outside the map's locks.
+ */
+public final class ComponentIndexCache {
+
+    private static final Logger LOGGER = Logger.getLogger(ComponentIndexCache.class.getName());
+
+    private final Map<String, Entry> indexes = new ConcurrentHashMap<>();
+
+    /**
+     * Load or compute the indexes of all profiles of a loaded GraphHopper instance.
+     *
+     * @param hopper Road GraphHopper whose graph is loaded
+     */
+    public void preload(GraphHopper hopper) {
+        for (Profile profile : hopper.getProfiles()) {
+            get(profile.getName(), hopper.getBaseGraph(), hopper.createWeighting(profile, new PMap()),
+                    hopper.getGraphHopperLocation());
+        }
+    }
+
+    /**
+     * Get the component index for a profile, loading or computing it if it was not preloaded.
+     *
+     * @param profileName   Profile name
+     * @param graph         Road base graph
+     * @param weighting     Profile weighting deciding edge accessibility
+     * @param graphLocation Graph directory to persist the index in, or null to keep it in memory only
+     * @return Component index for the profile
+     */
+    public ComponentIndex get(String profileName, BaseGraph graph, Weighting weighting, String graphLocation) {
+        Entry entry = indexes.get(profileName);
+        if (entry != null && entry.graph == graph) {
+            return entry.index;
+        }
+        // Concurrent misses may load the same index twice; the result is identical
+        ComponentIndex index = loadOrCompute(profileName, graph, weighting, graphLocation);
+        indexes.put(profileName, new Entry(graph, index));
+        return index;
+    }
+
+    private static ComponentIndex loadOrCompute(String profileName, BaseGraph graph, Weighting weighting,
+                                                String graphLocation) {
+        Path file = graphLocation != null ? Path.of(graphLocation).resolve(ComponentIndex.fileName(profileName)) : null;
+        if (file != null) {
+            try {
+                ComponentIndex loaded = ComponentIndex.loadFrom(file, graph);
+                if (loaded != null) {
+                    LOGGER.info(() -> String.format("Loaded %d components for profile %s from %s",
+                            loaded.getComponentCount(), profileName, file.getFileName()));
+                    return loaded;
+                }
+            } catch (IOException e) {
+                LOGGER.log(Level.WARNING, "Failed to load component index " + file + ", recomputing", e);
+            }
+        }
+
+        long start = System.currentTimeMillis();
+        ComponentIndex computed = ComponentIndex.compute(graph, weighting);
+        LOGGER.info(() -> String.format("Computed %d components for profile %s in %d ms",
+                computed.getComponentCount(), profileName, System.currentTimeMillis() - start));
+
+        if (file != null && Files.isDirectory(file.getParent())) {
+            try {
+                computed.saveTo(file);
+            } catch (IOException e) {
+                LOGGER.log(Level.WARNING, "Failed to persist component index " + file, e);
+            }
+        }
+        return computed;
+    }
+
+    private record Entry(BaseGraph graph, ComponentIndex index) {
+    }
+}
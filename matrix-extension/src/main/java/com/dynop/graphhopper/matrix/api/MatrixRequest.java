@@ -1,7 +1,10 @@
 package com.dynop.graphhopper.matrix.api;
 
+import com.dynop.graphhopper.matrix.sea.AvoidAreaMasks;
 import com.fasterxml.jackson.annotation.JsonCreator;
 import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.JsonNode;
+import org.locationtech.jts.geom.Geometry;
 
 import java.util.ArrayList;
 import java.util.Collections;
@@ -22,12 +25,29 @@ import java.util.Set;
  * <p>For sea routing, additional parameters are available:
  * <ul>
  *   <li>{@code excluded_chokepoints}: List of chokepoint IDs to exclude (e.g., ["SUEZ"])</li>
- *   <li>{@code validate_coordinates}: Whether to validate coordinates against land mask</li>
+ *   <li>{@code scenarios}: Several closure scenarios computed over one port snapping, instead of
+ *       {@code excluded_chokepoints} (e.g., [{"id": "baseline"}, {"id": "no_suez", "excluded_chokepoints": ["SUEZ"]}])</li>
+ *   <li>{@code include_chokepoint_transits}: Whether to return a bitmask per cell of the chokepoints on its route</li>
+ *   <li>{@code vessel_classes}: Vessel class IDs answered as one scenario each, with times at the class's
+ *       service speed and its draft-restricted chokepoints excluded (e.g., ["FEEDER", "ULCV"])</li>
+ *   <li>{@code avoid_areas}: GeoJSON polygons or multi-polygons (geometries or features) to exclude like chokepoints</li>
+ *   <li>{@code avoid_zones}: IDs of avoid areas registered by an admin (e.g., ["HRA_GULF_OF_ADEN"])</li>
+ *   <li>{@code validate_coordinates}: Whether points the land mask raster places inland fail (default true)</li>
  * </ul>
  */
 public final class MatrixRequest {
 
     private static final Set<String> ALLOWED_METRICS = Set.of("distance", "time");
+    
+    /**
+     * Maximum number of scenarios in one request.
+     */
+    public static final int MAX_SCENARIOS = 16;
+    
+    /**
+     * Maximum number of avoid areas (inline and registered) in one request.
+     */
+    public static final int MAX_AVOID_AREAS = 32;
 
     private final List<List<Double>> points;
     private final List<Integer> sources;
@@ -38,6 +58,11 @@ public final class MatrixRequest {
     private final RoutingMode mode;
     private final List<String> excludedChokepoints;
     private final boolean validateCoordinates;
+    private final List<MatrixScenario> scenarios;
+    private final boolean includeChokepointTransits;
+    private final List<String> vesselClasses;
+    private final List<Geometry> avoidAreas;
+    private final List<String> avoidZones;
 
     @JsonCreator
     public MatrixRequest(
@@ -49,7 +74,12 @@ public final class MatrixRequest {
             @JsonProperty(value = "enableFallback", defaultValue = "false") Boolean enableFallback,
             @JsonProperty(value = "mode", defaultValue = "road") String mode,
             @JsonProperty(value = "excluded_chokepoints") List<String> excludedChokepoints,
-            @JsonProperty(value = "validate_coordinates", defaultValue = "true") Boolean validateCoordinates) {
+            @JsonProperty(value = "validate_coordinates", defaultValue = "true") Boolean validateCoordinates,
+            @JsonProperty(value = "scenarios") List<MatrixScenario> scenarios,
+            @JsonProperty(value = "include_chokepoint_transits", defaultValue = "false") Boolean includeChokepointTransits,
+            @JsonProperty(value = "vessel_classes") List<String> vesselClasses,
+            @JsonProperty(value = "avoid_areas") List<JsonNode> avoidAreas,
+            @JsonProperty(value = "avoid_zones") List<String> avoidZones) {
 
         this.points = validatePoints(points);
         this.sources = normalizeIndices(sources, this.points.size());
@@ -62,6 +92,20 @@ public final class MatrixRequest {
             ? Collections.unmodifiableList(new ArrayList<>(excludedChokepoints))
             : Collections.emptyList();
         this.validateCoordinates = validateCoordinates == null || validateCoordinates;
+        this.scenarios = validateScenarios(scenarios, this.mode, this.excludedChokepoints);
+        this.includeChokepointTransits = Boolean.TRUE.equals(includeChokepointTransits);
+        if (this.includeChokepointTransits && this.mode != RoutingMode.SEA) {
+            throw new IllegalArgumentException("include_chokepoint_transits is only supported in sea mode");
+        }
+        this.vesselClasses = validateVesselClasses(vesselClasses, this.mode, this.scenarios);
+        this.avoidAreas = parseAvoidAreas(avoidAreas, this.mode);
+        this.avoidZones = avoidZones != null ? List.copyOf(avoidZones) : List.of();
+        if (!this.avoidZones.isEmpty() && this.mode != RoutingMode.SEA) {
+            throw new IllegalArgumentException("avoid_zones are only supported in sea mode");
+        }
+        if (this.avoidAreas.size() + this.avoidZones.size() > MAX_AVOID_AREAS) {
+            throw new IllegalArgumentException("At most " + MAX_AVOID_AREAS + " avoid areas are allowed");
+        }
     }
     
     /**
@@ -74,7 +118,8 @@ public final class MatrixRequest {
             String profile,
             List<String> metrics,
             Boolean enableFallback) {
-        this(points, sources, targets, profile, metrics, enableFallback, "road", null, true);
+        this(points, sources, targets, profile, metrics, enableFallback, "road", null, true, null, null, null, null,
+            null);
     }
 
     public List<List<Double>> getPoints() {
@@ -122,6 +167,62 @@ public final class MatrixRequest {
         return validateCoordinates;
     }
     
+    /**
+     * @return Closure scenarios (sea mode only, empty for a single-matrix request)
+     */
+    public List<MatrixScenario> getScenarios() {
+        return scenarios;
+    }
+    
+    /**
+     * @return Whether to return the chokepoint transit bitmask of every cell (sea mode only)
+     */
+    public boolean isIncludeChokepointTransits() {
+        return includeChokepointTransits;
+    }
+    
+    /**
+     * @return Vessel class IDs (sea mode only, empty if times are for the sea profile)
+     */
+    public List<String> getVesselClasses() {
+        return vesselClasses;
+    }
+    
+    /**
+     * @return true if the request asks for one matrix per vessel class
+     */
+    public boolean hasVesselClasses() {
+        return !vesselClasses.isEmpty();
+    }
+    
+    /**
+     * @return Inline avoid areas as polygonal geometries in lon/lat (sea mode only)
+     */
+    public List<Geometry> getAvoidAreas() {
+        return avoidAreas;
+    }
+    
+    /**
+     * @return IDs of registered avoid areas (sea mode only)
+     */
+    public List<String> getAvoidZones() {
+        return avoidZones;
+    }
+    
+    /**
+     * @return true if the request avoids any inline or registered area
+     */
+    public boolean hasAvoidAreas() {
+        return !avoidAreas.isEmpty() || !avoidZones.isEmpty();
+    }
+    
+    /**
+     * @return true if the request asks for one matrix per scenario
+     */
+    public boolean hasScenarios() {
+        return !scenarios.isEmpty();
+    }
+    
     /**
      * @return true if this is a sea routing request
      */
@@ -139,6 +240,72 @@ public final class MatrixRequest {
         throw new IllegalArgumentException("Invalid routing mode: " + mode + ". Valid values: road, sea");
     }
 
+    private static List<MatrixScenario> validateScenarios(List<MatrixScenario> rawScenarios, RoutingMode mode,
+                                                         List<String> excludedChokepoints) {
+        if (rawScenarios == null || rawScenarios.isEmpty()) {
+            return List.of();
+        }
+        if (mode != RoutingMode.SEA) {
+            throw new IllegalArgumentException("scenarios are only supported in sea mode");
+        }
+        if (!excludedChokepoints.isEmpty()) {
+            throw new IllegalArgumentException("Use either excluded_chokepoints or scenarios, not both");
+        }
+        if (rawScenarios.size() > MAX_SCENARIOS) {
+            throw new IllegalArgumentException("At most " + MAX_SCENARIOS + " scenarios are allowed");
+        }
+        Set<String> ids = new HashSet<>();
+        for (MatrixScenario scenario : rawScenarios) {
+            if (scenario == null) {
+                throw new IllegalArgumentException("scenarios must not contain null");
+            }
+            if (!ids.add(scenario.getId())) {
+                throw new IllegalArgumentException("Duplicate scenario id: " + scenario.getId());
+            }
+        }
+        return List.copyOf(rawScenarios);
+    }
+
+    private static List<String> validateVesselClasses(List<String> rawVesselClasses, RoutingMode mode,
+                                                      List<MatrixScenario> scenarios) {
+        if (rawVesselClasses == null || rawVesselClasses.isEmpty()) {
+            return List.of();
+        }
+        if (mode != RoutingMode.SEA) {
+            throw new IllegalArgumentException("vessel_classes are only supported in sea mode");
+        }
+        if (!scenarios.isEmpty()) {
+            throw new IllegalArgumentException("Use either scenarios or vessel_classes, not both");
+        }
+        if (rawVesselClasses.size() > MAX_SCENARIOS) {
+            throw new IllegalArgumentException("At most " + MAX_SCENARIOS + " vessel classes are allowed");
+        }
+        Set<String> ids = new HashSet<>();
+        for (String vesselClass : rawVesselClasses) {
+            if (vesselClass == null || vesselClass.isBlank()) {
+                throw new IllegalArgumentException("vessel_classes must not contain blank IDs");
+            }
+            if (!ids.add(vesselClass)) {
+                throw new IllegalArgumentException("Duplicate vessel class: " + vesselClass);
+            }
+        }
+        return List.copyOf(rawVesselClasses);
+    }
+
+    private static List<Geometry> parseAvoidAreas(List<JsonNode> rawAreas, RoutingMode mode) {
+        if (rawAreas == null || rawAreas.isEmpty()) {
+            return List.of();
+        }
+        if (mode != RoutingMode.SEA) {
+            throw new IllegalArgumentException("avoid_areas are only supported in sea mode");
+        }
+        List<Geometry> areas = new ArrayList<>(rawAreas.size());
+        for (JsonNode rawArea : rawAreas) {
+            areas.add(AvoidAreaMasks.parseGeoJson(rawArea));
+        }
+        return List.copyOf(areas);
+    }
+
     private static List<List<Double>> validatePoints(List<List<Double>> rawPoints) {
         if (rawPoints == null || rawPoints.isEmpty()) {
             throw new IllegalArgumentException("points must not be empty");
@@ -38,20 +38,25 @@ import jakarta.ws.rs.WebApplicationException;
 import jakarta.ws.rs.core.MediaType;
 import jakarta.ws.rs.core.Response;
 import org.jetbrains.annotations.Nullable;
+import org.locationtech.jts.geom.Geometry;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.BitSet;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
+import java.util.TreeSet;
 import java.util.concurrent.Callable;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Supplier;
 import java.util.logging.Level;
 import java.util.logging.Logger;
@@ -71,6 +76,11 @@ import java.util.stream.Collectors;
  *   <li>Two-stage port snapping: user coord → UN/LOCODE port → sea graph node</li>
  *   <li>Chokepoint exclusion via {@code excluded_chokepoints} list</li>
  *   <li>Port metadata in response</li>
+ *   <li>Optional chokepoint transit bitmask per cell via {@code include_chokepoint_transits}</li>
+ *   <li>Per vessel class matrices via {@code vessel_classes}, derived from one search per exclusion set</li>
+ *   <li>Ad-hoc avoid areas via {@code avoid_areas} (GeoJSON) and {@code avoid_zones} (registered by an admin)</li>
+ *   <li>Global chokepoint closures set by an admin, added to every request's exclusions</li>
+ *   <li>Inland points reported as per-point failures via raster lookups ({@code validate_coordinates})</li>
  * </ul>
  */
 @Path("/custom/matrix")
@@ -83,16 +93,39 @@ public class MatrixResource {
     
     // Default sea profile name
     private static final String SEA_PROFILE = "ship";
+    
+    // Scenario of a single-matrix sea request (its excluded_chokepoints)
+    private static final String DEFAULT_SCENARIO_ID = "default";
+    
+    // Snap cache engine keys
+    private static final String ROAD_SNAP_ENGINE = "road";
+    private static final String SEA_PORT_SNAP_ENGINE = "sea-port";
+    private static final String SEA_GRAPH_SNAP_ENGINE = "sea-graph";
+    
+
+    // Points per parallel road snapping task
+    static final int SNAP_CHUNK_SIZE = 256;
 
     private final GraphHopper graphHopper;
     private final ExecutorService executorService;
     private final Timer requestLatency;
+    private final Timer snapLatency;
     private final Meter routeThroughput;
+    private final SnapCache snapCache;
+    private final ComponentIndexCache componentIndexCache;
     
     // Sea routing components (nullable if sea routing is not configured)
     private final GraphHopper seaHopper;
     private final ChokepointRegistry chokepointRegistry;
     private final UnlocodePortSnapper portSnapper;
+    private final PortNodeTable portNodeTable;
+    private final PortDistanceTable portDistanceTable;
+    private final ChokepointOrdinals chokepointOrdinals;
+    private final VesselClassRegistry vesselClassRegistry = VesselClassRegistry.defaults();
+    private final AvoidAreaMasks avoidAreaMasks;
+    private final ChokepointClosures chokepointClosures;
+    private final LandMaskRaster landMask;
+    private final SeaHopperHolder seaHopperHolder;
 
     @Inject
     public MatrixResource(GraphHopper graphHopper,
@@ -100,17 +133,44 @@ public class MatrixResource {
                           MetricRegistry metrics,
                           SeaHopperHolder seaHopperHolder,
                           ChokepointRegistry chokepointRegistry,
-                          UnlocodePortSnapper portSnapper) {
+                          UnlocodePortSnapper portSnapper,
+                          SnapCache snapCache,
+                          ComponentIndexCache componentIndexCache) {
         this.graphHopper = Objects.requireNonNull(graphHopper, "graphHopper");
         this.executorService = Objects.requireNonNull(executorService, "executorService");
         Objects.requireNonNull(metrics, "metrics");
         this.requestLatency = metrics.timer("matrix.requests.latency");
+        this.snapLatency = metrics.timer("matrix.snap.latency");
         this.routeThroughput = metrics.meter("matrix.routes.per_second");
+        this.snapCache = snapCache != null ? snapCache : new SnapCache(0);
+        this.componentIndexCache = componentIndexCache;
         
         // Sea routing components are optional
-        this.seaHopper = seaHopperHolder.getSeaHopper();
+        this.seaHopperHolder = seaHopperHolder;
+        this.seaHopper = seaHopperHolder != null ? seaHopperHolder.getSeaHopper() : null;
         this.chokepointRegistry = chokepointRegistry;
         this.portSnapper = portSnapper;
+        this.portNodeTable = seaHopperHolder != null ? seaHopperHolder.getPortNodeTable() : PortNodeTable.empty();
+        this.portDistanceTable = seaHopperHolder != null
+                ? seaHopperHolder.getPortDistanceTable() : PortDistanceTable.empty();
+        this.chokepointOrdinals = seaHopperHolder != null
+                ? seaHopperHolder.getChokepointOrdinals() : ChokepointOrdinals.of(new ChokepointRegistry(), 0);
+        this.avoidAreaMasks = seaHopperHolder != null ? seaHopperHolder.getAvoidAreaMasks() : null;
+        this.chokepointClosures = seaHopperHolder != null ? seaHopperHolder.getChokepointClosures() : null;
+        this.landMask = seaHopperHolder != null ? seaHopperHolder.getLandMask() : null;
+    }
+
+    /**
+     * Creates a resource without a shared snap cache (snapping results are not cached)
+     * and without the road component precheck.
+     */
+    public MatrixResource(GraphHopper graphHopper,
+                          ExecutorService executorService,
+                          MetricRegistry metrics,
+                          SeaHopperHolder seaHopperHolder,
+                          ChokepointRegistry chokepointRegistry,
+                          UnlocodePortSnapper portSnapper) {
+        this(graphHopper, executorService, metrics, seaHopperHolder, chokepointRegistry, portSnapper, null, null);
     }
 
     /**
@@ -173,20 +233,31 @@ public class MatrixResource {
             long[][] times = initializeMatrix(sources.size(), targets.size());
 
             LocationIndex locationIndex = graphHopper.getLocationIndex();
-            Snap[] snaps = snapPoints(points, locationIndex);
+            BaseGraph baseGraph = graphHopper.getBaseGraph();
+            Snap[] snaps;
+            Timer.Context snapTimer = snapLatency.time();
+            try {
+                snaps = snapPoints(points, locationIndex, baseGraph);
+            } finally {
+                snapTimer.stop();
+            }
             List<Integer> failures = collectFailures(snaps);
             prefillFailures(sources, targets, failures, distances, times);
 
             Weighting weighting = graphHopper.createWeighting(profile, new PMap());
-            AlgorithmOptions flexAlgoOpts = buildAlgorithmOptions(profile, graphHopper.getRouterConfig());
+            List<ComponentIndex> components = componentIndexCache != null
+                    ? List.of(componentIndexCache.get(profileName, baseGraph, weighting,
+                            graphHopper.getGraphHopperLocation()))
+                    : List.of();
+            AlgorithmOptions flexAlgoOpts = buildAlgorithmOptions(profile, graphHopper.getRouterConfig(), lmEnabled);
             PMap chHints = buildChHints(profile, graphHopper.getRouterConfig());
             RoutingAlgorithmFactory fallbackFactory = createFallbackFactory(lmEnabled, landmarkStorage);
 
-            BaseGraph baseGraph = graphHopper.getBaseGraph();
             List<Callable<Void>> tasks = new ArrayList<>(sources.size());
             for (int rowIdx = 0; rowIdx < sources.size(); rowIdx++) {
                 tasks.add(createRowTask(rowIdx, sources, targets, snaps, chEnabled, chGraph, weighting,
-                        flexAlgoOpts, chHints, fallbackFactory, baseGraph, distances, times));
+                        flexAlgoOpts, chHints, fallbackFactory, baseGraph, components, null, 0, distances, times,
+                        null));
             }
 
             List<Future<Void>> futures = executorService.invokeAll(tasks);
@@ -247,102 +318,243 @@ public class MatrixResource {
                         "CH not available for sea profile and fallback disabled")).build();
             }
 
+            List<VesselClass> vesselClasses = new ArrayList<>(request.getVesselClasses().size());
+            for (String vesselClassId : request.getVesselClasses()) {
+                VesselClass vesselClass = vesselClassRegistry.getVesselClass(vesselClassId);
+                if (vesselClass == null) {
+                    return Response.ok(MatrixResponse.failure("UNKNOWN_VESSEL_CLASS",
+                            "Unknown vessel class: " + vesselClassId + ". Valid values: "
+                                    + String.join(", ", vesselClassRegistry.getVesselClassIds()))).build();
+                }
+                vesselClasses.add(vesselClass);
+            }
+
+            // Global closures are read once, so the whole request runs on one closure state
+            ChokepointClosures.State closures = chokepointClosures != null
+                    ? chokepointClosures.current()
+                    : ChokepointClosures.State.NONE;
+
+            // Avoid areas apply to every scenario; their node masks are cached across requests. Only registered
+            // zones join the Stage 2 snap cache key: inline polygons are unbounded, so their snaps are not cached
+            List<AvoidAreaMasks.Mask> avoidMasks = new ArrayList<>();
+            if (request.hasAvoidAreas()) {
+                if (avoidAreaMasks == null) {
+                    return Response.ok(MatrixResponse.failure("AVOID_AREAS_UNAVAILABLE",
+                            "Avoid areas are not available for the sea graph.")).build();
+                }
+                for (String zoneId : request.getAvoidZones()) {
+                    AvoidAreaMasks.Mask zone = avoidAreaMasks.getZone(zoneId);
+                    if (zone == null) {
+                        return Response.ok(MatrixResponse.failure("UNKNOWN_AVOID_ZONE",
+                                "Unknown avoid zone: " + zoneId)).build();
+                    }
+                    avoidMasks.add(zone);
+                }
+                for (Geometry area : request.getAvoidAreas()) {
+                    avoidMasks.add(avoidAreaMasks.resolve(area));
+                }
+            }
+            EdgeFilter avoidFilter = avoidMasks.isEmpty() ? null : new AvoidAreaEdgeFilter(avoidMasks);
+            // Zones are added first, so the key covers exactly the registered zones
+            String avoidSnapKey = avoidMasks.subList(0, request.getAvoidZones().size()).stream()
+                    .map(AvoidAreaMasks.Mask::getHash)
+                    .sorted()
+                    .collect(Collectors.joining(","));
+            boolean cacheGraphSnaps = request.getAvoidAreas().isEmpty();
+
             List<List<Double>> points = request.getPoints();
             List<Integer> sources = request.getSources();
             List<Integer> targets = request.getTargets();
             validateMatrixSize(sources.size(), targets.size());
 
-            // Stage 1: Port snapping - snap all input coordinates to nearest UN/LOCODE ports
+            // Inland points found by raster lookups fail like points without a port, the rest are still routed
+            BitSet inland = request.isValidateCoordinates() && landMask != null
+                    ? findInlandPoints(points)
+                    : new BitSet();
+
+            // Stage 1: Port snapping - snap all input coordinates to nearest UN/LOCODE ports.
+            // Source membership is a bitset so role assignment is O(1) per point.
+            BitSet sourceMask = new BitSet(points.size());
+            for (int sourceIndex : sources) {
+                sourceMask.set(sourceIndex);
+            }
+            // Stage 1 and Stage 2 are recorded as one snap latency sample per request
+            long snapStart = System.nanoTime();
+            PortSnapBatch portBatch = snapPorts(toCoordinateArray(points), sourceMask);
+            long snapNanos = System.nanoTime() - snapStart;
+            
             List<PortSnapResult> portSnaps = new ArrayList<>(points.size());
             List<GHPoint> snappedPortCoords = new ArrayList<>(points.size());
+            int[] portNodes = new int[points.size()];
             List<Integer> snapFailures = new ArrayList<>();
             
             for (int idx = 0; idx < points.size(); idx++) {
                 final int i = idx;
-                List<Double> coord = points.get(i);
-                double lat = coord.get(0);
-                double lon = coord.get(1);
-                
-                // Determine port role based on whether this point is a source or target
-                PortRole role = sources.contains(i) ? PortRole.PORT_OF_LOADING : PortRole.PORT_OF_DISCHARGE;
-                
-                try {
-                    PortSnapResult snapResult = portSnapper.snap(lat, lon, role);
-                    portSnaps.add(snapResult);
-                    snappedPortCoords.add(new GHPoint(snapResult.getLat(), snapResult.getLon()));
-                } catch (PortSnapException e) {
+                if (inland.get(i)) {
+                    LOGGER.log(Level.FINE, () -> String.format(
+                        "Point %d (%.4f, %.4f) is more than %.0f km inland", i, portBatch.getLat(i),
+                        portBatch.getLon(i), landMask.getInlandToleranceKm()));
+                    portSnaps.add(null);
+                    snappedPortCoords.add(null);
+                    portNodes[i] = PortNodeTable.NO_NODE;
+                    snapFailures.add(i);
+                } else if (portBatch.isSnapped(i)) {
+                    Port port = portSnapper.getPort(portBatch.getPortIndex(i));
+                    portSnaps.add(portBatch.toResult(i));
+                    snappedPortCoords.add(new GHPoint(port.getLat(), port.getLon()));
+                    portNodes[i] = portNodeTable.getNode(portBatch.getPortIndex(i));
+                } else {
                     LOGGER.log(Level.FINE, () -> String.format(
-                        "Port snap failed for point %d (%.4f, %.4f): %s", i, lat, lon, e.getMessage()));
+                        "Port snap failed for point %d (%.4f, %.4f): %s", i, portBatch.getLat(i),
+                        portBatch.getLon(i), portBatch.toException(i).getMessage()));
                     portSnaps.add(null);
                     snappedPortCoords.add(null);
+                    portNodes[i] = PortNodeTable.NO_NODE;
                     snapFailures.add(i);
                 }
             }
 
-            // Stage 2: Graph snapping - snap port coordinates to sea graph nodes
-            long[][] distances = initializeMatrix(sources.size(), targets.size());
-            long[][] times = initializeMatrix(sources.size(), targets.size());
-
             LocationIndex locationIndex = seaHopper.getLocationIndex();
-            
-            // Build edge filter for chokepoint exclusion
-            EdgeFilter edgeFilter;
-            List<String> appliedChokepoints = new ArrayList<>();
-            if (request.getExcludedChokepoints() != null && !request.getExcludedChokepoints().isEmpty() 
-                    && chokepointRegistry != null) {
-                Set<Integer> excludedNodes = chokepointRegistry.getExcludedNodeIds(request.getExcludedChokepoints());
-                if (!excludedNodes.isEmpty()) {
-                    edgeFilter = new ChokepointAwareEdgeFilter(excludedNodes);
-                    appliedChokepoints.addAll(request.getExcludedChokepoints());
-                } else {
-                    edgeFilter = EdgeFilter.ALL_EDGES;
-                }
-            } else {
-                edgeFilter = EdgeFilter.ALL_EDGES;
-            }
-            
-            Snap[] snaps = snapPointsWithFilter(snappedPortCoords, locationIndex, edgeFilter);
-            List<Integer> graphFailures = collectFailures(snaps);
-            
-            // Merge snap failures
-            Set<Integer> allFailures = new HashSet<>(snapFailures);
-            allFailures.addAll(graphFailures);
-            List<Integer> failures = new ArrayList<>(allFailures);
-            Collections.sort(failures);
-            
-            prefillFailures(sources, targets, failures, distances, times);
+            BaseGraph baseGraph = seaHopper.getBaseGraph();
 
+            // Scenario-invariant work: the weighting and algorithm setup are shared
             Weighting weighting = seaHopper.createWeighting(profile, new PMap());
-            AlgorithmOptions flexAlgoOpts = buildAlgorithmOptions(profile, seaHopper.getRouterConfig());
+            AlgorithmOptions flexAlgoOpts = buildAlgorithmOptions(profile, seaHopper.getRouterConfig(), lmEnabled);
             PMap chHints = buildChHints(profile, seaHopper.getRouterConfig());
             RoutingAlgorithmFactory fallbackFactory = createFallbackFactory(lmEnabled, landmarkStorage, seaHopper);
 
-            BaseGraph baseGraph = seaHopper.getBaseGraph();
-            List<Callable<Void>> tasks = new ArrayList<>(sources.size());
-            for (int rowIdx = 0; rowIdx < sources.size(); rowIdx++) {
-                tasks.add(createRowTask(rowIdx, sources, targets, snaps, chEnabled, chGraph, weighting,
-                        flexAlgoOpts, chHints, fallbackFactory, baseGraph, distances, times));
+            // Vessel classes share the uniform-speed route of their exclusion set and only scale its time
+            List<MatrixScenario> scenarios;
+            if (request.hasScenarios()) {
+                scenarios = request.getScenarios();
+            } else if (!vesselClasses.isEmpty()) {
+                scenarios = vesselClasses.stream()
+                        .map(vesselClass -> new MatrixScenario(vesselClass.getId(),
+                                resolveVesselClassExclusions(vesselClass, request.getExcludedChokepoints())))
+                        .collect(Collectors.toList());
+            } else {
+                scenarios = List.of(new MatrixScenario(DEFAULT_SCENARIO_ID, request.getExcludedChokepoints()));
             }
+            List<SeaScenarioRun> runs = new ArrayList<>(scenarios.size());
+            Map<Set<String>, SeaScenarioRun> runsByExclusions = new HashMap<>();
+            List<Callable<Void>> tasks = new ArrayList<>(sources.size() * scenarios.size());
+            for (MatrixScenario scenario : scenarios) {
+                // Stage 2: Graph snapping - ports with a prebuilt access node are looked up directly,
+                // the rest are snapped to the sea graph via the location index (per scenario, since
+                // excluded chokepoints change which edges a point may snap to)
+                List<String> requestedChokepoints = resolveAppliedChokepoints(scenario.getExcludedChokepoints());
+                List<String> appliedChokepoints = withClosures(requestedChokepoints, closures);
+                Set<String> exclusionKey = new TreeSet<>(appliedChokepoints);
+                SeaScenarioRun computed = runsByExclusions.get(exclusionKey);
+                if (computed != null) {
+                    // Same exclusions as an earlier scenario, so the same matrices
+                    runs.add(new SeaScenarioRun(scenario.getId(), appliedChokepoints, computed.failures(),
+                            computed.distances(), computed.times(), computed.transits()));
+                    continue;
+                }
+                // The closure filter is prebuilt; only the request's own chokepoints are resolved here
+                EdgeFilter edgeFilter = closures.getEdgeFilter();
+                if (!requestedChokepoints.isEmpty()) {
+                    edgeFilter = both(edgeFilter,
+                            new ChokepointAwareEdgeFilter(chokepointRegistry.getExcludedNodeIds(requestedChokepoints)));
+                }
+                String snapEngine = appliedChokepoints.isEmpty()
+                        ? SEA_GRAPH_SNAP_ENGINE
+                        : SEA_GRAPH_SNAP_ENGINE + "|" + String.join(",", new TreeSet<>(appliedChokepoints));
+                if (avoidFilter != null) {
+                    EdgeFilter chokepointFilter = edgeFilter;
+                    edgeFilter = edge -> chokepointFilter.accept(edge) && avoidFilter.accept(edge);
+                    snapEngine = cacheGraphSnaps ? snapEngine + "|avoid:" + avoidSnapKey : null;
+                }
+                snapStart = System.nanoTime();
+                Snap[] snaps = snapPointsWithFilter(snappedPortCoords, portNodes, locationIndex, edgeFilter,
+                        baseGraph, snapEngine);
+                snapNanos += System.nanoTime() - snapStart;
+                List<Integer> graphFailures = collectFailures(snaps);
+
+                // Merge snap failures
+                Set<Integer> allFailures = new HashSet<>(snapFailures);
+                allFailures.addAll(graphFailures);
+                List<Integer> failures = new ArrayList<>(allFailures);
+                Collections.sort(failures);
+
+                long[][] distances = initializeMatrix(sources.size(), targets.size());
+                long[][] times = initializeMatrix(sources.size(), targets.size());
+                prefillFailures(sources, targets, failures, distances, times);
+                long[][] transits = request.isIncludeChokepointTransits()
+                        ? new long[sources.size()][targets.size()]
+                        : null;
 
+                // Points snapped to a port access node are looked up in the precomputed baseline table. With
+                // excluded chokepoints only cells whose baseline route avoids all of them keep that value; the
+                // others are searched with the exclusions. CH shortcuts ignore exclusions and avoid areas, so a
+                // restricted scenario searches the base graph with the excluded edges weighted as non-traversable
+                int[] tableRows = resolveTableRows(portBatch, portNodes, snaps);
+                // The table knows nothing about avoid areas, so they disable reuse
+                long excludedBits = avoidFilter != null
+                        ? PortDistanceTable.UNKNOWN_CHOKEPOINTS
+                        : portDistanceTable.getChokepointBits(appliedChokepoints);
+                List<ComponentIndex> components = seaHopperHolder.getComponentIndexes(appliedChokepoints);
+                if (closures.getComponentIndex() != null) {
+                    components.add(closures.getComponentIndex());
+                }
+                // Closures alone use their prebuilt weighting; further exclusions wrap the combined filter
+                Weighting scenarioWeighting;
+                if (!requestedChokepoints.isEmpty() || avoidFilter != null) {
+                    scenarioWeighting = new ExclusionWeighting(weighting, edgeFilter);
+                } else {
+                    scenarioWeighting = closures.hasClosures() ? closures.getWeighting() : weighting;
+                }
+                boolean scenarioChEnabled = chEnabled && scenarioWeighting == weighting;
+                for (int rowIdx = 0; rowIdx < sources.size(); rowIdx++) {
+                    tasks.add(createRowTask(rowIdx, sources, targets, snaps, scenarioChEnabled, chGraph,
+                            scenarioWeighting, flexAlgoOpts, chHints, fallbackFactory, baseGraph, components, tableRows,
+                            excludedBits, distances, times, transits));
+                }
+                SeaScenarioRun run = new SeaScenarioRun(scenario.getId(), appliedChokepoints, failures, distances,
+                        times, transits);
+                runsByExclusions.put(exclusionKey, run);
+                runs.add(run);
+            }
+            snapLatency.update(snapNanos, TimeUnit.NANOSECONDS);
+
+            // Rows of all scenarios share one invocation, so scenarios are computed in parallel
             List<Future<Void>> futures = executorService.invokeAll(tasks);
             for (Future<Void> future : futures) {
                 future.get();
             }
 
-            routeThroughput.mark((long) sources.size() * targets.size());
+            routeThroughput.mark((long) sources.size() * targets.size() * runsByExclusions.size());
             
             // Build response with port snapping metadata
             List<PortSnapResult> validPortSnaps = portSnaps.stream()
                     .filter(Objects::nonNull)
                     .collect(Collectors.toList());
             
+            List<String> chokepointIds = request.isIncludeChokepointTransits() ? chokepointOrdinals.getIds() : null;
+            if (request.hasScenarios() || !vesselClasses.isEmpty()) {
+                List<ScenarioMatrix> matrices = new ArrayList<>(runs.size());
+                for (int i = 0; i < runs.size(); i++) {
+                    SeaScenarioRun run = runs.get(i);
+                    long[][] times = vesselClasses.isEmpty()
+                            ? run.times()
+                            : toVesselClassTimes(run.distances(), vesselClasses.get(i));
+                    matrices.add(new ScenarioMatrix(run.id(), run.appliedChokepoints(), run.distances(), times,
+                            run.failures(), run.transits()));
+                }
+                return Response.ok(MatrixResponse.forScenarios(snapFailures, validPortSnaps, matrices,
+                        chokepointIds)).build();
+            }
+            SeaScenarioRun run = runs.get(0);
             MatrixResponse response = new MatrixResponse(
-                    distances, 
-                    times, 
-                    failures, 
+                    run.distances(), 
+                    run.times(), 
+                    run.failures(), 
                     RoutingMode.SEA,
-                    appliedChokepoints,
-                    validPortSnaps
+                    run.appliedChokepoints(),
+                    validPortSnaps,
+                    chokepointIds,
+                    run.transits()
             );
             return Response.ok(response).build();
             
@@ -358,6 +570,110 @@ public class MatrixResource {
         }
     }
 
+    /**
+     * Chokepoints of a scenario that are known to the registry and map to graph nodes. Unknown IDs are
+     * dropped, so they reach neither the response nor the snap and table lookups.
+     */
+    private List<String> resolveAppliedChokepoints(List<String> excludedChokepoints) {
+        if (excludedChokepoints.isEmpty() || chokepointRegistry == null) {
+            return List.of();
+        }
+        List<String> known = excludedChokepoints.stream()
+                .filter(chokepointRegistry::isValidChokepoint)
+                .distinct()
+                .collect(Collectors.toList());
+        if (chokepointRegistry.getExcludedNodeIds(known).isEmpty()) {
+            return List.of();
+        }
+        return List.copyOf(known);
+    }
+
+    /**
+     * @return Indices of the points the land mask places inland
+     */
+    private BitSet findInlandPoints(List<List<Double>> points) {
+        BitSet inland = new BitSet(points.size());
+        for (int i = 0; i < points.size(); i++) {
+            List<Double> point = points.get(i);
+            if (landMask.isInland(point.get(0), point.get(1))) {
+                inland.set(i);
+            }
+        }
+        return inland;
+    }
+
+    /**
+     * Chokepoints excluded for a scenario: the globally closed ones followed by the scenario's own.
+     */
+    private static List<String> withClosures(List<String> requestedChokepoints, ChokepointClosures.State closures) {
+        if (!closures.hasClosures()) {
+            return requestedChokepoints;
+        }
+        Set<String> applied = new LinkedHashSet<>(closures.getClosedChokepoints());
+        applied.addAll(requestedChokepoints);
+        return List.copyOf(applied);
+    }
+
+    private static EdgeFilter both(EdgeFilter first, EdgeFilter second) {
+        if (first == EdgeFilter.ALL_EDGES) {
+            return second;
+        }
+        return edge -> first.accept(edge) && second.accept(edge);
+    }
+
+    /**
+     * Exclusions of a vessel class: the request's exclusions plus the chokepoints whose draft limit the
+     * class exceeds (restricted chokepoints missing from the sea graph are ignored).
+     */
+    private List<String> resolveVesselClassExclusions(VesselClass vesselClass, List<String> excludedChokepoints) {
+        Set<String> exclusions = new LinkedHashSet<>(excludedChokepoints);
+        for (String chokepointId : vesselClassRegistry.getRestrictedChokepoints(vesselClass)) {
+            if (chokepointRegistry != null && chokepointRegistry.isValidChokepoint(chokepointId)) {
+                exclusions.add(chokepointId);
+            }
+        }
+        return List.copyOf(exclusions);
+    }
+
+    /**
+     * Times at the service speed of a vessel class. The sea graph has a uniform speed, so the shortest
+     * route is the same for every class and its time scales with the distance.
+     */
+    private static long[][] toVesselClassTimes(long[][] distances, VesselClass vesselClass) {
+        long[][] times = new long[distances.length][];
+        for (int row = 0; row < distances.length; row++) {
+            times[row] = new long[distances[row].length];
+            for (int col = 0; col < distances[row].length; col++) {
+                times[row][col] = vesselClass.timeMillis(distances[row][col]);
+            }
+        }
+        return times;
+    }
+
+    /**
+     * Map each point to its row in the port distance table. Only points whose Stage 2 snap is the port's
+     * access node qualify, since the table holds distances between access nodes. A port whose access node
+     * was rejected by the edge filter falls back to the location index and is routed instead.
+     *
+     * @return Table row per point ({@link PortDistanceTable#NO_ROW} if not in the table), or null if the
+     *         table is not loaded
+     */
+    private int[] resolveTableRows(PortSnapBatch portBatch, int[] portNodes, Snap[] snaps) {
+        if (portDistanceTable.size() == 0) {
+            return null;
+        }
+        int[] tableRows = new int[portNodes.length];
+        for (int i = 0; i < portNodes.length; i++) {
+            boolean onAccessNode = portNodes[i] != PortNodeTable.NO_NODE && snaps[i].isValid()
+                    && snaps[i].getSnappedPosition() == Snap.Position.TOWER
+                    && snaps[i].getClosestNode() == portNodes[i];
+            tableRows[i] = onAccessNode
+                    ? portDistanceTable.getRow(portBatch.getPortIndex(i))
+                    : PortDistanceTable.NO_ROW;
+        }
+        return tableRows;
+    }
+
     private Callable<Void> createRowTask(
             int rowIdx,
             List<Integer> sources,
@@ -370,8 +686,12 @@ public class MatrixResource {
             PMap chHints,
             RoutingAlgorithmFactory fallbackFactory,
             BaseGraph baseGraph,
+            List<ComponentIndex> components,
+            int[] tableRows,
+            long excludedBits,
             long[][] distances,
-            long[][] times) {
+            long[][] times,
+            long[][] transits) {
 
         return () -> {
             int sourcePointIndex = sources.get(rowIdx);
@@ -380,6 +700,12 @@ public class MatrixResource {
                 // already flagged as failure
                 return null;
             }
+            int sourceTableRow = tableRows != null ? tableRows[sourcePointIndex] : PortDistanceTable.NO_ROW;
+            if (sourceTableRow != PortDistanceTable.NO_ROW && fillRowFromTable(rowIdx, sourceTableRow, targets,
+                    snaps, tableRows, excludedBits, distances, times, transits)) {
+                // Every target is answered by the table, no query graph needed
+                return null;
+            }
 
             RowSnapContext snapContext = buildRowSnapContext(sourcePointIndex, targets, snaps);
             QueryGraph queryGraph = QueryGraph.create(baseGraph, snapContext.queryGraphSnaps());
@@ -396,7 +722,8 @@ public class MatrixResource {
             }
 
             routeRow(algoSupplier, snapContext.sourceSnap(), snapContext.targetSnapsByIndex(), rowIdx, targets,
-                    distances, times, snaps);
+                    distances, times, transits, snaps, sourceSnap.getClosestNode(), components, sourceTableRow, tableRows,
+                    excludedBits);
             return null;
         };
     }
@@ -419,7 +746,10 @@ public class MatrixResource {
     }
 
     private void routeRow(Supplier<RoutingAlgorithm> algoSupplier, Snap sourceSnap, Map<Integer, Snap> targetSnapsByIndex,
-                          int rowIdx, List<Integer> targets, long[][] distances, long[][] times, Snap[] originalSnaps) {
+                          int rowIdx, List<Integer> targets, long[][] distances, long[][] times, long[][] transits,
+                          Snap[] originalSnaps,
+                          int sourceBaseNode, List<ComponentIndex> components,
+                          int sourceTableRow, int[] tableRows, long excludedBits) {
         int sourceNode = sourceSnap.getClosestNode();
         for (int colIdx = 0; colIdx < targets.size(); colIdx++) {
             int targetPointIndex = targets.get(colIdx);
@@ -433,24 +763,96 @@ public class MatrixResource {
                 markUnreachable(rowIdx, colIdx, distances, times);
                 continue;
             }
+            if (isAnsweredByTable(sourceTableRow, tableRows, targetPointIndex, excludedBits)) {
+                lookupCell(rowIdx, colIdx, sourceTableRow, tableRows[targetPointIndex], distances, times, transits);
+                continue;
+            }
+            // Precomputed components answer disconnected pairs without a search
+            if (!isConnected(components, sourceBaseNode, originalTarget.getClosestNode())) {
+                markUnreachable(rowIdx, colIdx, distances, times);
+                continue;
+            }
             int targetNode = routedTarget.getClosestNode();
             try {
                 RoutingAlgorithm algo = algoSupplier.get();
-                PathResult result = calcPath(algo, sourceNode, targetNode);
+                PathResult result = calcPath(algo, sourceNode, targetNode, transits != null);
                 distances[rowIdx][colIdx] = result.distance;
                 times[rowIdx][colIdx] = result.time;
+                if (transits != null) {
+                    transits[rowIdx][colIdx] = result.chokepoints;
+                }
             } catch (ConnectionNotFoundException e) {
                 markUnreachable(rowIdx, colIdx, distances, times);
             }
         }
     }
 
-    private PathResult calcPath(RoutingAlgorithm algo, int sourceNode, int targetNode) {
+    /**
+     * Answer a row from the port distance table if the table answers every valid target.
+     *
+     * @return true if the row is complete, false if some targets still need a search
+     */
+    private boolean fillRowFromTable(int rowIdx, int sourceTableRow, List<Integer> targets, Snap[] snaps,
+                                     int[] tableRows, long excludedBits, long[][] distances, long[][] times,
+                                     long[][] transits) {
+        for (int targetPointIndex : targets) {
+            if (snaps[targetPointIndex].isValid()
+                    && !isAnsweredByTable(sourceTableRow, tableRows, targetPointIndex, excludedBits)) {
+                return false;
+            }
+        }
+        for (int colIdx = 0; colIdx < targets.size(); colIdx++) {
+            int targetPointIndex = targets.get(colIdx);
+            if (snaps[targetPointIndex].isValid()) {
+                lookupCell(rowIdx, colIdx, sourceTableRow, tableRows[targetPointIndex], distances, times, transits);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * A cell is answered by the table if both ends are table ports and, when chokepoints are excluded,
+     * its baseline route passes through none of them (excluding unused chokepoints cannot change it).
+     */
+    private boolean isAnsweredByTable(int sourceTableRow, int[] tableRows, int targetPointIndex, long excludedBits) {
+        if (sourceTableRow == PortDistanceTable.NO_ROW || tableRows[targetPointIndex] == PortDistanceTable.NO_ROW) {
+            return false;
+        }
+        return portDistanceTable.isUnaffected(sourceTableRow, tableRows[targetPointIndex], excludedBits);
+    }
+
+    private void lookupCell(int rowIdx, int colIdx, int sourceTableRow, int targetTableRow,
+                            long[][] distances, long[][] times, long[][] transits) {
+        distances[rowIdx][colIdx] = portDistanceTable.getDistance(sourceTableRow, targetTableRow);
+        times[rowIdx][colIdx] = portDistanceTable.getTime(sourceTableRow, targetTableRow);
+        if (transits != null) {
+            // The table may have been built against another chokepoint registry
+            transits[rowIdx][colIdx] = chokepointOrdinals.translate(
+                    portDistanceTable.getChokepointMask(sourceTableRow, targetTableRow),
+                    portDistanceTable.getChokepointIds());
+        }
+    }
+
+    private static boolean isConnected(List<ComponentIndex> components, int sourceNode, int targetNode) {
+        for (ComponentIndex component : components) {
+            if (!component.isConnected(sourceNode, targetNode)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @param withChokepoints Whether to collect the chokepoints of the extracted path: its nodes are checked
+     *                        against the node → chokepoint ordinal array (virtual nodes have none)
+     */
+    private PathResult calcPath(RoutingAlgorithm algo, int sourceNode, int targetNode, boolean withChokepoints) {
         com.graphhopper.routing.Path path = algo.calcPath(sourceNode, targetNode);
         if (!path.isFound()) {
             return PathResult.unreachable();
         }
-        return PathResult.of(Math.round(path.getDistance()), path.getTime());
+        long chokepoints = withChokepoints ? chokepointOrdinals.maskOf(path.calcNodes()) : 0;
+        return PathResult.of(Math.round(path.getDistance()), path.getTime(), chokepoints);
     }
 
     private static long[][] initializeMatrix(int rows, int cols) {
@@ -474,9 +876,13 @@ public class MatrixResource {
         return hints;
     }
 
-    private AlgorithmOptions buildAlgorithmOptions(Profile profile, com.graphhopper.routing.RouterConfig routerConfig) {
+    /**
+     * @param lmEnabled Whether the fallback factory uses landmarks, which only support the A* algorithms
+     */
+    private AlgorithmOptions buildAlgorithmOptions(Profile profile, com.graphhopper.routing.RouterConfig routerConfig,
+                                                   boolean lmEnabled) {
         AlgorithmOptions options = new AlgorithmOptions();
-        options.setAlgorithm(Parameters.Algorithms.DIJKSTRA_BI);
+        options.setAlgorithm(lmEnabled ? Parameters.Algorithms.ASTAR_BI : Parameters.Algorithms.DIJKSTRA_BI);
         options.setTraversalMode(profile.hasTurnCosts() ? TraversalMode.EDGE_BASED : TraversalMode.NODE_BASED);
         options.setMaxVisitedNodes(routerConfig.getMaxVisitedNodes());
         options.setTimeoutMillis(routerConfig.getTimeoutMillis());
@@ -521,36 +927,146 @@ public class MatrixResource {
         }
     }
 
-    private static Snap[] snapPoints(List<List<Double>> points, LocationIndex locationIndex) {
-        Snap[] snaps = new Snap[points.size()];
+    private static double[] toCoordinateArray(List<List<Double>> points) {
+        double[] coordinates = new double[points.size() * 2];
         for (int i = 0; i < points.size(); i++) {
+            List<Double> coord = points.get(i);
+            coordinates[2 * i] = coord.get(0);
+            coordinates[2 * i + 1] = coord.get(1);
+        }
+        return coordinates;
+    }
+
+    /**
+     * Snap road points, splitting them into chunks of {@value #SNAP_CHUNK_SIZE} on the matrix executor.
+     * The location index is read-only after load, and each task writes only its own slice of the array.
+     * Small requests are snapped on the request thread, where task overhead would dominate.
+     */
+    private Snap[] snapPoints(List<List<Double>> points, LocationIndex locationIndex, BaseGraph baseGraph)
+            throws InterruptedException, ExecutionException {
+        Snap[] snaps = new Snap[points.size()];
+        if (points.size() <= SNAP_CHUNK_SIZE) {
+            snapRange(points, 0, points.size(), locationIndex, baseGraph, snaps);
+            return snaps;
+        }
+        
+        List<Callable<Void>> tasks = new ArrayList<>((points.size() + SNAP_CHUNK_SIZE - 1) / SNAP_CHUNK_SIZE);
+        for (int start = 0; start < points.size(); start += SNAP_CHUNK_SIZE) {
+            final int from = start;
+            final int to = Math.min(start + SNAP_CHUNK_SIZE, points.size());
+            tasks.add(() -> {
+                snapRange(points, from, to, locationIndex, baseGraph, snaps);
+                return null;
+            });
+        }
+        for (Future<Void> future : executorService.invokeAll(tasks)) {
+            future.get();
+        }
+        return snaps;
+    }
+    
+    private void snapRange(List<List<Double>> points, int from, int to, LocationIndex locationIndex,
+                           BaseGraph baseGraph, Snap[] snaps) {
+        for (int i = from; i < to; i++) {
             List<Double> coord = points.get(i);
             double lat = coord.get(0);
             double lon = coord.get(1);
-            snaps[i] = locationIndex.findClosest(lat, lon, EdgeFilter.ALL_EDGES);
+            Snap snap = snapCache.getGraphSnap(ROAD_SNAP_ENGINE, baseGraph, lat, lon);
+            if (snap == null) {
+                snap = locationIndex.findClosest(lat, lon, EdgeFilter.ALL_EDGES);
+                snapCache.putGraphSnap(ROAD_SNAP_ENGINE, baseGraph, lat, lon, snap);
+            }
+            snaps[i] = snap;
         }
-        return snaps;
+    }
+    
+    /**
+     * Stage 1 port snapping through the snap cache; only cache misses are passed to the batch snapper.
+     * Cache hits get the distance from their own coordinate to the cached nearest port.
+     */
+    private PortSnapBatch snapPorts(double[] coordinates, BitSet sourceMask)
+            throws InterruptedException, ExecutionException {
+        if (!snapCache.isEnabled()) {
+            return portSnapper.snapBatch(coordinates, sourceMask, executorService);
+        }
+        int pointCount = coordinates.length / 2;
+        int[] portIndices = new int[pointCount];
+        int[] nearestPortIndices = new int[pointCount];
+        double[] snapDistancesKm = new double[pointCount];
+        int[] missIndices = new int[pointCount];
+        int missCount = 0;
+        
+        for (int i = 0; i < pointCount; i++) {
+            SnapCache.PortSnapEntry entry = snapCache.getPortSnap(
+                    SEA_PORT_SNAP_ENGINE, portSnapper, coordinates[2 * i], coordinates[2 * i + 1]);
+            if (entry == null) {
+                missIndices[missCount++] = i;
+            } else {
+                portIndices[i] = entry.portIndex();
+                nearestPortIndices[i] = entry.nearestPortIndex();
+                if (entry.nearestPortIndex() >= 0) {
+                    Port nearest = portSnapper.getPort(entry.nearestPortIndex());
+                    snapDistancesKm[i] = UnlocodePortSnapper.haversineDistanceKm(
+                            coordinates[2 * i], coordinates[2 * i + 1], nearest.getLat(), nearest.getLon());
+                } else {
+                    snapDistancesKm[i] = Double.NaN;
+                }
+            }
+        }
+        
+        if (missCount > 0) {
+            double[] missCoordinates = new double[missCount * 2];
+            for (int m = 0; m < missCount; m++) {
+                missCoordinates[2 * m] = coordinates[2 * missIndices[m]];
+                missCoordinates[2 * m + 1] = coordinates[2 * missIndices[m] + 1];
+            }
+            PortSnapBatch missBatch = portSnapper.snapBatch(missCoordinates, null, executorService);
+            for (int m = 0; m < missCount; m++) {
+                int i = missIndices[m];
+                portIndices[i] = missBatch.getPortIndex(m);
+                nearestPortIndices[i] = missBatch.getNearestPortIndex(m);
+                snapDistancesKm[i] = missBatch.getSnapDistanceKm(m);
+                snapCache.putPortSnap(SEA_PORT_SNAP_ENGINE, portSnapper, coordinates[2 * i], coordinates[2 * i + 1],
+                        new SnapCache.PortSnapEntry(portIndices[i], nearestPortIndices[i]));
+            }
+        }
+        return new PortSnapBatch(portSnapper, coordinates, sourceMask, portIndices, nearestPortIndices, snapDistancesKm);
     }
     
     /**
      * Snap points using a custom edge filter (for chokepoint exclusion in sea routing).
+     * Points with a port access node ({@code portNodes[i] >= 0}) are snapped onto that node directly.
+     * A null {@code snapEngine} bypasses the snap cache.
      */
-    private static Snap[] snapPointsWithFilter(List<GHPoint> points, LocationIndex locationIndex, 
-                                               EdgeFilter edgeFilter) {
+    private Snap[] snapPointsWithFilter(List<GHPoint> points, int[] portNodes, LocationIndex locationIndex,
+                                        EdgeFilter edgeFilter, BaseGraph baseGraph, String snapEngine) {
         Snap[] snaps = new Snap[points.size()];
         for (int i = 0; i < points.size(); i++) {
             GHPoint point = points.get(i);
             if (point == null) {
                 snaps[i] = new Snap(0, 0); // invalid snap placeholder
-            } else {
-                // For sea routing with 5° grid (~555km spacing), use a large query radius
-                // The default radius is too small, so we explicitly search within 1000km
-                Snap snap = locationIndex.findClosest(point.getLat(), point.getLon(), edgeFilter);
-                // If the default search didn't work, the snap will be invalid
-                // GraphHopper's LocationIndexTree doesn't have a distance parameter in findClosest
-                // so we rely on setMaxRegionSearch() set during initialization
-                snaps[i] = snap;
+                continue;
             }
+            if (portNodes[i] != PortNodeTable.NO_NODE) {
+                Snap nodeSnap = SeaNodeSnapper.towerSnap(baseGraph, portNodes[i], edgeFilter,
+                        point.getLat(), point.getLon());
+                if (nodeSnap.isValid()) {
+                    snaps[i] = nodeSnap;
+                    continue;
+                }
+            }
+            Snap snap = snapEngine != null
+                    ? snapCache.getGraphSnap(snapEngine, baseGraph, point.getLat(), point.getLon())
+                    : null;
+            if (snap == null) {
+                // GraphHopper's LocationIndexTree doesn't have a distance parameter in findClosest,
+                // so we rely on setMaxRegionSearch() set during initialization for the coarse sea grid
+                snap = locationIndex.findClosest(point.getLat(), point.getLon(), edgeFilter);
+                if (snapEngine != null) {
+                    snapCache.putGraphSnap(snapEngine, baseGraph, point.getLat(), point.getLon(), snap);
+                }
+            }
+            snaps[i] = snap;
         }
         return snaps;
     }
@@ -597,13 +1113,17 @@ public class MatrixResource {
     private record RowSnapContext(Snap sourceSnap, List<Snap> queryGraphSnaps, Map<Integer, Snap> targetSnapsByIndex) {
     }
 
-    private record PathResult(long distance, long time) {
+    private record SeaScenarioRun(String id, List<String> appliedChokepoints, List<Integer> failures,
+                                  long[][] distances, long[][] times, long[][] transits) {
+    }
+
+    private record PathResult(long distance, long time, long chokepoints) {
         static PathResult unreachable() {
-            return new PathResult(-1, -1);
+            return new PathResult(-1, -1, 0);
         }
 
-        static PathResult of(long distance, long time) {
-            return new PathResult(distance, time);
+        static PathResult of(long distance, long time, long chokepoints) {
+            return new PathResult(distance, time, chokepoints);
         }
     }
 }
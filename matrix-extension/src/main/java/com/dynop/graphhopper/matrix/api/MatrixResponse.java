@@ -16,6 +16,10 @@ import java.util.List;
  *   <li>{@code port_snaps}: Port snapping results for each input point</li>
  *   <li>{@code excluded_chokepoints}: Chokepoints that were excluded from routing</li>
  *   <li>{@code mode}: The routing mode used (road or sea)</li>
+ *   <li>{@code scenarios}: One matrix per requested closure scenario; the top-level matrices are then
+ *       omitted and {@code failures} lists the points without a port</li>
+ *   <li>{@code chokepoint_transits}: Bitmask per cell of the chokepoints its route passes through, where
+ *       bit {@code i} stands for {@code chokepoint_ids[i]}; 0 for unreachable cells</li>
  * </ul>
  */
 @JsonInclude(JsonInclude.Include.NON_NULL)
@@ -27,6 +31,9 @@ public final class MatrixResponse {
     private final RoutingMode mode;
     private final List<String> excludedChokepoints;
     private final List<PortSnapResult> portSnaps;
+    private final List<ScenarioMatrix> scenarios;
+    private final List<String> chokepointIds;
+    private final long[][] chokepointTransits;
     private final String error;
     private final String errorCode;
 
@@ -41,6 +48,9 @@ public final class MatrixResponse {
             @JsonProperty("mode") RoutingMode mode,
             @JsonProperty("excluded_chokepoints") List<String> excludedChokepoints,
             @JsonProperty("port_snaps") List<PortSnapResult> portSnaps,
+            @JsonProperty("scenarios") List<ScenarioMatrix> scenarios,
+            @JsonProperty("chokepoint_ids") List<String> chokepointIds,
+            @JsonProperty("chokepoint_transits") long[][] chokepointTransits,
             @JsonProperty("error") String error,
             @JsonProperty("errorCode") String errorCode) {
         this.distances = distances;
@@ -49,6 +59,9 @@ public final class MatrixResponse {
         this.mode = mode;
         this.excludedChokepoints = excludedChokepoints == null ? null : Collections.unmodifiableList(excludedChokepoints);
         this.portSnaps = portSnaps == null ? null : Collections.unmodifiableList(portSnaps);
+        this.scenarios = scenarios == null ? null : Collections.unmodifiableList(scenarios);
+        this.chokepointIds = chokepointIds == null ? null : Collections.unmodifiableList(chokepointIds);
+        this.chokepointTransits = chokepointTransits;
         this.error = error;
         this.errorCode = errorCode;
     }
@@ -57,14 +70,14 @@ public final class MatrixResponse {
      * Backward-compatible constructor for road routing responses.
      */
     public MatrixResponse(long[][] distances, long[][] times, List<Integer> failures) {
-        this(distances, times, failures, RoutingMode.ROAD, null, null, null, null);
+        this(distances, times, failures, RoutingMode.ROAD, null, null, null, null, null, null, null);
     }
     
     /**
      * Constructor for routing responses with mode.
      */
     public MatrixResponse(long[][] distances, long[][] times, List<Integer> failures, RoutingMode mode) {
-        this(distances, times, failures, mode, null, null, null, null);
+        this(distances, times, failures, mode, null, null, null, null, null, null, null);
     }
     
     /**
@@ -72,21 +85,50 @@ public final class MatrixResponse {
      */
     public MatrixResponse(long[][] distances, long[][] times, List<Integer> failures,
                           RoutingMode mode, List<String> excludedChokepoints, List<PortSnapResult> portSnaps) {
-        this(distances, times, failures, mode, excludedChokepoints, portSnaps, null, null);
+        this(distances, times, failures, mode, excludedChokepoints, portSnaps, null, null, null, null, null);
+    }
+    
+    /**
+     * Constructor for sea routing responses with chokepoint transit bitmasks.
+     */
+    public MatrixResponse(long[][] distances, long[][] times, List<Integer> failures,
+                          RoutingMode mode, List<String> excludedChokepoints, List<PortSnapResult> portSnaps,
+                          List<String> chokepointIds, long[][] chokepointTransits) {
+        this(distances, times, failures, mode, excludedChokepoints, portSnaps, null, chokepointIds,
+            chokepointTransits, null, null);
+    }
+    
+    /**
+     * Create a sea routing response with one matrix per closure scenario.
+     */
+    public static MatrixResponse forScenarios(List<Integer> failures, List<PortSnapResult> portSnaps,
+                                              List<ScenarioMatrix> scenarios) {
+        return forScenarios(failures, portSnaps, scenarios, null);
+    }
+    
+    /**
+     * Create a sea routing response with one matrix per closure scenario.
+     * 
+     * @param chokepointIds Bit order of the scenarios' chokepoint transits, or null if not requested
+     */
+    public static MatrixResponse forScenarios(List<Integer> failures, List<PortSnapResult> portSnaps,
+                                              List<ScenarioMatrix> scenarios, List<String> chokepointIds) {
+        return new MatrixResponse(null, null, failures, RoutingMode.SEA, null, portSnaps, scenarios, chokepointIds,
+            null, null, null);
     }
     
     /**
      * Create an error response.
      */
     public static MatrixResponse failure(String errorCode, String message) {
-        return new MatrixResponse(null, null, null, null, null, null, message, errorCode);
+        return new MatrixResponse(null, null, null, null, null, null, null, null, null, message, errorCode);
     }
     
     /**
      * Create an error response with a simple message.
      */
     public static MatrixResponse failure(String message) {
-        return new MatrixResponse(null, null, null, null, null, null, message, "ERROR");
+        return new MatrixResponse(null, null, null, null, null, null, null, null, null, message, "ERROR");
     }
 
     public long[][] getDistances() {
@@ -125,6 +167,30 @@ public final class MatrixResponse {
         return portSnaps;
     }
     
+    /**
+     * @return Per-scenario matrices (multi-scenario sea requests only)
+     */
+    @JsonProperty("scenarios")
+    public List<ScenarioMatrix> getScenarios() {
+        return scenarios;
+    }
+    
+    /**
+     * @return Chokepoint IDs in the bit order of the transit bitmasks (null unless requested)
+     */
+    @JsonProperty("chokepoint_ids")
+    public List<String> getChokepointIds() {
+        return chokepointIds;
+    }
+    
+    /**
+     * @return Chokepoint bitmask per cell (single-matrix sea requests with transits only)
+     */
+    @JsonProperty("chokepoint_transits")
+    public long[][] getChokepointTransits() {
+        return chokepointTransits;
+    }
+    
     /**
      * @return Error message if the request failed
      */
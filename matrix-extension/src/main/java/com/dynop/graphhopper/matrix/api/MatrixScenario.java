@@ -0,0 +1,61 @@
+package com.dynop.graphhopper.matrix.api;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Immutable closure scenario of a multi-scenario sea matrix request.
+ *
+ * <p>Example: {@code {"id": "no_suez", "excluded_chokepoints": ["SUEZ"]}}. A scenario without
+ * exclusions is the baseline.
+ */
+public final class MatrixScenario {
+
+    private final String id;
+    private final List<String> excludedChokepoints;
+
+    @JsonCreator
+    public MatrixScenario(
+            @JsonProperty(value = "id", required = true) String id,
+            @JsonProperty("excluded_chokepoints") List<String> excludedChokepoints) {
+        if (id == null || id.isBlank()) {
+            throw new IllegalArgumentException("scenario id must not be blank");
+        }
+        this.id = id;
+        this.excludedChokepoints = excludedChokepoints != null
+            ? List.copyOf(excludedChokepoints)
+            : List.of();
+    }
+
+    /**
+     * @return Scenario identifier, unique within the request
+     */
+    @JsonProperty("id")
+    public String getId() {
+        return id;
+    }
+
+    /**
+     * @return Chokepoint IDs closed in this scenario (empty for the baseline)
+     */
+    @JsonProperty("excluded_chokepoints")
+    public List<String> getExcludedChokepoints() {
+        return excludedChokepoints;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof MatrixScenario)) return false;
+        MatrixScenario that = (MatrixScenario) o;
+        return id.equals(that.id) && excludedChokepoints.equals(that.excludedChokepoints);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(id, excludedChokepoints);
+    }
+}
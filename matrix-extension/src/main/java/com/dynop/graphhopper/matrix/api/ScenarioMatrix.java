@@ -0,0 +1,83 @@
+package com.dynop.graphhopper.matrix.api;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Immutable DTO holding the matrix of one scenario in a multi-scenario sea response.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public final class ScenarioMatrix {
+
+    private final String id;
+    private final List<String> excludedChokepoints;
+    private final long[][] distances;
+    private final long[][] times;
+    private final List<Integer> failures;
+    private final long[][] chokepointTransits;
+
+    public ScenarioMatrix(String id, List<String> excludedChokepoints, long[][] distances, long[][] times,
+                          List<Integer> failures) {
+        this(id, excludedChokepoints, distances, times, failures, null);
+    }
+
+    @JsonCreator
+    public ScenarioMatrix(
+            @JsonProperty("id") String id,
+            @JsonProperty("excluded_chokepoints") List<String> excludedChokepoints,
+            @JsonProperty("distances") long[][] distances,
+            @JsonProperty("times") long[][] times,
+            @JsonProperty("failures") List<Integer> failures,
+            @JsonProperty("chokepoint_transits") long[][] chokepointTransits) {
+        this.id = id;
+        this.excludedChokepoints = excludedChokepoints == null ? List.of() : Collections.unmodifiableList(excludedChokepoints);
+        this.distances = distances;
+        this.times = times;
+        this.failures = failures == null ? List.of() : Collections.unmodifiableList(failures);
+        this.chokepointTransits = chokepointTransits;
+    }
+
+    /**
+     * @return Scenario identifier from the request
+     */
+    @JsonProperty("id")
+    public String getId() {
+        return id;
+    }
+
+    /**
+     * @return Chokepoints that were excluded in this scenario
+     */
+    @JsonProperty("excluded_chokepoints")
+    public List<String> getExcludedChokepoints() {
+        return excludedChokepoints;
+    }
+
+    public long[][] getDistances() {
+        return distances;
+    }
+
+    public long[][] getTimes() {
+        return times;
+    }
+
+    /**
+     * @return Point indices that could not be snapped in this scenario
+     */
+    public List<Integer> getFailures() {
+        return failures;
+    }
+
+    /**
+     * @return Chokepoint bitmask per cell, bits in the order of the response's {@code chokepoint_ids}
+     *         (null unless requested)
+     */
+    @JsonProperty("chokepoint_transits")
+    public long[][] getChokepointTransits() {
+        return chokepointTransits;
+    }
+}
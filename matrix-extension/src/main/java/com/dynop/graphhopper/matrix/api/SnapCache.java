@@ -0,0 +1,323 @@
+package com.dynop.graphhopper.matrix.api;
+
+import com.graphhopper.storage.BaseGraph;
+import com.graphhopper.storage.index.Snap;
+import com.graphhopper.util.DistancePlaneProjection;
+import com.graphhopper.util.EdgeIteratorState;
+import com.graphhopper.util.shapes.GHPoint3D;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Concurrent, bounded cache of snapping results keyed by (engine, quantized coordinate).
+ *
+ * <p>Matrix clients send the same warehouse and customer coordinates over and over. Instead of
+ * re-running {@code LocationIndex.findClosest} or the UN/LOCODE port scan for each request, the
+ * resource stores compact records here and materializes fresh {@link Snap} objects from them.
+ *
+ * <p>Two kinds of entries are kept:
+ * <ul>
+ *   <li>{@link GraphSnapEntry}: snapped edge, node and position on a graph (road snaps and sea Stage 2)</li>
+ *   <li>{@link PortSnapEntry}: nearest UN/LOCODE port (sea Stage 1)</li>
+ * </ul>
+ * Entries hold no distances: every coordinate of a quantum shares the entry, so the snap distance is
+ * recomputed for the queried coordinate on each hit.
+ *
+ * <p>Coordinates are quantized to {@value #QUANTUM_DEGREES}° (~1 m). Each engine slot remembers the
+ * graph (or port snapper) it was filled from. A lookup with a different instance misses, and the next
+ * store replaces the slot with an empty one for the new instance, so a graph reload invalidates stale
+ * entries automatically. {@link #invalidateAll()} clears everything.
+ *
+ * <p>Bounding uses two generations per engine: when the current generation exceeds the limit it
+ * becomes the previous one and a fresh generation is started. Hits in the previous generation are
+ * promoted into the current one, so frequently used coordinates survive rotations without any global
+ * locking. The number of engines is bounded by {@value #MAX_ENGINES}; storing into a new engine beyond
+ * that clears all engines first.
+ */
+public final class SnapCache {
+
+    /**
+     * Default maximum number of entries per engine generation.
+     */
+    public static final int DEFAULT_MAX_ENTRIES = 100_000;
+
+    /**
+     * Quantization step in degrees (~1.1 m of latitude).
+     */
+    static final double QUANTUM_DEGREES = 1e-5;
+
+    /**
+     * Maximum number of engine slots (engine keys include exclusion sets, so they are not a fixed set).
+     */
+    static final int MAX_ENGINES = 64;
+
+    private final int maxEntries;
+    private final Map<String, EngineSlot> engines = new ConcurrentHashMap<>();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    /**
+     * Creates a cache with {@link #DEFAULT_MAX_ENTRIES} entries per engine generation.
+     */
+    public SnapCache() {
+        this(DEFAULT_MAX_ENTRIES);
+    }
+
+    /**
+     * Creates a cache with the given bound.
+     *
+     * @param maxEntries Maximum entries per engine generation; 0 or less disables caching
+     */
+    public SnapCache(int maxEntries) {
+        this.maxEntries = maxEntries;
+    }
+
+    /**
+     * @return true if the cache stores entries at all
+     */
+    public boolean isEnabled() {
+        return maxEntries > 0;
+    }
+
+    /**
+     * Look up a graph snap and materialize a new {@link Snap} for the given query coordinate.
+     *
+     * @param engine Engine key (e.g. "road" or "sea|SUEZ")
+     * @param graph  Graph the snap refers to; used to rebuild the closest edge and detect reloads
+     * @param lat    Query latitude
+     * @param lon    Query longitude
+     * @return Freshly materialized snap, or null on a cache miss
+     */
+    public Snap getGraphSnap(String engine, BaseGraph graph, double lat, double lon) {
+        Object entry = lookup(engine, graph, lat, lon);
+        return entry instanceof GraphSnapEntry graphEntry ? graphEntry.toSnap(lat, lon, graph) : null;
+    }
+
+    /**
+     * Store a graph snap computed by the location index.
+     *
+     * @param engine Engine key
+     * @param graph  Graph the snap refers to
+     * @param lat    Query latitude
+     * @param lon    Query longitude
+     * @param snap   Snap returned by the location index
+     */
+    public void putGraphSnap(String engine, BaseGraph graph, double lat, double lon, Snap snap) {
+        if (isEnabled()) {
+            store(engine, graph, lat, lon, GraphSnapEntry.of(snap));
+        }
+    }
+
+    /**
+     * Look up a Stage 1 port snap.
+     *
+     * @param engine Engine key (e.g. "sea")
+     * @param ports  Port data the entry was computed from (usually the port snapper)
+     * @param lat    Query latitude
+     * @param lon    Query longitude
+     * @return Cached entry, or null on a cache miss
+     */
+    public PortSnapEntry getPortSnap(String engine, Object ports, double lat, double lon) {
+        Object entry = lookup(engine, ports, lat, lon);
+        return entry instanceof PortSnapEntry portEntry ? portEntry : null;
+    }
+
+    /**
+     * Store a Stage 1 port snap.
+     *
+     * @param engine Engine key
+     * @param ports  Port data the entry was computed from
+     * @param lat    Query latitude
+     * @param lon    Query longitude
+     * @param entry  Port snap entry
+     */
+    public void putPortSnap(String engine, Object ports, double lat, double lon, PortSnapEntry entry) {
+        if (isEnabled()) {
+            store(engine, ports, lat, lon, entry);
+        }
+    }
+
+    /**
+     * Drop all cached entries, e.g. after a graph reload.
+     */
+    public void invalidateAll() {
+        engines.clear();
+    }
+
+    /**
+     * Drop all cached entries of one engine.
+     *
+     * @param engine Engine key
+     */
+    public void invalidate(String engine) {
+        engines.remove(engine);
+    }
+
+    /**
+     * @return Number of engine slots currently held
+     */
+    public int getEngineCount() {
+        return engines.size();
+    }
+
+    /**
+     * @return Number of entries held in all engines and generations
+     */
+    int size() {
+        int size = 0;
+        for (EngineSlot slot : engines.values()) {
+            size += slot.current.size() + slot.previous.size();
+        }
+        return size;
+    }
+
+    /**
+     * @return Number of cache hits since startup
+     */
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    /**
+     * @return Number of cache misses since startup
+     */
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    /**
+     * Pack a coordinate quantized to {@value #QUANTUM_DEGREES}° into a single long.
+     */
+    static long quantize(double lat, double lon) {
+        long latKey = Math.round((lat + 90.0) / QUANTUM_DEGREES);
+        long lonKey = Math.round((lon + 180.0) / QUANTUM_DEGREES);
+        return (latKey << 32) | (lonKey & 0xFFFF_FFFFL);
+    }
+
+    private Object lookup(String engine, Object source, double lat, double lon) {
+        if (!isEnabled()) {
+            return null;
+        }
+        EngineSlot slot = engines.get(engine);
+        Object entry = slot != null && slot.source == source ? slot.get(quantize(lat, lon)) : null;
+        if (entry == null) {
+            misses.increment();
+        } else {
+            hits.increment();
+        }
+        return entry;
+    }
+
+    private void store(String engine, Object source, double lat, double lon, Object entry) {
+        if (engines.size() >= MAX_ENGINES && !engines.containsKey(engine)) {
+            engines.clear();
+        }
+        EngineSlot slot = engines.compute(engine, (key, existing) -> existing != null && existing.source == source
+                ? existing : new EngineSlot(source, maxEntries));
+        slot.put(quantize(lat, lon), entry);
+    }
+
+    /**
+     * Two-generation entry store for one engine and one graph instance.
+     */
+    private static final class EngineSlot {
+        final Object source;
+        final int maxEntries;
+        volatile ConcurrentHashMap<Long, Object> current = new ConcurrentHashMap<>();
+        volatile ConcurrentHashMap<Long, Object> previous = new ConcurrentHashMap<>();
+
+        EngineSlot(Object source, int maxEntries) {
+            this.source = source;
+            this.maxEntries = maxEntries;
+        }
+
+        Object get(long key) {
+            Object entry = current.get(key);
+            if (entry == null) {
+                entry = previous.get(key);
+                if (entry != null) {
+                    // Promotions count against the bound like stores
+                    put(key, entry);
+                }
+            }
+            return entry;
+        }
+
+        void put(long key, Object entry) {
+            ConcurrentHashMap<Long, Object> generation = current;
+            generation.put(key, entry);
+            if (generation.size() > maxEntries) {
+                synchronized (this) {
+                    if (current == generation) {
+                        previous = generation;
+                        current = new ConcurrentHashMap<>();
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Compact record of a location index snap. Invalid snaps are cached too (closest node -1).
+     */
+    record GraphSnapEntry(int closestNode, int closestEdge, int adjNode, int wayIndex, byte position,
+                          double snappedLat, double snappedLon, double snappedEle) {
+
+        private static final Snap.Position[] POSITIONS = Snap.Position.values();
+
+        static GraphSnapEntry of(Snap snap) {
+            EdgeIteratorState edge = snap.getClosestEdge();
+            double snappedLat = Double.NaN;
+            double snappedLon = Double.NaN;
+            double snappedEle = Double.NaN;
+            try {
+                GHPoint3D snapped = snap.getSnappedPoint();
+                snappedLat = snapped.getLat();
+                snappedLon = snapped.getLon();
+                snappedEle = snapped.getEle();
+            } catch (IllegalStateException ignored) {
+                // snapped point not calculated (invalid snap); nothing to restore
+            }
+            Snap.Position position = snap.getSnappedPosition();
+            return new GraphSnapEntry(
+                snap.getClosestNode(),
+                edge != null ? edge.getEdge() : -1,
+                edge != null ? edge.getAdjNode() : -1,
+                snap.getWayIndex(),
+                (byte) (position != null ? position.ordinal() : -1),
+                snappedLat, snappedLon, snappedEle);
+        }
+
+        Snap toSnap(double lat, double lon, BaseGraph graph) {
+            Snap snap = new Snap(lat, lon);
+            if (closestNode < 0) {
+                return snap;
+            }
+            snap.setClosestNode(closestNode);
+            if (closestEdge >= 0) {
+                snap.setClosestEdge(graph.getEdgeIteratorState(closestEdge, adjNode));
+            }
+            snap.setWayIndex(wayIndex);
+            if (position >= 0) {
+                snap.setSnappedPosition(POSITIONS[position]);
+            }
+            if (!Double.isNaN(snappedLat)) {
+                // Same distance calculation as the location index
+                snap.setQueryDistance(DistancePlaneProjection.DIST_PLANE.calcDist(lat, lon, snappedLat, snappedLon));
+                snap.setSnappedPoint(new GHPoint3D(snappedLat, snappedLon, snappedEle));
+            }
+            return snap;
+        }
+    }
+
+    /**
+     * Compact record of a Stage 1 port snap.
+     *
+     * @param portIndex        Snapped port index, or -1 if the guardrail rejected the point
+     * @param nearestPortIndex Nearest port index regardless of the guardrail, or -1 if no ports exist
+     */
+    public record PortSnapEntry(int portIndex, int nearestPortIndex) {
+    }
+}
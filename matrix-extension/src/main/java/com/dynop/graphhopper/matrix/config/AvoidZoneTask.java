@@ -0,0 +1,64 @@
+package com.dynop.graphhopper.matrix.config;
+
+import com.dynop.graphhopper.matrix.sea.AvoidAreaMasks;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.dropwizard.servlets.tasks.PostBodyTask;
+
+import java.io.PrintWriter;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeSet;
+
+/**
+ * Admin task that registers named avoid areas for sea routing on the admin port.
+ *
+ * <ul>
+ *   <li>{@code POST /tasks/sea-avoid-zones?id=HRA_GULF_OF_ADEN} with a GeoJSON polygon body registers
+ *       (or replaces) the zone; its node mask is resolved once, here</li>
+ *   <li>{@code POST /tasks/sea-avoid-zones?id=HRA_GULF_OF_ADEN&action=remove} removes it</li>
+ *   <li>{@code POST /tasks/sea-avoid-zones} lists the registered zones</li>
+ * </ul>
+ *
+ * <p>Requests refer to registered zones via {@code avoid_zones}. Registrations are kept in memory only.
+ */
+public final class AvoidZoneTask extends PostBodyTask {
+
+    static final String NAME = "sea-avoid-zones";
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private final AvoidAreaMasks avoidAreaMasks;
+
+    public AvoidZoneTask(AvoidAreaMasks avoidAreaMasks) {
+        super(NAME);
+        this.avoidAreaMasks = Objects.requireNonNull(avoidAreaMasks, "avoidAreaMasks");
+    }
+
+    @Override
+    public void execute(Map<String, List<String>> parameters, String body, PrintWriter output)
+            throws JsonProcessingException {
+        String id = firstValue(parameters, "id");
+        if (id == null || id.isBlank()) {
+            output.println("Registered avoid zones: " + new TreeSet<>(avoidAreaMasks.getZoneIds()));
+            return;
+        }
+        if ("remove".equals(firstValue(parameters, "action"))) {
+            output.println(avoidAreaMasks.unregister(id)
+                    ? "Removed avoid zone " + id
+                    : "Avoid zone " + id + " is not registered");
+            return;
+        }
+        if (body == null || body.isBlank()) {
+            throw new IllegalArgumentException("GeoJSON polygon body required to register avoid zone " + id);
+        }
+        AvoidAreaMasks.Mask mask = avoidAreaMasks.register(id, AvoidAreaMasks.parseGeoJson(MAPPER.readTree(body)));
+        output.println("Registered avoid zone " + id + " with " + mask.getNodeCount() + " sea nodes");
+    }
+
+    private static String firstValue(Map<String, List<String>> parameters, String name) {
+        List<String> values = parameters.get(name);
+        return values == null || values.isEmpty() ? null : values.get(0);
+    }
+}
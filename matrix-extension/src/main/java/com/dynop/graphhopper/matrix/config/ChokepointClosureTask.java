@@ -0,0 +1,54 @@
+package com.dynop.graphhopper.matrix.config;
+
+import com.dynop.graphhopper.matrix.sea.ChokepointClosures;
+import io.dropwizard.servlets.tasks.Task;
+
+import java.io.PrintWriter;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Admin task that closes and reopens chokepoints for all sea requests on the admin port.
+ *
+ * <ul>
+ *   <li>{@code POST /tasks/sea-chokepoint-closures?id=SUEZ&action=close} closes the chokepoint</li>
+ *   <li>{@code POST /tasks/sea-chokepoint-closures?id=SUEZ&action=open} reopens it</li>
+ *   <li>{@code POST /tasks/sea-chokepoint-closures} lists the closed chokepoints</li>
+ * </ul>
+ *
+ * <p>The task returns as soon as the update is scheduled; requests switch to the new state once it is
+ * built. Closures are kept in memory only.
+ */
+public final class ChokepointClosureTask extends Task {
+
+    static final String NAME = "sea-chokepoint-closures";
+
+    private final ChokepointClosures closures;
+
+    public ChokepointClosureTask(ChokepointClosures closures) {
+        super(NAME);
+        this.closures = Objects.requireNonNull(closures, "closures");
+    }
+
+    @Override
+    public void execute(Map<String, List<String>> parameters, PrintWriter output) {
+        String id = firstValue(parameters, "id");
+        if (id == null || id.isBlank()) {
+            output.println("Closed chokepoints: " + closures.current().getClosedChokepoints());
+            return;
+        }
+        String action = firstValue(parameters, "action");
+        if (!"close".equals(action) && !"open".equals(action)) {
+            throw new IllegalArgumentException("action must be close or open");
+        }
+        closures.setClosed(id, "close".equals(action));
+        output.println("Scheduled " + action + " of chokepoint " + id + "; closed until swapped: "
+                + closures.current().getClosedChokepoints());
+    }
+
+    private static String firstValue(Map<String, List<String>> parameters, String name) {
+        List<String> values = parameters.get(name);
+        return values == null || values.isEmpty() ? null : values.get(0);
+    }
+}
@@ -1,25 +1,40 @@
 package com.dynop.graphhopper.matrix.config;
 
+import com.codahale.metrics.Gauge;
 import com.codahale.metrics.MetricRegistry;
+import com.dynop.graphhopper.matrix.api.ComponentIndex;
+import com.dynop.graphhopper.matrix.api.ComponentIndexCache;
 import com.dynop.graphhopper.matrix.api.MatrixResource;
 import com.dynop.graphhopper.matrix.api.MatrixResource.MatrixResourceBindings;
+import com.dynop.graphhopper.matrix.api.SnapCache;
 import com.dynop.graphhopper.matrix.sea.*;
 import com.graphhopper.GraphHopper;
 import com.graphhopper.http.GraphHopperBundleConfiguration;
-import com.graphhopper.routing.ev.BooleanEncodedValue;
-import com.graphhopper.routing.ev.DecimalEncodedValue;
+import com.graphhopper.http.GraphHopperManaged;
+import com.graphhopper.routing.lm.LandmarkStorage;
 import com.graphhopper.routing.util.EncodingManager;
+import com.graphhopper.routing.weighting.Weighting;
 import com.graphhopper.storage.BaseGraph;
-import com.graphhopper.storage.index.LocationIndex;
+import com.graphhopper.storage.DAType;
+import com.graphhopper.storage.Directory;
+import com.graphhopper.storage.RoutingCHGraph;
 import com.graphhopper.storage.index.LocationIndexTree;
+import com.graphhopper.util.PMap;
 import io.dropwizard.core.ConfiguredBundle;
 import io.dropwizard.core.setup.Bootstrap;
 import io.dropwizard.core.setup.Environment;
+import io.dropwizard.lifecycle.JettyManaged;
+import io.dropwizard.lifecycle.setup.LifecycleEnvironment;
+import org.eclipse.jetty.util.component.LifeCycle;
 import org.glassfish.hk2.utilities.binding.AbstractBinder;
 
+import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
@@ -33,9 +48,13 @@ import java.util.logging.Logger;
  * <p>This bundle:
  * <ul>
  *   <li>Creates and manages the matrix computation thread pool</li>
- *   <li>Loads the optional sea hopper for maritime routing</li>
+ *   <li>Loads the optional sea hopper for maritime routing (on-heap or memory-mapped, see {@link SeaGraphDataAccess})
+ *       with the location index, CH and landmarks prepared by the builder (see {@link SeaGraphArtifacts})</li>
  *   <li>Loads the {@link ChokepointRegistry} for sea routing scenarios</li>
  *   <li>Loads the {@link UnlocodePortSnapper} for port coordinate snapping</li>
+ *   <li>Loads the {@link PortNodeTable} of port access nodes for O(1) Stage 2 snapping</li>
+ *   <li>Creates the shared {@link SnapCache} for repeated request coordinates</li>
+ *   <li>Loads sea {@link ComponentIndex} files and preloads the road {@link ComponentIndexCache} at startup</li>
  *   <li>Registers all dependencies with HK2 for injection into resources</li>
  * </ul>
  * 
@@ -79,8 +98,42 @@ public class MatrixBundle implements ConfiguredBundle<GraphHopperBundleConfigura
         final UnlocodePortSnapper finalPortSnapper = 
             portSnapper != null ? portSnapper : new UnlocodePortSnapper(List.of());
         
-        // Store sea hopper reference for injection
-        final SeaHopperHolder seaHopperHolder = new SeaHopperHolder(seaHopper);
+        // Global closures are built on their own thread, so a swap never competes with matrix rows
+        ExecutorService closureExecutor = Executors.newSingleThreadExecutor(r -> {
+            Thread thread = new Thread(r, "chokepoint-closures");
+            thread.setDaemon(true);
+            return thread;
+        });
+        environment.lifecycle().manage(new ManagedExecutor(closureExecutor,
+            "Chokepoint closure executor started", "Chokepoint closure executor stopped"));
+        
+        // Store sea hopper reference and its precomputed build artifacts for injection
+        final SeaHopperHolder seaHopperHolder = createSeaHopperHolder(
+            configuration, seaHopper, finalChokepointRegistry, finalPortSnapper, closureExecutor);
+        
+        // Road component indexes are loaded or computed at startup, once GraphHopperBundle has loaded the road graph
+        final ComponentIndexCache componentIndexCache = new ComponentIndexCache();
+        environment.lifecycle().manage(new ComponentIndexPreloader(componentIndexCache, environment.lifecycle()));
+        
+        // Snap cache is shared across requests (resources are request-scoped)
+        final SnapCache snapCache = new SnapCache(resolveSnapCacheSize(configuration));
+        metrics.register("matrix.snap_cache.hits", (Gauge<Long>) snapCache::getHitCount);
+        metrics.register("matrix.snap_cache.misses", (Gauge<Long>) snapCache::getMissCount);
+        
+        // Named avoid areas are registered on the admin port; request polygons share the mask cache
+        AvoidAreaMasks avoidAreaMasks = seaHopperHolder.getAvoidAreaMasks();
+        if (avoidAreaMasks != null) {
+            environment.admin().addTask(new AvoidZoneTask(avoidAreaMasks));
+            metrics.register("matrix.avoid_area_cache.hits", (Gauge<Long>) avoidAreaMasks::getHitCount);
+            metrics.register("matrix.avoid_area_cache.misses", (Gauge<Long>) avoidAreaMasks::getMissCount);
+        }
+        // Closures disable sea CH for every request while any chokepoint is closed
+        ChokepointClosures chokepointClosures = seaHopperHolder.getChokepointClosures();
+        if (chokepointClosures != null) {
+            environment.admin().addTask(new ChokepointClosureTask(chokepointClosures));
+            metrics.register("matrix.sea.closures.ch_disabled",
+                (Gauge<Integer>) () -> chokepointClosures.current().hasClosures() ? 1 : 0);
+        }
 
         environment.jersey().register(new AbstractBinder() {
             @Override
@@ -94,6 +147,8 @@ public class MatrixBundle implements ConfiguredBundle<GraphHopperBundleConfigura
                 bind(seaHopperHolder).to(SeaHopperHolder.class);
                 bind(finalChokepointRegistry).to(ChokepointRegistry.class);
                 bind(finalPortSnapper).to(UnlocodePortSnapper.class);
+                bind(snapCache).to(SnapCache.class);
+                bind(componentIndexCache).to(ComponentIndexCache.class);
             }
         });
 
@@ -119,22 +174,66 @@ public class MatrixBundle implements ConfiguredBundle<GraphHopperBundleConfigura
         }
     }
     
+    private int resolveSnapCacheSize(GraphHopperBundleConfiguration configuration) {
+        try {
+            return configuration.getGraphHopperConfiguration()
+                    .getInt("matrix.snap_cache.max_entries", SnapCache.DEFAULT_MAX_ENTRIES);
+        } catch (Exception e) {
+            return SnapCache.DEFAULT_MAX_ENTRIES;
+        }
+    }
+    
+    /**
+     * Resolve the sea graph directory: {@code sea.graph.location}, or {@code sea} next to the road graph.
+     */
+    private static Path resolveSeaGraphPath(GraphHopperBundleConfiguration configuration) {
+        String seaGraphLocation = configuration.getGraphHopperConfiguration()
+                .getString("sea.graph.location", null);
+        
+        if (seaGraphLocation == null) {
+            // Try default location relative to road graph
+            String roadLocation = configuration.getGraphHopperConfiguration()
+                    .getString("graph.location", "graph-cache");
+            seaGraphLocation = Path.of(roadLocation).getParent().resolve("sea").toString();
+        }
+        return Path.of(seaGraphLocation);
+    }
+    
+    /**
+     * Resolve the sea graph storage mode ({@value SeaGraphDataAccess#CONFIG_KEY}), defaulting to RAM_STORE.
+     */
+    private static DAType resolveSeaDataAccess(GraphHopperBundleConfiguration configuration) {
+        String value = configuration.getGraphHopperConfiguration()
+                .getString(SeaGraphDataAccess.CONFIG_KEY, null);
+        try {
+            return SeaGraphDataAccess.parse(value);
+        } catch (IllegalArgumentException e) {
+            LOGGER.warning(() -> e.getMessage() + ", using " + SeaGraphDataAccess.DEFAULT);
+            return SeaGraphDataAccess.DEFAULT;
+        }
+    }
+    
+    /**
+     * Whether the sea graph must ship with every runtime artifact ({@value SeaGraphArtifacts#REQUIRE_PREBUILT_CONFIG_KEY}).
+     */
+    private static boolean resolveRequirePrebuilt(GraphHopperBundleConfiguration configuration) {
+        return configuration.getGraphHopperConfiguration()
+                .getBool(SeaGraphArtifacts.REQUIRE_PREBUILT_CONFIG_KEY, false);
+    }
+    
     /**
      * Try to load the sea GraphHopper instance from the sea graph cache.
+     * 
+     * <p>The graph, location index, CH and landmarks are loaded as written by the builder. With
+     * {@value SeaGraphArtifacts#REQUIRE_PREBUILT_CONFIG_KEY} (production), nothing is prepared on startup:
+     * an existing sea graph whose manifest does not verify or whose artifacts are missing fails the
+     * startup. Otherwise a missing location index is still prepared, with a warning.
      */
     private GraphHopper loadSeaHopper(GraphHopperBundleConfiguration configuration) {
+        boolean requirePrebuilt = resolveRequirePrebuilt(configuration);
         try {
-            String seaGraphLocation = configuration.getGraphHopperConfiguration()
-                    .getString("sea.graph.location", null);
-            
-            if (seaGraphLocation == null) {
-                // Try default location relative to road graph
-                String roadLocation = configuration.getGraphHopperConfiguration()
-                        .getString("graph.location", "graph-cache");
-                seaGraphLocation = Path.of(roadLocation).getParent().resolve("sea").toString();
-            }
-            
-            Path seaGraphPath = Path.of(seaGraphLocation);
+            Path seaGraphPath = resolveSeaGraphPath(configuration);
+            String seaGraphLocation = seaGraphPath.toString();
             if (!Files.exists(seaGraphPath) || !Files.isDirectory(seaGraphPath)) {
                 LOGGER.info(() -> "Sea graph not found at " + seaGraphPath + ", sea routing disabled");
                 return null;
@@ -143,6 +242,9 @@ public class MatrixBundle implements ConfiguredBundle<GraphHopperBundleConfigura
             // Check for required files
             if (!Files.exists(seaGraphPath.resolve("nodes")) || 
                 !Files.exists(seaGraphPath.resolve("edges"))) {
+                if (requirePrebuilt) {
+                    throw new IllegalStateException("Sea graph incomplete at " + seaGraphPath);
+                }
                 LOGGER.info(() -> "Sea graph incomplete at " + seaGraphPath + ", sea routing disabled");
                 return null;
             }
@@ -151,103 +253,114 @@ public class MatrixBundle implements ConfiguredBundle<GraphHopperBundleConfigura
             
             // Load the pre-built sea graph directly as a BaseGraph
             // The sea graph was built with SeaLaneGraphBuilder which creates a BaseGraph
-            // and flushes it to disk using RAMDirectory. We need to load it the same way.
+            // and flushes it to disk. RAM_STORE reads it onto the heap, MMAP maps the files.
+            DAType dataAccess = resolveSeaDataAccess(configuration);
             GraphHopper seaHopper = new GraphHopper();
             seaHopper.setGraphHopperLocation(seaGraphLocation);
             
-            // Add a ship profile BEFORE creating encoding manager
-            // Use custom weighting with ship-specific speed (25 km/h typical container ship speed)
-            com.graphhopper.config.Profile shipProfile = new com.graphhopper.config.Profile("ship");
-            shipProfile.setWeighting("custom");
-            
-            // Create custom model matching dynop-ship.json configuration
-            com.graphhopper.util.CustomModel customModel = new com.graphhopper.util.CustomModel();
-            customModel.setDistanceInfluence(0.001); // Low distance influence for time-optimal routing
-            customModel.addToSpeed(com.graphhopper.json.Statement.If("true", com.graphhopper.json.Statement.Op.LIMIT, "25"));
-            
-            shipProfile.setCustomModel(customModel);
-            seaHopper.setProfiles(shipProfile);
-            
-            // Create the encoding manager matching what the builder used
-            BooleanEncodedValue accessEnc = com.graphhopper.routing.ev.VehicleAccess.create("car");
-            DecimalEncodedValue speedEnc = com.graphhopper.routing.ev.VehicleSpeed.create("car", 5, 5, false);
-            EncodingManager encodingManager = EncodingManager.start()
-                .add(accessEnc)
-                .add(speedEnc)
-                .build();
+            // Ship profile and encoding shared with the builder, so the prepared CH and landmarks match
+            seaHopper.setProfiles(SeaGraphArtifacts.createProfile());
+            EncodingManager encodingManager = SeaGraphArtifacts.createEncodingManager();
             
             // Load the base graph directly from disk (no .create(), just loadExisting)
             BaseGraph baseGraph = new BaseGraph.Builder(encodingManager)
-                .setDir(new com.graphhopper.storage.RAMDirectory(seaGraphLocation, true))
+                .setDir(SeaGraphDataAccess.createDirectory(seaGraphLocation, dataAccess))
                 .set3D(false)
                 .build();  // Use build() instead of create()
             
             baseGraph.loadExisting();
+            verifyManifest(seaGraphPath, baseGraph, requirePrebuilt);
             
-            // Inject the loaded graph and encoding manager into seaHopper using reflection
-            try {
-                java.lang.reflect.Field baseGraphField = GraphHopper.class.getDeclaredField("baseGraph");
-                baseGraphField.setAccessible(true);
-                baseGraphField.set(seaHopper, baseGraph);
-                
-                // Also inject the encoding manager
-                java.lang.reflect.Field encodingManagerField = GraphHopper.class.getDeclaredField("encodingManager");
-                encodingManagerField.setAccessible(true);
-                encodingManagerField.set(seaHopper, encodingManager);
-                
-                // Load or create the location index for spatial queries
-                // For sea graph with 5° grid (~555km spacing), we need a large search radius
-                LocationIndexTree locationIndex;
-                com.graphhopper.storage.RAMDirectory indexDir = new com.graphhopper.storage.RAMDirectory(seaGraphLocation, true);
-                if (Files.exists(seaGraphPath.resolve("location_index"))) {
-                    // Load existing location index
-                    locationIndex = new LocationIndexTree(baseGraph, indexDir);
-                    locationIndex.setMaxRegionSearch(512); // Very large search radius for coarse sea grid (5° = ~555km)
-                    if (!locationIndex.loadExisting()) {
-                        // If loading fails, prepare a new one
-                        locationIndex.prepareIndex();
-                    }
-                } else {
-                    // Create new location index
-                    locationIndex = new LocationIndexTree(baseGraph, indexDir);
-                    locationIndex.setMaxRegionSearch(512); // Very large search radius for coarse sea grid (5° = ~555km)
-                    locationIndex.prepareIndex();
+            // Load the prepared routing artifacts; only the location index may still be prepared here
+            Directory artifactDir = SeaGraphDataAccess.createDirectory(seaGraphLocation, dataAccess);
+            LocationIndexTree locationIndex = SeaGraphArtifacts.loadLocationIndex(baseGraph, artifactDir);
+            if (locationIndex == null) {
+                if (requirePrebuilt) {
+                    throw new IllegalStateException("Sea location index missing at " + seaGraphPath);
                 }
-                
-                // Inject location index
-                java.lang.reflect.Field locationIndexField = GraphHopper.class.getDeclaredField("locationIndex");
-                locationIndexField.setAccessible(true);
-                locationIndexField.set(seaHopper, locationIndex);
-                
-            } catch (Exception e) {
+                LOGGER.warning(() -> "Sea location index missing at " + seaGraphPath +
+                        ", preparing it on startup (rebuild the sea graph to avoid this)");
+                locationIndex = new LocationIndexTree(baseGraph, artifactDir);
+                locationIndex.setMaxRegionSearch(SeaGraphArtifacts.MAX_REGION_SEARCH);
+                locationIndex.prepareIndex();
+            }
+            
+            Weighting weighting = SeaGraphArtifacts.createWeighting(encodingManager);
+            Map<String, RoutingCHGraph> chGraphs = new HashMap<>();
+            RoutingCHGraph chGraph = SeaGraphArtifacts.loadCH(baseGraph, artifactDir, weighting);
+            if (chGraph != null) {
+                chGraphs.put(SeaGraphArtifacts.PROFILE_NAME, chGraph);
+            }
+            Map<String, LandmarkStorage> landmarks = new HashMap<>();
+            LandmarkStorage landmarkStorage = SeaGraphArtifacts.loadLandmarks(baseGraph, encodingManager,
+                    artifactDir, weighting);
+            if (landmarkStorage != null) {
+                landmarks.put(SeaGraphArtifacts.PROFILE_NAME, landmarkStorage);
+            }
+            if (requirePrebuilt && (chGraph == null || landmarkStorage == null)) {
+                throw new IllegalStateException("Sea CH or landmarks missing at " + seaGraphPath);
+            }
+            
+            // Inject the loaded graph, encoding manager and prepared artifacts into seaHopper using reflection
+            try {
+                injectField(seaHopper, "baseGraph", baseGraph);
+                injectField(seaHopper, "encodingManager", encodingManager);
+                injectField(seaHopper, "locationIndex", locationIndex);
+                injectField(seaHopper, "chGraphs", chGraphs);
+                injectField(seaHopper, "landmarks", landmarks);
+            } catch (ReflectiveOperationException e) {
                 throw new RuntimeException("Failed to inject BaseGraph into GraphHopper", e);
             }
             
             int nodeCount = baseGraph.getNodes();
-            LOGGER.info(() -> "Sea hopper loaded: " + nodeCount + " nodes");
+            LOGGER.info(() -> String.format("Sea hopper loaded: %d nodes (%s), CH %s, landmarks %s", nodeCount,
+                    dataAccess, chGraph != null ? "loaded" : "missing", landmarkStorage != null ? "loaded" : "missing"));
             return seaHopper;
             
         } catch (Exception e) {
+            if (requirePrebuilt) {
+                throw new IllegalStateException("Refusing to start: sea graph artifacts are not prebuilt (" +
+                        SeaGraphArtifacts.REQUIRE_PREBUILT_CONFIG_KEY + " is set): " + e.getMessage(), e);
+            }
             LOGGER.log(Level.WARNING, "Failed to load sea hopper: " + e.getMessage(), e);
             return null;
         }
     }
     
+    /**
+     * Check the sea graph directory against the builder's artifact manifest (sizes and counts only).
+     * 
+     * @throws IllegalStateException if the manifest is missing or does not match and prebuilt artifacts are required
+     */
+    private static void verifyManifest(Path seaGraphPath, BaseGraph baseGraph, boolean requirePrebuilt)
+            throws IOException {
+        SeaArtifactManifest manifest = SeaArtifactManifest.loadFrom(seaGraphPath.resolve(SeaArtifactManifest.FILE_NAME));
+        List<String> problems = manifest == null
+                ? List.of(SeaArtifactManifest.FILE_NAME + " not found")
+                : manifest.verify(seaGraphPath, baseGraph, false);
+        if (problems.isEmpty()) {
+            LOGGER.info(() -> "Sea artifact manifest verified (" + manifest.getArtifactNames().size() +
+                    " files, " + manifest.getGraphVersion() + ")");
+            return;
+        }
+        if (requirePrebuilt) {
+            throw new IllegalStateException("Sea artifact manifest check failed: " + String.join("; ", problems));
+        }
+        LOGGER.warning(() -> "Sea artifact manifest check failed: " + String.join("; ", problems));
+    }
+    
+    private static void injectField(GraphHopper hopper, String name, Object value) throws ReflectiveOperationException {
+        java.lang.reflect.Field field = GraphHopper.class.getDeclaredField(name);
+        field.setAccessible(true);
+        field.set(hopper, value);
+    }
+    
     /**
      * Load chokepoint registry from the sea graph cache.
      */
     private ChokepointRegistry loadChokepointRegistry(GraphHopperBundleConfiguration configuration) {
         try {
-            String seaGraphLocation = configuration.getGraphHopperConfiguration()
-                    .getString("sea.graph.location", null);
-            
-            if (seaGraphLocation == null) {
-                String roadLocation = configuration.getGraphHopperConfiguration()
-                        .getString("graph.location", "graph-cache");
-                seaGraphLocation = Path.of(roadLocation).getParent().resolve("sea").toString();
-            }
-            
-            Path metadataPath = Path.of(seaGraphLocation).resolve("chokepoint_metadata.json");
+            Path metadataPath = resolveSeaGraphPath(configuration).resolve("chokepoint_metadata.json");
             if (!Files.exists(metadataPath)) {
                 LOGGER.info(() -> "Chokepoint metadata not found at " + metadataPath);
                 return new ChokepointRegistry();
@@ -261,6 +374,123 @@ public class MatrixBundle implements ConfiguredBundle<GraphHopperBundleConfigura
         }
     }
     
+    /**
+     * Load the port access node table from the sea graph cache, aligned to the port snapper.
+     */
+    private PortNodeTable loadPortNodeTable(GraphHopperBundleConfiguration configuration,
+                                            UnlocodePortSnapper portSnapper) {
+        try {
+            return PortNodeTable.loadFrom(resolveSeaGraphPath(configuration).resolve(PortNodeTable.FILE_NAME))
+                    .alignTo(portSnapper);
+            
+        } catch (Exception e) {
+            LOGGER.log(Level.WARNING, "Failed to load port node table: " + e.getMessage(), e);
+            return PortNodeTable.empty();
+        }
+    }
+    
+    /**
+     * Map the precomputed port distance table from the sea graph cache, aligned to the port snapper.
+     */
+    private PortDistanceTable loadPortDistanceTable(GraphHopperBundleConfiguration configuration,
+                                                    BaseGraph baseGraph, UnlocodePortSnapper portSnapper) {
+        if (portSnapper == null) {
+            return PortDistanceTable.empty();
+        }
+        try {
+            Path tableFile = resolveSeaGraphPath(configuration).resolve(PortDistanceTable.FILE_NAME);
+            PortDistanceTable table = PortDistanceTable.loadFrom(tableFile, baseGraph);
+            if (table == null) {
+                LOGGER.info(() -> "Port distance table not available, sea matrix cells are always searched");
+                return PortDistanceTable.empty();
+            }
+            return table.alignTo(portSnapper);
+            
+        } catch (Exception e) {
+            LOGGER.log(Level.WARNING, "Failed to load port distance table: " + e.getMessage(), e);
+            return PortDistanceTable.empty();
+        }
+    }
+    
+    /**
+     * Map the land mask raster from the sea graph cache, with the configured inland tolerance.
+     */
+    private LandMaskRaster loadLandMask(GraphHopperBundleConfiguration configuration) {
+        try {
+            LandMaskRaster landMask = LandMaskRaster.loadFrom(
+                    resolveSeaGraphPath(configuration).resolve(LandMaskRaster.FILE_NAME));
+            if (landMask == null) {
+                LOGGER.info(() -> "Land mask raster not available, sea coordinates are not validated");
+                return null;
+            }
+            return landMask.withInlandTolerance(configuration.getGraphHopperConfiguration()
+                    .getDouble("sea.land_mask.inland_tolerance_km", LandMaskRaster.DEFAULT_INLAND_TOLERANCE_KM));
+            
+        } catch (Exception e) {
+            LOGGER.log(Level.WARNING, "Failed to load land mask raster: " + e.getMessage(), e);
+            return null;
+        }
+    }
+    
+    /**
+     * Create the sea hopper holder with the artifacts written by the graph builder: the port access node
+     * table, the component indexes (unrestricted, plus one variant per excluded chokepoint), the port
+     * distance table and the land mask raster. Missing files disable the respective optimization. The node →
+     * chokepoint ordinals for transit bitmasks are derived from the chokepoint registry; the avoid area mask
+     * cache starts empty and the global closures start with every chokepoint open.
+     */
+    private SeaHopperHolder createSeaHopperHolder(GraphHopperBundleConfiguration configuration, GraphHopper seaHopper,
+                                                  ChokepointRegistry chokepointRegistry,
+                                                  UnlocodePortSnapper portSnapper,
+                                                  Executor closureExecutor) {
+        if (seaHopper == null) {
+            return SeaHopperHolder.builder(null).build();
+        }
+        PortNodeTable portNodeTable = loadPortNodeTable(configuration, portSnapper);
+        
+        ComponentIndex componentIndex = null;
+        Map<String, ComponentIndex> chokepointIndexes = new HashMap<>();
+        try {
+            Path seaGraphPath = resolveSeaGraphPath(configuration);
+            BaseGraph baseGraph = seaHopper.getBaseGraph();
+            componentIndex = ComponentIndex.loadFrom(seaGraphPath.resolve(ComponentIndex.FILE_NAME), baseGraph);
+            for (Chokepoint chokepoint : chokepointRegistry.getAllChokepoints()) {
+                ComponentIndex variant = ComponentIndex.loadFrom(
+                        seaGraphPath.resolve(ComponentIndex.fileName(chokepoint.getId())), baseGraph);
+                if (variant != null) {
+                    chokepointIndexes.put(chokepoint.getId(), variant);
+                }
+            }
+            int variantCount = chokepointIndexes.size();
+            boolean loaded = componentIndex != null;
+            LOGGER.info(() -> loaded
+                    ? String.format("Loaded sea component index with %d chokepoint variants", variantCount)
+                    : "Sea component index not found, component precheck disabled for sea routing");
+        } catch (Exception e) {
+            LOGGER.log(Level.WARNING, "Failed to load sea component indexes: " + e.getMessage(), e);
+            componentIndex = null;
+            chokepointIndexes.clear();
+        }
+        PortDistanceTable portDistanceTable = loadPortDistanceTable(configuration, seaHopper.getBaseGraph(), portSnapper);
+        ChokepointOrdinals chokepointOrdinals = ChokepointOrdinals.of(
+                chokepointRegistry, seaHopper.getBaseGraph().getNodes());
+        AvoidAreaMasks avoidAreaMasks = new AvoidAreaMasks(seaHopper.getBaseGraph(), configuration
+                .getGraphHopperConfiguration().getInt("sea.avoid_areas.max_entries", AvoidAreaMasks.DEFAULT_MAX_ENTRIES));
+        ChokepointClosures chokepointClosures = new ChokepointClosures(chokepointRegistry, seaHopper.getBaseGraph(),
+                seaHopper.createWeighting(seaHopper.getProfile(SeaGraphArtifacts.PROFILE_NAME), new PMap()),
+                closureExecutor);
+        return SeaHopperHolder.builder(seaHopper)
+            .setPortNodeTable(portNodeTable)
+            .setComponentIndex(componentIndex)
+            .setChokepointComponentIndexes(chokepointIndexes)
+            .setPortDistanceTable(portDistanceTable)
+            .setChokepointOrdinals(chokepointOrdinals)
+            .setAvoidAreaMasks(avoidAreaMasks)
+            .setChokepointClosures(chokepointClosures)
+            .setLandMask(loadLandMask(configuration))
+            .build();
+    }
+    
     /**
      * Load port snapper from UN/LOCODE data.
      */
@@ -275,20 +505,13 @@ public class MatrixBundle implements ConfiguredBundle<GraphHopperBundleConfigura
                 return null;
             }
             
-            // Find all UNLOCODE CSV files
-            Path[] csvFiles = Files.list(unlocodePath)
-                    .filter(p -> p.getFileName().toString().contains("UNLOCODE") && 
-                                 p.getFileName().toString().endsWith(".csv"))
-                    .toArray(Path[]::new);
-            
-            if (csvFiles.length == 0) {
-                LOGGER.info(() -> "No UN/LOCODE CSV files found in " + unlocodePath);
+            UnlocodePortLoader loader = new UnlocodePortLoader();
+            List<Port> ports = loader.loadSeaportsFromDirectory(unlocodePath);
+            if (ports.isEmpty()) {
+                LOGGER.info(() -> "No UN/LOCODE seaports found in " + unlocodePath);
                 return null;
             }
             
-            UnlocodePortLoader loader = new UnlocodePortLoader();
-            List<Port> ports = loader.loadSeaports(csvFiles);
-            
             double maxSnapDistance = configuration.getGraphHopperConfiguration()
                     .getDouble("sea.port_snapping.max_snap_distance_km", 300.0);
             
@@ -300,16 +523,55 @@ public class MatrixBundle implements ConfiguredBundle<GraphHopperBundleConfigura
         }
     }
 
+    /**
+     * Preloads the road component indexes. Managed objects start in registration order, so the
+     * {@link GraphHopperManaged} of GraphHopperBundle (added before this bundle) has loaded the graph.
+     */
+    private static final class ComponentIndexPreloader implements io.dropwizard.lifecycle.Managed {
+        private final ComponentIndexCache cache;
+        private final LifecycleEnvironment lifecycle;
+
+        private ComponentIndexPreloader(ComponentIndexCache cache, LifecycleEnvironment lifecycle) {
+            this.cache = cache;
+            this.lifecycle = lifecycle;
+        }
+
+        @Override
+        public void start() {
+            for (LifeCycle managed : lifecycle.getManagedObjects()) {
+                if (managed instanceof JettyManaged jettyManaged
+                        && jettyManaged.getManaged() instanceof GraphHopperManaged graphHopperManaged) {
+                    long start = System.currentTimeMillis();
+                    cache.preload(graphHopperManaged.getGraphHopper());
+                    LOGGER.info(() -> String.format("Road component indexes ready in %d ms",
+                            System.currentTimeMillis() - start));
+                    return;
+                }
+            }
+            LOGGER.warning("Road GraphHopper not managed by GraphHopperBundle, "
+                    + "component indexes are built on first use");
+        }
+    }
+
     private static final class ManagedExecutor implements io.dropwizard.lifecycle.Managed {
         private final ExecutorService delegate;
+        private final String startMessage;
+        private final String stopMessage;
 
         private ManagedExecutor(ExecutorService delegate) {
+            this(delegate, "Matrix executor started with " + Runtime.getRuntime().availableProcessors() + " workers",
+                    "Matrix executor stopped");
+        }
+
+        private ManagedExecutor(ExecutorService delegate, String startMessage, String stopMessage) {
             this.delegate = delegate;
+            this.startMessage = startMessage;
+            this.stopMessage = stopMessage;
         }
 
         @Override
         public void start() {
-            LOGGER.info(() -> "Matrix executor started with " + Runtime.getRuntime().availableProcessors() + " workers");
+            LOGGER.info(() -> startMessage);
         }
 
         @Override
@@ -323,7 +585,7 @@ public class MatrixBundle implements ConfiguredBundle<GraphHopperBundleConfigura
                 Thread.currentThread().interrupt();
                 delegate.shutdownNow();
             }
-            LOGGER.info("Matrix executor stopped");
+            LOGGER.info(stopMessage);
         }
     }
 }
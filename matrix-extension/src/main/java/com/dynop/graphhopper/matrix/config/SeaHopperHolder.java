@@ -1,19 +1,65 @@
 package com.dynop.graphhopper.matrix.config;
 
+import com.dynop.graphhopper.matrix.api.ComponentIndex;
+import com.dynop.graphhopper.matrix.sea.AvoidAreaMasks;
+import com.dynop.graphhopper.matrix.sea.ChokepointClosures;
+import com.dynop.graphhopper.matrix.sea.ChokepointOrdinals;
+import com.dynop.graphhopper.matrix.sea.ChokepointRegistry;
+import com.dynop.graphhopper.matrix.sea.LandMaskRaster;
+import com.dynop.graphhopper.matrix.sea.PortDistanceTable;
+import com.dynop.graphhopper.matrix.sea.PortNodeTable;
 import com.graphhopper.GraphHopper;
 import org.jetbrains.annotations.Nullable;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
 /**
- * Holder for the optional sea routing GraphHopper instance.
+ * Holder for the optional sea routing GraphHopper instance and its precomputed build artifacts.
  * This wrapper allows HK2 to inject a non-null holder even when sea routing is disabled.
+ * Instances are created through {@link #builder(GraphHopper)}; artifacts that are not set
+ * fall back to their empty variants.
  */
 public final class SeaHopperHolder {
     
     @Nullable
     private final GraphHopper seaHopper;
+    private final PortNodeTable portNodeTable;
+    @Nullable
+    private final ComponentIndex componentIndex;
+    private final Map<String, ComponentIndex> chokepointComponentIndexes;
+    private final PortDistanceTable portDistanceTable;
+    private final ChokepointOrdinals chokepointOrdinals;
+    @Nullable
+    private final AvoidAreaMasks avoidAreaMasks;
+    @Nullable
+    private final ChokepointClosures chokepointClosures;
+    @Nullable
+    private final LandMaskRaster landMask;
     
-    public SeaHopperHolder(@Nullable GraphHopper seaHopper) {
-        this.seaHopper = seaHopper;
+    private SeaHopperHolder(Builder builder) {
+        this.seaHopper = builder.seaHopper;
+        this.portNodeTable = builder.portNodeTable != null ? builder.portNodeTable : PortNodeTable.empty();
+        this.componentIndex = builder.componentIndex;
+        this.chokepointComponentIndexes = Map.copyOf(builder.chokepointComponentIndexes);
+        this.portDistanceTable = builder.portDistanceTable != null
+            ? builder.portDistanceTable : PortDistanceTable.empty();
+        this.chokepointOrdinals = builder.chokepointOrdinals != null
+            ? builder.chokepointOrdinals
+            : ChokepointOrdinals.of(new ChokepointRegistry(), 0);
+        this.avoidAreaMasks = builder.avoidAreaMasks;
+        this.chokepointClosures = builder.chokepointClosures;
+        this.landMask = builder.landMask;
+    }
+    
+    /**
+     * @param seaHopper the sea GraphHopper instance, or null if sea routing is not configured
+     * @return Builder for a holder around the given instance
+     */
+    public static Builder builder(@Nullable GraphHopper seaHopper) {
+        return new Builder(seaHopper);
     }
     
     /**
@@ -24,10 +70,164 @@ public final class SeaHopperHolder {
         return seaHopper;
     }
     
+    /**
+     * @return Port access node table aligned to the loaded port snapper (empty if not built)
+     */
+    public PortNodeTable getPortNodeTable() {
+        return portNodeTable;
+    }
+    
+    /**
+     * Component indexes that must all report two nodes as connected for a route to exist.
+     * 
+     * <p>Excluding more chokepoints can only split components further, so a pair that is disconnected
+     * with any single excluded chokepoint is also disconnected when several are excluded together.
+     * 
+     * @param excludedChokepoints Chokepoint IDs excluded by the request (may be empty)
+     * @return Applicable component indexes (empty if none were built)
+     */
+    public List<ComponentIndex> getComponentIndexes(Collection<String> excludedChokepoints) {
+        List<ComponentIndex> indexes = new ArrayList<>(excludedChokepoints.size() + 1);
+        if (componentIndex != null) {
+            indexes.add(componentIndex);
+        }
+        for (String chokepointId : excludedChokepoints) {
+            ComponentIndex variant = chokepointComponentIndexes.get(chokepointId);
+            if (variant != null) {
+                indexes.add(variant);
+            }
+        }
+        return indexes;
+    }
+    
+    /**
+     * @return Baseline port×port distance table aligned to the loaded port snapper (empty if not built)
+     */
+    public PortDistanceTable getPortDistanceTable() {
+        return portDistanceTable;
+    }
+    
+    /**
+     * @return Node → chokepoint ordinals for transit bitmasks (without chokepoints if none were loaded)
+     */
+    public ChokepointOrdinals getChokepointOrdinals() {
+        return chokepointOrdinals;
+    }
+    
+    /**
+     * @return Avoid area masks of the sea graph, or null if sea routing is not configured
+     */
+    @Nullable
+    public AvoidAreaMasks getAvoidAreaMasks() {
+        return avoidAreaMasks;
+    }
+    
+    /**
+     * @return Global chokepoint closures, or null if sea routing is not configured
+     */
+    @Nullable
+    public ChokepointClosures getChokepointClosures() {
+        return chokepointClosures;
+    }
+    
+    /**
+     * @return Land mask raster for validate_coordinates, or null if not built
+     */
+    @Nullable
+    public LandMaskRaster getLandMask() {
+        return landMask;
+    }
+    
     /**
      * @return true if sea routing is available
      */
     public boolean isSeaRoutingAvailable() {
         return seaHopper != null;
     }
+    
+    /**
+     * Collects the optional build artifacts of a {@link SeaHopperHolder}.
+     */
+    public static final class Builder {
+        
+        @Nullable
+        private final GraphHopper seaHopper;
+        private PortNodeTable portNodeTable;
+        private ComponentIndex componentIndex;
+        private Map<String, ComponentIndex> chokepointComponentIndexes = Map.of();
+        private PortDistanceTable portDistanceTable;
+        private ChokepointOrdinals chokepointOrdinals;
+        private AvoidAreaMasks avoidAreaMasks;
+        private ChokepointClosures chokepointClosures;
+        private LandMaskRaster landMask;
+        
+        private Builder(@Nullable GraphHopper seaHopper) {
+            this.seaHopper = seaHopper;
+        }
+        
+        public Builder setPortNodeTable(@Nullable PortNodeTable portNodeTable) {
+            this.portNodeTable = portNodeTable;
+            return this;
+        }
+        
+        /**
+         * @param componentIndex Component index of the unrestricted sea graph, or null if not built
+         */
+        public Builder setComponentIndex(@Nullable ComponentIndex componentIndex) {
+            this.componentIndex = componentIndex;
+            return this;
+        }
+        
+        /**
+         * @param chokepointComponentIndexes Component indexes with a single chokepoint excluded, by chokepoint ID
+         */
+        public Builder setChokepointComponentIndexes(Map<String, ComponentIndex> chokepointComponentIndexes) {
+            this.chokepointComponentIndexes = chokepointComponentIndexes;
+            return this;
+        }
+        
+        /**
+         * @param portDistanceTable Precomputed port×port distances, or null if not built
+         */
+        public Builder setPortDistanceTable(@Nullable PortDistanceTable portDistanceTable) {
+            this.portDistanceTable = portDistanceTable;
+            return this;
+        }
+        
+        /**
+         * @param chokepointOrdinals Node → chokepoint ordinals of the sea graph, or null without chokepoints
+         */
+        public Builder setChokepointOrdinals(@Nullable ChokepointOrdinals chokepointOrdinals) {
+            this.chokepointOrdinals = chokepointOrdinals;
+            return this;
+        }
+        
+        /**
+         * @param avoidAreaMasks Avoid area mask cache and registered zones, or null without a sea graph
+         */
+        public Builder setAvoidAreaMasks(@Nullable AvoidAreaMasks avoidAreaMasks) {
+            this.avoidAreaMasks = avoidAreaMasks;
+            return this;
+        }
+        
+        /**
+         * @param chokepointClosures Global chokepoint closures, or null without a sea graph
+         */
+        public Builder setChokepointClosures(@Nullable ChokepointClosures chokepointClosures) {
+            this.chokepointClosures = chokepointClosures;
+            return this;
+        }
+        
+        /**
+         * @param landMask Land mask raster for coordinate validation, or null if not built
+         */
+        public Builder setLandMask(@Nullable LandMaskRaster landMask) {
+            this.landMask = landMask;
+            return this;
+        }
+        
+        public SeaHopperHolder build() {
+            return new SeaHopperHolder(this);
+        }
+    }
 }
@@ -0,0 +1,49 @@
+package com.dynop.graphhopper.matrix.sea;
+
+import com.graphhopper.routing.util.EdgeFilter;
+import com.graphhopper.util.EdgeIteratorState;
+
+import java.util.List;
+
+/**
+ * EdgeFilter that excludes edges connected to nodes inside avoid areas.
+ *
+ * <p>The counterpart of {@link ChokepointAwareEdgeFilter} for ad-hoc areas: it is applied at query time
+ * wherever chokepoint exclusions are, and does not mutate the graph.
+ *
+ * @see AvoidAreaMasks
+ */
+public final class AvoidAreaEdgeFilter implements EdgeFilter {
+
+    private final List<AvoidAreaMasks.Mask> masks;
+
+    /**
+     * @param masks Masks of the avoided areas
+     */
+    public AvoidAreaEdgeFilter(List<AvoidAreaMasks.Mask> masks) {
+        this.masks = List.copyOf(masks);
+    }
+
+    /**
+     * Accept an edge if neither endpoint lies inside an avoided area.
+     *
+     * @param edge Edge to evaluate
+     * @return true if edge should be considered, false if excluded
+     */
+    @Override
+    public boolean accept(EdgeIteratorState edge) {
+        for (AvoidAreaMasks.Mask mask : masks) {
+            if (mask.contains(edge.getBaseNode()) || mask.contains(edge.getAdjNode())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return Masks of the avoided areas
+     */
+    public List<AvoidAreaMasks.Mask> getMasks() {
+        return masks;
+    }
+}
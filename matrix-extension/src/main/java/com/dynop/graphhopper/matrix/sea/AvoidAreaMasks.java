@@ -0,0 +1,237 @@
+package com.dynop.graphhopper.matrix.sea;
+
+import com.bedatadriven.jackson.datatype.jts.parsers.GenericGeometryParser;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.graphhopper.storage.BaseGraph;
+import com.graphhopper.storage.NodeAccess;
+import org.locationtech.jts.algorithm.locate.IndexedPointInAreaLocator;
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.Envelope;
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.geom.GeometryFactory;
+import org.locationtech.jts.geom.Location;
+import org.locationtech.jts.geom.Polygonal;
+import org.locationtech.jts.io.WKBWriter;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.BitSet;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Logger;
+
+/**
+ * Sea graph node masks of avoid areas (high-risk zones, emission control areas, ...).
+ *
+ * <p>An avoid area is a GeoJSON polygon or multi-polygon. Its mask holds the sea graph nodes inside it
+ * and is excluded like a chokepoint. Resolving a polygon scans the node coordinates once: nodes outside
+ * the polygon's envelope are skipped, the rest are located with an {@link IndexedPointInAreaLocator}.
+ *
+ * <p>Masks are cached by the SHA-256 of the normalized polygon, so repeated requests with the same zone
+ * pay the geometry cost only once. The cache is bounded; when it is full it is cleared. Zones registered
+ * by an admin under an ID are kept separately and never evicted.
+ *
+ * <h2>Usage</h2>
+ * <pre>{@code
+ * AvoidAreaMasks masks = new AvoidAreaMasks(baseGraph, AvoidAreaMasks.DEFAULT_MAX_ENTRIES);
+ * masks.register("HRA_GULF_OF_ADEN", polygon);
+ * EdgeFilter filter = new AvoidAreaEdgeFilter(List.of(masks.getZone("HRA_GULF_OF_ADEN"), masks.resolve(other)));
+ * }</pre>
+ */
+public final class AvoidAreaMasks {
+
+    private static final Logger LOGGER = Logger.getLogger(AvoidAreaMasks.class.getName());
+
+    /**
+     * Default maximum number of cached request polygons.
+     */
+    public static final int DEFAULT_MAX_ENTRIES = 256;
+
+    private static final GenericGeometryParser GEOMETRY_PARSER = new GenericGeometryParser(new GeometryFactory());
+
+    private final BaseGraph graph;
+    private final int maxEntries;
+    private final Map<String, Mask> cache = new ConcurrentHashMap<>();
+    private final Map<String, Mask> zones = new ConcurrentHashMap<>();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    /**
+     * @param graph      Sea graph whose nodes are masked
+     * @param maxEntries Maximum number of cached request polygons
+     */
+    public AvoidAreaMasks(BaseGraph graph, int maxEntries) {
+        this.graph = Objects.requireNonNull(graph, "graph");
+        this.maxEntries = Math.max(1, maxEntries);
+    }
+
+    /**
+     * Mask of a polygon, computed on first use and cached by its hash.
+     *
+     * @param area Polygon or multi-polygon in lon/lat
+     * @return Mask of the sea nodes inside the area
+     */
+    public Mask resolve(Geometry area) {
+        String hash = hash(area);
+        Mask mask = cache.get(hash);
+        if (mask != null) {
+            hits.increment();
+            return mask;
+        }
+        misses.increment();
+        if (cache.size() >= maxEntries) {
+            cache.clear();
+        }
+        return cache.computeIfAbsent(hash, key -> compute(key, area));
+    }
+
+    /**
+     * Register (or replace) a named zone that requests can refer to by ID.
+     *
+     * @param id   Zone ID (e.g., "HRA_GULF_OF_ADEN")
+     * @param area Polygon or multi-polygon in lon/lat
+     * @return Mask of the zone
+     */
+    public Mask register(String id, Geometry area) {
+        Mask mask = compute(hash(area), area);
+        zones.put(Objects.requireNonNull(id, "id"), mask);
+        LOGGER.info(() -> String.format("Registered avoid zone %s with %d sea nodes", id, mask.getNodeCount()));
+        return mask;
+    }
+
+    /**
+     * @param id Zone ID
+     * @return true if the zone was registered
+     */
+    public boolean unregister(String id) {
+        return zones.remove(id) != null;
+    }
+
+    /**
+     * @param id Zone ID
+     * @return Mask of the registered zone, or null if not registered
+     */
+    public Mask getZone(String id) {
+        return zones.get(id);
+    }
+
+    /**
+     * @return IDs of the registered zones
+     */
+    public Set<String> getZoneIds() {
+        return Set.copyOf(zones.keySet());
+    }
+
+    /**
+     * @return Number of polygons answered from the cache since startup
+     */
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    /**
+     * @return Number of polygons resolved against the graph since startup
+     */
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    /**
+     * Parse an avoid area from GeoJSON.
+     *
+     * @param json GeoJSON Polygon or MultiPolygon geometry, or a Feature with one
+     * @return Polygonal geometry in lon/lat
+     * @throws IllegalArgumentException if the JSON is not a non-empty polygon or multi-polygon
+     */
+    public static Geometry parseGeoJson(JsonNode json) {
+        JsonNode geometryNode = json != null && "Feature".equals(json.path("type").asText())
+            ? json.get("geometry")
+            : json;
+        if (geometryNode == null || geometryNode.isNull()) {
+            throw new IllegalArgumentException("Avoid area must be a GeoJSON geometry");
+        }
+        Geometry area;
+        try {
+            area = GEOMETRY_PARSER.geometryFromJson(geometryNode);
+        } catch (JsonMappingException | RuntimeException e) {
+            throw new IllegalArgumentException("Invalid GeoJSON avoid area: " + e.getMessage(), e);
+        }
+        if (!(area instanceof Polygonal) || area.isEmpty()) {
+            throw new IllegalArgumentException("Avoid area must be a Polygon or MultiPolygon, got "
+                + area.getGeometryType());
+        }
+        return area;
+    }
+
+    /**
+     * @param area Polygon or multi-polygon
+     * @return Hex SHA-256 of the normalized geometry's WKB, equal for equal polygons
+     */
+    public static String hash(Geometry area) {
+        try {
+            byte[] wkb = new WKBWriter().write(area.norm());
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(wkb));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private Mask compute(String hash, Geometry area) {
+        Envelope envelope = area.getEnvelopeInternal();
+        IndexedPointInAreaLocator locator = new IndexedPointInAreaLocator(area);
+        NodeAccess nodeAccess = graph.getNodeAccess();
+        Coordinate coordinate = new Coordinate();
+        BitSet nodes = new BitSet(graph.getNodes());
+        for (int node = 0; node < graph.getNodes(); node++) {
+            coordinate.x = nodeAccess.getLon(node);
+            coordinate.y = nodeAccess.getLat(node);
+            if (envelope.contains(coordinate) && locator.locate(coordinate) != Location.EXTERIOR) {
+                nodes.set(node);
+            }
+        }
+        return new Mask(hash, nodes);
+    }
+
+    /**
+     * Immutable set of sea graph nodes inside an avoid area.
+     */
+    public static final class Mask {
+
+        private final String hash;
+        private final BitSet nodes;
+        private final int nodeCount;
+
+        Mask(String hash, BitSet nodes) {
+            this.hash = hash;
+            this.nodes = nodes;
+            this.nodeCount = nodes.cardinality();
+        }
+
+        /**
+         * @return Hash of the area's geometry
+         */
+        public String getHash() {
+            return hash;
+        }
+
+        /**
+         * @param node Graph node (virtual query graph nodes are never inside)
+         * @return true if the node lies inside the area
+         */
+        public boolean contains(int node) {
+            return node >= 0 && nodes.get(node);
+        }
+
+        /**
+         * @return Number of sea nodes inside the area
+         */
+        public int getNodeCount() {
+            return nodeCount;
+        }
+    }
+}
@@ -0,0 +1,179 @@
+package com.dynop.graphhopper.matrix.sea;
+
+import com.dynop.graphhopper.matrix.api.ComponentIndex;
+import com.graphhopper.routing.util.EdgeFilter;
+import com.graphhopper.routing.weighting.Weighting;
+import com.graphhopper.storage.BaseGraph;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.logging.Logger;
+
+/**
+ * Chokepoints closed globally by an operator, applied to every sea request on top of its own exclusions.
+ *
+ * <p>The routing state of a closure set ({@link State}: the closed IDs, the edge filter over their
+ * nodes for snapping, the {@link ExclusionWeighting} blocking them in the route search and the
+ * {@link ComponentIndex} of the graph without them) is built on the given executor and then swapped in
+ * atomically. The component BFS is the expensive part of the build. A request reads
+ * {@link #current()} once and uses that snapshot throughout, so in-flight requests finish on the old
+ * state and no request sees a half-updated one or pays the build cost. Updates run one at a time in
+ * submission order, each on top of the previous state, so concurrent toggles are not lost.
+ *
+ * <p>After a swap the {@link Chokepoint#isEnabled()} flags are updated for reporting; routing only
+ * reads the state. CH shortcuts are contracted without closures, so while any chokepoint is closed every
+ * sea request runs the flexible search; a warning is logged when that starts.
+ *
+ * <h2>Usage</h2>
+ * <pre>{@code
+ * ChokepointClosures closures = new ChokepointClosures(registry, graph, weighting,
+ *         Executors.newSingleThreadExecutor());
+ * closures.setClosed("SUEZ", true);           // returns immediately, swaps when built
+ * ChokepointClosures.State state = closures.current();
+ * }</pre>
+ */
+public final class ChokepointClosures {
+
+    private static final Logger LOGGER = Logger.getLogger(ChokepointClosures.class.getName());
+
+    private final ChokepointRegistry registry;
+    private final BaseGraph graph;
+    private final Weighting weighting;
+    private final Executor executor;
+    private final AtomicReference<State> current = new AtomicReference<>(State.NONE);
+    private final Object updateLock = new Object();
+    private CompletableFuture<State> lastUpdate = CompletableFuture.completedFuture(State.NONE);
+
+    /**
+     * @param registry  Chokepoints of the sea graph
+     * @param graph     Sea graph the states' component indexes are computed on
+     * @param weighting Weighting of the unrestricted sea search, wrapped by the states' weightings
+     * @param executor  Executor building the new states (updates are chained, so any executor keeps them ordered)
+     */
+    public ChokepointClosures(ChokepointRegistry registry, BaseGraph graph, Weighting weighting, Executor executor) {
+        this.registry = Objects.requireNonNull(registry, "registry");
+        this.graph = Objects.requireNonNull(graph, "graph");
+        this.weighting = Objects.requireNonNull(weighting, "weighting");
+        this.executor = Objects.requireNonNull(executor, "executor");
+    }
+
+    /**
+     * @return Closure state to use for a whole request
+     */
+    public State current() {
+        return current.get();
+    }
+
+    /**
+     * Close or reopen a chokepoint. The new state is built in the background and swapped in afterwards.
+     *
+     * @param chokepointId Chokepoint ID (e.g., "SUEZ")
+     * @param closed       true to close, false to reopen
+     * @return Future completing with the swapped-in state
+     * @throws IllegalArgumentException if the chokepoint is unknown
+     */
+    public CompletableFuture<State> setClosed(String chokepointId, boolean closed) {
+        if (!registry.isValidChokepoint(chokepointId)) {
+            throw new IllegalArgumentException("Unknown chokepoint: " + chokepointId);
+        }
+        synchronized (updateLock) {
+            lastUpdate = lastUpdate.handle((previous, error) -> null)
+                    .thenApplyAsync(ignored -> {
+                        Set<String> next = new TreeSet<>(current.get().getClosedChokepoints());
+                        if (closed) {
+                            next.add(chokepointId);
+                        } else {
+                            next.remove(chokepointId);
+                        }
+                        State state = build(next);
+                        State previous = current.getAndSet(state);
+                        for (Chokepoint chokepoint : registry.getAllChokepoints()) {
+                            chokepoint.setEnabled(!next.contains(chokepoint.getId()));
+                        }
+                        LOGGER.info(() -> "Chokepoint closures now " + state.getClosedChokepoints());
+                        if (state.hasClosures() && !previous.hasClosures()) {
+                            LOGGER.warning("Chokepoint closures disable CH for all sea requests until every "
+                                    + "chokepoint is reopened");
+                        }
+                        return state;
+                    }, executor);
+            return lastUpdate;
+        }
+    }
+
+    private State build(Collection<String> closedChokepoints) {
+        List<String> closed = List.copyOf(closedChokepoints);
+        if (closed.isEmpty()) {
+            return State.NONE;
+        }
+        EdgeFilter edgeFilter = new ChokepointAwareEdgeFilter(registry.getExcludedNodeIds(closed), closed);
+        return new State(closed, edgeFilter, new ExclusionWeighting(weighting, edgeFilter),
+                ComponentIndex.compute(graph, edgeFilter));
+    }
+
+    /**
+     * Immutable routing state of one closure set.
+     */
+    public static final class State {
+
+        /**
+         * State without closures.
+         */
+        public static final State NONE = new State(List.of(), EdgeFilter.ALL_EDGES, null, null);
+
+        private final List<String> closedChokepoints;
+        private final EdgeFilter edgeFilter;
+        private final Weighting weighting;
+        private final ComponentIndex componentIndex;
+
+        State(List<String> closedChokepoints, EdgeFilter edgeFilter, Weighting weighting,
+              ComponentIndex componentIndex) {
+            this.closedChokepoints = closedChokepoints;
+            this.edgeFilter = edgeFilter;
+            this.weighting = weighting;
+            this.componentIndex = componentIndex;
+        }
+
+        /**
+         * @return Sorted IDs of the closed chokepoints
+         */
+        public List<String> getClosedChokepoints() {
+            return closedChokepoints;
+        }
+
+        /**
+         * @return Edge filter excluding the nodes of all closed chokepoints
+         */
+        public EdgeFilter getEdgeFilter() {
+            return edgeFilter;
+        }
+
+        /**
+         * @return Weighting blocking the edges of all closed chokepoints, or null without closures (the
+         *         unrestricted weighting applies)
+         */
+        public Weighting getWeighting() {
+            return weighting;
+        }
+
+        /**
+         * @return Components of the sea graph with all closed chokepoints removed, or null without closures
+         */
+        public ComponentIndex getComponentIndex() {
+            return componentIndex;
+        }
+
+        /**
+         * @return true if any chokepoint is closed
+         */
+        public boolean hasClosures() {
+            return !closedChokepoints.isEmpty();
+        }
+    }
+}
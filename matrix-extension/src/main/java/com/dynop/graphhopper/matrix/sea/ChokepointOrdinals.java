@@ -0,0 +1,110 @@
+package com.dynop.graphhopper.matrix.sea;
+
+import com.carrotsearch.hppc.IntIndexedContainer;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.TreeSet;
+
+/**
+ * Node → chokepoint ordinal array of the sea graph, for chokepoint bitmasks of routes.
+ *
+ * <p>Ordinals follow the sorted chokepoint IDs of the {@link ChokepointRegistry}, so bit {@code i} of a
+ * mask stands for {@code getIds().get(i)}. The builder assigns every waypoint to at most one chokepoint,
+ * so one byte per node is enough. At most 64 chokepoints get an ordinal, the width of a mask.
+ *
+ * <h2>Usage</h2>
+ * <pre>{@code
+ * ChokepointOrdinals ordinals = ChokepointOrdinals.of(registry, baseGraph.getNodes());
+ * long mask = ordinals.maskOf(path.calcNodes());  // chokepoints the path passes through
+ * }</pre>
+ */
+public final class ChokepointOrdinals {
+
+    /**
+     * Ordinal of nodes outside every chokepoint.
+     */
+    public static final byte NO_ORDINAL = -1;
+
+    private final List<String> ids;
+    private final byte[] ordinalByNode;
+
+    private ChokepointOrdinals(List<String> ids, byte[] ordinalByNode) {
+        this.ids = ids;
+        this.ordinalByNode = ordinalByNode;
+    }
+
+    /**
+     * @param registry  Chokepoints with their graph node IDs
+     * @param nodeCount Number of nodes in the sea graph (larger node IDs are ignored)
+     * @return Ordinal array over the first 64 sorted chokepoint IDs
+     */
+    public static ChokepointOrdinals of(ChokepointRegistry registry, int nodeCount) {
+        List<String> sorted = List.copyOf(new TreeSet<>(registry.getChokepointIds()));
+        List<String> ids = sorted.size() > Long.SIZE ? sorted.subList(0, Long.SIZE) : sorted;
+        byte[] ordinalByNode = new byte[nodeCount];
+        Arrays.fill(ordinalByNode, NO_ORDINAL);
+        for (int ordinal = 0; ordinal < ids.size(); ordinal++) {
+            for (int node : registry.getChokepoint(ids.get(ordinal)).getNodeIds()) {
+                if (node >= 0 && node < nodeCount) {
+                    ordinalByNode[node] = (byte) ordinal;
+                }
+            }
+        }
+        return new ChokepointOrdinals(ids, ordinalByNode);
+    }
+
+    /**
+     * @param node Graph node (virtual query graph nodes have no chokepoint)
+     * @return Bit of the node's chokepoint, or 0
+     */
+    public long bitOf(int node) {
+        if (node < 0 || node >= ordinalByNode.length || ordinalByNode[node] == NO_ORDINAL) {
+            return 0;
+        }
+        return 1L << ordinalByNode[node];
+    }
+
+    /**
+     * @param nodes Nodes of an extracted path
+     * @return Bits of all chokepoints the path passes through
+     */
+    public long maskOf(IntIndexedContainer nodes) {
+        long mask = 0;
+        for (int i = 0; i < nodes.size(); i++) {
+            mask |= bitOf(nodes.get(i));
+        }
+        return mask;
+    }
+
+    /**
+     * Translate a mask written against another chokepoint order (e.g. a port distance table built
+     * with a different registry). Chokepoints unknown here are dropped.
+     *
+     * @param mask    Mask in the other order
+     * @param fromIds Chokepoint IDs of the other order
+     * @return Mask in this order
+     */
+    public long translate(long mask, List<String> fromIds) {
+        if (fromIds.equals(ids)) {
+            return mask;
+        }
+        long translated = 0;
+        for (int bit = 0; bit < fromIds.size(); bit++) {
+            if ((mask & (1L << bit)) != 0) {
+                int ordinal = ids.indexOf(fromIds.get(bit));
+                if (ordinal >= 0) {
+                    translated |= 1L << ordinal;
+                }
+            }
+        }
+        return translated;
+    }
+
+    /**
+     * @return Chokepoint IDs in bit order
+     */
+    public List<String> getIds() {
+        return ids;
+    }
+}
@@ -0,0 +1,48 @@
+package com.dynop.graphhopper.matrix.sea;
+
+import com.graphhopper.routing.util.EdgeFilter;
+import com.graphhopper.routing.weighting.AbstractAdjustedWeighting;
+import com.graphhopper.routing.weighting.Weighting;
+import com.graphhopper.util.EdgeIteratorState;
+
+/**
+ * Weighting that makes the edges rejected by an exclusion filter non-traversable.
+ *
+ * <p>Edge filters only reach snapping; this carries the same exclusions ({@link ChokepointAwareEdgeFilter},
+ * {@link AvoidAreaEdgeFilter}) into the route search. Excluded edges get an infinite weight and all other
+ * weights are unchanged, so the landmarks of the base weighting remain valid lower bounds. CH shortcuts
+ * are contracted without exclusions, so a search with this weighting must run on the base graph.
+ */
+public final class ExclusionWeighting extends AbstractAdjustedWeighting {
+
+    private final EdgeFilter excludedEdges;
+
+    /**
+     * @param superWeighting Weighting of the unrestricted search
+     * @param excludedEdges  Filter rejecting the excluded edges
+     */
+    public ExclusionWeighting(Weighting superWeighting, EdgeFilter excludedEdges) {
+        super(superWeighting);
+        this.excludedEdges = excludedEdges;
+    }
+
+    @Override
+    public double calcEdgeWeight(EdgeIteratorState edge, boolean reverse) {
+        if (!excludedEdges.accept(edge)) {
+            return Double.POSITIVE_INFINITY;
+        }
+        return superWeighting.calcEdgeWeight(edge, reverse);
+    }
+
+    /**
+     * @return Filter rejecting the excluded edges
+     */
+    public EdgeFilter getExcludedEdges() {
+        return excludedEdges;
+    }
+
+    @Override
+    public String getName() {
+        return superWeighting.getName();
+    }
+}
@@ -0,0 +1,382 @@
+package com.dynop.graphhopper.matrix.sea;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.logging.Logger;
+
+/**
+ * Global land/sea raster for validating sea-mode coordinates without touching the land polygons.
+ *
+ * <p>Written offline by {@link com.dynop.graphhopper.matrix.sea.builder.LandMaskRasterBuilder} as
+ * {@code land_mask.bin} next to the graph and memory-mapped read-only at runtime. A cell is land if its
+ * center lies inside a Natural Earth land polygon. Every lookup is a constant-time read of one bit (and
+ * optionally one byte), so a request's points are checked before Stage 1 port snapping at no measurable
+ * cost.
+ *
+ * <p>The optional coast distance layer holds, per cell, the chessboard distance in cells to the nearest
+ * cell of the other class (1 for cells on the coastline), capped at {@value #MAX_COAST_DISTANCE}. It
+ * tells a port city on a coarse coastline apart from a point deep inland; see
+ * {@link #isInland(double, double)}. The distance does not wrap around the antimeridian.
+ *
+ * <h2>Format</h2>
+ * <pre>
+ * int    MAGIC (0x4C4D534B "LMSK")
+ * int    VERSION
+ * int    columns (from -180° eastwards), rows (from -90° northwards)
+ * double cell size in degrees
+ * int    flags (bit 0: coast distance layer present)
+ * int    reserved
+ * rows × ceil(columns / 8) bytes  land bits, row-major, bit (column % 8) of byte (column / 8)
+ * rows × columns bytes            coast distance in cells, unsigned (only with flag bit 0)
+ * </pre>
+ * At 0.01° the land bits take 81 MB and the coast distance layer 648 MB. The file must stay below 2 GB,
+ * the limit of a single mapping.
+ */
+public final class LandMaskRaster {
+
+    /**
+     * File name of the raster in the sea graph directory.
+     */
+    public static final String FILE_NAME = "land_mask.bin";
+
+    /**
+     * Largest stored coast distance; cells farther from the coast store this value.
+     */
+    public static final int MAX_COAST_DISTANCE = 255;
+
+    /**
+     * Returned by {@link #getCoastDistance(double, double)} if the raster has no coast distance layer.
+     */
+    public static final int NO_COAST_DISTANCE = -1;
+
+    /**
+     * Default distance from the coast up to which land points are accepted.
+     */
+    public static final double DEFAULT_INLAND_TOLERANCE_KM = 100.0;
+
+    private static final Logger LOGGER = Logger.getLogger(LandMaskRaster.class.getName());
+    private static final int MAGIC = 0x4C4D534B;
+    private static final int VERSION = 1;
+    private static final int HEADER_BYTES = 32;
+    private static final int FLAG_COAST_DISTANCE = 1;
+    private static final double KM_PER_DEGREE = 111.195;
+
+    private final int columns;
+    private final int rows;
+    private final double cellDegrees;
+    private final int rowBytes;
+    private final long distanceOffset;
+    private final boolean coastDistance;
+    private final ByteBuffer data;
+    private final double inlandToleranceKm;
+
+    private LandMaskRaster(int columns, int rows, double cellDegrees, boolean coastDistance, ByteBuffer data,
+                           double inlandToleranceKm) {
+        this.columns = columns;
+        this.rows = rows;
+        this.cellDegrees = cellDegrees;
+        this.rowBytes = rowBytes(columns);
+        this.distanceOffset = HEADER_BYTES + (long) rows * rowBytes;
+        this.coastDistance = coastDistance;
+        this.data = data;
+        this.inlandToleranceKm = inlandToleranceKm;
+    }
+
+    /**
+     * Map a raster file.
+     *
+     * @param file Path to land_mask.bin
+     * @return Mapped raster, or null if the file is missing or has an old format
+     * @throws IOException if the file cannot be read or is not a land mask raster
+     */
+    public static LandMaskRaster loadFrom(Path file) throws IOException {
+        if (!Files.exists(file)) {
+            return null;
+        }
+        MappedByteBuffer data;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            data = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        if (data.capacity() < HEADER_BYTES || data.getInt(0) != MAGIC) {
+            throw new IOException("Not a land mask raster: " + file);
+        }
+        if (data.getInt(4) != VERSION) {
+            LOGGER.warning(() -> "Land mask raster " + file + " has an old format, rerun LandMaskRasterBuilder");
+            return null;
+        }
+        int columns = data.getInt(8);
+        int rows = data.getInt(12);
+        double cellDegrees = data.getDouble(16);
+        boolean coastDistance = (data.getInt(24) & FLAG_COAST_DISTANCE) != 0;
+        if (columns <= 0 || rows <= 0 || !(cellDegrees > 0)) {
+            throw new IOException("Invalid land mask raster dimensions in " + file);
+        }
+        if (data.capacity() != fileSize(columns, rows, coastDistance)) {
+            throw new IOException("Truncated land mask raster: " + file);
+        }
+        LOGGER.info(() -> String.format("Mapped %dx%d land mask raster (%s°%s) from %s", columns, rows,
+            cellDegrees, coastDistance ? ", with coast distance" : "", file.getFileName()));
+        return new LandMaskRaster(columns, rows, cellDegrees, coastDistance, data, DEFAULT_INLAND_TOLERANCE_KM);
+    }
+
+    /**
+     * Create a copy of this raster with another inland tolerance.
+     *
+     * @param toleranceKm Distance from the coast up to which land points are accepted
+     * @return Raster sharing the mapping
+     */
+    public LandMaskRaster withInlandTolerance(double toleranceKm) {
+        return new LandMaskRaster(columns, rows, cellDegrees, coastDistance, data, toleranceKm);
+    }
+
+    /**
+     * @param lat Latitude
+     * @param lon Longitude
+     * @return true if the point's cell is land
+     */
+    public boolean isLand(double lat, double lon) {
+        return isLandCell(row(lat), column(lon));
+    }
+
+    /**
+     * @param lat Latitude
+     * @param lon Longitude
+     * @return Cells from the point's cell to the nearest cell of the other class (at most
+     *         {@value #MAX_COAST_DISTANCE}), or {@link #NO_COAST_DISTANCE} without the coast distance layer
+     */
+    public int getCoastDistance(double lat, double lon) {
+        if (!coastDistance) {
+            return NO_COAST_DISTANCE;
+        }
+        return Byte.toUnsignedInt(data.get((int) (distanceOffset + (long) row(lat) * columns + column(lon))));
+    }
+
+    /**
+     * Whether a point lies on land farther than the tolerance from the coast.
+     *
+     * <p>The coast distance is converted with the cell's east-west size, the shorter side away from the
+     * equator, and without the point's own cell, so a point is never rejected while it may still be within
+     * the tolerance. Without the coast distance layer every land point counts as inland.
+     *
+     * @param lat Latitude
+     * @param lon Longitude
+     * @return true if the point is inland
+     */
+    public boolean isInland(double lat, double lon) {
+        if (!isLand(lat, lon)) {
+            return false;
+        }
+        int distance = getCoastDistance(lat, lon);
+        if (distance == NO_COAST_DISTANCE) {
+            return true;
+        }
+        double minCellKm = cellDegrees * KM_PER_DEGREE * Math.cos(Math.toRadians(lat));
+        return (distance - 1) * minCellKm > inlandToleranceKm;
+    }
+
+    /**
+     * @return Distance from the coast up to which land points are accepted
+     */
+    public double getInlandToleranceKm() {
+        return inlandToleranceKm;
+    }
+
+    /**
+     * @return true if the raster has the coast distance layer
+     */
+    public boolean hasCoastDistance() {
+        return coastDistance;
+    }
+
+    /**
+     * @return Cell size in degrees
+     */
+    public double getCellDegrees() {
+        return cellDegrees;
+    }
+
+    private boolean isLandCell(int row, int column) {
+        int bits = data.get((int) (HEADER_BYTES + (long) row * rowBytes + (column >>> 3)));
+        return (bits & (1 << (column & 7))) != 0;
+    }
+
+    private int row(double lat) {
+        return Math.max(0, Math.min(rows - 1, (int) Math.floor((lat + 90) / cellDegrees)));
+    }
+
+    private int column(double lon) {
+        return Math.max(0, Math.min(columns - 1, (int) Math.floor((lon + 180) / cellDegrees)));
+    }
+
+    private static int rowBytes(int columns) {
+        return (columns + 7) >>> 3;
+    }
+
+    private static long fileSize(int columns, int rows, boolean coastDistance) {
+        long size = HEADER_BYTES + (long) rows * rowBytes(columns);
+        return coastDistance ? size + (long) rows * columns : size;
+    }
+
+    /**
+     * Writes a raster through a read-write mapping of the whole file. Land bits are set row by row;
+     * different rows may be written concurrently, since every row starts on a byte boundary.
+     */
+    public static final class Writer implements AutoCloseable {
+
+        private final FileChannel channel;
+        private final MappedByteBuffer data;
+        private final int columns;
+        private final int rows;
+        private final int rowBytes;
+        private final long distanceOffset;
+        private final boolean coastDistance;
+
+        /**
+         * Create the file (all cells sea) and write the header.
+         *
+         * @param file          Target file (replaced if it exists)
+         * @param cellDegrees   Cell size in degrees; must divide 180° into whole cells
+         * @param coastDistance true to add the coast distance layer
+         * @throws IOException if the file cannot be written
+         */
+        public Writer(Path file, double cellDegrees, boolean coastDistance) throws IOException {
+            if (!(cellDegrees > 0)) {
+                throw new IllegalArgumentException("Cell size must be positive: " + cellDegrees);
+            }
+            this.rows = (int) Math.round(180 / cellDegrees);
+            this.columns = 2 * rows;
+            if (Math.abs(rows * cellDegrees - 180) > 1e-9 * 180) {
+                throw new IllegalArgumentException("Cell size must divide 180°: " + cellDegrees);
+            }
+            long size = fileSize(columns, rows, coastDistance);
+            if (size > Integer.MAX_VALUE) {
+                throw new IllegalArgumentException("Cell size too small for a single mapped raster: " + cellDegrees);
+            }
+            this.rowBytes = rowBytes(columns);
+            this.distanceOffset = HEADER_BYTES + (long) rows * rowBytes;
+            this.coastDistance = coastDistance;
+            Files.deleteIfExists(file);
+            this.channel = FileChannel.open(file, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+            this.data = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+            data.putInt(0, MAGIC).putInt(4, VERSION).putInt(8, columns).putInt(12, rows)
+                .putDouble(16, cellDegrees).putInt(24, coastDistance ? FLAG_COAST_DISTANCE : 0);
+        }
+
+        /**
+         * @return Number of columns, from -180° eastwards
+         */
+        public int getColumns() {
+            return columns;
+        }
+
+        /**
+         * @return Number of rows, from -90° northwards
+         */
+        public int getRows() {
+            return rows;
+        }
+
+        /**
+         * Mark cells of one row as land.
+         *
+         * @param row       Row
+         * @param fromColumn First column (inclusive)
+         * @param toColumn   Last column (exclusive)
+         */
+        public void setLand(int row, int fromColumn, int toColumn) {
+            int rowStart = (int) (HEADER_BYTES + (long) row * rowBytes);
+            for (int column = fromColumn; column < toColumn; column++) {
+                int index = rowStart + (column >>> 3);
+                data.put(index, (byte) (data.get(index) | (1 << (column & 7))));
+            }
+        }
+
+        /**
+         * Fill the coast distance layer from the land bits with a two-pass chessboard distance transform.
+         * Call once after all land cells are set; does nothing without the coast distance layer.
+         */
+        public void computeCoastDistance() {
+            if (!coastDistance) {
+                return;
+            }
+            boolean[] previousLand = new boolean[columns];
+            boolean[] land = new boolean[columns];
+            byte[] previous = new byte[columns];
+            byte[] current = new byte[columns];
+            // Forward pass: west and southern neighbours
+            for (int row = 0; row < rows; row++) {
+                readLand(row, land);
+                for (int column = 0; column < columns; column++) {
+                    int distance = MAX_COAST_DISTANCE;
+                    if (column > 0) {
+                        distance = relax(distance, land[column], land[column - 1], current[column - 1]);
+                    }
+                    if (row > 0) {
+                        for (int neighbour = Math.max(0, column - 1); neighbour <= Math.min(columns - 1, column + 1);
+                             neighbour++) {
+                            distance = relax(distance, land[column], previousLand[neighbour], previous[neighbour]);
+                        }
+                    }
+                    current[column] = (byte) distance;
+                }
+                data.put((int) (distanceOffset + (long) row * columns), current);
+                boolean[] swapLand = previousLand;
+                previousLand = land;
+                land = swapLand;
+                byte[] swap = previous;
+                previous = current;
+                current = swap;
+            }
+            // Backward pass: east and northern neighbours, on top of the forward distances
+            for (int row = rows - 1; row >= 0; row--) {
+                readLand(row, land);
+                data.get((int) (distanceOffset + (long) row * columns), current);
+                for (int column = columns - 1; column >= 0; column--) {
+                    int distance = Byte.toUnsignedInt(current[column]);
+                    if (column < columns - 1) {
+                        distance = relax(distance, land[column], land[column + 1], current[column + 1]);
+                    }
+                    if (row < rows - 1) {
+                        for (int neighbour = Math.max(0, column - 1); neighbour <= Math.min(columns - 1, column + 1);
+                             neighbour++) {
+                            distance = relax(distance, land[column], previousLand[neighbour], previous[neighbour]);
+                        }
+                    }
+                    current[column] = (byte) distance;
+                }
+                data.put((int) (distanceOffset + (long) row * columns), current);
+                boolean[] swapLand = previousLand;
+                previousLand = land;
+                land = swapLand;
+                byte[] swap = previous;
+                previous = current;
+                current = swap;
+            }
+        }
+
+        private static int relax(int distance, boolean land, boolean neighbourLand, byte neighbourDistance) {
+            // A neighbour of the other class is the coast itself
+            int candidate = land != neighbourLand ? 1 : Byte.toUnsignedInt(neighbourDistance) + 1;
+            return Math.min(distance, Math.min(candidate, MAX_COAST_DISTANCE));
+        }
+
+        private void readLand(int row, boolean[] land) {
+            int rowStart = (int) (HEADER_BYTES + (long) row * rowBytes);
+            for (int column = 0; column < columns; column++) {
+                land[column] = (data.get(rowStart + (column >>> 3)) & (1 << (column & 7))) != 0;
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            data.force();
+            channel.close();
+        }
+    }
+}
@@ -0,0 +1,350 @@
+package com.dynop.graphhopper.matrix.sea;
+
+import com.graphhopper.storage.BaseGraph;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Logger;
+
+/**
+ * Precomputed port×port sea distances and times of the unrestricted (baseline) sea graph.
+ *
+ * <p>Written offline by {@link com.dynop.graphhopper.matrix.sea.builder.PortDistanceTableBuilder} as
+ * {@code port_distances.bin} next to the graph and memory-mapped read-only at runtime, so the table
+ * costs no heap and pages fault in on demand. A sea matrix cell whose source and target both snap
+ * (Stage 1) to ports in the table is answered with two array reads instead of a search.
+ *
+ * <p>Each cell also records the chokepoints its baseline route passes through, as a bitmask over the
+ * chokepoint IDs stored in the header. Excluding chokepoints can only change a route that uses one of
+ * them: a cell whose mask does not intersect {@link #getChokepointBits(Collection)} of the excluded set
+ * keeps its baseline value, and only the remaining cells need a search.
+ *
+ * <h2>Format</h2>
+ * <pre>
+ * int    MAGIC (0x50445442 "PDTB")
+ * int    VERSION
+ * int    graph node count, graph edge count (guard against a table built for another graph)
+ * int    port count n
+ * int    chokepoint count c (at most 64), then c × (short length, UTF-8 chokepoint ID); bit i = ID i
+ * n ×    8 bytes UN/LOCODE, US-ASCII, zero-padded
+ * n×n ×  int  distance in meters, row-major (source row), -1 if unreachable
+ * n×n ×  long time in milliseconds, row-major, -1 if unreachable
+ * n×n ×  long chokepoint mask of the baseline route, 0 if unreachable
+ * </pre>
+ * The table is dense: 20 bytes per cell, ~320 MB for 4,000 ports. It must stay below 2 GB (about
+ * 10,000 ports), the limit of a single mapping.
+ */
+public final class PortDistanceTable {
+
+    /**
+     * File name of the table in the sea graph directory.
+     */
+    public static final String FILE_NAME = "port_distances.bin";
+
+    /**
+     * Returned by {@link #getRow(int)} for ports outside the table.
+     */
+    public static final int NO_ROW = -1;
+
+    /**
+     * Returned by {@link #getChokepointBits(Collection)} if a chokepoint is not in the table; no cell is
+     * reused then. (All 64 chokepoints excluded at once map to the same value, which is merely conservative.)
+     */
+    public static final long UNKNOWN_CHOKEPOINTS = -1L;
+
+    private static final Logger LOGGER = Logger.getLogger(PortDistanceTable.class.getName());
+    private static final int MAGIC = 0x50445442;
+    private static final int VERSION = 2;
+    private static final int FIXED_HEADER_BYTES = 6 * Integer.BYTES;
+    private static final int UNLOCODE_BYTES = 8;
+    private static final int MAX_CHOKEPOINTS = Long.SIZE;
+    private static final int CELL_BYTES = Integer.BYTES + 2 * Long.BYTES;
+    private static final PortDistanceTable EMPTY =
+        new PortDistanceTable(new String[0], List.of(), 0, null, new int[0]);
+
+    private final String[] unlocodes;
+    private final List<String> chokepointIds;
+    private final long distanceOffset;
+    private final ByteBuffer data;
+    private final int[] rowByPortIndex;
+
+    private PortDistanceTable(String[] unlocodes, List<String> chokepointIds, long distanceOffset,
+                              ByteBuffer data, int[] rowByPortIndex) {
+        this.unlocodes = unlocodes;
+        this.chokepointIds = chokepointIds;
+        this.distanceOffset = distanceOffset;
+        this.data = data;
+        this.rowByPortIndex = rowByPortIndex;
+    }
+
+    /**
+     * @return Empty table (every lookup returns {@link #NO_ROW})
+     */
+    public static PortDistanceTable empty() {
+        return EMPTY;
+    }
+
+    /**
+     * Map a table file and check that it belongs to the graph.
+     *
+     * @param file  Path to port_distances.bin
+     * @param graph Sea graph the table must have been computed on
+     * @return Mapped table, or null if the file is missing or was built for a different graph
+     * @throws IOException if the file cannot be read or is not a port distance table
+     */
+    public static PortDistanceTable loadFrom(Path file, BaseGraph graph) throws IOException {
+        if (!Files.exists(file)) {
+            return null;
+        }
+        MappedByteBuffer data;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            data = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        if (data.capacity() < FIXED_HEADER_BYTES || data.getInt(0) != MAGIC) {
+            throw new IOException("Not a port distance table: " + file);
+        }
+        if (data.getInt(4) != VERSION) {
+            LOGGER.warning(() -> "Port distance table " + file + " has an old format, rerun PortDistanceTableBuilder");
+            return null;
+        }
+        if (data.getInt(8) != graph.getNodes() || data.getInt(12) != graph.getEdges()) {
+            LOGGER.warning(() -> "Port distance table " + file + " was built for a different sea graph, ignoring it");
+            return null;
+        }
+        int portCount = data.getInt(16);
+        int chokepointCount = data.getInt(20);
+        if (chokepointCount < 0 || chokepointCount > MAX_CHOKEPOINTS) {
+            throw new IOException("Invalid chokepoint count " + chokepointCount + " in " + file);
+        }
+        String[] chokepointIds = new String[chokepointCount];
+        int position = FIXED_HEADER_BYTES;
+        for (int i = 0; i < chokepointCount; i++) {
+            byte[] id = new byte[data.getShort(position)];
+            data.get(position + Short.BYTES, id);
+            chokepointIds[i] = new String(id, StandardCharsets.UTF_8);
+            position += Short.BYTES + id.length;
+        }
+        long distanceOffset = position + (long) portCount * UNLOCODE_BYTES;
+        if (data.capacity() != distanceOffset + (long) portCount * portCount * CELL_BYTES) {
+            throw new IOException("Truncated port distance table: " + file);
+        }
+        String[] unlocodes = new String[portCount];
+        byte[] code = new byte[UNLOCODE_BYTES];
+        for (int i = 0; i < portCount; i++) {
+            data.get(position + i * UNLOCODE_BYTES, code);
+            int length = 0;
+            while (length < UNLOCODE_BYTES && code[length] != 0) {
+                length++;
+            }
+            unlocodes[i] = new String(code, 0, length, StandardCharsets.US_ASCII);
+        }
+        LOGGER.info(() -> String.format("Mapped port distance table with %d ports and %d chokepoints from %s",
+            portCount, chokepointCount, file.getFileName()));
+        return new PortDistanceTable(unlocodes, List.of(chokepointIds), distanceOffset, data, new int[0]);
+    }
+
+    /**
+     * Create a copy of this table with a row lookup aligned to the snapper's port indices.
+     *
+     * @param snapper Port snapper whose indices are used at runtime
+     * @return Aligned table sharing the mapping
+     */
+    public PortDistanceTable alignTo(UnlocodePortSnapper snapper) {
+        Map<String, Integer> rowByUnlocode = new HashMap<>(unlocodes.length * 2);
+        for (int row = 0; row < unlocodes.length; row++) {
+            rowByUnlocode.put(unlocodes[row], row);
+        }
+        int[] aligned = new int[snapper.getPortCount()];
+        for (int i = 0; i < aligned.length; i++) {
+            aligned[i] = rowByUnlocode.getOrDefault(snapper.getPort(i).getUnlocode(), NO_ROW);
+        }
+        return new PortDistanceTable(unlocodes, chokepointIds, distanceOffset, data, aligned);
+    }
+
+    /**
+     * @param portIndex Port index in the aligned snapper
+     * @return Table row of the port, or {@link #NO_ROW}
+     */
+    public int getRow(int portIndex) {
+        return portIndex >= 0 && portIndex < rowByPortIndex.length ? rowByPortIndex[portIndex] : NO_ROW;
+    }
+
+    /**
+     * @param sourceRow Table row of the source port
+     * @param targetRow Table row of the target port
+     * @return Distance in meters, or -1 if unreachable
+     */
+    public long getDistance(int sourceRow, int targetRow) {
+        return data.getInt((int) (distanceOffset + cell(sourceRow, targetRow) * Integer.BYTES));
+    }
+
+    /**
+     * @param sourceRow Table row of the source port
+     * @param targetRow Table row of the target port
+     * @return Travel time in milliseconds, or -1 if unreachable
+     */
+    public long getTime(int sourceRow, int targetRow) {
+        return data.getLong((int) (timeOffset() + cell(sourceRow, targetRow) * Long.BYTES));
+    }
+
+    /**
+     * @param sourceRow Table row of the source port
+     * @param targetRow Table row of the target port
+     * @return Chokepoints the baseline route passes through, one bit per {@link #getChokepointIds()} entry
+     */
+    public long getChokepointMask(int sourceRow, int targetRow) {
+        return data.getLong((int) (maskOffset() + cell(sourceRow, targetRow) * Long.BYTES));
+    }
+
+    /**
+     * @param chokepointIds Chokepoint IDs (e.g. the excluded chokepoints of a request)
+     * @return Bitmask to intersect with {@link #getChokepointMask(int, int)}, or {@link #UNKNOWN_CHOKEPOINTS}
+     *         if the table has no bit for one of them
+     */
+    public long getChokepointBits(Collection<String> chokepointIds) {
+        long bits = 0;
+        for (String id : chokepointIds) {
+            int ordinal = this.chokepointIds.indexOf(id);
+            if (ordinal < 0) {
+                return UNKNOWN_CHOKEPOINTS;
+            }
+            bits |= 1L << ordinal;
+        }
+        return bits;
+    }
+
+    /**
+     * @param sourceRow    Table row of the source port
+     * @param targetRow    Table row of the target port
+     * @param excludedBits Result of {@link #getChokepointBits(Collection)} for the excluded chokepoints
+     * @return true if the baseline route avoids every excluded chokepoint, so its value still holds
+     */
+    public boolean isUnaffected(int sourceRow, int targetRow, long excludedBits) {
+        if (excludedBits == UNKNOWN_CHOKEPOINTS) {
+            return false;
+        }
+        return excludedBits == 0 || (getChokepointMask(sourceRow, targetRow) & excludedBits) == 0;
+    }
+
+    /**
+     * @return Chokepoint IDs in bit order
+     */
+    public List<String> getChokepointIds() {
+        return chokepointIds;
+    }
+
+    /**
+     * @return Number of ports in the table
+     */
+    public int size() {
+        return unlocodes.length;
+    }
+
+    private long cell(int sourceRow, int targetRow) {
+        return (long) sourceRow * unlocodes.length + targetRow;
+    }
+
+    private long timeOffset() {
+        return distanceOffset + (long) unlocodes.length * unlocodes.length * Integer.BYTES;
+    }
+
+    private long maskOffset() {
+        return timeOffset() + (long) unlocodes.length * unlocodes.length * Long.BYTES;
+    }
+
+    /**
+     * Writes a table row by row; rows may be written concurrently from several threads.
+     */
+    public static final class Writer implements AutoCloseable {
+
+        private final FileChannel channel;
+        private final int portCount;
+        private final long distanceOffset;
+
+        /**
+         * Create the file and write the header.
+         *
+         * @param file          Target file (replaced if it exists)
+         * @param graph         Graph the table is computed on
+         * @param unlocodes     UN/LOCODEs of the table rows and columns
+         * @param chokepointIds Chokepoint IDs in mask bit order (at most 64)
+         * @throws IOException if the file cannot be written
+         */
+        public Writer(Path file, BaseGraph graph, String[] unlocodes, List<String> chokepointIds) throws IOException {
+            if (chokepointIds.size() > MAX_CHOKEPOINTS) {
+                throw new IllegalArgumentException("At most " + MAX_CHOKEPOINTS + " chokepoints fit a mask: "
+                    + chokepointIds.size());
+            }
+            this.portCount = unlocodes.length;
+            int headerBytes = FIXED_HEADER_BYTES;
+            for (String id : chokepointIds) {
+                headerBytes += Short.BYTES + id.getBytes(StandardCharsets.UTF_8).length;
+            }
+            this.distanceOffset = headerBytes + (long) portCount * UNLOCODE_BYTES;
+            if (distanceOffset + (long) portCount * portCount * CELL_BYTES > Integer.MAX_VALUE) {
+                throw new IllegalArgumentException("Too many ports for a single mapped table: " + portCount);
+            }
+            this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+            ByteBuffer header = ByteBuffer.allocate((int) distanceOffset);
+            header.putInt(MAGIC).putInt(VERSION).putInt(graph.getNodes()).putInt(graph.getEdges()).putInt(portCount)
+                .putInt(chokepointIds.size());
+            for (String id : chokepointIds) {
+                byte[] bytes = id.getBytes(StandardCharsets.UTF_8);
+                header.putShort((short) bytes.length).put(bytes);
+            }
+            for (String unlocode : unlocodes) {
+                byte[] code = unlocode.getBytes(StandardCharsets.US_ASCII);
+                if (code.length > UNLOCODE_BYTES) {
+                    throw new IllegalArgumentException("UN/LOCODE too long: " + unlocode);
+                }
+                header.put(code).put(new byte[UNLOCODE_BYTES - code.length]);
+            }
+            header.flip();
+            writeFully(header, 0);
+        }
+
+        /**
+         * @param row       Source row
+         * @param distances Distance in meters per target row, -1 if unreachable
+         * @param times     Time in milliseconds per target row, -1 if unreachable
+         * @param masks     Chokepoint mask of the route per target row, 0 if unreachable
+         * @throws IOException if writing fails
+         */
+        public void writeRow(int row, int[] distances, long[] times, long[] masks) throws IOException {
+            long cells = (long) portCount * portCount;
+            ByteBuffer distanceBytes = ByteBuffer.allocate(portCount * Integer.BYTES);
+            distanceBytes.asIntBuffer().put(distances);
+            writeFully(distanceBytes, distanceOffset + (long) row * portCount * Integer.BYTES);
+            ByteBuffer timeBytes = ByteBuffer.allocate(portCount * Long.BYTES);
+            timeBytes.asLongBuffer().put(times);
+            long timeOffset = distanceOffset + cells * Integer.BYTES;
+            writeFully(timeBytes, timeOffset + (long) row * portCount * Long.BYTES);
+            ByteBuffer maskBytes = ByteBuffer.allocate(portCount * Long.BYTES);
+            maskBytes.asLongBuffer().put(masks);
+            writeFully(maskBytes, timeOffset + cells * Long.BYTES + (long) row * portCount * Long.BYTES);
+        }
+
+        private void writeFully(ByteBuffer buffer, long position) throws IOException {
+            while (buffer.hasRemaining()) {
+                position += channel.write(buffer, position);
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            channel.force(false);
+            channel.close();
+        }
+    }
+}
@@ -0,0 +1,196 @@
+package com.dynop.graphhopper.matrix.sea;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.logging.Logger;
+
+/**
+ * Table mapping UN/LOCODE seaports to their dedicated access nodes in the sea-lane graph.
+ *
+ * <p>The table is written by {@link com.dynop.graphhopper.matrix.sea.builder.SeaLaneGraphBuilder} as
+ * {@code port_nodes.json}, next to the graph. Each port becomes its own graph node, connected to nearby
+ * ocean waypoints with land-checked connector edges. At runtime, Stage 2 of port snapping is then a
+ * table lookup instead of a {@code LocationIndex.findClosest} search per port and request.
+ *
+ * <p>After {@link #alignTo(UnlocodePortSnapper)} the table also holds a primitive array indexed by
+ * the snapper's port index, so the lookup on the request path is a single array read.
+ *
+ * <h2>Usage</h2>
+ * <pre>{@code
+ * PortNodeTable table = PortNodeTable.loadFrom(Path.of("graph-cache/sea/port_nodes.json"))
+ *     .alignTo(portSnapper);
+ * int node = table.getNode(portBatch.getPortIndex(i));  // NO_NODE if the port is not in the graph
+ * }</pre>
+ *
+ * @see SeaNodeSnapper#towerSnap(com.graphhopper.storage.BaseGraph, int, com.graphhopper.routing.util.EdgeFilter, double, double)
+ */
+public final class PortNodeTable {
+
+    /**
+     * File name of the table in the sea graph directory.
+     */
+    public static final String FILE_NAME = "port_nodes.json";
+
+    /**
+     * Returned by lookups for ports without an access node.
+     */
+    public static final int NO_NODE = -1;
+
+    private static final Logger LOGGER = Logger.getLogger(PortNodeTable.class.getName());
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final PortNodeTable EMPTY = new PortNodeTable(Collections.emptyMap());
+
+    private final Map<String, Integer> nodesByUnlocode;
+    private final int[] nodeByPortIndex;
+
+    /**
+     * Creates a table from the given UN/LOCODE to node mapping.
+     *
+     * @param nodesByUnlocode Map of UN/LOCODE to access node ID
+     */
+    public PortNodeTable(Map<String, Integer> nodesByUnlocode) {
+        this(nodesByUnlocode, new int[0]);
+    }
+
+    private PortNodeTable(Map<String, Integer> nodesByUnlocode, int[] nodeByPortIndex) {
+        this.nodesByUnlocode = Collections.unmodifiableMap(new LinkedHashMap<>(nodesByUnlocode));
+        this.nodeByPortIndex = nodeByPortIndex;
+    }
+
+    /**
+     * @return Empty table (every lookup returns {@link #NO_NODE})
+     */
+    public static PortNodeTable empty() {
+        return EMPTY;
+    }
+
+    /**
+     * Load the table from a JSON file written by the sea graph builder.
+     *
+     * @param tableFile Path to port_nodes.json
+     * @return Loaded table, or an empty table if the file does not exist
+     * @throws IOException if the file cannot be read or parsed
+     */
+    public static PortNodeTable loadFrom(Path tableFile) throws IOException {
+        if (!Files.exists(tableFile)) {
+            LOGGER.info(() -> "Port node table not found: " + tableFile +
+                ", Stage 2 snapping falls back to the location index");
+            return EMPTY;
+        }
+
+        PortNodeFile file = MAPPER.readValue(Files.readString(tableFile), PortNodeFile.class);
+        Map<String, Integer> nodes = new LinkedHashMap<>();
+        for (PortNodeEntry entry : file.ports) {
+            nodes.put(entry.unlocode, entry.node);
+        }
+
+        LOGGER.info(() -> String.format("Loaded %d port access nodes from %s",
+            nodes.size(), tableFile.getFileName()));
+        return new PortNodeTable(nodes);
+    }
+
+    /**
+     * Save the table as JSON.
+     *
+     * @param tableFile Path to write to
+     * @throws IOException if writing fails
+     */
+    public void saveTo(Path tableFile) throws IOException {
+        List<PortNodeEntry> entries = new ArrayList<>(nodesByUnlocode.size());
+        nodesByUnlocode.forEach((unlocode, node) -> entries.add(new PortNodeEntry(unlocode, node)));
+        MAPPER.writerWithDefaultPrettyPrinter().writeValue(tableFile.toFile(), new PortNodeFile(entries));
+        LOGGER.info(() -> String.format("Saved %d port access nodes to %s",
+            entries.size(), tableFile.getFileName()));
+    }
+
+    /**
+     * Create a copy of this table with a primitive lookup array aligned to the snapper's port indices.
+     *
+     * @param snapper Port snapper whose indices are used at runtime
+     * @return Aligned table
+     */
+    public PortNodeTable alignTo(UnlocodePortSnapper snapper) {
+        int[] aligned = new int[snapper.getPortCount()];
+        int matched = 0;
+        for (int i = 0; i < aligned.length; i++) {
+            Integer node = nodesByUnlocode.get(snapper.getPort(i).getUnlocode());
+            aligned[i] = node != null ? node : NO_NODE;
+            if (node != null) {
+                matched++;
+            }
+        }
+        int finalMatched = matched;
+        LOGGER.info(() -> String.format("Port node table covers %d of %d loaded seaports",
+            finalMatched, aligned.length));
+        return new PortNodeTable(nodesByUnlocode, aligned);
+    }
+
+    /**
+     * @param portIndex Port index in the aligned snapper
+     * @return Access node ID, or {@link #NO_NODE}
+     */
+    public int getNode(int portIndex) {
+        return portIndex >= 0 && portIndex < nodeByPortIndex.length ? nodeByPortIndex[portIndex] : NO_NODE;
+    }
+
+    /**
+     * @param unlocode UN/LOCODE identifier (e.g., "NLRTM")
+     * @return Access node ID, or {@link #NO_NODE}
+     */
+    public int getNode(String unlocode) {
+        return nodesByUnlocode.getOrDefault(unlocode, NO_NODE);
+    }
+
+    /**
+     * @return Unmodifiable map of UN/LOCODE to access node ID
+     */
+    public Map<String, Integer> getNodesByUnlocode() {
+        return nodesByUnlocode;
+    }
+
+    /**
+     * @return Number of ports with an access node
+     */
+    public int size() {
+        return nodesByUnlocode.size();
+    }
+
+    /**
+     * JSON structure for the port node table file.
+     */
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    private static class PortNodeFile {
+        @JsonProperty("ports")
+        List<PortNodeEntry> ports;
+
+        @JsonCreator
+        PortNodeFile(@JsonProperty("ports") List<PortNodeEntry> ports) {
+            this.ports = ports != null ? ports : Collections.emptyList();
+        }
+    }
+
+    /**
+     * JSON structure for a single port entry.
+     */
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    private static class PortNodeEntry {
+        @JsonProperty("unlocode")
+        String unlocode;
+
+        @JsonProperty("node")
+        int node;
+
+        @JsonCreator
+        PortNodeEntry(@JsonProperty("unlocode") String unlocode, @JsonProperty("node") int node) {
+            this.unlocode = unlocode;
+            this.node = node;
+        }
+    }
+}
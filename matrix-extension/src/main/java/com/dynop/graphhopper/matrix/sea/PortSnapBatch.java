@@ -0,0 +1,183 @@
+package com.dynop.graphhopper.matrix.sea;
+
+import java.util.BitSet;
+import java.util.Objects;
+
+/**
+ * Compact result of a batch Stage 1 snap produced by
+ * {@link UnlocodePortSnapper#snapBatch(double[], BitSet, java.util.concurrent.ExecutorService)}.
+ *
+ * <p>Results are stored as parallel primitive arrays indexed by point:
+ * <ul>
+ *   <li>{@code portIndices[i]}: index of the snapped port in the snapper, or {@link #NO_PORT}</li>
+ *   <li>{@code snapDistancesKm[i]}: distance to the nearest port (also set when the guardrail rejected it)</li>
+ *   <li>{@code nearestPortIndices[i]}: nearest port regardless of the guardrail, for error reporting</li>
+ * </ul>
+ *
+ * <p>{@link PortSnapResult} objects are only materialized on demand via {@link #toResult(int)},
+ * so the hot path of a large matrix request never allocates per-point result objects.
+ *
+ * @see UnlocodePortSnapper
+ */
+public final class PortSnapBatch {
+
+    /**
+     * Marker stored in {@code portIndices} for points that could not be snapped.
+     */
+    public static final int NO_PORT = -1;
+
+    private final UnlocodePortSnapper snapper;
+    private final double[] coordinates;
+    private final BitSet sourceMask;
+    private final int[] portIndices;
+    private final int[] nearestPortIndices;
+    private final double[] snapDistancesKm;
+
+    /**
+     * Assembles a batch from parallel arrays, e.g. when some points were resolved from a cache.
+     * 
+     * @param snapper            Snapper the port indices refer to
+     * @param coordinates        Interleaved user coordinates {@code [lat0, lon0, ...]}
+     * @param sourceMask         Bitset of source (POL) point indices
+     * @param portIndices        Snapped port index per point, or {@link #NO_PORT}
+     * @param nearestPortIndices Nearest port index per point regardless of range, or {@link #NO_PORT}
+     * @param snapDistancesKm    Distance to the nearest port per point in kilometers
+     */
+    public PortSnapBatch(UnlocodePortSnapper snapper, double[] coordinates, BitSet sourceMask,
+                         int[] portIndices, int[] nearestPortIndices, double[] snapDistancesKm) {
+        this.snapper = Objects.requireNonNull(snapper, "snapper");
+        this.coordinates = coordinates;
+        this.sourceMask = sourceMask;
+        this.portIndices = portIndices;
+        this.nearestPortIndices = nearestPortIndices;
+        this.snapDistancesKm = snapDistancesKm;
+    }
+
+    /**
+     * @return Number of points in the batch
+     */
+    public int size() {
+        return portIndices.length;
+    }
+
+    /**
+     * @param point Point index
+     * @return true if the point was snapped to a port within range
+     */
+    public boolean isSnapped(int point) {
+        return portIndices[point] != NO_PORT;
+    }
+
+    /**
+     * @param point Point index
+     * @return Index of the snapped port in the snapper, or {@link #NO_PORT}
+     */
+    public int getPortIndex(int point) {
+        return portIndices[point];
+    }
+
+    /**
+     * @param point Point index
+     * @return Nearest port index regardless of the snap distance guardrail, or {@link #NO_PORT}
+     */
+    public int getNearestPortIndex(int point) {
+        return nearestPortIndices[point];
+    }
+
+    /**
+     * @param point Point index
+     * @return Distance to the nearest port in kilometers, or {@code NaN} if no ports are loaded
+     */
+    public double getSnapDistanceKm(int point) {
+        return snapDistancesKm[point];
+    }
+
+    /**
+     * @param point Point index
+     * @return Port role derived from the source membership bitset
+     */
+    public PortRole getRole(int point) {
+        return sourceMask.get(point) ? PortRole.PORT_OF_LOADING : PortRole.PORT_OF_DISCHARGE;
+    }
+
+    /**
+     * @param point Point index
+     * @return User latitude of the point
+     */
+    public double getLat(int point) {
+        return coordinates[2 * point];
+    }
+
+    /**
+     * @param point Point index
+     * @return User longitude of the point
+     */
+    public double getLon(int point) {
+        return coordinates[2 * point + 1];
+    }
+
+    /**
+     * @return Backing array of port indices (do not modify)
+     */
+    public int[] portIndices() {
+        return portIndices;
+    }
+
+    /**
+     * @return Backing array of snap distances in kilometers (do not modify)
+     */
+    public double[] snapDistancesKm() {
+        return snapDistancesKm;
+    }
+
+    /**
+     * Materialize the snap metadata of a successfully snapped point.
+     *
+     * @param point Point index
+     * @return PortSnapResult for the point
+     * @throws IllegalStateException if the point was not snapped
+     */
+    public PortSnapResult toResult(int point) {
+        int portIndex = portIndices[point];
+        if (portIndex == NO_PORT) {
+            throw new IllegalStateException("Point " + point + " was not snapped to a port");
+        }
+        Port port = snapper.getPort(portIndex);
+        return new PortSnapResult(
+            port.getUnlocode(),
+            port.getName(),
+            port.getLat(),
+            port.getLon(),
+            getLat(point),
+            getLon(point),
+            snapDistancesKm[point],
+            "NEAREST_SEAPORT",
+            getRole(point)
+        );
+    }
+
+    /**
+     * Describe why a point could not be snapped, mirroring the exception thrown by
+     * {@link UnlocodePortSnapper#snapToPort(double, double, PortRole)}.
+     *
+     * @param point Point index
+     * @return PortSnapException describing the failure
+     * @throws IllegalStateException if the point was snapped successfully
+     */
+    public PortSnapException toException(int point) {
+        if (portIndices[point] != NO_PORT) {
+            throw new IllegalStateException("Point " + point + " was snapped successfully");
+        }
+        int nearest = nearestPortIndices[point];
+        if (nearest == NO_PORT) {
+            return new PortSnapException("NO_SEAPORT_FOUND", getLat(point), getLon(point), getRole(point));
+        }
+        return new PortSnapException(
+            "NO_SEAPORT_WITHIN_RANGE",
+            getLat(point), getLon(point),
+            snapper.getPort(nearest).getUnlocode(),
+            snapDistancesKm[point],
+            getRole(point)
+        );
+    }
+}
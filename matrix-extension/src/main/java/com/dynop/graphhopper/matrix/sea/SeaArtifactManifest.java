@@ -0,0 +1,217 @@
+package com.dynop.graphhopper.matrix.sea;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.graphhopper.storage.BaseGraph;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+import java.util.stream.Stream;
+
+/**
+ * Manifest of the runtime artifacts in a sea graph directory.
+ *
+ * <p>Written by {@link com.dynop.graphhopper.matrix.sea.builder.SeaLaneGraphBuilder} as
+ * {@code artifact_manifest.json} once the graph, location index, CH, landmarks, component indexes and
+ * port table are persisted. It records the size and SHA-256 of every file plus the graph's node and
+ * edge counts. The server verifies the manifest before loading, so a partially copied or mixed-up
+ * directory is detected at startup instead of being repaired by preparing artifacts on the spot.
+ *
+ * <h2>Usage</h2>
+ * <pre>{@code
+ * SeaArtifactManifest manifest = SeaArtifactManifest.loadFrom(dir.resolve(SeaArtifactManifest.FILE_NAME));
+ * List<String> problems = manifest.verify(dir, baseGraph, false);  // sizes and counts only
+ * }</pre>
+ */
+public final class SeaArtifactManifest {
+
+    /**
+     * File name of the manifest in the sea graph directory.
+     */
+    public static final String FILE_NAME = "artifact_manifest.json";
+
+    private static final int VERSION = 1;
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private final String graphVersion;
+    private final int nodeCount;
+    private final int edgeCount;
+    private final Map<String, ArtifactEntry> artifacts;
+
+    private SeaArtifactManifest(String graphVersion, int nodeCount, int edgeCount, Map<String, ArtifactEntry> artifacts) {
+        this.graphVersion = graphVersion;
+        this.nodeCount = nodeCount;
+        this.edgeCount = edgeCount;
+        this.artifacts = Collections.unmodifiableMap(artifacts);
+    }
+
+    /**
+     * Describe the files of a graph directory.
+     *
+     * @param graphDir     Sea graph directory with all artifacts flushed
+     * @param graphVersion Version string of the build
+     * @param graph        The built graph
+     * @param excluded     File names to leave out (e.g. the build summary, which is rewritten later)
+     * @return Manifest over all regular files in the directory, sorted by name
+     * @throws IOException if a file cannot be read
+     */
+    public static SeaArtifactManifest create(Path graphDir, String graphVersion, BaseGraph graph,
+                                             Collection<String> excluded) throws IOException {
+        Map<String, ArtifactEntry> artifacts = new TreeMap<>();
+        try (Stream<Path> files = Files.list(graphDir)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                String name = file.getFileName().toString();
+                if (!Files.isRegularFile(file) || name.equals(FILE_NAME) || excluded.contains(name)) {
+                    continue;
+                }
+                artifacts.put(name, new ArtifactEntry(Files.size(file), sha256(file)));
+            }
+        }
+        return new SeaArtifactManifest(graphVersion, graph.getNodes(), graph.getEdges(), artifacts);
+    }
+
+    /**
+     * @param file Path to artifact_manifest.json
+     * @return Loaded manifest, or null if the file does not exist
+     * @throws IOException if the file cannot be read or parsed
+     */
+    public static SeaArtifactManifest loadFrom(Path file) throws IOException {
+        if (!Files.exists(file)) {
+            return null;
+        }
+        ManifestFile parsed = MAPPER.readValue(Files.readString(file), ManifestFile.class);
+        if (parsed.version != VERSION) {
+            throw new IOException("Unsupported artifact manifest version " + parsed.version + " in " + file);
+        }
+        return new SeaArtifactManifest(parsed.graphVersion, parsed.nodeCount, parsed.edgeCount,
+            new TreeMap<>(parsed.artifacts));
+    }
+
+    /**
+     * Save the manifest as JSON.
+     *
+     * @param file Path to write to
+     * @throws IOException if writing fails
+     */
+    public void saveTo(Path file) throws IOException {
+        MAPPER.writerWithDefaultPrettyPrinter().writeValue(file.toFile(),
+            new ManifestFile(VERSION, graphVersion, nodeCount, edgeCount, artifacts));
+    }
+
+    /**
+     * Check a graph directory against the manifest.
+     *
+     * @param graphDir  Sea graph directory
+     * @param graph     Loaded graph, or null to skip the node and edge count check
+     * @param checksums Also compare SHA-256 checksums (reads every file completely)
+     * @return Human-readable problems, empty if the directory matches
+     * @throws IOException if a file cannot be read
+     */
+    public List<String> verify(Path graphDir, BaseGraph graph, boolean checksums) throws IOException {
+        List<String> problems = new ArrayList<>();
+        if (graph != null && (graph.getNodes() != nodeCount || graph.getEdges() != edgeCount)) {
+            problems.add(String.format("graph has %d nodes and %d edges, manifest expects %d and %d",
+                graph.getNodes(), graph.getEdges(), nodeCount, edgeCount));
+        }
+        for (Map.Entry<String, ArtifactEntry> entry : artifacts.entrySet()) {
+            Path file = graphDir.resolve(entry.getKey());
+            if (!Files.isRegularFile(file)) {
+                problems.add("missing " + entry.getKey());
+            } else if (Files.size(file) != entry.getValue().size) {
+                problems.add(String.format("%s has %d bytes, manifest expects %d",
+                    entry.getKey(), Files.size(file), entry.getValue().size));
+            } else if (checksums && !sha256(file).equals(entry.getValue().sha256)) {
+                problems.add("checksum mismatch for " + entry.getKey());
+            }
+        }
+        return problems;
+    }
+
+    /**
+     * @return Version string of the build that wrote the manifest
+     */
+    public String getGraphVersion() {
+        return graphVersion;
+    }
+
+    /**
+     * @return Unmodifiable set of artifact file names
+     */
+    public Set<String> getArtifactNames() {
+        return artifacts.keySet();
+    }
+
+    private static String sha256(Path file) throws IOException {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+        try (InputStream in = new DigestInputStream(Files.newInputStream(file), digest)) {
+            in.transferTo(OutputStream.nullOutputStream());
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    /**
+     * JSON structure for a single artifact.
+     */
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    private static class ArtifactEntry {
+        @JsonProperty("size")
+        long size;
+
+        @JsonProperty("sha256")
+        String sha256;
+
+        @JsonCreator
+        ArtifactEntry(@JsonProperty("size") long size, @JsonProperty("sha256") String sha256) {
+            this.size = size;
+            this.sha256 = sha256;
+        }
+    }
+
+    /**
+     * JSON structure for the manifest file.
+     */
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    private static class ManifestFile {
+        @JsonProperty("manifest_version")
+        int version;
+
+        @JsonProperty("sea_graph_version")
+        String graphVersion;
+
+        @JsonProperty("node_count")
+        int nodeCount;
+
+        @JsonProperty("edge_count")
+        int edgeCount;
+
+        @JsonProperty("artifacts")
+        Map<String, ArtifactEntry> artifacts;
+
+        @JsonCreator
+        ManifestFile(@JsonProperty("manifest_version") int version,
+                     @JsonProperty("sea_graph_version") String graphVersion,
+                     @JsonProperty("node_count") int nodeCount,
+                     @JsonProperty("edge_count") int edgeCount,
+                     @JsonProperty("artifacts") Map<String, ArtifactEntry> artifacts) {
+            this.version = version;
+            this.graphVersion = graphVersion;
+            this.nodeCount = nodeCount;
+            this.edgeCount = edgeCount;
+            this.artifacts = artifacts != null ? artifacts : Collections.emptyMap();
+        }
+    }
+}
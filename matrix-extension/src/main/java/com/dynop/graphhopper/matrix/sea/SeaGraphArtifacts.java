@@ -0,0 +1,208 @@
+package com.dynop.graphhopper.matrix.sea;
+
+import com.graphhopper.config.Profile;
+import com.graphhopper.json.Statement;
+import com.graphhopper.routing.ch.PrepareContractionHierarchies;
+import com.graphhopper.routing.ev.Subnetwork;
+import com.graphhopper.routing.ev.VehicleAccess;
+import com.graphhopper.routing.ev.VehicleSpeed;
+import com.graphhopper.routing.lm.LMConfig;
+import com.graphhopper.routing.lm.LandmarkStorage;
+import com.graphhopper.routing.lm.PrepareLandmarks;
+import com.graphhopper.routing.util.EncodingManager;
+import com.graphhopper.routing.weighting.TurnCostProvider;
+import com.graphhopper.routing.weighting.Weighting;
+import com.graphhopper.routing.weighting.custom.CustomModelParser;
+import com.graphhopper.storage.BaseGraph;
+import com.graphhopper.storage.CHConfig;
+import com.graphhopper.storage.CHStorage;
+import com.graphhopper.storage.Directory;
+import com.graphhopper.storage.RoutingCHGraph;
+import com.graphhopper.storage.RoutingCHGraphImpl;
+import com.graphhopper.storage.index.LocationIndexTree;
+import com.graphhopper.util.CustomModel;
+
+/**
+ * Encoding, routing profile and prepared routing artifacts of the sea-lane graph, shared by the builder
+ * and the runtime loader.
+ *
+ * <p>{@link com.dynop.graphhopper.matrix.sea.builder.SeaLaneGraphBuilder} prepares the location index,
+ * the contraction hierarchy and the landmarks of the {@value #PROFILE_NAME} profile next to the graph.
+ * The server only loads them; the {@code load*} methods return null instead of preparing anything
+ * when an artifact is missing. Both sides take the encoding and weighting from here, so a prepared
+ * artifact always matches the weighting it is queried with.
+ */
+public final class SeaGraphArtifacts {
+
+    /**
+     * Configuration key that makes the server refuse to start unless every artifact was prebuilt.
+     */
+    public static final String REQUIRE_PREBUILT_CONFIG_KEY = "sea.artifacts.require_prebuilt";
+
+    /**
+     * Name of the sea routing profile, its CH and its landmarks.
+     */
+    public static final String PROFILE_NAME = "ship";
+
+    /**
+     * File name of the persisted location index in the sea graph directory.
+     */
+    public static final String LOCATION_INDEX_FILE = "location_index";
+
+    /**
+     * Number of landmarks prepared for the sea profile.
+     */
+    public static final int LANDMARKS = 16;
+
+    /**
+     * Location index search radius in tiles. The coarse sea grid (5° ≈ 555 km) needs a large radius.
+     */
+    public static final int MAX_REGION_SEARCH = 512;
+
+    private static final double SHIP_SPEED_KMH = 25;
+
+    private SeaGraphArtifacts() {
+    }
+
+    /**
+     * @return Encoding manager of the sea graph: access, speed and the landmark subnetwork flag
+     */
+    public static EncodingManager createEncodingManager() {
+        return EncodingManager.start()
+            .add(VehicleAccess.create("car"))
+            .add(VehicleSpeed.create("car", 5, 5, false))
+            .add(Subnetwork.create(PROFILE_NAME))
+            .build();
+    }
+
+    /**
+     * @return Custom model of the sea profile (typical container ship speed, time-optimal)
+     */
+    public static CustomModel createCustomModel() {
+        CustomModel customModel = new CustomModel();
+        customModel.setDistanceInfluence(0.001);  // Low distance influence for time-optimal routing
+        customModel.addToSpeed(Statement.If("true", Statement.Op.LIMIT, String.valueOf(SHIP_SPEED_KMH)));
+        return customModel;
+    }
+
+    /**
+     * @return Sea routing profile with a custom weighting
+     */
+    public static Profile createProfile() {
+        Profile profile = new Profile(PROFILE_NAME);
+        profile.setWeighting("custom");
+        profile.setCustomModel(createCustomModel());
+        return profile;
+    }
+
+    /**
+     * @param encodingManager Encoding manager from {@link #createEncodingManager()}
+     * @return Weighting of the sea profile
+     */
+    public static Weighting createWeighting(EncodingManager encodingManager) {
+        return CustomModelParser.createWeighting(encodingManager, TurnCostProvider.NO_TURN_COST_PROVIDER,
+            createCustomModel());
+    }
+
+    /**
+     * Prepare and persist the location index.
+     *
+     * @param graph Complete sea graph
+     * @param dir   Graph directory
+     * @return Prepared index, to be closed by the caller
+     */
+    public static LocationIndexTree prepareLocationIndex(BaseGraph graph, Directory dir) {
+        LocationIndexTree index = new LocationIndexTree(graph, dir);
+        index.prepareIndex();
+        index.flush();
+        return index;
+    }
+
+    /**
+     * Load the persisted location index.
+     *
+     * @param graph Loaded sea graph
+     * @param dir   Graph directory
+     * @return Loaded index, or null if it is missing or does not belong to the graph
+     */
+    public static LocationIndexTree loadLocationIndex(BaseGraph graph, Directory dir) {
+        LocationIndexTree index = new LocationIndexTree(graph, dir);
+        index.setMaxRegionSearch(MAX_REGION_SEARCH);
+        if (!index.loadExisting()) {
+            index.close();
+            return null;
+        }
+        return index;
+    }
+
+    /**
+     * Prepare and persist the node-based contraction hierarchy of the sea profile.
+     *
+     * @param graph     Complete, frozen sea graph
+     * @param weighting Weighting from {@link #createWeighting(EncodingManager)}
+     * @return Prepared CH storage, to be closed by the caller
+     */
+    public static CHStorage prepareCH(BaseGraph graph, Weighting weighting) {
+        CHStorage storage = PrepareContractionHierarchies.fromGraph(graph, CHConfig.nodeBased(PROFILE_NAME, weighting))
+            .doWork()
+            .getCHStorage();
+        storage.flush();
+        return storage;
+    }
+
+    /**
+     * Load the persisted contraction hierarchy.
+     *
+     * @param graph     Loaded sea graph
+     * @param dir       Graph directory
+     * @param weighting Weighting from {@link #createWeighting(EncodingManager)}
+     * @return Routing CH graph, or null if the hierarchy is missing
+     */
+    public static RoutingCHGraph loadCH(BaseGraph graph, Directory dir, Weighting weighting) {
+        CHConfig chConfig = CHConfig.nodeBased(PROFILE_NAME, weighting);
+        CHStorage storage = new CHStorage(dir, chConfig.getName(), -1, chConfig.isEdgeBased());
+        if (!storage.loadExisting()) {
+            storage.close();
+            return null;
+        }
+        return RoutingCHGraphImpl.fromGraph(graph, storage, chConfig);
+    }
+
+    /**
+     * Prepare and persist the landmarks of the sea profile.
+     *
+     * @param graph           Complete, frozen sea graph
+     * @param encodingManager Encoding manager of the graph
+     * @param dir             Graph directory
+     * @param weighting       Weighting from {@link #createWeighting(EncodingManager)}
+     * @return Prepared landmarks, to be closed by the caller
+     */
+    public static LandmarkStorage prepareLandmarks(BaseGraph graph, EncodingManager encodingManager, Directory dir,
+                                                   Weighting weighting) {
+        PrepareLandmarks prepare = new PrepareLandmarks(dir, graph, encodingManager,
+            new LMConfig(PROFILE_NAME, weighting), LANDMARKS);
+        prepare.doWork();
+        prepare.getLandmarkStorage().flush();
+        return prepare.getLandmarkStorage();
+    }
+
+    /**
+     * Load the persisted landmarks.
+     *
+     * @param graph           Loaded sea graph
+     * @param encodingManager Encoding manager of the graph
+     * @param dir             Graph directory
+     * @param weighting       Weighting from {@link #createWeighting(EncodingManager)}
+     * @return Landmarks, or null if they are missing
+     */
+    public static LandmarkStorage loadLandmarks(BaseGraph graph, EncodingManager encodingManager, Directory dir,
+                                                Weighting weighting) {
+        PrepareLandmarks prepare = new PrepareLandmarks(dir, graph, encodingManager,
+            new LMConfig(PROFILE_NAME, weighting), LANDMARKS);
+        if (!prepare.loadExisting()) {
+            prepare.getLandmarkStorage().close();
+            return null;
+        }
+        return prepare.getLandmarkStorage();
+    }
+}
@@ -0,0 +1,68 @@
+package com.dynop.graphhopper.matrix.sea;
+
+import com.graphhopper.storage.DAType;
+import com.graphhopper.storage.Directory;
+import com.graphhopper.storage.GHDirectory;
+
+import java.util.Locale;
+
+/**
+ * Storage mode of the sea-lane graph, shared by the builder and the runtime loader.
+ *
+ * <p>{@code RAM_STORE} (default) keeps the graph on-heap and reads/writes it as files. {@code MMAP}
+ * memory-maps the same files: the builder writes nodes and edges off-heap, and the loader maps the
+ * persisted graph so pages are faulted in on demand. Both modes use the same file format, so a graph
+ * built in one mode can be loaded in the other.
+ *
+ * <h2>Configuration</h2>
+ * <pre>{@code
+ * graphhopper:
+ *   sea.graph.dataaccess: MMAP   # or RAM_STORE
+ * }</pre>
+ */
+public final class SeaGraphDataAccess {
+
+    /**
+     * Configuration key of the sea graph storage mode.
+     */
+    public static final String CONFIG_KEY = "sea.graph.dataaccess";
+
+    /**
+     * Default storage mode.
+     */
+    public static final DAType DEFAULT = DAType.RAM_STORE;
+
+    private SeaGraphDataAccess() {
+    }
+
+    /**
+     * Parse a storage mode.
+     *
+     * @param value {@code RAM_STORE} or {@code MMAP} (case-insensitive); null or blank selects the default
+     * @return Parsed storage mode
+     * @throws IllegalArgumentException if the value does not name a persistent mode
+     */
+    public static DAType parse(String value) {
+        if (value == null || value.isBlank()) {
+            return DEFAULT;
+        }
+        String normalized = value.trim().toUpperCase(Locale.ROOT);
+        if (normalized.equals("MMAP")) {
+            return DAType.MMAP;
+        }
+        if (normalized.equals("RAM_STORE")) {
+            return DAType.RAM_STORE;
+        }
+        throw new IllegalArgumentException(
+                "Unsupported " + CONFIG_KEY + " '" + value + "', expected RAM_STORE or MMAP");
+    }
+
+    /**
+     * @param location Sea graph directory
+     * @param type     Storage mode
+     * @return Directory for the graph and its location index
+     */
+    public static Directory createDirectory(String location, DAType type) {
+        return new GHDirectory(location, type);
+    }
+}
@@ -1,9 +1,13 @@
 package com.dynop.graphhopper.matrix.sea;
 
 import com.graphhopper.routing.util.EdgeFilter;
+import com.graphhopper.storage.BaseGraph;
+import com.graphhopper.storage.NodeAccess;
 import com.graphhopper.storage.index.LocationIndex;
 import com.graphhopper.storage.index.Snap;
+import com.graphhopper.util.EdgeIterator;
 import com.graphhopper.util.shapes.GHPoint;
+import com.graphhopper.util.shapes.GHPoint3D;
 
 import java.util.Objects;
 
@@ -17,6 +21,8 @@ import java.util.Objects;
  * </ol>
  * 
  * <p>Uses GraphHopper's LocationIndex for efficient spatial queries against the sea graph.
+ * Ports that the builder connected as dedicated access nodes (see {@link PortNodeTable}) skip the
+ * spatial query entirely via {@link #towerSnap(BaseGraph, int, EdgeFilter, double, double)}.
  * 
  * @see UnlocodePortSnapper
  */
@@ -91,6 +97,38 @@ public final class SeaNodeSnapper {
         return snapToGraph(point.getLat(), point.getLon());
     }
     
+    /**
+     * Create a snap placed exactly on a known graph node, e.g. a port access node.
+     * 
+     * <p>The closest edge is the first edge at the node accepted by the filter. If no edge is
+     * accepted, the returned snap is invalid so callers can fall back to the location index.
+     * 
+     * @param graph      Sea graph
+     * @param node       Node ID to snap to
+     * @param edgeFilter Filter the closest edge must pass (e.g. chokepoint exclusion)
+     * @param queryLat   Latitude of the queried coordinate
+     * @param queryLon   Longitude of the queried coordinate
+     * @return Tower snap at the node, or an invalid snap
+     */
+    public static Snap towerSnap(BaseGraph graph, int node, EdgeFilter edgeFilter, double queryLat, double queryLon) {
+        Snap snap = new Snap(queryLat, queryLon);
+        EdgeIterator iter = graph.createEdgeExplorer().setBaseNode(node);
+        while (iter.next()) {
+            if (!edgeFilter.accept(iter)) {
+                continue;
+            }
+            NodeAccess nodeAccess = graph.getNodeAccess();
+            snap.setClosestNode(node);
+            snap.setClosestEdge(iter.detach(false));
+            snap.setWayIndex(0);
+            snap.setSnappedPosition(Snap.Position.TOWER);
+            snap.setQueryDistance(0);
+            snap.setSnappedPoint(new GHPoint3D(nodeAccess.getLat(node), nodeAccess.getLon(node), Double.NaN));
+            return snap;
+        }
+        return snap;
+    }
+    
     /**
      * @return Maximum snap distance in meters
      */
@@ -13,6 +13,7 @@ import java.util.Optional;
 import java.util.Set;
 import java.util.logging.Level;
 import java.util.logging.Logger;
+import java.util.stream.Stream;
 
 /**
  * Loader for UN/LOCODE seaport data from official CSV files.
@@ -127,6 +128,33 @@ public final class UnlocodePortLoader {
         return ports;
     }
     
+    /**
+     * Load seaports from all UN/LOCODE code list CSV files in a directory.
+     * 
+     * <p>Files are matched by name ({@code *UNLOCODE*.csv}), which picks up the official
+     * CodeListPart1..3 files and skips the subdivision code list.
+     * 
+     * @param directory Directory containing the UN/LOCODE CSV files
+     * @return List of valid seaports (empty if no code list files are present)
+     * @throws IOException if listing or reading files fails
+     */
+    public List<Port> loadSeaportsFromDirectory(Path directory) throws IOException {
+        Path[] csvFiles;
+        try (Stream<Path> files = Files.list(directory)) {
+            csvFiles = files
+                .filter(p -> p.getFileName().toString().contains("UNLOCODE") &&
+                             p.getFileName().toString().endsWith(".csv"))
+                .sorted()
+                .toArray(Path[]::new);
+        }
+        
+        if (csvFiles.length == 0) {
+            LOGGER.info(() -> "No UN/LOCODE CSV files found in " + directory);
+            return new ArrayList<>();
+        }
+        return loadSeaports(csvFiles);
+    }
+    
     /**
      * Parse a CSV line and create a Port if it meets all filtering criteria.
      * 
@@ -1,7 +1,13 @@
 package com.dynop.graphhopper.matrix.sea;
 
+import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.List;
 import java.util.Objects;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 
 /**
  * Snaps user coordinates to the nearest valid UN/LOCODE seaport.
@@ -16,7 +22,11 @@ import java.util.Objects;
  * The same snapping logic is applied for both Port of Loading (POL) and 
  * Port of Discharge (POD).
  * 
+ * <p>Large requests should use {@link #snapBatch(double[], BitSet, ExecutorService)}, which snaps
+ * chunks of points in parallel and returns compact arrays instead of per-point result objects.
+ * 
  * @see PortSnapResult
+ * @see PortSnapBatch
  * @see PortSnapException
  */
 public final class UnlocodePortSnapper {
@@ -27,9 +37,17 @@ public final class UnlocodePortSnapper {
      */
     public static final double DEFAULT_MAX_SNAP_DISTANCE_KM = 300.0;
     
+    /**
+     * Number of points snapped per task in {@link #snapBatch(double[], BitSet, ExecutorService)}.
+     * Batches at or below this size are snapped on the calling thread.
+     */
+    static final int BATCH_CHUNK_SIZE = 256;
+    
     private static final double EARTH_RADIUS_KM = 6371.0;
     
     private final List<Port> ports;
+    private final double[] portLats;
+    private final double[] portLons;
     private final double maxSnapDistanceKm;
     
     /**
@@ -48,7 +66,13 @@ public final class UnlocodePortSnapper {
      * @param maxSnapDistanceKm Maximum snap distance in kilometers
      */
     public UnlocodePortSnapper(List<Port> ports, double maxSnapDistanceKm) {
-        this.ports = Objects.requireNonNull(ports, "ports");
+        this.ports = List.copyOf(Objects.requireNonNull(ports, "ports"));
+        this.portLats = new double[this.ports.size()];
+        this.portLons = new double[this.ports.size()];
+        for (int i = 0; i < this.ports.size(); i++) {
+            portLats[i] = this.ports.get(i).getLat();
+            portLons[i] = this.ports.get(i).getLon();
+        }
         this.maxSnapDistanceKm = maxSnapDistanceKm;
     }
     
@@ -73,28 +97,20 @@ public final class UnlocodePortSnapper {
             throw new PortSnapException("NO_SEAPORT_FOUND", lat, lon, role);
         }
         
-        Port nearest = null;
-        double nearestDistance = Double.MAX_VALUE;
-        
-        for (Port port : ports) {
-            double distance = haversineDistanceKm(lat, lon, port.getLat(), port.getLon());
-            if (distance < nearestDistance) {
-                nearestDistance = distance;
-                nearest = port;
-            }
-        }
-        
-        if (nearest == null) {
+        double[] nearestDistance = new double[1];
+        int nearestIndex = findNearestPort(lat, lon, nearestDistance);
+        if (nearestIndex < 0) {
             throw new PortSnapException("NO_SEAPORT_FOUND", lat, lon, role);
         }
+        Port nearest = ports.get(nearestIndex);
         
         // Enforce snap distance guardrail
-        if (nearestDistance > maxSnapDistanceKm) {
+        if (nearestDistance[0] > maxSnapDistanceKm) {
             throw new PortSnapException(
                 "NO_SEAPORT_WITHIN_RANGE",
                 lat, lon,
                 nearest.getUnlocode(),
-                nearestDistance,
+                nearestDistance[0],
                 role
             );
         }
@@ -106,7 +122,7 @@ public final class UnlocodePortSnapper {
             nearest.getLon(),
             lat,
             lon,
-            nearestDistance,
+            nearestDistance[0],
             "NEAREST_SEAPORT",
             role
         );
@@ -125,6 +141,89 @@ public final class UnlocodePortSnapper {
         return snapToPort(lat, lon, role);
     }
     
+    /**
+     * Snap a batch of user coordinates to their nearest UN/LOCODE seaports.
+     * 
+     * <p>Points are split into chunks of {@value #BATCH_CHUNK_SIZE} and snapped in parallel on the
+     * given executor. Each task only writes its own slice of the result arrays, so no synchronization
+     * is needed. Failed snaps do not throw; they are reported via {@link PortSnapBatch#isSnapped(int)}
+     * and can be described with {@link PortSnapBatch#toException(int)}.
+     * 
+     * @param coordinates Interleaved coordinates {@code [lat0, lon0, lat1, lon1, ...]}
+     * @param sourceMask  Bitset of point indices used as sources (POL); all other points are POD
+     * @param executor    Executor for parallel chunks, or null to snap on the calling thread
+     * @return Compact batch result with port index and snap distance per point
+     * @throws InterruptedException if interrupted while waiting for snap tasks
+     * @throws ExecutionException   if a snap task fails
+     */
+    public PortSnapBatch snapBatch(double[] coordinates, BitSet sourceMask, ExecutorService executor)
+            throws InterruptedException, ExecutionException {
+        Objects.requireNonNull(coordinates, "coordinates");
+        if (coordinates.length % 2 != 0) {
+            throw new IllegalArgumentException("coordinates must contain [lat, lon] pairs");
+        }
+        int pointCount = coordinates.length / 2;
+        int[] portIndices = new int[pointCount];
+        int[] nearestPortIndices = new int[pointCount];
+        double[] snapDistancesKm = new double[pointCount];
+        
+        if (executor == null || pointCount <= BATCH_CHUNK_SIZE) {
+            snapRange(coordinates, 0, pointCount, portIndices, nearestPortIndices, snapDistancesKm);
+        } else {
+            List<Callable<Void>> tasks = new ArrayList<>((pointCount + BATCH_CHUNK_SIZE - 1) / BATCH_CHUNK_SIZE);
+            for (int start = 0; start < pointCount; start += BATCH_CHUNK_SIZE) {
+                final int from = start;
+                final int to = Math.min(start + BATCH_CHUNK_SIZE, pointCount);
+                tasks.add(() -> {
+                    snapRange(coordinates, from, to, portIndices, nearestPortIndices, snapDistancesKm);
+                    return null;
+                });
+            }
+            for (Future<Void> future : executor.invokeAll(tasks)) {
+                future.get();
+            }
+        }
+        
+        return new PortSnapBatch(this, coordinates, sourceMask != null ? sourceMask : new BitSet(),
+                portIndices, nearestPortIndices, snapDistancesKm);
+    }
+    
+    private void snapRange(double[] coordinates, int from, int to,
+                           int[] portIndices, int[] nearestPortIndices, double[] snapDistancesKm) {
+        double[] distance = new double[1];
+        for (int i = from; i < to; i++) {
+            int nearest = findNearestPort(coordinates[2 * i], coordinates[2 * i + 1], distance);
+            nearestPortIndices[i] = nearest;
+            if (nearest < 0) {
+                portIndices[i] = PortSnapBatch.NO_PORT;
+                snapDistancesKm[i] = Double.NaN;
+            } else {
+                portIndices[i] = distance[0] > maxSnapDistanceKm ? PortSnapBatch.NO_PORT : nearest;
+                snapDistancesKm[i] = distance[0];
+            }
+        }
+    }
+    
+    /**
+     * Linear nearest-port scan over the primitive coordinate arrays.
+     * 
+     * @param distanceOut Receives the distance to the nearest port in kilometers
+     * @return Index of the nearest port, or -1 if no ports are loaded
+     */
+    private int findNearestPort(double lat, double lon, double[] distanceOut) {
+        int nearest = -1;
+        double nearestDistance = Double.MAX_VALUE;
+        for (int p = 0; p < portLats.length; p++) {
+            double distance = haversineDistanceKm(lat, lon, portLats[p], portLons[p]);
+            if (distance < nearestDistance) {
+                nearestDistance = distance;
+                nearest = p;
+            }
+        }
+        distanceOut[0] = nearestDistance;
+        return nearest;
+    }
+    
     /**
      * Calculate Haversine (great-circle) distance between two points.
      * 
@@ -154,6 +253,14 @@ public final class UnlocodePortSnapper {
         return maxSnapDistanceKm;
     }
     
+    /**
+     * @param index Port index as reported by {@link PortSnapBatch#getPortIndex(int)}
+     * @return Port at the given index
+     */
+    public Port getPort(int index) {
+        return ports.get(index);
+    }
+    
     /**
      * @return Number of ports in the snapper
      */
@@ -0,0 +1,97 @@
+package com.dynop.graphhopper.matrix.sea;
+
+import java.util.Objects;
+
+/**
+ * Domain object representing a class of vessels routed on the sea-lane graph.
+ *
+ * <p>The sea graph has a uniform speed, so the shortest route is the same for every class. A class
+ * only changes the travel time (via its service speed) and, through its draft, which chokepoints it
+ * can pass.
+ *
+ * @see VesselClassRegistry
+ */
+public final class VesselClass {
+
+    private static final double KNOTS_TO_KMH = 1.852;
+
+    private final String id;                 // e.g., "FEEDER", "ULCV"
+    private final String name;               // Human-readable name
+    private final double serviceSpeedKnots;  // Typical service speed
+    private final double draftMeters;        // Design draft
+
+    /**
+     * @param id                Stable identifier (e.g., "PANAMAX")
+     * @param name              Human-readable name
+     * @param serviceSpeedKnots Typical service speed in knots
+     * @param draftMeters       Design draft in meters
+     */
+    public VesselClass(String id, String name, double serviceSpeedKnots, double draftMeters) {
+        this.id = Objects.requireNonNull(id, "id");
+        this.name = Objects.requireNonNull(name, "name");
+        if (!(serviceSpeedKnots > 0)) {
+            throw new IllegalArgumentException("Service speed of " + id + " must be positive");
+        }
+        this.serviceSpeedKnots = serviceSpeedKnots;
+        this.draftMeters = draftMeters;
+    }
+
+    /**
+     * @return Stable vessel class identifier (e.g., "PANAMAX")
+     */
+    public String getId() {
+        return id;
+    }
+
+    /**
+     * @return Human-readable vessel class name
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * @return Typical service speed in knots
+     */
+    public double getServiceSpeedKnots() {
+        return serviceSpeedKnots;
+    }
+
+    /**
+     * @return Design draft in meters
+     */
+    public double getDraftMeters() {
+        return draftMeters;
+    }
+
+    /**
+     * Travel time of a route at the service speed.
+     *
+     * @param distanceMeters Route distance in meters, or -1 if unreachable
+     * @return Travel time in milliseconds, or -1 if unreachable
+     */
+    public long timeMillis(long distanceMeters) {
+        if (distanceMeters < 0) {
+            return -1;
+        }
+        return Math.round(distanceMeters * 3600.0 / (serviceSpeedKnots * KNOTS_TO_KMH));
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        VesselClass that = (VesselClass) o;
+        return id.equals(that.id);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(id);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("VesselClass{id='%s', speed=%.1fkn, draft=%.1fm}", id, serviceSpeedKnots, draftMeters);
+    }
+}
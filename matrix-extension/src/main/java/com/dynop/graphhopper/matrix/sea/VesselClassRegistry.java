@@ -0,0 +1,91 @@
+package com.dynop.graphhopper.matrix.sea;
+
+import java.util.*;
+
+/**
+ * Registry of vessel classes and of the chokepoint draft limits that restrict them.
+ *
+ * <p>A vessel class whose draft exceeds the limit of a chokepoint cannot pass it, so its routes are
+ * computed with that chokepoint excluded. Chokepoints without a limit are open to every class.
+ *
+ * <h2>Usage</h2>
+ * <pre>{@code
+ * VesselClassRegistry registry = VesselClassRegistry.defaults();
+ * VesselClass ulcv = registry.getVesselClass("ULCV");
+ * List<String> closed = registry.getRestrictedChokepoints(ulcv);  // ["PANAMA"]
+ * }</pre>
+ *
+ * @see VesselClass
+ */
+public final class VesselClassRegistry {
+
+    // Container ship classes with typical service speeds and design drafts
+    private static final List<VesselClass> DEFAULT_CLASSES = List.of(
+        new VesselClass("FEEDER", "Feeder", 18.0, 9.5),
+        new VesselClass("PANAMAX", "Panamax", 20.0, 12.0),
+        new VesselClass("NEO_PANAMAX", "Neo-Panamax", 21.0, 15.2),
+        new VesselClass("ULCV", "Ultra Large Container Vessel", 22.0, 16.0)
+    );
+
+    // Maximum draft in meters: Neopanamax locks, Suez Canal, Singapore Strait (Malaccamax)
+    private static final Map<String, Double> DEFAULT_DRAFT_LIMITS = Map.of(
+        "PANAMA", 15.2,
+        "SUEZ", 20.1,
+        "MALACCA", 20.5
+    );
+
+    private final Map<String, VesselClass> vesselClasses;
+    private final Map<String, Double> draftLimits;
+
+    /**
+     * @param vesselClasses Vessel classes (IDs must be unique)
+     * @param draftLimits   Maximum draft in meters by chokepoint ID
+     */
+    public VesselClassRegistry(Collection<VesselClass> vesselClasses, Map<String, Double> draftLimits) {
+        Map<String, VesselClass> byId = new LinkedHashMap<>();
+        for (VesselClass vesselClass : vesselClasses) {
+            if (byId.put(vesselClass.getId(), vesselClass) != null) {
+                throw new IllegalArgumentException("Duplicate vessel class: " + vesselClass.getId());
+            }
+        }
+        this.vesselClasses = Collections.unmodifiableMap(byId);
+        this.draftLimits = Map.copyOf(draftLimits);
+    }
+
+    /**
+     * @return Registry with the built-in container ship classes and draft limits
+     */
+    public static VesselClassRegistry defaults() {
+        return new VesselClassRegistry(DEFAULT_CLASSES, DEFAULT_DRAFT_LIMITS);
+    }
+
+    /**
+     * @param id Vessel class ID (e.g., "PANAMAX")
+     * @return Vessel class or null if not found
+     */
+    public VesselClass getVesselClass(String id) {
+        return vesselClasses.get(id);
+    }
+
+    /**
+     * @return Vessel class IDs in registration order
+     */
+    public Set<String> getVesselClassIds() {
+        return vesselClasses.keySet();
+    }
+
+    /**
+     * @param vesselClass Vessel class
+     * @return Sorted IDs of the chokepoints whose draft limit the class exceeds
+     */
+    public List<String> getRestrictedChokepoints(VesselClass vesselClass) {
+        List<String> restricted = new ArrayList<>();
+        for (Map.Entry<String, Double> limit : draftLimits.entrySet()) {
+            if (vesselClass.getDraftMeters() > limit.getValue()) {
+                restricted.add(limit.getKey());
+            }
+        }
+        Collections.sort(restricted);
+        return restricted;
+    }
+}
@@ -0,0 +1,98 @@
+package com.dynop.graphhopper.matrix.sea.builder;
+
+import com.carrotsearch.hppc.DoubleArrayList;
+
+/**
+ * Quadtree waypoint generator that is coarse in open ocean and fine near coastlines.
+ *
+ * <p>The globe between the latitude limits is tiled with top-level cells of the coarse step. A cell
+ * is split into four quadrants while land lies within one cell size of it (the cell box grown by its
+ * own size on every side), until the minimum step is reached. Cells entirely inside a land polygon
+ * are dropped. Every remaining leaf contributes one waypoint at its center.
+ *
+ * <p>Because the land test margin shrinks with the cell, refinement grades naturally from the
+ * coastline outwards: minimum-step cells form a thin band along the coast, surrounded by
+ * progressively coarser cells. Top-level cells are independent and may be refined concurrently.
+ */
+final class AdaptiveGrid {
+
+    private final LandIndex landIndex;
+    private final double coarseStepDegrees;
+    private final double minStepDegrees;
+    private final double minLat;
+    private final double maxLat;
+    private final double minLon;
+    private final double maxLon;
+    private final int latCells;
+    private final int lonCells;
+
+    /**
+     * @param landIndex         Land polygons
+     * @param coarseStepDegrees Cell size in open ocean
+     * @param minStepDegrees    Smallest cell size near land
+     * @param minLat            Southern limit of the grid
+     * @param maxLat            Northern limit of the grid
+     * @param minLon            Western limit of the grid
+     * @param maxLon            Eastern limit of the grid
+     */
+    AdaptiveGrid(LandIndex landIndex, double coarseStepDegrees, double minStepDegrees,
+                 double minLat, double maxLat, double minLon, double maxLon) {
+        if (minStepDegrees <= 0 || minStepDegrees > coarseStepDegrees) {
+            throw new IllegalArgumentException("Minimum step must be in (0, " + coarseStepDegrees + "]");
+        }
+        this.landIndex = landIndex;
+        this.coarseStepDegrees = coarseStepDegrees;
+        this.minStepDegrees = minStepDegrees;
+        this.minLat = minLat;
+        this.maxLat = maxLat;
+        this.minLon = minLon;
+        this.maxLon = maxLon;
+        this.latCells = (int) Math.ceil((maxLat - minLat) / coarseStepDegrees);
+        this.lonCells = (int) Math.ceil((maxLon - minLon) / coarseStepDegrees);
+    }
+
+    /**
+     * @return Number of top-level cells
+     */
+    int topCellCount() {
+        return latCells * lonCells;
+    }
+
+    /**
+     * Refine one top-level cell and append its leaves.
+     *
+     * @param topCell Top-level cell index in {@code [0, topCellCount())}, row-major from south-west
+     * @param out     Receives {@code (lat, lon, cellSize)} triples, one per leaf, in deterministic order
+     */
+    void refine(int topCell, DoubleArrayList out) {
+        int row = topCell / lonCells;
+        int col = topCell % lonCells;
+        refine(minLat + row * coarseStepDegrees, minLon + col * coarseStepDegrees, coarseStepDegrees, out);
+    }
+
+    private void refine(double south, double west, double size, DoubleArrayList out) {
+        double north = south + size;
+        double east = west + size;
+
+        double half = size / 2;
+        boolean nearLand = landIndex.intersectsBox(
+                Math.max(-90, south - size), Math.max(-180, west - size),
+                Math.min(90, north + size), Math.min(180, east + size));
+        if (nearLand && half >= minStepDegrees) {
+            refine(south, west, half, out);
+            refine(south, west + half, half, out);
+            refine(south + half, west, half, out);
+            refine(south + half, west + half, half, out);
+            return;
+        }
+        if (nearLand && landIndex.containsBox(south, west, north, east)) {
+            return;  // No water in this cell
+        }
+        double lat = south + half;
+        double lon = west + half;
+        if (lat <= maxLat && lon < maxLon) {  // Top row/column may overhang the limits
+            out.add(lat, lon);
+            out.add(size);
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package com.dynop.graphhopper.matrix.sea.builder;
+
+import java.io.IOException;
+import java.nio.file.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.logging.Logger;
+import java.util.stream.Stream;
+
+/**
+ * Content-addressed store of finished sea graph builds.
+ *
+ * <p>Each entry is a directory named by the build's input hash (see
+ * {@link SeaLaneGraphBuilder#computeInputHash()}) holding a copy of every file of the output directory.
+ * Entries are written to a temporary directory and moved into place, so a present entry is always
+ * complete; concurrent builders of the same inputs simply keep the first entry.
+ *
+ * <pre>
+ * cache/
+ * ├── 3f9a…e1/            # one entry per input hash
+ * │   ├── nodes, edges, location_index, …
+ * │   └── build_summary.json
+ * └── 7c02…4b/
+ * </pre>
+ */
+final class BuildArtifactCache {
+
+    private static final Logger LOGGER = Logger.getLogger(BuildArtifactCache.class.getName());
+
+    static final String SUMMARY_FILE = "build_summary.json";
+
+    private final Path root;
+
+    /**
+     * @param root Cache root directory (created on first store)
+     */
+    BuildArtifactCache(Path root) {
+        this.root = root;
+    }
+
+    /**
+     * @param key Input hash
+     * @return true if a complete entry exists for the key
+     */
+    boolean contains(String key) {
+        return Files.isRegularFile(root.resolve(key).resolve(SUMMARY_FILE));
+    }
+
+    /**
+     * Copy a cached build into the output directory, replacing files of the same name.
+     * The build summary is copied last, so an interrupted restore is not mistaken for a finished build.
+     *
+     * @param key       Input hash
+     * @param outputDir Sea graph output directory
+     * @throws IOException if copying fails
+     */
+    void restore(String key, Path outputDir) throws IOException {
+        Files.createDirectories(outputDir);
+        copyFiles(root.resolve(key), outputDir);
+        LOGGER.info(() -> "Restored sea graph " + key + " from " + root);
+    }
+
+    /**
+     * Copy a finished build into the cache, unless an entry for the key already exists.
+     *
+     * @param key       Input hash
+     * @param outputDir Sea graph output directory
+     * @throws IOException if copying fails
+     */
+    void store(String key, Path outputDir) throws IOException {
+        if (contains(key)) {
+            return;
+        }
+        Files.createDirectories(root);
+        Path staging = root.resolve(key + ".tmp-" + UUID.randomUUID());
+        Files.createDirectories(staging);
+        try {
+            copyFiles(outputDir, staging);
+            Files.move(staging, root.resolve(key), StandardCopyOption.ATOMIC_MOVE);
+            LOGGER.info(() -> "Stored sea graph " + key + " in " + root);
+        } catch (FileAlreadyExistsException | DirectoryNotEmptyException e) {
+            LOGGER.fine(() -> "Sea graph " + key + " was cached concurrently");
+        } finally {
+            deleteDirectory(staging);
+        }
+    }
+
+    private static void copyFiles(Path from, Path to) throws IOException {
+        List<Path> files = new ArrayList<>();
+        try (Stream<Path> stream = Files.list(from)) {
+            stream.filter(Files::isRegularFile).sorted().forEach(files::add);
+        }
+        Path summary = null;
+        for (Path file : files) {
+            if (file.getFileName().toString().equals(SUMMARY_FILE)) {
+                summary = file;
+                continue;
+            }
+            Files.copy(file, to.resolve(file.getFileName()), StandardCopyOption.REPLACE_EXISTING);
+        }
+        if (summary != null) {
+            Files.copy(summary, to.resolve(SUMMARY_FILE), StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    private static void deleteDirectory(Path dir) throws IOException {
+        if (!Files.exists(dir)) {
+            return;
+        }
+        try (Stream<Path> stream = Files.list(dir)) {
+            for (Path file : (Iterable<Path>) stream::iterator) {
+                Files.delete(file);
+            }
+        }
+        Files.delete(dir);
+    }
+}
@@ -0,0 +1,190 @@
+package com.dynop.graphhopper.matrix.sea.builder;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Locale;
+import java.util.logging.Logger;
+
+/**
+ * Binary checkpoints of the builder's intermediate stages.
+ *
+ * <p>Each stage output is written to {@code <stage>.ckpt} together with the key of the inputs it was
+ * computed from. A checkpoint is only returned for the key it was written with, so changing e.g. the
+ * grid step invalidates the waypoints and, through the chained keys, every later stage; changing only
+ * the seaports keeps all checkpoints valid. Files are written to a temporary name and moved into place.
+ *
+ * <h2>Format</h2>
+ * <pre>
+ * int    MAGIC (0x53454143 "SEAC")
+ * int    VERSION
+ * UTF    stage name
+ * UTF    input key
+ * int    count
+ * ...    payload (waypoints: count × (double lat, double lon, byte chokepoint); edges: count × long key)
+ * </pre>
+ */
+final class BuildCheckpoints {
+
+    private static final Logger LOGGER = Logger.getLogger(BuildCheckpoints.class.getName());
+
+    private static final int MAGIC = 0x53454143;
+    private static final int VERSION = 1;
+
+    /**
+     * Checkpointed build stages, in pipeline order.
+     */
+    enum Stage {
+        /** Generated and land-filtered waypoints */
+        WAYPOINTS,
+        /** Unique KNN candidate edges */
+        CANDIDATES,
+        /** Candidate edges that do not cross land */
+        EDGES,
+        /** Graph assembly, ports, connectivity and persistence (never checkpointed) */
+        GRAPH;
+
+        /**
+         * @return Lower-case stage name, as used on the command line and in file names
+         */
+        String id() {
+            return name().toLowerCase(Locale.ROOT);
+        }
+
+        /**
+         * @param id Stage name (case-insensitive)
+         * @return Matching stage
+         * @throws IllegalArgumentException for unknown names
+         */
+        static Stage fromId(String id) {
+            for (Stage stage : values()) {
+                if (stage.id().equalsIgnoreCase(id)) {
+                    return stage;
+                }
+            }
+            throw new IllegalArgumentException("Unknown stage '" + id + "', expected one of waypoints, candidates, edges, graph");
+        }
+    }
+
+    private final Path dir;
+
+    /**
+     * @param dir Checkpoint directory (created on first save)
+     */
+    BuildCheckpoints(Path dir) {
+        this.dir = dir;
+    }
+
+    /**
+     * @param key Input key of the stage
+     * @return Checkpointed waypoints, or null if missing or computed from other inputs
+     * @throws IOException if the checkpoint exists but cannot be read
+     */
+    WaypointArrays loadWaypoints(String key) throws IOException {
+        try (DataInputStream in = open(Stage.WAYPOINTS, key)) {
+            if (in == null) {
+                return null;
+            }
+            int count = in.readInt();
+            WaypointArrays waypoints = new WaypointArrays(count);
+            for (int i = 0; i < count; i++) {
+                waypoints.add(in.readDouble(), in.readDouble(), in.readByte());
+            }
+            return waypoints;
+        }
+    }
+
+    /**
+     * @param key       Input key of the stage
+     * @param waypoints Stage output
+     * @throws IOException if writing fails
+     */
+    void saveWaypoints(String key, WaypointArrays waypoints) throws IOException {
+        write(Stage.WAYPOINTS, key, out -> {
+            out.writeInt(waypoints.size());
+            for (int i = 0; i < waypoints.size(); i++) {
+                out.writeDouble(waypoints.lat(i));
+                out.writeDouble(waypoints.lon(i));
+                out.writeByte(waypoints.chokepoint(i));
+            }
+        });
+    }
+
+    /**
+     * @param stage {@link Stage#CANDIDATES} or {@link Stage#EDGES}
+     * @param key   Input key of the stage
+     * @return Checkpointed packed edge keys, or null if missing or computed from other inputs
+     * @throws IOException if the checkpoint exists but cannot be read
+     */
+    long[] loadEdges(Stage stage, String key) throws IOException {
+        try (DataInputStream in = open(stage, key)) {
+            if (in == null) {
+                return null;
+            }
+            long[] edges = new long[in.readInt()];
+            for (int i = 0; i < edges.length; i++) {
+                edges[i] = in.readLong();
+            }
+            return edges;
+        }
+    }
+
+    /**
+     * @param stage {@link Stage#CANDIDATES} or {@link Stage#EDGES}
+     * @param key   Input key of the stage
+     * @param edges Packed edge keys
+     * @throws IOException if writing fails
+     */
+    void saveEdges(Stage stage, String key, long[] edges) throws IOException {
+        write(stage, key, out -> {
+            out.writeInt(edges.length);
+            for (long edge : edges) {
+                out.writeLong(edge);
+            }
+        });
+    }
+
+    private Path file(Stage stage) {
+        return dir.resolve(stage.id() + ".ckpt");
+    }
+
+    private DataInputStream open(Stage stage, String key) throws IOException {
+        Path file = file(stage);
+        if (!Files.isRegularFile(file)) {
+            return null;
+        }
+        DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file), 1 << 16));
+        try {
+            if (in.readInt() != MAGIC || in.readInt() != VERSION
+                    || !stage.id().equals(in.readUTF()) || !key.equals(in.readUTF())) {
+                in.close();
+                LOGGER.info(() -> "Checkpoint " + file + " was computed from other inputs");
+                return null;
+            }
+            return in;
+        } catch (IOException e) {
+            in.close();
+            throw e;
+        }
+    }
+
+    private void write(Stage stage, String key, PayloadWriter payload) throws IOException {
+        Files.createDirectories(dir);
+        Path file = file(stage);
+        Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tmp), 1 << 16))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeUTF(stage.id());
+            out.writeUTF(key);
+            payload.write(out);
+        }
+        Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        LOGGER.fine(() -> "Saved checkpoint " + file);
+    }
+
+    private interface PayloadWriter {
+        void write(DataOutputStream out) throws IOException;
+    }
+}
@@ -0,0 +1,213 @@
+package com.dynop.graphhopper.matrix.sea.builder;
+
+import com.carrotsearch.hppc.DoubleArrayList;
+import com.carrotsearch.hppc.LongArrayList;
+
+import java.util.Arrays;
+
+/**
+ * Joins the connected components of the waypoint graph into one before the graph is assembled.
+ *
+ * <p>Isolated ocean pockets (bays cut off by the land check, coarse-grid gaps) otherwise end up as
+ * unreachable matrix cells at runtime. For every node outside the largest component, the nearest
+ * {@value #CANDIDATES_PER_NODE} waypoints are connector candidates. Candidates are processed from
+ * shortest to longest as in Kruskal's algorithm: one joining two different components is land-checked
+ * and, if it stays at sea, added. Components that still cannot reach the largest one (e.g. landlocked
+ * seas) are dropped and the remaining waypoints renumbered densely in their original order.
+ */
+final class ConnectivityRepair {
+
+    static final int CANDIDATES_PER_NODE = 32;
+
+    /**
+     * Land check for a proposed connector between two waypoints.
+     */
+    interface ConnectorCheck {
+        /**
+         * @return true if the straight connector between the waypoints stays at sea
+         */
+        boolean isSeaConnector(int a, int b);
+    }
+
+    private final WaypointArrays waypoints;
+    private final long[] edges;
+    private final int[] parent;
+    private final int[] componentSize;
+    private final int componentCount;
+
+    /**
+     * @param waypoints Graph nodes
+     * @param edges     Packed edge keys, see {@link SeaLaneGraphBuilder#edgeKey(int, int)}
+     */
+    ConnectivityRepair(WaypointArrays waypoints, long[] edges) {
+        this.waypoints = waypoints;
+        this.edges = edges;
+        int count = waypoints.size();
+        parent = new int[count];
+        componentSize = new int[count];
+        for (int i = 0; i < count; i++) {
+            parent[i] = i;
+            componentSize[i] = 1;
+        }
+        int components = count;
+        for (long edge : edges) {
+            if (union(SeaLaneGraphBuilder.edgeFrom(edge), SeaLaneGraphBuilder.edgeTo(edge))) {
+                components--;
+            }
+        }
+        componentCount = components;
+    }
+
+    /**
+     * @return Number of connected components before the repair
+     */
+    int componentCount() {
+        return componentCount;
+    }
+
+    /**
+     * Link or drop every component apart from the largest one.
+     *
+     * @param kdTree KD-tree over {@code waypoints}
+     * @param check  Land check for connector candidates
+     * @return Single-component waypoints and edges
+     */
+    Result repair(SphereKdTree kdTree, ConnectorCheck check) {
+        int count = waypoints.size();
+        int mainRoot = largestRoot();
+
+        // Connector candidates from every node outside the largest component, shortest first
+        LongArrayList candidateEdges = new LongArrayList();
+        DoubleArrayList lengths = new DoubleArrayList();
+        int[] nearest = new int[CANDIDATES_PER_NODE];
+        double[] chordSq = new double[CANDIDATES_PER_NODE];
+        for (int node = 0; node < count; node++) {
+            if (find(node) == mainRoot) continue;
+            int found = kdTree.nearest(waypoints.lat(node), waypoints.lon(node), CANDIDATES_PER_NODE, node,
+                nearest, chordSq);
+            for (int i = 0; i < found; i++) {
+                if (find(nearest[i]) == find(node)) continue;
+                candidateEdges.add(SeaLaneGraphBuilder.edgeKey(node, nearest[i]));
+                lengths.add(chordSq[i]);
+            }
+        }
+        long[] order = new long[candidateEdges.size()];
+        for (int i = 0; i < order.length; i++) {
+            // Chord lengths are non-negative, so their float bit patterns sort like the values
+            order[i] = ((long) Float.floatToIntBits((float) lengths.get(i)) << 32) | i;
+        }
+        Arrays.sort(order);
+
+        int componentsBefore = componentCount;
+        LongArrayList connectors = new LongArrayList();
+        for (long entry : order) {
+            long edge = candidateEdges.get((int) entry);
+            int a = SeaLaneGraphBuilder.edgeFrom(edge);
+            int b = SeaLaneGraphBuilder.edgeTo(edge);
+            if (find(a) != find(b) && check.isSeaConnector(a, b)) {
+                union(a, b);
+                connectors.add(edge);
+            }
+        }
+
+        // Drop what is still cut off from the largest component
+        mainRoot = largestRoot();
+        boolean[] drop = new boolean[count];
+        int[] newIndex = new int[count];
+        int kept = 0;
+        int droppedNodes = 0;
+        boolean[] droppedRoot = new boolean[count];
+        int droppedComponents = 0;
+        for (int node = 0; node < count; node++) {
+            int root = find(node);
+            if (root == mainRoot) {
+                newIndex[node] = kept++;
+                continue;
+            }
+            drop[node] = true;
+            newIndex[node] = -1;
+            droppedNodes++;
+            if (!droppedRoot[root]) {
+                droppedRoot[root] = true;
+                droppedComponents++;
+            }
+        }
+
+        LongArrayList keptEdges = new LongArrayList(edges.length + connectors.size());
+        renumber(edges, newIndex, keptEdges);
+        renumber(connectors.toArray(), newIndex, keptEdges);
+
+        WaypointArrays keptWaypoints = droppedNodes == 0 ? waypoints : waypoints.without(drop);
+        int linkedComponents = componentsBefore - 1 - droppedComponents;
+        return new Result(keptWaypoints, keptEdges.toArray(), componentsBefore, linkedComponents,
+            connectors.size(), droppedComponents, droppedNodes);
+    }
+
+    private static void renumber(long[] edges, int[] newIndex, LongArrayList out) {
+        for (long edge : edges) {
+            int a = newIndex[SeaLaneGraphBuilder.edgeFrom(edge)];
+            int b = newIndex[SeaLaneGraphBuilder.edgeTo(edge)];
+            if (a >= 0 && b >= 0) {
+                out.add(SeaLaneGraphBuilder.edgeKey(a, b));
+            }
+        }
+    }
+
+    private int largestRoot() {
+        int best = -1;
+        for (int node = 0; node < parent.length; node++) {
+            if (parent[node] == node && (best < 0 || componentSize[node] > componentSize[best])) {
+                best = node;
+            }
+        }
+        return best;
+    }
+
+    private int find(int node) {
+        while (parent[node] != node) {
+            parent[node] = parent[parent[node]];
+            node = parent[node];
+        }
+        return node;
+    }
+
+    private boolean union(int a, int b) {
+        int rootA = find(a);
+        int rootB = find(b);
+        if (rootA == rootB) {
+            return false;
+        }
+        if (componentSize[rootA] < componentSize[rootB]) {
+            int t = rootA;
+            rootA = rootB;
+            rootB = t;
+        }
+        parent[rootB] = rootA;
+        componentSize[rootA] += componentSize[rootB];
+        return true;
+    }
+
+    /**
+     * Outcome of {@link #repair}.
+     */
+    static final class Result {
+        final WaypointArrays waypoints;
+        final long[] edges;
+        final int componentsBefore;
+        final int linkedComponents;
+        final int connectorEdges;
+        final int droppedComponents;
+        final int droppedNodes;
+
+        Result(WaypointArrays waypoints, long[] edges, int componentsBefore, int linkedComponents,
+               int connectorEdges, int droppedComponents, int droppedNodes) {
+            this.waypoints = waypoints;
+            this.edges = edges;
+            this.componentsBefore = componentsBefore;
+            this.linkedComponents = linkedComponents;
+            this.connectorEdges = connectorEdges;
+            this.droppedComponents = droppedComponents;
+            this.droppedNodes = droppedNodes;
+        }
+    }
+}
@@ -0,0 +1,163 @@
+package com.dynop.graphhopper.matrix.sea.builder;
+
+import com.graphhopper.coll.MinHeapWithUpdate;
+
+import java.util.Arrays;
+
+/**
+ * Greedy spanner pruning of redundant sea edges.
+ *
+ * <p>Edges are visited from shortest to longest. An edge u–v is dropped if the edges kept so far
+ * already contain a two-hop path u–x–v no longer than {@code stretch × length(u–v)}. Since the
+ * alternative path consists of kept edges, every dropped edge stays replaceable, so connectivity is
+ * preserved and path lengths grow by at most the stretch factor per replaced edge.
+ *
+ * <p>Edges touching a protected node (chokepoint waypoints) are always kept, and protected nodes
+ * never serve as the intermediate x. Excluding a chokepoint therefore removes exactly the same
+ * connections as in the unpruned graph.
+ */
+final class EdgeSparsifier {
+
+    private final int nodeCount;
+    private final long[] edges;
+    private final double[] lengths;
+    private final boolean[] protectedNodes;
+    private final int[] firstEdge;
+    private final int[] adjacentEdges;
+
+    /**
+     * @param nodeCount      Number of nodes
+     * @param edges          Packed edge keys, see {@link SeaLaneGraphBuilder#edgeKey(int, int)}
+     * @param lengths        Edge lengths, indexed like {@code edges}
+     * @param protectedNodes Per-node flag for nodes whose edges must be kept
+     */
+    EdgeSparsifier(int nodeCount, long[] edges, double[] lengths, boolean[] protectedNodes) {
+        this.nodeCount = nodeCount;
+        this.edges = edges;
+        this.lengths = lengths;
+        this.protectedNodes = protectedNodes;
+
+        // Compressed adjacency: edges of node n are adjacentEdges[firstEdge[n] .. firstEdge[n + 1])
+        firstEdge = new int[nodeCount + 1];
+        for (long edge : edges) {
+            firstEdge[SeaLaneGraphBuilder.edgeFrom(edge) + 1]++;
+            firstEdge[SeaLaneGraphBuilder.edgeTo(edge) + 1]++;
+        }
+        for (int n = 0; n < nodeCount; n++) {
+            firstEdge[n + 1] += firstEdge[n];
+        }
+        adjacentEdges = new int[edges.length * 2];
+        int[] fill = Arrays.copyOf(firstEdge, nodeCount);
+        for (int e = 0; e < edges.length; e++) {
+            adjacentEdges[fill[SeaLaneGraphBuilder.edgeFrom(edges[e])]++] = e;
+            adjacentEdges[fill[SeaLaneGraphBuilder.edgeTo(edges[e])]++] = e;
+        }
+    }
+
+    /**
+     * @param stretchFactor Maximum length of the replacing path relative to the dropped edge (≥ 1)
+     * @return Per-edge flag, true to keep the edge
+     */
+    boolean[] sparsify(double stretchFactor) {
+        if (stretchFactor < 1.0) {
+            throw new IllegalArgumentException("Stretch factor must be at least 1, got " + stretchFactor);
+        }
+        boolean[] keep = new boolean[edges.length];
+        int[] stamp = new int[nodeCount];
+        double[] viaLength = new double[nodeCount];
+        int epoch = 0;
+
+        for (int e : shortestFirst()) {
+            int u = SeaLaneGraphBuilder.edgeFrom(edges[e]);
+            int v = SeaLaneGraphBuilder.edgeTo(edges[e]);
+            if (protectedNodes[u] || protectedNodes[v]) {
+                keep[e] = true;
+                continue;
+            }
+
+            epoch++;
+            for (int i = firstEdge[u]; i < firstEdge[u + 1]; i++) {
+                int e1 = adjacentEdges[i];
+                int x = other(e1, u);
+                if (keep[e1] && !protectedNodes[x]) {
+                    stamp[x] = epoch;
+                    viaLength[x] = lengths[e1];
+                }
+            }
+            double limit = stretchFactor * lengths[e];
+            boolean dominated = false;
+            for (int i = firstEdge[v]; i < firstEdge[v + 1] && !dominated; i++) {
+                int e2 = adjacentEdges[i];
+                int x = other(e2, v);
+                dominated = keep[e2] && stamp[x] == epoch && viaLength[x] + lengths[e2] <= limit;
+            }
+            keep[e] = !dominated;
+        }
+        return keep;
+    }
+
+    /**
+     * Run one-to-one Dijkstra queries over the edges flagged in {@code keep}.
+     *
+     * @param keep    Per-edge flag of usable edges
+     * @param sources Query sources
+     * @param targets Query targets, same length as {@code sources}
+     * @return Total number of edge relaxations, a machine-independent measure of search work
+     */
+    long queryWork(boolean[] keep, int[] sources, int[] targets) {
+        float[] dist = new float[nodeCount];
+        MinHeapWithUpdate heap = new MinHeapWithUpdate(nodeCount);
+        long relaxations = 0;
+        for (int q = 0; q < sources.length; q++) {
+            Arrays.fill(dist, Float.POSITIVE_INFINITY);
+            heap.clear();
+            dist[sources[q]] = 0;
+            heap.push(sources[q], 0);
+            while (!heap.isEmpty()) {
+                int node = heap.poll();
+                if (node == targets[q]) {
+                    break;
+                }
+                for (int i = firstEdge[node]; i < firstEdge[node + 1]; i++) {
+                    int e = adjacentEdges[i];
+                    if (!keep[e]) continue;
+                    relaxations++;
+                    int next = other(e, node);
+                    float candidate = dist[node] + (float) lengths[e];
+                    if (candidate < dist[next]) {
+                        boolean queued = dist[next] != Float.POSITIVE_INFINITY;
+                        dist[next] = candidate;
+                        if (queued && heap.contains(next)) {
+                            heap.update(next, candidate);
+                        } else if (!queued) {
+                            heap.push(next, candidate);
+                        }
+                    }
+                }
+            }
+        }
+        return relaxations;
+    }
+
+    private int other(int edge, int node) {
+        int from = SeaLaneGraphBuilder.edgeFrom(edges[edge]);
+        return from == node ? SeaLaneGraphBuilder.edgeTo(edges[edge]) : from;
+    }
+
+    /**
+     * @return Edge indices by ascending length, ties by index
+     */
+    private int[] shortestFirst() {
+        // Lengths are positive, so their float bit patterns sort like the values
+        long[] keys = new long[edges.length];
+        for (int e = 0; e < edges.length; e++) {
+            keys[e] = ((long) Float.floatToIntBits((float) lengths[e]) << 32) | e;
+        }
+        Arrays.parallelSort(keys);
+        int[] order = new int[edges.length];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = (int) keys[i];
+        }
+        return order;
+    }
+}
@@ -0,0 +1,72 @@
+package com.dynop.graphhopper.matrix.sea.builder;
+
+import java.util.Arrays;
+
+/**
+ * Hilbert-curve ordering of waypoints for a cache-friendly graph layout.
+ *
+ * <p>Latitude and longitude are quantized to a 2^16 × 2^16 grid and mapped to their distance along
+ * a Hilbert curve. Consecutive positions on the curve are always adjacent grid cells, so nodes that
+ * are close on the map get close node IDs, and a search touches few distinct pages of the node and
+ * edge storage.
+ */
+final class HilbertCurve {
+
+    private static final int ORDER = 16;
+    private static final int SIDE = 1 << ORDER;
+
+    private HilbertCurve() {
+    }
+
+    /**
+     * @param lat Latitude in degrees
+     * @param lon Longitude in degrees
+     * @return Position of the coordinate's cell along the curve
+     */
+    static long index(double lat, double lon) {
+        int x = quantize((lon + 180.0) / 360.0);
+        int y = quantize((lat + 90.0) / 180.0);
+        long d = 0;
+        for (int s = SIDE >>> 1; s > 0; s >>>= 1) {
+            int rx = (x & s) > 0 ? 1 : 0;
+            int ry = (y & s) > 0 ? 1 : 0;
+            d += (long) s * s * ((3 * rx) ^ ry);
+            // Rotate the quadrant so the sub-curve is traversed in the right orientation
+            if (ry == 0) {
+                if (rx == 1) {
+                    x = s - 1 - x;
+                    y = s - 1 - y;
+                }
+                int t = x;
+                x = y;
+                y = t;
+            }
+        }
+        return d;
+    }
+
+    /**
+     * Sort waypoints along the curve. Ties keep their original order, so the result is deterministic.
+     *
+     * @param waypoints Waypoints in any order
+     * @return {@code order[newIndex] = oldIndex}
+     */
+    static int[] sortOrder(WaypointArrays waypoints) {
+        int count = waypoints.size();
+        long[] keys = new long[count];
+        for (int i = 0; i < count; i++) {
+            keys[i] = (index(waypoints.lat(i), waypoints.lon(i)) << 32) | i;
+        }
+        Arrays.parallelSort(keys);
+
+        int[] order = new int[count];
+        for (int i = 0; i < count; i++) {
+            order[i] = (int) keys[i];
+        }
+        return order;
+    }
+
+    private static int quantize(double fraction) {
+        return (int) Math.max(0, Math.min(SIDE - 1, Math.floor(fraction * SIDE)));
+    }
+}
@@ -0,0 +1,161 @@
+package com.dynop.graphhopper.matrix.sea.builder;
+
+import org.geotools.data.FileDataStore;
+import org.geotools.data.FileDataStoreFinder;
+import org.geotools.data.simple.SimpleFeatureIterator;
+import org.geotools.data.simple.SimpleFeatureSource;
+import org.locationtech.jts.geom.*;
+import org.locationtech.jts.geom.prep.PreparedGeometry;
+import org.locationtech.jts.geom.prep.PreparedGeometryFactory;
+import org.locationtech.jts.index.strtree.STRtree;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Spatial index over land polygons for the builder's waypoint and edge land tests.
+ *
+ * <p>Each polygon (multi-polygons are split into their parts) is stored as a {@link PreparedGeometry}
+ * in an {@link STRtree}. A test only evaluates the polygons whose envelope intersects the query, and
+ * the prepared geometries cache their segment indexes across tests. This replaces unioning all
+ * polygons into one geometry, which was the most expensive step of fine-grid builds.
+ *
+ * <p>The tree is built eagerly, so queries after construction are read-only and may run concurrently.
+ */
+final class LandIndex {
+
+    private final STRtree tree = new STRtree();
+    private final GeometryFactory geometryFactory;
+    private final int polygonCount;
+
+    /**
+     * @param geometries      Land geometries (polygons or multi-polygons)
+     * @param geometryFactory Factory for query geometries
+     */
+    LandIndex(List<Geometry> geometries, GeometryFactory geometryFactory) {
+        this.geometryFactory = geometryFactory;
+        int count = 0;
+        for (Geometry geometry : geometries) {
+            for (int i = 0; i < geometry.getNumGeometries(); i++) {
+                Geometry part = geometry.getGeometryN(i);
+                if (part.isEmpty()) {
+                    continue;
+                }
+                tree.insert(part.getEnvelopeInternal(), PreparedGeometryFactory.prepare(part));
+                count++;
+            }
+        }
+        tree.build();
+        this.polygonCount = count;
+    }
+
+    /**
+     * Read the land geometries of a shapefile (e.g., Natural Earth {@code ne_10m_land.shp}).
+     *
+     * @param shapefile Path to the .shp file
+     * @return Polygons and multi-polygons of the file
+     * @throws IOException if the file cannot be opened or holds no geometries
+     */
+    static List<Geometry> readShapefile(Path shapefile) throws IOException {
+        FileDataStore dataStore = FileDataStoreFinder.getDataStore(shapefile.toFile());
+        if (dataStore == null) {
+            throw new IOException("Cannot open shapefile: " + shapefile);
+        }
+        try {
+            SimpleFeatureSource featureSource = dataStore.getFeatureSource();
+            List<Geometry> geometries = new ArrayList<>();
+            try (SimpleFeatureIterator iterator = featureSource.getFeatures().features()) {
+                while (iterator.hasNext()) {
+                    Object geom = iterator.next().getDefaultGeometry();
+                    if (geom instanceof Geometry) {
+                        geometries.add((Geometry) geom);
+                    }
+                }
+            }
+            if (geometries.isEmpty()) {
+                throw new IOException("No geometries found in shapefile");
+            }
+            return geometries;
+        } finally {
+            dataStore.dispose();
+        }
+    }
+
+    /**
+     * @param lat Latitude
+     * @param lon Longitude
+     * @return true if the point lies on land
+     */
+    boolean containsPoint(double lat, double lon) {
+        Point point = geometryFactory.createPoint(new Coordinate(lon, lat));
+        for (Object candidate : tree.query(point.getEnvelopeInternal())) {
+            if (((PreparedGeometry) candidate).contains(point)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @param lat1 Start latitude
+     * @param lon1 Start longitude
+     * @param lat2 End latitude
+     * @param lon2 End longitude
+     * @return true if the straight segment (in lon/lat space) touches land
+     */
+    boolean intersectsSegment(double lat1, double lon1, double lat2, double lon2) {
+        LineString line = geometryFactory.createLineString(new Coordinate[] {
+            new Coordinate(lon1, lat1),
+            new Coordinate(lon2, lat2)
+        });
+        for (Object candidate : tree.query(line.getEnvelopeInternal())) {
+            if (((PreparedGeometry) candidate).intersects(line)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @param minLat Southern edge
+     * @param minLon Western edge
+     * @param maxLat Northern edge
+     * @param maxLon Eastern edge
+     * @return true if any land lies within the box
+     */
+    boolean intersectsBox(double minLat, double minLon, double maxLat, double maxLon) {
+        Geometry box = geometryFactory.toGeometry(new Envelope(minLon, maxLon, minLat, maxLat));
+        for (Object candidate : tree.query(box.getEnvelopeInternal())) {
+            if (((PreparedGeometry) candidate).intersects(box)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @param minLat Southern edge
+     * @param minLon Western edge
+     * @param maxLat Northern edge
+     * @param maxLon Eastern edge
+     * @return true if the box lies entirely inside a single land polygon
+     */
+    boolean containsBox(double minLat, double minLon, double maxLat, double maxLon) {
+        Geometry box = geometryFactory.toGeometry(new Envelope(minLon, maxLon, minLat, maxLat));
+        for (Object candidate : tree.query(box.getEnvelopeInternal())) {
+            if (((PreparedGeometry) candidate).contains(box)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return Number of indexed land polygons
+     */
+    int getPolygonCount() {
+        return polygonCount;
+    }
+}
@@ -0,0 +1,185 @@
+package com.dynop.graphhopper.matrix.sea.builder;
+
+import com.dynop.graphhopper.matrix.sea.LandMaskRaster;
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.geom.GeometryFactory;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.logging.Logger;
+import java.util.stream.IntStream;
+
+/**
+ * Offline job that rasterizes the land polygons into a {@link LandMaskRaster}.
+ *
+ * <p>The globe is cut into square tiles of {@value #TILE_CELLS}×{@value #TILE_CELLS} cells that are
+ * filled in parallel. A tile (or a quadrant of it) without land is skipped, one inside a single land
+ * polygon is filled at once, and only blocks on a coastline are split further, down to single cells
+ * classified by their center. The polygon tests are therefore proportional to the coastline length
+ * rather than to the number of cells. The coast distance layer is then derived from the land bits in
+ * two sequential passes, unless {@code --no-coast-distance} is given. Without it every land point counts
+ * as inland, which fails ports that lie inside a coarse land polygon.
+ *
+ * <p>{@link SeaLaneGraphBuilder} runs it after the graph, so the artifact manifest covers the raster. Run it
+ * on its own to rebuild only the raster (e.g. at another resolution), writing into the sea graph directory
+ * the server loads.
+ *
+ * <h2>Usage</h2>
+ * <pre>
+ * java -cp matrix-extension.jar com.dynop.graphhopper.matrix.sea.builder.LandMaskRasterBuilder \
+ *     --graph graph-cache/sea --landmask natural-earth-data/ne_10m_land.shp \
+ *     [--resolution 0.01] [--no-coast-distance] [--threads 8]
+ * </pre>
+ */
+public final class LandMaskRasterBuilder {
+
+    private static final Logger LOGGER = Logger.getLogger(LandMaskRasterBuilder.class.getName());
+
+    /**
+     * Default cell size in degrees (about 1.1 km at the equator).
+     */
+    public static final double DEFAULT_CELL_DEGREES = 0.01;
+
+    // A multiple of 8, so tiles side by side never write the same byte of a row
+    private static final int TILE_CELLS = 128;
+
+    private final LandIndex landIndex;
+    private final double cellDegrees;
+    private final boolean coastDistance;
+    private final int threads;
+
+    /**
+     * @param landIndex     Land polygons
+     * @param cellDegrees   Cell size in degrees; must divide 180°
+     * @param coastDistance true to add the coast distance layer
+     * @param threads       Number of parallel tiles (0 = all available processors)
+     */
+    LandMaskRasterBuilder(LandIndex landIndex, double cellDegrees, boolean coastDistance, int threads) {
+        this.landIndex = landIndex;
+        this.cellDegrees = cellDegrees;
+        this.coastDistance = coastDistance;
+        this.threads = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+    }
+
+    /**
+     * Rasterize and write the file.
+     *
+     * @param file Target file (replaced if it exists)
+     * @throws IOException if writing fails
+     */
+    void build(Path file) throws IOException {
+        try (LandMaskRaster.Writer writer = new LandMaskRaster.Writer(file, cellDegrees, coastDistance)) {
+            int tileRows = (writer.getRows() + TILE_CELLS - 1) / TILE_CELLS;
+            int tileColumns = (writer.getColumns() + TILE_CELLS - 1) / TILE_CELLS;
+            long start = System.nanoTime();
+            ForkJoinPool pool = new ForkJoinPool(threads);
+            try {
+                pool.submit(() -> IntStream.range(0, tileRows * tileColumns).parallel().forEach(tile -> {
+                    int row = (tile / tileColumns) * TILE_CELLS;
+                    int column = (tile % tileColumns) * TILE_CELLS;
+                    fillBlock(writer, row, Math.min(row + TILE_CELLS, writer.getRows()),
+                        column, Math.min(column + TILE_CELLS, writer.getColumns()));
+                })).join();
+            } finally {
+                pool.shutdown();
+            }
+            LOGGER.info(String.format("Rasterized %dx%d land mask in %d ms", writer.getColumns(), writer.getRows(),
+                (System.nanoTime() - start) / 1_000_000));
+            if (coastDistance) {
+                start = System.nanoTime();
+                writer.computeCoastDistance();
+                LOGGER.info(String.format("Computed coast distances in %d ms", (System.nanoTime() - start) / 1_000_000));
+            }
+        }
+    }
+
+    /**
+     * Set the land cells of rows {@code [fromRow, toRow)} and columns {@code [fromColumn, toColumn)}.
+     */
+    private void fillBlock(LandMaskRaster.Writer writer, int fromRow, int toRow, int fromColumn, int toColumn) {
+        double minLat = -90 + fromRow * cellDegrees;
+        double maxLat = -90 + toRow * cellDegrees;
+        double minLon = -180 + fromColumn * cellDegrees;
+        double maxLon = -180 + toColumn * cellDegrees;
+        if (!landIndex.intersectsBox(minLat, minLon, maxLat, maxLon)) {
+            return;
+        }
+        if (toRow - fromRow == 1 && toColumn - fromColumn == 1) {
+            if (landIndex.containsPoint(minLat + cellDegrees / 2, minLon + cellDegrees / 2)) {
+                writer.setLand(fromRow, fromColumn, toColumn);
+            }
+            return;
+        }
+        if (landIndex.containsBox(minLat, minLon, maxLat, maxLon)) {
+            for (int row = fromRow; row < toRow; row++) {
+                writer.setLand(row, fromColumn, toColumn);
+            }
+            return;
+        }
+        int midRow = toRow - fromRow > 1 ? (fromRow + toRow) >>> 1 : toRow;
+        int midColumn = toColumn - fromColumn > 1 ? (fromColumn + toColumn) >>> 1 : toColumn;
+        fillBlock(writer, fromRow, midRow, fromColumn, midColumn);
+        if (midColumn < toColumn) {
+            fillBlock(writer, fromRow, midRow, midColumn, toColumn);
+        }
+        if (midRow < toRow) {
+            fillBlock(writer, midRow, toRow, fromColumn, midColumn);
+            if (midColumn < toColumn) {
+                fillBlock(writer, midRow, toRow, midColumn, toColumn);
+            }
+        }
+    }
+
+    public static void main(String[] args) {
+        Path graphDir = null;
+        Path landmaskPath = null;
+        double resolution = DEFAULT_CELL_DEGREES;
+        boolean coastDistance = true;
+        int threads = 0;
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--graph":
+                    graphDir = Path.of(args[++i]);
+                    break;
+                case "--landmask":
+                    landmaskPath = Path.of(args[++i]);
+                    break;
+                case "--resolution":
+                    resolution = Double.parseDouble(args[++i]);
+                    break;
+                case "--no-coast-distance":
+                    coastDistance = false;
+                    break;
+                case "--threads":
+                    threads = Integer.parseInt(args[++i]);
+                    break;
+            }
+        }
+        if (graphDir == null || landmaskPath == null) {
+            System.err.println("Usage: LandMaskRasterBuilder --graph <dir> --landmask <shapefile> " +
+                "[--resolution <degrees>] [--no-coast-distance] [--threads <n>]");
+            System.exit(1);
+        }
+
+        try {
+            List<Geometry> geometries = LandIndex.readShapefile(landmaskPath);
+            LandIndex landIndex = new LandIndex(geometries, new GeometryFactory());
+            Path file = graphDir.resolve(LandMaskRaster.FILE_NAME);
+            Files.createDirectories(graphDir);
+            new LandMaskRasterBuilder(landIndex, resolution, coastDistance, threads).build(file);
+
+            System.out.println("Land mask raster completed successfully!");
+            System.out.println("  Resolution: " + resolution + "°");
+            System.out.println("  Coast distance: " + coastDistance);
+            System.out.println("  Size: " + Files.size(file) + " bytes");
+
+        } catch (Exception e) {
+            System.err.println("Land mask raster failed: " + e.getMessage());
+            e.printStackTrace();
+            System.exit(1);
+        }
+    }
+}
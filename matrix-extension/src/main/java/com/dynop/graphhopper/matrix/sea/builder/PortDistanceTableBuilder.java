@@ -0,0 +1,272 @@
+package com.dynop.graphhopper.matrix.sea.builder;
+
+import com.dynop.graphhopper.matrix.sea.ChokepointOrdinals;
+import com.dynop.graphhopper.matrix.sea.ChokepointRegistry;
+import com.dynop.graphhopper.matrix.sea.Port;
+import com.dynop.graphhopper.matrix.sea.PortDistanceTable;
+import com.dynop.graphhopper.matrix.sea.PortNodeTable;
+import com.dynop.graphhopper.matrix.sea.SeaArtifactManifest;
+import com.dynop.graphhopper.matrix.sea.SeaGraphArtifacts;
+import com.dynop.graphhopper.matrix.sea.SeaGraphDataAccess;
+import com.dynop.graphhopper.matrix.sea.UnlocodePortLoader;
+import com.graphhopper.coll.MinHeapWithUpdate;
+import com.graphhopper.routing.util.EdgeFilter;
+import com.graphhopper.routing.util.EncodingManager;
+import com.graphhopper.routing.weighting.Weighting;
+import com.graphhopper.storage.BaseGraph;
+import com.graphhopper.storage.DAType;
+import com.graphhopper.util.EdgeExplorer;
+import com.graphhopper.util.EdgeIterator;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Logger;
+import java.util.stream.IntStream;
+
+/**
+ * Offline job that precomputes the {@link PortDistanceTable} of a built sea graph.
+ *
+ * <p>For every UN/LOCODE seaport with an access node in {@value PortNodeTable#FILE_NAME}, one
+ * one-to-all Dijkstra search on the unrestricted graph (the baseline scenario, no chokepoints excluded)
+ * settles all other port nodes. Searches run in parallel, each writing its own row of the table. The
+ * searches use the weighting of the sea profile and accumulate distance and time along the shortest
+ * path tree exactly as a routed path would, so table cells match what the runtime search returns.
+ * Along the same tree they OR together the bits of the chokepoints (from
+ * {@code chokepoint_metadata.json}) each route passes through, which lets the server reuse a baseline
+ * cell for requests that exclude chokepoints the route does not use.
+ *
+ * <p>Run it after {@link SeaLaneGraphBuilder}, against the same UN/LOCODE data the server loads. The
+ * graph builder deletes the table when it rebuilds the graph, and the job refreshes
+ * {@value SeaArtifactManifest#FILE_NAME} so the table is verified on startup like every other artifact.
+ *
+ * <h2>Usage</h2>
+ * <pre>
+ * java -cp matrix-extension.jar com.dynop.graphhopper.matrix.sea.builder.PortDistanceTableBuilder \
+ *     --graph graph-cache/sea --unlocode unlocode-data [--threads 8]
+ * </pre>
+ */
+public final class PortDistanceTableBuilder {
+
+    private static final Logger LOGGER = Logger.getLogger(PortDistanceTableBuilder.class.getName());
+
+    private final BaseGraph graph;
+    private final Weighting weighting;
+    private final ChokepointOrdinals chokepointOrdinals;
+    private final int threads;
+
+    /**
+     * @param graph       Sea graph
+     * @param weighting   Weighting of the sea profile
+     * @param chokepoints Chokepoints of the graph; mask bits follow {@link ChokepointOrdinals}
+     * @param threads     Number of parallel searches (0 = all available processors)
+     */
+    public PortDistanceTableBuilder(BaseGraph graph, Weighting weighting, ChokepointRegistry chokepoints,
+                                    int threads) {
+        this.graph = graph;
+        this.weighting = weighting;
+        this.chokepointOrdinals = ChokepointOrdinals.of(chokepoints, graph.getNodes());
+        this.threads = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+    }
+
+    /**
+     * Compute and write the table.
+     *
+     * @param file      Target file
+     * @param unlocodes UN/LOCODEs of the table rows and columns
+     * @param portNodes Access node per UN/LOCODE, in the same order
+     * @throws IOException if the table cannot be written
+     */
+    public void build(Path file, String[] unlocodes, int[] portNodes) throws IOException {
+        long start = System.nanoTime();
+        AtomicInteger done = new AtomicInteger();
+        int step = Math.max(1, unlocodes.length / 10);
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        try (PortDistanceTable.Writer writer = new PortDistanceTable.Writer(file, graph, unlocodes,
+                chokepointOrdinals.getIds())) {
+            pool.submit(() -> IntStream.range(0, unlocodes.length).parallel().forEach(row -> {
+                int[] distances = new int[portNodes.length];
+                long[] times = new long[portNodes.length];
+                long[] masks = new long[portNodes.length];
+                search(portNodes[row], portNodes, distances, times, masks);
+                try {
+                    writer.writeRow(row, distances, times, masks);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                int count = done.incrementAndGet();
+                if (count % step == 0) {
+                    LOGGER.info(() -> String.format("Port distance table: %d of %d rows", count, unlocodes.length));
+                }
+            })).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while computing port distances", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof UncheckedIOException) {
+                throw ((UncheckedIOException) e.getCause()).getCause();
+            }
+            throw new IllegalStateException("Port distance computation failed", e.getCause());
+        } finally {
+            pool.shutdown();
+        }
+        long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+        LOGGER.info(() -> String.format("Wrote %d×%d port distance table to %s in %d ms",
+            unlocodes.length, unlocodes.length, file, elapsedMs));
+    }
+
+    /**
+     * One-to-all Dijkstra from a port node, stopping once every target node is settled.
+     *
+     * @param sourceNode  Source access node
+     * @param targetNodes Target access nodes
+     * @param distances   Output: distance in meters per target, -1 if unreachable
+     * @param times       Output: time in milliseconds per target, -1 if unreachable
+     * @param masks       Output: chokepoint bits of the route per target, 0 if unreachable
+     */
+    void search(int sourceNode, int[] targetNodes, int[] distances, long[] times, long[] masks) {
+        int nodes = graph.getNodes();
+        double[] weights = new double[nodes];
+        double[] meters = new double[nodes];
+        long[] millis = new long[nodes];
+        long[] chokepointBits = new long[nodes];
+        Arrays.fill(weights, Double.POSITIVE_INFINITY);
+        boolean[] settled = new boolean[nodes];
+
+        Map<Integer, List<Integer>> targetsByNode = new HashMap<>();
+        for (int i = 0; i < targetNodes.length; i++) {
+            targetsByNode.computeIfAbsent(targetNodes[i], n -> new ArrayList<>()).add(i);
+        }
+        int remaining = targetsByNode.size();
+
+        EdgeExplorer explorer = graph.createEdgeExplorer(EdgeFilter.ALL_EDGES);
+        MinHeapWithUpdate heap = new MinHeapWithUpdate(nodes);
+        weights[sourceNode] = 0;
+        chokepointBits[sourceNode] = chokepointOrdinals.bitOf(sourceNode);
+        heap.push(sourceNode, 0);
+        while (!heap.isEmpty() && remaining > 0) {
+            int node = heap.poll();
+            settled[node] = true;
+            if (targetsByNode.containsKey(node)) {
+                remaining--;
+            }
+            EdgeIterator iter = explorer.setBaseNode(node);
+            while (iter.next()) {
+                int adj = iter.getAdjNode();
+                if (settled[adj]) {
+                    continue;
+                }
+                double edgeWeight = weighting.calcEdgeWeight(iter, false);
+                if (Double.isInfinite(edgeWeight)) {
+                    continue;
+                }
+                double weight = weights[node] + edgeWeight;
+                if (weight < weights[adj]) {
+                    boolean queued = !Double.isInfinite(weights[adj]);
+                    weights[adj] = weight;
+                    meters[adj] = meters[node] + iter.getDistance();
+                    millis[adj] = millis[node] + weighting.calcEdgeMillis(iter, false);
+                    chokepointBits[adj] = chokepointBits[node] | chokepointOrdinals.bitOf(adj);
+                    if (queued) {
+                        heap.update(adj, (float) weight);
+                    } else {
+                        heap.push(adj, (float) weight);
+                    }
+                }
+            }
+        }
+
+        for (Map.Entry<Integer, List<Integer>> entry : targetsByNode.entrySet()) {
+            int node = entry.getKey();
+            boolean reached = settled[node];
+            for (int i : entry.getValue()) {
+                distances[i] = reached ? (int) Math.round(meters[node]) : -1;
+                times[i] = reached ? millis[node] : -1;
+                masks[i] = reached ? chokepointBits[node] : 0;
+            }
+        }
+    }
+
+    // ========== Main entry point ==========
+
+    public static void main(String[] args) {
+        Path graphDir = null;
+        Path unlocodeDir = null;
+        int threads = 0;
+        DAType dataAccess = SeaGraphDataAccess.DEFAULT;
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--graph":
+                    graphDir = Path.of(args[++i]);
+                    break;
+                case "--unlocode":
+                    unlocodeDir = Path.of(args[++i]);
+                    break;
+                case "--threads":
+                    threads = Integer.parseInt(args[++i]);
+                    break;
+                case "--dataaccess":
+                    dataAccess = SeaGraphDataAccess.parse(args[++i]);
+                    break;
+            }
+        }
+        if (graphDir == null || unlocodeDir == null) {
+            System.err.println("Usage: PortDistanceTableBuilder --graph <dir> --unlocode <dir> " +
+                "[--threads <n>] [--dataaccess RAM_STORE|MMAP]");
+            System.exit(1);
+        }
+
+        try {
+            List<Port> seaports = new UnlocodePortLoader().loadSeaportsFromDirectory(unlocodeDir);
+            PortNodeTable portNodeTable = PortNodeTable.loadFrom(graphDir.resolve(PortNodeTable.FILE_NAME));
+            // Only ports with an access node can be looked up at runtime; sort for a stable row order
+            SortedMap<String, Integer> portNodes = new TreeMap<>();
+            for (Port port : seaports) {
+                int node = portNodeTable.getNode(port.getUnlocode());
+                if (node != PortNodeTable.NO_NODE) {
+                    portNodes.put(port.getUnlocode(), node);
+                }
+            }
+            if (portNodes.isEmpty()) {
+                System.err.println("No seaports with access nodes in " + graphDir.resolve(PortNodeTable.FILE_NAME));
+                System.exit(1);
+            }
+
+            EncodingManager encodingManager = SeaGraphArtifacts.createEncodingManager();
+            BaseGraph graph = new BaseGraph.Builder(encodingManager)
+                .setDir(SeaGraphDataAccess.createDirectory(graphDir.toString(), dataAccess))
+                .build();
+            if (!graph.loadExisting()) {
+                throw new IOException("No sea graph found in " + graphDir);
+            }
+            ChokepointRegistry chokepoints = ChokepointRegistry.loadFrom(graphDir.resolve("chokepoint_metadata.json"));
+            Weighting weighting = SeaGraphArtifacts.createWeighting(encodingManager);
+            new PortDistanceTableBuilder(graph, weighting, chokepoints, threads)
+                .build(graphDir.resolve(PortDistanceTable.FILE_NAME),
+                    portNodes.keySet().toArray(new String[0]),
+                    portNodes.values().stream().mapToInt(Integer::intValue).toArray());
+
+            Path manifestFile = graphDir.resolve(SeaArtifactManifest.FILE_NAME);
+            SeaArtifactManifest manifest = SeaArtifactManifest.loadFrom(manifestFile);
+            if (manifest != null) {
+                SeaArtifactManifest.create(graphDir, manifest.getGraphVersion(), graph,
+                    List.of(BuildArtifactCache.SUMMARY_FILE)).saveTo(manifestFile);
+            }
+            graph.close();
+
+            System.out.println("Port distance table completed successfully!");
+            System.out.println("  Ports: " + portNodes.size());
+            System.out.println("  Size: " + Files.size(graphDir.resolve(PortDistanceTable.FILE_NAME)) + " bytes");
+
+        } catch (Exception e) {
+            System.err.println("Port distance table failed: " + e.getMessage());
+            e.printStackTrace();
+            System.exit(1);
+        }
+    }
+}
@@ -1,45 +1,87 @@
 package com.dynop.graphhopper.matrix.sea.builder;
 
+import com.dynop.graphhopper.matrix.api.ComponentIndex;
 import com.dynop.graphhopper.matrix.sea.Chokepoint;
+import com.dynop.graphhopper.matrix.sea.ChokepointAwareEdgeFilter;
 import com.dynop.graphhopper.matrix.sea.ChokepointRegistry;
+import com.dynop.graphhopper.matrix.sea.LandMaskRaster;
+import com.dynop.graphhopper.matrix.sea.Port;
+import com.dynop.graphhopper.matrix.sea.PortDistanceTable;
+import com.dynop.graphhopper.matrix.sea.PortNodeTable;
+import com.dynop.graphhopper.matrix.sea.SeaArtifactManifest;
+import com.dynop.graphhopper.matrix.sea.SeaGraphArtifacts;
+import com.dynop.graphhopper.matrix.sea.SeaGraphDataAccess;
+import com.dynop.graphhopper.matrix.sea.UnlocodePortLoader;
+import com.dynop.graphhopper.matrix.sea.builder.BuildCheckpoints.Stage;
+import com.carrotsearch.hppc.DoubleArrayList;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.carrotsearch.hppc.LongArrayList;
+import com.carrotsearch.hppc.LongHashSet;
 import com.graphhopper.storage.BaseGraph;
-import com.graphhopper.storage.RAMDirectory;
+import com.graphhopper.storage.DAType;
 import com.graphhopper.routing.ev.*;
+import com.graphhopper.routing.util.EdgeFilter;
 import com.graphhopper.routing.util.EncodingManager;
+import com.graphhopper.routing.weighting.Weighting;
 import com.graphhopper.util.DistanceCalcEarth;
 import com.graphhopper.util.shapes.GHPoint;
 
 import org.locationtech.jts.geom.*;
-import org.geotools.data.FileDataStore;
-import org.geotools.data.FileDataStoreFinder;
-import org.geotools.data.simple.SimpleFeatureSource;
-import org.geotools.data.simple.SimpleFeatureIterator;
-import org.opengis.feature.simple.SimpleFeature;
 
 import java.io.*;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.*;
+import java.security.DigestInputStream;
 import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.time.Instant;
 import java.util.*;
+import java.util.concurrent.ForkJoinPool;
 import java.util.concurrent.TimeUnit;
+import java.util.function.IntConsumer;
 import java.util.logging.*;
+import java.util.stream.IntStream;
 
 /**
  * Offline CLI tool to build the global sea-lane graph.
  * 
  * <p>This builder generates a synthetic maritime graph by:
  * <ol>
- *   <li>Generating a global waypoint grid (default 5° step)</li>
+ *   <li>Generating a global waypoint grid (default 5° step), optionally refined near coastlines</li>
  *   <li>Adding chokepoint locations with densified local grids</li>
- *   <li>Loading Natural Earth land polygons</li>
+ *   <li>Loading Natural Earth land polygons into an STRtree of prepared geometries</li>
  *   <li>Removing waypoints that fall on land</li>
- *   <li>Connecting waypoints via k-nearest neighbors (k=6)</li>
+ *   <li>Renumbering waypoints along a Hilbert curve, so nearby nodes and their edges are stored together</li>
+ *   <li>Connecting waypoints via k-nearest neighbors (k=6, KD-tree on the unit sphere)</li>
  *   <li>Rejecting edges that cross land</li>
+ *   <li>Linking isolated ocean pockets to the main component, or dropping them</li>
+ *   <li>Pruning edges matched by a two-hop detour within a stretch factor (optional, {@code --sparsify})</li>
+ *   <li>Connecting UN/LOCODE seaports as dedicated access nodes (optional)</li>
  *   <li>Validating global connectivity</li>
  *   <li>Persisting to GraphHopper format</li>
+ *   <li>Preparing the location index, CH and landmarks</li>
+ *   <li>Rasterizing the land mask for coordinate validation ({@code --land-mask-resolution}, 0 = off)</li>
+ *   <li>Listing all artifacts in a manifest</li>
  * </ol>
  * 
+ * <p>When a seaport list is given, every port gets its own graph node linked to nearby ocean waypoints
+ * with land-checked connector edges, and the port-code→node table is written to
+ * {@value PortNodeTable#FILE_NAME}. Runtime Stage 2 snapping then becomes a table lookup.
+ * 
+ * <p>With a minimum step ({@code --min-step}) the grid is adaptive: {@code --step} becomes the
+ * open-ocean cell size and cells near land are split quadtree-style down to the minimum step (see
+ * {@link AdaptiveGrid}), so coastal waypoints are dense without a fine grid across open ocean.
+ * 
+ * <p>Builds are identified by a deterministic hash of their inputs ({@link #computeInputHash()}). If the
+ * output directory already holds a build of the same inputs, or the artifact cache ({@code --cache})
+ * has one, the build is skipped; {@code --force} rebuilds anyway.
+ * 
+ * <p>The waypoints, the KNN candidate edges and the land-checked edges are checkpointed as binary
+ * files in {@code <output>/checkpoints} (see {@link BuildCheckpoints}). A stage whose checkpoint was
+ * computed from the current inputs is loaded instead of re-run; {@code --resume-from <stage>} re-runs
+ * that stage and everything after it while requiring checkpoints for the stages before it.
+ * 
  * <p><b>All land geometry checks are performed at build time or for validation only.
  * Runtime routing NEVER queries land geometry.</b>
  * 
@@ -48,7 +90,12 @@ import java.util.logging.*;
  * java -cp matrix-server.jar com.dynop.graphhopper.matrix.sea.builder.SeaLaneGraphBuilder \
  *     --output /path/to/graph-cache/sea \
  *     --landmask /path/to/natural-earth-data/ne_50m_land.shp \
- *     --step 5.0
+ *     --step 5.0 \
+ *     --min-step 0.25 \
+ *     --unlocode /path/to/unlocode-data \
+ *     --threads 8 \
+ *     --dataaccess MMAP \
+ *     --cache /path/to/graph-cache/sea-builds
  * }</pre>
  */
 public class SeaLaneGraphBuilder {
@@ -64,6 +111,21 @@ public class SeaLaneGraphBuilder {
     private static final int K_NEIGHBORS = 6;
     private static final double EARTH_RADIUS_KM = 6371.0;
     
+    /**
+     * Version of the graph construction rules, part of the input hash. Bump whenever a change to the
+     * builder alters the produced graph for the same inputs.
+     */
+    static final String BUILDER_VERSION = "5";
+    
+    private static final String DEFAULT_CHECKPOINT_DIR = "checkpoints";
+    private static final int SPARSIFY_SAMPLE_QUERIES = 20;
+    
+    // Port access node connectors
+    private static final int PORT_CONNECTOR_CANDIDATES = 8;
+    private static final int PORT_MAX_CONNECTORS = 3;
+    private static final double PORT_MAX_CONNECTOR_KM = 1000.0;
+    private static final double PORT_LAND_TOLERANCE_KM = 25.0;  // Coastal ports sit inside 1:50m land polygons
+    
     // Mandatory chokepoints with densification parameters
     private static final List<ChokepointDefinition> MANDATORY_CHOKEPOINTS = List.of(
         new ChokepointDefinition("SUEZ", "Suez Canal", "AFRICA", 30.812330, 32.317903, 2.0, 0.5),
@@ -79,9 +141,25 @@ public class SeaLaneGraphBuilder {
     private final Path outputDir;
     private final Path landmaskPath;
     private final double gridStepDegrees;
+    private final List<Port> seaports;
     
-    private Geometry landGeometry;
+    private int threads = Runtime.getRuntime().availableProcessors();
+    private DAType dataAccess = SeaGraphDataAccess.DEFAULT;
+    private double adaptiveMinStepDegrees;  // 0 = uniform grid
+    private BuildArtifactCache artifactCache;
+    private boolean forceRebuild;
+    private BuildCheckpoints checkpoints;
+    private Stage resumeFrom;
+    private String landmaskDigest;
+    private double sparsifyStretch;  // 0 = keep all edges
+    private double landMaskResolution = LandMaskRasterBuilder.DEFAULT_CELL_DEGREES;  // 0 = no land mask
+    private SparsificationReport sparsification;
+    private ConnectivityRepair.Result connectivityRepair;
+    
+    private LandIndex landIndex;
     private GeometryFactory geometryFactory;
+    private ForkJoinPool pool;
+    private final Map<String, Long> phaseTimingsMs = new LinkedHashMap<>();
     private final DistanceCalcEarth distCalc = new DistanceCalcEarth();
     
     /**
@@ -92,10 +170,139 @@ public class SeaLaneGraphBuilder {
      * @param gridStepDegrees Grid step size in degrees (default 5.0)
      */
     public SeaLaneGraphBuilder(Path outputDir, Path landmaskPath, double gridStepDegrees) {
+        this(outputDir, landmaskPath, gridStepDegrees, List.of());
+    }
+    
+    /**
+     * Creates a new SeaLaneGraphBuilder that also connects the given seaports to the graph.
+     * 
+     * @param outputDir       Output directory for sea graph (e.g., graph-cache/sea)
+     * @param landmaskPath    Path to Natural Earth land shapefile
+     * @param gridStepDegrees Grid step size in degrees (default 5.0)
+     * @param seaports        UN/LOCODE seaports to add as access nodes (may be empty)
+     */
+    public SeaLaneGraphBuilder(Path outputDir, Path landmaskPath, double gridStepDegrees, List<Port> seaports) {
         this.outputDir = Objects.requireNonNull(outputDir, "outputDir");
         this.landmaskPath = Objects.requireNonNull(landmaskPath, "landmaskPath");
         this.gridStepDegrees = gridStepDegrees > 0 ? gridStepDegrees : DEFAULT_GRID_STEP_DEGREES;
+        this.seaports = List.copyOf(Objects.requireNonNull(seaports, "seaports"));
         this.geometryFactory = new GeometryFactory();
+        this.checkpoints = new BuildCheckpoints(outputDir.resolve(DEFAULT_CHECKPOINT_DIR));
+    }
+    
+    /**
+     * Set the number of worker threads for the parallel phases (KNN, land filtering, edge validation).
+     * 
+     * @param threads Thread count; values below 1 select the number of available processors
+     * @return this builder
+     */
+    public SeaLaneGraphBuilder setThreads(int threads) {
+        this.threads = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        return this;
+    }
+    
+    /**
+     * Enable the adaptive grid: the grid step is used in open ocean, and cells near land are refined
+     * down to the given minimum step.
+     * 
+     * @param minStepDegrees Smallest cell size near land; 0 keeps the uniform grid
+     * @return this builder
+     */
+    public SeaLaneGraphBuilder setAdaptiveMinStep(double minStepDegrees) {
+        if (minStepDegrees < 0 || minStepDegrees > gridStepDegrees) {
+            throw new IllegalArgumentException("Minimum step must be in [0, " + gridStepDegrees + "]");
+        }
+        this.adaptiveMinStepDegrees = minStepDegrees;
+        return this;
+    }
+    
+    /**
+     * Keep finished builds in a content-addressed cache and restore them instead of rebuilding when
+     * the inputs match.
+     * 
+     * @param cacheDir Cache root directory, or null to disable the cache
+     * @return this builder
+     */
+    public SeaLaneGraphBuilder setArtifactCache(Path cacheDir) {
+        this.artifactCache = cacheDir != null ? new BuildArtifactCache(cacheDir) : null;
+        return this;
+    }
+    
+    /**
+     * @param forceRebuild true to build even if the output directory or cache holds a graph for the same inputs
+     * @return this builder
+     */
+    public SeaLaneGraphBuilder setForceRebuild(boolean forceRebuild) {
+        this.forceRebuild = forceRebuild;
+        return this;
+    }
+    
+    /**
+     * Set where stage checkpoints are kept (default {@code <output>/checkpoints}).
+     * 
+     * @param checkpointDir Checkpoint directory
+     * @return this builder
+     */
+    public SeaLaneGraphBuilder setCheckpointDir(Path checkpointDir) {
+        this.checkpoints = new BuildCheckpoints(Objects.requireNonNull(checkpointDir, "checkpointDir"));
+        return this;
+    }
+    
+    /**
+     * Re-run the pipeline from the given stage, loading all earlier stages from their checkpoints.
+     * Without this, every stage whose checkpoint matches its inputs is reused and the rest re-run.
+     * 
+     * @param stage {@code waypoints}, {@code candidates}, {@code edges} or {@code graph}; null to resume automatically
+     * @return this builder
+     * @throws IllegalArgumentException for unknown stage names
+     */
+    public SeaLaneGraphBuilder setResumeFrom(String stage) {
+        this.resumeFrom = stage != null ? Stage.fromId(stage) : null;
+        return this;
+    }
+    
+    /**
+     * Drop edges that are matched by a two-hop path within the stretch factor (see {@link EdgeSparsifier}).
+     * Edges at chokepoint nodes are always kept.
+     * 
+     * @param stretchFactor Allowed detour factor (e.g. 1.01), or 0 to keep all edges
+     * @return this builder
+     */
+    public SeaLaneGraphBuilder setSparsifyStretch(double stretchFactor) {
+        if (stretchFactor != 0 && stretchFactor < 1.0) {
+            throw new IllegalArgumentException("Stretch factor must be 0 (off) or at least 1, got " + stretchFactor);
+        }
+        this.sparsifyStretch = stretchFactor;
+        return this;
+    }
+    
+    /**
+     * Set the cell size of the land mask raster written next to the graph for {@code validate_coordinates}.
+     * 
+     * @param degrees Cell size in degrees (must divide 180°), or 0 to leave {@code land_mask.bin} to the
+     *                standalone {@link LandMaskRasterBuilder} job
+     * @return this builder
+     */
+    public SeaLaneGraphBuilder setLandMaskResolution(double degrees) {
+        if (degrees < 0) {
+            throw new IllegalArgumentException("Land mask resolution must be 0 (off) or positive, got " + degrees);
+        }
+        this.landMaskResolution = degrees;
+        return this;
+    }
+    
+    /**
+     * Set the storage mode of the graph under construction.
+     * 
+     * <p>With {@link DAType#MMAP} nodes and edges are written to memory-mapped files in the output
+     * directory instead of the heap, so graphs larger than the heap can be built.
+     * 
+     * @param dataAccess Storage mode, see {@link SeaGraphDataAccess#parse(String)}
+     * @return this builder
+     */
+    public SeaLaneGraphBuilder setDataAccess(DAType dataAccess) {
+        this.dataAccess = Objects.requireNonNull(dataAccess, "dataAccess");
+        return this;
     }
     
     /**
@@ -105,48 +312,194 @@ public class SeaLaneGraphBuilder {
      * @throws IOException if I/O errors occur
      */
     public BuildResult build() throws IOException {
-        long startTime = System.currentTimeMillis();
-        LOGGER.info("Starting sea-lane graph build...");
+        String inputHash = computeInputHash();
+        LOGGER.info("Sea graph input hash: " + inputHash);
+        if (!forceRebuild && resumeFrom == null) {
+            BuildResult reused = reuseExistingBuild(inputHash);
+            if (reused != null) {
+                return reused;
+            }
+        }
         
-        // Step 1: Load land geometry
-        LOGGER.info("Loading land geometry from " + landmaskPath);
-        loadLandGeometry();
-        LOGGER.info("Land geometry loaded successfully");
+        BuildResult result;
+        pool = new ForkJoinPool(threads);
+        try {
+            result = runBuild(inputHash);
+        } finally {
+            pool.shutdown();
+        }
+        if (artifactCache != null) {
+            artifactCache.store(inputHash, outputDir);
+        }
+        return result;
+    }
+    
+    /**
+     * Return the summary of an existing build of the same inputs: the output directory itself, or an
+     * entry of the artifact cache restored into it.
+     * 
+     * @return Result of the existing build, or null if the graph has to be built
+     */
+    private BuildResult reuseExistingBuild(String inputHash) throws IOException {
+        Path summaryPath = outputDir.resolve(BuildArtifactCache.SUMMARY_FILE);
+        if (inputHash.equals(readInputHash(summaryPath))) {
+            LOGGER.info("Sea graph in " + outputDir + " is up to date, skipping build");
+            return BuildResult.fromSummary(summaryPath);
+        }
+        if (artifactCache != null && artifactCache.contains(inputHash)) {
+            artifactCache.restore(inputHash, outputDir);
+            return BuildResult.fromSummary(summaryPath);
+        }
+        return null;
+    }
+    
+    private static String readInputHash(Path summaryPath) {
+        if (!Files.isRegularFile(summaryPath)) {
+            return null;
+        }
+        try {
+            JsonNode hash = new ObjectMapper().readTree(summaryPath.toFile()).get("input_hash");
+            return hash != null ? hash.asText() : null;
+        } catch (IOException e) {
+            LOGGER.fine(() -> "Unreadable build summary " + summaryPath + ": " + e.getMessage());
+            return null;
+        }
+    }
+    
+    private BuildResult runBuild(String inputHash) throws IOException {
+        long startTime = System.currentTimeMillis();
+        phaseTimingsMs.clear();
+        LOGGER.info("Starting sea-lane graph build with " + threads + " threads (" + dataAccess + ")...");
+        Files.createDirectories(outputDir);  // Memory-mapped graph files are created during the build
         
-        // Step 2: Generate waypoints
-        LOGGER.info("Generating global waypoint grid (step=" + gridStepDegrees + "°)");
-        List<Waypoint> waypoints = generateWaypoints();
-        LOGGER.info("Generated " + waypoints.size() + " initial waypoints");
+        landIndex = null;
         
-        // Step 3: Filter waypoints on land
-        LOGGER.info("Filtering waypoints on land...");
-        List<Waypoint> oceanWaypoints = filterLandWaypoints(waypoints);
+        // Stages 1-3: Generate waypoints and filter those on land (loads the land geometry on demand)
+        String waypointsKey = waypointStageKey();
+        WaypointArrays oceanWaypoints = loadCheckpoint(Stage.WAYPOINTS, waypointsKey, checkpoints::loadWaypoints);
+        if (oceanWaypoints == null) {
+            ensureLandLoaded();
+            LOGGER.info("Generating global waypoint grid (step=" + gridStepDegrees + "°" +
+                (isAdaptive() ? ", adaptive down to " + adaptiveMinStepDegrees + "°" : "") + ")");
+            long phaseStart = System.nanoTime();
+            WaypointArrays waypoints = generateWaypoints();
+            recordPhase("generate_waypoints", phaseStart);
+            LOGGER.info("Generated " + waypoints.size() + " initial waypoints");
+            
+            LOGGER.info("Filtering waypoints on land...");
+            phaseStart = System.nanoTime();
+            oceanWaypoints = filterLandWaypoints(waypoints);
+            recordPhase("filter_land", phaseStart);
+            
+            // Number nodes along a Hilbert curve; edges are created per source node and follow suit
+            phaseStart = System.nanoTime();
+            oceanWaypoints = oceanWaypoints.permute(HilbertCurve.sortOrder(oceanWaypoints));
+            recordPhase("node_reorder", phaseStart);
+            checkpoints.saveWaypoints(waypointsKey, oceanWaypoints);
+        }
         LOGGER.info("Remaining ocean waypoints: " + oceanWaypoints.size());
         
-        // Step 4: Build graph with k-nearest neighbors
-        LOGGER.info("Building graph with k=" + K_NEIGHBORS + " neighbors...");
-        GraphBuildResult graphResult = buildGraph(oceanWaypoints);
+        // Stage 4: Candidate edges from k-nearest neighbors
+        String candidatesKey = chainKey(waypointsKey, "candidates:k=" + K_NEIGHBORS);
+        long[] candidates = loadCheckpoint(Stage.CANDIDATES, candidatesKey,
+            key -> checkpoints.loadEdges(Stage.CANDIDATES, key));
+        if (candidates == null) {
+            LOGGER.info("Finding k=" + K_NEIGHBORS + " nearest neighbors...");
+            long phaseStart = System.nanoTime();
+            candidates = computeCandidateEdges(oceanWaypoints);
+            recordPhase("knn", phaseStart);
+            checkpoints.saveEdges(Stage.CANDIDATES, candidatesKey, candidates);
+        }
+        LOGGER.info("Candidate edges: " + candidates.length);
+        
+        // Stage 5: Reject candidate edges that cross land
+        String edgesKey = chainKey(candidatesKey, "edges");
+        long[] seaEdges = loadCheckpoint(Stage.EDGES, edgesKey, key -> checkpoints.loadEdges(Stage.EDGES, key));
+        if (seaEdges == null) {
+            ensureLandLoaded();
+            long phaseStart = System.nanoTime();
+            seaEdges = validateEdges(oceanWaypoints, candidates);
+            recordPhase("edge_validation", phaseStart);
+            checkpoints.saveEdges(Stage.EDGES, edgesKey, seaEdges);
+        }
+        LOGGER.info("Sea edges after land check: " + seaEdges.length);
+        
+        // Stage 6: Link or drop isolated ocean pockets, so the waypoint graph is a single component
+        connectivityRepair = null;
+        ConnectivityRepair repair = new ConnectivityRepair(oceanWaypoints, seaEdges);
+        if (repair.componentCount() > 1) {
+            ensureLandLoaded();
+            long phaseStart = System.nanoTime();
+            connectivityRepair = repairConnectivity(repair, oceanWaypoints);
+            oceanWaypoints = connectivityRepair.waypoints;
+            seaEdges = connectivityRepair.edges;
+            recordPhase("connectivity_repair", phaseStart);
+        }
+        
+        // Stage 7: Optionally prune redundant edges, assemble the graph and connect seaports
+        sparsification = null;
+        if (sparsifyStretch > 0) {
+            long phaseStart = System.nanoTime();
+            seaEdges = sparsifyEdges(oceanWaypoints, seaEdges);
+            recordPhase("sparsification", phaseStart);
+        }
+        if (!seaports.isEmpty()) {
+            ensureLandLoaded();
+        }
+        GraphBuildResult graphResult = buildGraph(oceanWaypoints, seaEdges);
         LOGGER.info("Graph built: " + graphResult.nodeCount + " nodes, " + graphResult.edgeCount + " edges");
         
-        // Step 5: Validate connectivity
+        // Step 8: Validate connectivity (only unconnectable ports can add components after the repair)
         LOGGER.info("Validating global connectivity...");
-        ConnectivityResult connectivity = validateConnectivity(graphResult.graph, oceanWaypoints);
+        long phaseStart = System.nanoTime();
+        ConnectivityResult connectivity = validateConnectivity(graphResult.graph, graphResult.chokepointNodeMap);
+        recordPhase("connectivity", phaseStart);
         
         if (connectivity.componentCount > 1) {
             LOGGER.warning("Multiple connected components detected: " + connectivity.componentCount);
             LOGGER.warning("Largest component size: " + connectivity.largestComponentSize);
         }
         
-        // Step 6: Save graph
-        Files.createDirectories(outputDir);
+        // Step 9: Save graph (frozen, as CH and landmarks require)
+        phaseStart = System.nanoTime();
         LOGGER.info("Persisting graph to " + outputDir);
+        graphResult.graph.freeze();
         graphResult.graph.flush();
+        recordPhase("persist_graph", phaseStart);
+        
+        // Step 10: Prepare the location index, CH and landmarks, so the server only loads them
+        prepareRuntimeArtifacts(graphResult);
         
-        // Step 7: Save chokepoint metadata
+        // Step 10b: Rasterize the land mask for coordinate validation, so the manifest covers it
+        if (landMaskResolution > 0) {
+            ensureLandLoaded();
+            phaseStart = System.nanoTime();
+            new LandMaskRasterBuilder(landIndex, landMaskResolution, true, threads)
+                .build(outputDir.resolve(LandMaskRaster.FILE_NAME));
+            recordPhase("land_mask", phaseStart);
+        }
+        phaseStart = System.nanoTime();
+        
+        // Step 11: Save chokepoint metadata
         Path metadataPath = outputDir.resolve("chokepoint_metadata.json");
         saveChokepointMetadata(metadataPath, graphResult.chokepointNodeMap);
         
-        // Step 8: Save build summary
+        // Step 12: Save component indexes for the runtime reachability precheck
+        saveComponentIndexes(connectivity);
+        
+        // Step 13: Save port access node table
+        if (!seaports.isEmpty()) {
+            new PortNodeTable(graphResult.portNodeMap).saveTo(outputDir.resolve(PortNodeTable.FILE_NAME));
+        }
+        // A port distance table of the previous graph is stale; PortDistanceTableBuilder recomputes it
+        Files.deleteIfExists(outputDir.resolve(PortDistanceTable.FILE_NAME));
+        
+        // Step 14: Describe every runtime artifact in the manifest the server verifies on startup
+        SeaArtifactManifest.create(outputDir, graphVersion(inputHash), graphResult.graph,
+            List.of(BuildArtifactCache.SUMMARY_FILE)).saveTo(outputDir.resolve(SeaArtifactManifest.FILE_NAME));
+        recordPhase("persist", phaseStart);
+        
+        // Step 15: Save build summary
         long buildDuration = System.currentTimeMillis() - startTime;
         BuildResult result = new BuildResult(
             graphResult.nodeCount,
@@ -156,10 +509,15 @@ public class SeaLaneGraphBuilder {
             buildDuration,
             gridStepDegrees,
             0.5,  // chokepoint step
-            computeGraphHash(graphResult.graph)
+            graphVersion(inputHash),
+            graphResult.portNodeMap.size(),
+            graphResult.forcedPortConnectorCount,
+            threads,
+            phaseTimingsMs
         );
         
-        saveBuildSummary(outputDir.resolve("build_summary.json"), result);
+        saveBuildSummary(outputDir.resolve(BuildArtifactCache.SUMMARY_FILE), result, inputHash);
+        graphResult.graph.close();  // Unmaps the graph files in MMAP mode
         
         LOGGER.info(String.format("Sea-lane graph build completed in %d ms", buildDuration));
         LOGGER.info(String.format("Final: %d nodes, %d edges, %d components",
@@ -168,255 +526,513 @@ public class SeaLaneGraphBuilder {
         return result;
     }
     
+    /**
+     * Return a stage's checkpoint if the stage does not have to run.
+     * 
+     * <p>Stages before {@code --resume-from} must have a checkpoint for the current inputs; stages from
+     * it onwards always run. Without {@code --resume-from}, a matching checkpoint is used when present.
+     * 
+     * @return Checkpointed stage output, or null if the stage has to run
+     * @throws IOException if a required checkpoint is missing or stale
+     */
+    private <T> T loadCheckpoint(Stage stage, String key, CheckpointReader<T> reader) throws IOException {
+        if (resumeFrom != null && stage.compareTo(resumeFrom) >= 0) {
+            return null;
+        }
+        T value = reader.read(key);
+        if (value == null && resumeFrom != null) {
+            throw new IOException("No checkpoint of stage '" + stage.id() + "' for the current inputs; cannot resume from '"
+                + resumeFrom.id() + "'");
+        }
+        if (value != null) {
+            LOGGER.info("Reusing checkpoint of stage '" + stage.id() + "'");
+        }
+        return value;
+    }
+    
+    private void ensureLandLoaded() throws IOException {
+        if (landIndex != null) {
+            return;
+        }
+        LOGGER.info("Loading land geometry from " + landmaskPath);
+        long phaseStart = System.nanoTime();
+        loadLandGeometry();
+        recordPhase("load_land", phaseStart);
+    }
+    
     /**
      * Load Natural Earth land polygons from shapefile.
      */
     private void loadLandGeometry() throws IOException {
-        FileDataStore dataStore = FileDataStoreFinder.getDataStore(landmaskPath.toFile());
-        if (dataStore == null) {
-            throw new IOException("Cannot open shapefile: " + landmaskPath);
-        }
+        List<Geometry> geometries = LandIndex.readShapefile(landmaskPath);
         
-        try {
-            SimpleFeatureSource featureSource = dataStore.getFeatureSource();
-            List<Geometry> geometries = new ArrayList<>();
-            
-            try (SimpleFeatureIterator iterator = featureSource.getFeatures().features()) {
-                while (iterator.hasNext()) {
-                    SimpleFeature feature = iterator.next();
-                    Object geom = feature.getDefaultGeometry();
-                    if (geom instanceof Geometry) {
-                        geometries.add((Geometry) geom);
-                    }
-                }
-            }
-            
-            if (geometries.isEmpty()) {
-                throw new IOException("No geometries found in shapefile");
-            }
-            
-            // Combine all land polygons into a single geometry
-            landGeometry = geometryFactory.createGeometryCollection(
-                geometries.toArray(new Geometry[0])).union();
-            
-            LOGGER.info("Loaded " + geometries.size() + " land polygons");
-        } finally {
-            dataStore.dispose();
-        }
+        // Index the polygons instead of unioning them; tests only touch nearby polygons
+        landIndex = new LandIndex(geometries, geometryFactory);
+        
+        LOGGER.info("Loaded " + geometries.size() + " land features (" +
+            landIndex.getPolygonCount() + " indexed polygons)");
     }
     
     /**
      * Generate global waypoint grid including chokepoint densification.
      */
-    private List<Waypoint> generateWaypoints() {
-        List<Waypoint> waypoints = new ArrayList<>();
-        Map<String, Set<Integer>> chokepointWaypointIndices = new HashMap<>();
+    private WaypointArrays generateWaypoints() {
+        WaypointArrays waypoints = isAdaptive() ? generateAdaptiveGrid() : generateUniformGrid();
         
-        // Initialize chokepoint tracking
-        for (ChokepointDefinition cp : MANDATORY_CHOKEPOINTS) {
-            chokepointWaypointIndices.put(cp.id, new HashSet<>());
+        // Add densified grids around chokepoints
+        for (int ordinal = 0; ordinal < MANDATORY_CHOKEPOINTS.size(); ordinal++) {
+            ChokepointDefinition cp = MANDATORY_CHOKEPOINTS.get(ordinal);
+            int before = waypoints.size();
+            densifyAroundChokepoint(waypoints, cp, (byte) ordinal);
+            
+            int added = waypoints.size() - before;
+            LOGGER.fine(() -> String.format("Added %d dense waypoints for chokepoint %s", added, cp.id));
         }
         
-        // Generate main grid
+        return waypoints;
+    }
+    
+    private WaypointArrays generateUniformGrid() {
+        int latSteps = (int) ((MAX_LAT - MIN_LAT) / gridStepDegrees) + 1;
+        int lonSteps = (int) Math.ceil((MAX_LON - MIN_LON) / gridStepDegrees);
+        WaypointArrays waypoints = new WaypointArrays(latSteps * lonSteps);
+        
         for (double lat = MIN_LAT; lat <= MAX_LAT; lat += gridStepDegrees) {
             for (double lon = MIN_LON; lon < MAX_LON; lon += gridStepDegrees) {
-                int index = waypoints.size();
-                String chokepointId = findNearbyChokepoint(lat, lon, gridStepDegrees * 2);
-                waypoints.add(new Waypoint(index, lat, lon, chokepointId));
-                
-                if (chokepointId != null) {
-                    chokepointWaypointIndices.get(chokepointId).add(index);
-                }
+                waypoints.add(lat, lon, findNearbyChokepoint(lat, lon, gridStepDegrees * 2));
             }
         }
+        return waypoints;
+    }
+    
+    /**
+     * Generate the quadtree grid. Top-level cells are refined in parallel and appended in cell order,
+     * so the waypoint numbering does not depend on the thread count.
+     */
+    private WaypointArrays generateAdaptiveGrid() {
+        AdaptiveGrid grid = new AdaptiveGrid(landIndex, gridStepDegrees, adaptiveMinStepDegrees,
+            MIN_LAT, MAX_LAT, MIN_LON, MAX_LON);
+        DoubleArrayList[] leaves = new DoubleArrayList[grid.topCellCount()];
+        parallelFor(leaves.length, i -> {
+            leaves[i] = new DoubleArrayList();
+            grid.refine(i, leaves[i]);
+        });
         
-        // Add densified grids around chokepoints
-        for (ChokepointDefinition cp : MANDATORY_CHOKEPOINTS) {
-            List<Waypoint> densePoints = densifyAroundChokepoint(
-                cp.lat, cp.lon, cp.radiusDegrees, cp.stepDegrees, cp.id, waypoints.size());
-            
-            for (Waypoint wp : densePoints) {
-                chokepointWaypointIndices.get(cp.id).add(wp.index);
+        int leafCount = 0;
+        for (DoubleArrayList cellLeaves : leaves) {
+            leafCount += cellLeaves.size() / 3;
+        }
+        WaypointArrays waypoints = new WaypointArrays(leafCount);
+        for (DoubleArrayList cellLeaves : leaves) {
+            double[] buffer = cellLeaves.buffer;
+            for (int i = 0; i < cellLeaves.size(); i += 3) {
+                // Tag chokepoints relative to the leaf size, as the uniform grid does with its step
+                waypoints.add(buffer[i], buffer[i + 1], findNearbyChokepoint(buffer[i], buffer[i + 1], buffer[i + 2] * 2));
             }
-            waypoints.addAll(densePoints);
-            
-            LOGGER.fine(() -> String.format("Added %d dense waypoints for chokepoint %s",
-                densePoints.size(), cp.id));
         }
         
+        int finalLeafCount = leafCount;
+        LOGGER.info(() -> String.format("Adaptive grid: %d top-level cells refined into %d leaves",
+            leaves.length, finalLeafCount));
         return waypoints;
     }
     
+    private boolean isAdaptive() {
+        return adaptiveMinStepDegrees > 0 && adaptiveMinStepDegrees < gridStepDegrees;
+    }
+    
     /**
-     * Generate dense local grid around a chokepoint.
+     * Append a dense local grid around a chokepoint.
      */
-    private List<Waypoint> densifyAroundChokepoint(double centerLat, double centerLon,
-                                                    double radiusDegrees, double stepDegrees,
-                                                    String chokepointId, int startIndex) {
-        List<Waypoint> points = new ArrayList<>();
-        int index = startIndex;
+    private void densifyAroundChokepoint(WaypointArrays waypoints, ChokepointDefinition cp, byte ordinal) {
+        double radiusDegrees = cp.radiusDegrees;
+        double stepDegrees = cp.stepDegrees;
         
         for (double dlat = -radiusDegrees; dlat <= radiusDegrees; dlat += stepDegrees) {
             for (double dlon = -radiusDegrees; dlon <= radiusDegrees; dlon += stepDegrees) {
                 double distance = Math.sqrt(dlat * dlat + dlon * dlon);
                 if (distance <= radiusDegrees && distance > 0) {  // Skip center point
-                    double lat = centerLat + dlat;
-                    double lon = centerLon + dlon;
+                    double lat = cp.lat + dlat;
+                    double lon = cp.lon + dlon;
                     
                     // Keep within valid ranges
                     if (lat >= MIN_LAT && lat <= MAX_LAT) {
-                        lon = normalizeLongitude(lon);
-                        points.add(new Waypoint(index++, lat, lon, chokepointId));
+                        waypoints.add(lat, normalizeLongitude(lon), ordinal);
                     }
                 }
             }
         }
         
         // Add the chokepoint center itself
-        points.add(new Waypoint(index, centerLat, centerLon, chokepointId));
-        
-        return points;
+        waypoints.add(cp.lat, cp.lon, ordinal);
     }
     
     /**
      * Find if a point is near any mandatory chokepoint.
+     * 
+     * @return Ordinal in {@link #MANDATORY_CHOKEPOINTS}, or {@link WaypointArrays#NO_CHOKEPOINT}
      */
-    private String findNearbyChokepoint(double lat, double lon, double thresholdDegrees) {
-        for (ChokepointDefinition cp : MANDATORY_CHOKEPOINTS) {
-            double dist = Math.sqrt(Math.pow(lat - cp.lat, 2) + Math.pow(lon - cp.lon, 2));
-            if (dist <= thresholdDegrees) {
-                return cp.id;
+    private byte findNearbyChokepoint(double lat, double lon, double thresholdDegrees) {
+        for (int ordinal = 0; ordinal < MANDATORY_CHOKEPOINTS.size(); ordinal++) {
+            ChokepointDefinition cp = MANDATORY_CHOKEPOINTS.get(ordinal);
+            double dLat = lat - cp.lat;
+            double dLon = lon - cp.lon;
+            if (dLat * dLat + dLon * dLon <= thresholdDegrees * thresholdDegrees) {
+                return (byte) ordinal;
             }
         }
-        return null;
+        return WaypointArrays.NO_CHOKEPOINT;
     }
     
     /**
      * Filter out waypoints that fall on land.
      */
-    private List<Waypoint> filterLandWaypoints(List<Waypoint> waypoints) {
-        List<Waypoint> oceanWaypoints = new ArrayList<>();
-        int landCount = 0;
+    private WaypointArrays filterLandWaypoints(WaypointArrays waypoints) {
+        // Point-in-polygon tests are independent; run them in parallel and renumber sequentially
+        boolean[] onLand = new boolean[waypoints.size()];
+        parallelFor(waypoints.size(), i -> onLand[i] = landIndex.containsPoint(waypoints.lat(i), waypoints.lon(i)));
+        
+        WaypointArrays oceanWaypoints = waypoints.without(onLand);
+        int landCount = waypoints.size() - oceanWaypoints.size();
+        LOGGER.info(() -> "Filtered out " + landCount + " land waypoints");
+        return oceanWaypoints;
+    }
+    
+    /**
+     * Find the unique KNN candidate edges with a KD-tree on the unit sphere (antimeridian-aware).
+     * 
+     * @return Packed edge keys, see {@link #edgeKey(int, int)}
+     */
+    private long[] computeCandidateEdges(WaypointArrays waypoints) {
+        SphereKdTree kdTree = buildKdTree(waypoints);
+        int[] neighbors = buildKNNIndex(waypoints, kdTree);
+        return collectCandidateEdges(neighbors, waypoints.size());
+    }
+    
+    /**
+     * Check candidate edges against land in parallel.
+     * 
+     * @return Candidate edges that do not cross land, in candidate order
+     */
+    private long[] validateEdges(WaypointArrays waypoints, long[] candidates) {
+        boolean[] crossesLand = new boolean[candidates.length];
+        parallelFor(candidates.length, i -> {
+            int from = edgeFrom(candidates[i]);
+            int to = edgeTo(candidates[i]);
+            crossesLand[i] = edgeCrossesLand(waypoints.lat(from), waypoints.lon(from),
+                waypoints.lat(to), waypoints.lon(to));
+        });
         
-        for (Waypoint wp : waypoints) {
-            Point point = geometryFactory.createPoint(new Coordinate(wp.lon, wp.lat));
-            if (!landGeometry.contains(point)) {
-                oceanWaypoints.add(new Waypoint(oceanWaypoints.size(), wp.lat, wp.lon, wp.chokepointId));
-            } else {
-                landCount++;
+        LongArrayList seaEdges = new LongArrayList(candidates.length);
+        for (int i = 0; i < candidates.length; i++) {
+            if (!crossesLand[i]) {
+                seaEdges.add(candidates[i]);
             }
         }
+        return seaEdges.toArray();
+    }
+    
+    /**
+     * Connect every component to the largest one by its shortest land-free connector, or drop it.
+     */
+    private ConnectivityRepair.Result repairConnectivity(ConnectivityRepair repair, WaypointArrays waypoints) {
+        LOGGER.info("Waypoint graph has " + repair.componentCount() + " components, repairing...");
+        ConnectivityRepair.Result result = repair.repair(buildKdTree(waypoints),
+            (a, b) -> !edgeCrossesLand(waypoints.lat(a), waypoints.lon(a), waypoints.lat(b), waypoints.lon(b)));
+        LOGGER.info(() -> String.format("Linked %d components with %d connectors, dropped %d components (%d nodes)",
+            result.linkedComponents, result.connectorEdges, result.droppedComponents, result.droppedNodes));
+        return result;
+    }
+    
+    /**
+     * Prune redundant edges and measure the effect on a fixed sample of one-to-one queries.
+     * 
+     * @return Kept edges, in input order
+     */
+    private long[] sparsifyEdges(WaypointArrays waypoints, long[] seaEdges) {
+        double[] lengths = new double[seaEdges.length];
+        parallelFor(seaEdges.length, i -> {
+            int from = edgeFrom(seaEdges[i]);
+            int to = edgeTo(seaEdges[i]);
+            lengths[i] = haversineDistanceKm(waypoints.lat(from), waypoints.lon(from),
+                waypoints.lat(to), waypoints.lon(to));
+        });
+        boolean[] protectedNodes = new boolean[waypoints.size()];
+        for (int i = 0; i < waypoints.size(); i++) {
+            protectedNodes[i] = waypoints.chokepoint(i) != WaypointArrays.NO_CHOKEPOINT;
+        }
         
-        int finalLandCount = landCount;
-        LOGGER.info(() -> "Filtered out " + finalLandCount + " land waypoints");
-        return oceanWaypoints;
+        EdgeSparsifier sparsifier = new EdgeSparsifier(waypoints.size(), seaEdges, lengths, protectedNodes);
+        boolean[] keep = sparsifier.sparsify(sparsifyStretch);
+        LongArrayList kept = new LongArrayList(seaEdges.length);
+        for (int i = 0; i < seaEdges.length; i++) {
+            if (keep[i]) {
+                kept.add(seaEdges[i]);
+            }
+        }
+        
+        // Same random node pairs on both edge sets; fixed seed keeps the report reproducible
+        Random random = new Random(42);
+        int[] sources = new int[SPARSIFY_SAMPLE_QUERIES];
+        int[] targets = new int[SPARSIFY_SAMPLE_QUERIES];
+        for (int q = 0; q < SPARSIFY_SAMPLE_QUERIES && waypoints.size() > 0; q++) {
+            sources[q] = random.nextInt(waypoints.size());
+            targets[q] = random.nextInt(waypoints.size());
+        }
+        boolean[] all = new boolean[seaEdges.length];
+        Arrays.fill(all, true);
+        long start = System.nanoTime();
+        long workBefore = sparsifier.queryWork(all, sources, targets);
+        long nanosBefore = System.nanoTime() - start;
+        start = System.nanoTime();
+        long workAfter = sparsifier.queryWork(keep, sources, targets);
+        long nanosAfter = System.nanoTime() - start;
+        
+        sparsification = new SparsificationReport(sparsifyStretch, seaEdges.length, kept.size(),
+            workBefore, workAfter, nanosBefore, nanosAfter);
+        LOGGER.info(() -> String.format("Sparsification (stretch %.3f): %d -> %d edges (-%.1f%%), sample query work x%.2f",
+            sparsifyStretch, seaEdges.length, kept.size(), sparsification.edgeReductionPercent(),
+            sparsification.workSpeedup()));
+        return kept.toArray();
     }
     
     /**
-     * Build the graph using k-nearest neighbors with antimeridian-aware distance.
+     * Build the graph from the waypoints and their validated sea edges, then connect the seaports.
      */
-    private GraphBuildResult buildGraph(List<Waypoint> waypoints) {
-        // Create encoding manager with minimal values for sea graph
-        BooleanEncodedValue accessEnc = VehicleAccess.create("car");
-        DecimalEncodedValue speedEnc = VehicleSpeed.create("car", 5, 5, false);
-        EncodingManager encodingManager = EncodingManager.start()
-            .add(accessEnc)
-            .add(speedEnc)
-            .build();
+    private GraphBuildResult buildGraph(WaypointArrays waypoints, long[] seaEdges) {
+        // Same encoding as the runtime loader, including the landmark subnetwork flag
+        EncodingManager encodingManager = SeaGraphArtifacts.createEncodingManager();
+        BooleanEncodedValue accessEnc = encodingManager.getBooleanEncodedValue(VehicleAccess.key("car"));
+        DecimalEncodedValue speedEnc = encodingManager.getDecimalEncodedValue(VehicleSpeed.key("car"));
         
         BaseGraph graph = new BaseGraph.Builder(encodingManager)
-            .setDir(new RAMDirectory(outputDir.toString(), true))
+            .setDir(SeaGraphDataAccess.createDirectory(outputDir.toString(), dataAccess))
             .set3D(false)
             .create();
         
         // Add nodes
-        for (Waypoint wp : waypoints) {
-            graph.getNodeAccess().setNode(wp.index, wp.lat, wp.lon);
+        int waypointCount = waypoints.size();
+        for (int i = 0; i < waypointCount; i++) {
+            graph.getNodeAccess().setNode(i, waypoints.lat(i), waypoints.lon(i));
         }
         
-        // Build KNN index for efficient neighbor lookup
-        Map<Integer, List<NeighborEntry>> neighbors = buildKNNIndex(waypoints);
-        
-        // Add edges
+        // Add edges (single-threaded, BaseGraph is not thread-safe)
+        long phaseStart = System.nanoTime();
         int edgeCount = 0;
-        Set<String> addedEdges = new HashSet<>();  // Prevent duplicate edges
-        
-        for (Waypoint wp : waypoints) {
-            List<NeighborEntry> knn = neighbors.get(wp.index);
-            if (knn == null) continue;
-            
-            for (NeighborEntry neighbor : knn) {
-                String edgeKey = Math.min(wp.index, neighbor.index) + "-" + Math.max(wp.index, neighbor.index);
-                if (addedEdges.contains(edgeKey)) continue;
-                
-                // Check if edge crosses land
-                Waypoint neighborWp = waypoints.get(neighbor.index);
-                if (!edgeCrossesLand(wp.lat, wp.lon, neighborWp.lat, neighborWp.lon)) {
-                    graph.edge(wp.index, neighbor.index)
-                        .setDistance(neighbor.distance * 1000)  // Convert km to m
-                        .set(accessEnc, true, true)
-                        .set(speedEnc, 30.0);  // Placeholder speed
-                    
-                    addedEdges.add(edgeKey);
-                    edgeCount++;
-                }
-            }
+        for (long edge : seaEdges) {
+            int from = edgeFrom(edge);
+            int to = edgeTo(edge);
+            double distanceKm = haversineDistanceKm(waypoints.lat(from), waypoints.lon(from),
+                waypoints.lat(to), waypoints.lon(to));
+            graph.edge(from, to)
+                .setDistance(distanceKm * 1000)  // Convert km to m
+                .set(accessEnc, true, true)
+                .set(speedEnc, 30.0);  // Placeholder speed
+            edgeCount++;
         }
         
         // Build chokepoint node map
         Map<String, Set<Integer>> chokepointNodeMap = new HashMap<>();
-        for (Waypoint wp : waypoints) {
-            if (wp.chokepointId != null) {
-                chokepointNodeMap.computeIfAbsent(wp.chokepointId, k -> new HashSet<>())
-                    .add(wp.index);
+        for (int i = 0; i < waypointCount; i++) {
+            byte ordinal = waypoints.chokepoint(i);
+            if (ordinal != WaypointArrays.NO_CHOKEPOINT) {
+                chokepointNodeMap.computeIfAbsent(MANDATORY_CHOKEPOINTS.get(ordinal).id, k -> new HashSet<>())
+                    .add(i);
             }
         }
         
-        return new GraphBuildResult(graph, waypoints.size(), edgeCount, chokepointNodeMap);
+        // Connect seaports as dedicated access nodes after the waypoints
+        Map<String, Integer> portNodeMap = new LinkedHashMap<>();
+        int forcedConnectors = 0;
+        SphereKdTree kdTree = seaports.isEmpty() ? null : buildKdTree(waypoints);
+        for (Port port : seaports) {
+            if (portNodeMap.containsKey(port.getUnlocode())) continue;
+            
+            int portNode = waypointCount + portNodeMap.size();
+            PortConnection connection = connectPort(graph, portNode, port, waypoints, kdTree, accessEnc, speedEnc);
+            if (connection.connectorCount == 0) {
+                LOGGER.fine(() -> "No ocean waypoint within reach of port " + port.getUnlocode());
+                continue;
+            }
+            
+            portNodeMap.put(port.getUnlocode(), portNode);
+            edgeCount += connection.connectorCount;
+            if (connection.forced) {
+                forcedConnectors++;
+            }
+        }
+        
+        recordPhase("edge_creation", phaseStart);
+        
+        if (!seaports.isEmpty()) {
+            int finalForced = forcedConnectors;
+            LOGGER.info(() -> String.format("Connected %d of %d seaports (%d with a forced connector)",
+                portNodeMap.size(), seaports.size(), finalForced));
+        }
+        
+        return new GraphBuildResult(graph, encodingManager, waypointCount + portNodeMap.size(), edgeCount,
+            chokepointNodeMap, portNodeMap, forcedConnectors);
     }
     
     /**
-     * Build k-nearest neighbor index with antimeridian-aware distance.
+     * Prepare and persist the artifacts the server would otherwise build on startup.
      */
-    private Map<Integer, List<NeighborEntry>> buildKNNIndex(List<Waypoint> waypoints) {
-        Map<Integer, List<NeighborEntry>> neighbors = new HashMap<>();
+    private void prepareRuntimeArtifacts(GraphBuildResult graphResult) {
+        BaseGraph graph = graphResult.graph;
+        long phaseStart = System.nanoTime();
+        SeaGraphArtifacts.prepareLocationIndex(graph, graph.getDirectory()).close();
+        recordPhase("location_index", phaseStart);
         
-        for (Waypoint wp : waypoints) {
-            PriorityQueue<NeighborEntry> pq = new PriorityQueue<>(
-                Comparator.comparingDouble(e -> -e.distance));  // Max heap
-            
-            for (Waypoint other : waypoints) {
-                if (wp.index == other.index) continue;
-                
-                double dist = antimeridianAwareDistance(wp.lat, wp.lon, other.lat, other.lon);
-                
-                if (pq.size() < K_NEIGHBORS) {
-                    pq.offer(new NeighborEntry(other.index, dist));
-                } else if (dist < pq.peek().distance) {
-                    pq.poll();
-                    pq.offer(new NeighborEntry(other.index, dist));
-                }
+        Weighting weighting = SeaGraphArtifacts.createWeighting(graphResult.encodingManager);
+        phaseStart = System.nanoTime();
+        SeaGraphArtifacts.prepareCH(graph, weighting).close();
+        recordPhase("ch_preparation", phaseStart);
+        
+        phaseStart = System.nanoTime();
+        SeaGraphArtifacts.prepareLandmarks(graph, graphResult.encodingManager, graph.getDirectory(), weighting).close();
+        recordPhase("lm_preparation", phaseStart);
+        LOGGER.info("Prepared location index, CH and " + SeaGraphArtifacts.LANDMARKS + " landmarks for profile '" +
+            SeaGraphArtifacts.PROFILE_NAME + "'");
+    }
+    
+    /**
+     * Add a port as a graph node and link it to its nearest ocean waypoints.
+     * 
+     * <p>Up to {@value #PORT_MAX_CONNECTORS} connectors are added to the nearest waypoints whose
+     * connector does not cross land. The first {@value #PORT_LAND_TOLERANCE_KM} km from the port are
+     * not land-checked, because port coordinates usually lie inside the coastline polygons. If every
+     * candidate crosses land, a single connector to the nearest waypoint is forced so the port stays
+     * routable; forced connectors are reported in the build summary.
+     */
+    private PortConnection connectPort(BaseGraph graph, int portNode, Port port, WaypointArrays waypoints,
+                                       SphereKdTree kdTree, BooleanEncodedValue accessEnc,
+                                       DecimalEncodedValue speedEnc) {
+        int[] nearest = new int[PORT_CONNECTOR_CANDIDATES];
+        double[] chordSq = new double[PORT_CONNECTOR_CANDIDATES];
+        int found = kdTree.nearest(port.getLat(), port.getLon(), PORT_CONNECTOR_CANDIDATES, -1, nearest, chordSq);
+        
+        List<NeighborEntry> candidates = new ArrayList<>(found);
+        for (int i = 0; i < found; i++) {
+            int wp = nearest[i];
+            double dist = haversineDistanceKm(port.getLat(), port.getLon(), waypoints.lat(wp), waypoints.lon(wp));
+            if (dist <= PORT_MAX_CONNECTOR_KM) {
+                candidates.add(new NeighborEntry(wp, dist));
             }
+        }
+        if (candidates.isEmpty()) {
+            return new PortConnection(0, false);
+        }
+        
+        graph.getNodeAccess().setNode(portNode, port.getLat(), port.getLon());
+        int connectors = 0;
+        for (NeighborEntry candidate : candidates) {
+            if (connectors == PORT_MAX_CONNECTORS) break;
             
-            neighbors.put(wp.index, new ArrayList<>(pq));
+            if (!connectorCrossesLand(port.getLat(), port.getLon(), waypoints.lat(candidate.index),
+                    waypoints.lon(candidate.index), candidate.distance)) {
+                addConnector(graph, portNode, candidate, accessEnc, speedEnc);
+                connectors++;
+            }
+        }
+        
+        if (connectors == 0) {
+            addConnector(graph, portNode, candidates.get(0), accessEnc, speedEnc);
+            return new PortConnection(1, true);
+        }
+        return new PortConnection(connectors, false);
+    }
+    
+    private void addConnector(BaseGraph graph, int portNode, NeighborEntry waypoint,
+                              BooleanEncodedValue accessEnc, DecimalEncodedValue speedEnc) {
+        graph.edge(portNode, waypoint.index)
+            .setDistance(waypoint.distance * 1000)  // Convert km to m
+            .set(accessEnc, true, true)
+            .set(speedEnc, 30.0);  // Placeholder speed
+    }
+    
+    /**
+     * Land check for a port connector, skipping the coastal stretch next to the port.
+     */
+    private boolean connectorCrossesLand(double portLat, double portLon, double wpLat, double wpLon,
+                                         double distanceKm) {
+        if (distanceKm <= PORT_LAND_TOLERANCE_KM) {
+            return false;
         }
+        double dLon = wpLon - portLon;
+        if (dLon > 180) dLon -= 360;
+        if (dLon < -180) dLon += 360;
+        double fraction = PORT_LAND_TOLERANCE_KM / distanceKm;
+        double startLat = portLat + (wpLat - portLat) * fraction;
+        double startLon = normalizeLongitude(portLon + dLon * fraction);
+        return edgeCrossesLand(startLat, startLon, wpLat, wpLon);
+    }
+    
+    private static SphereKdTree buildKdTree(WaypointArrays waypoints) {
+        return new SphereKdTree(waypoints.latArray(), waypoints.lonArray(), waypoints.size());
+    }
+    
+    /**
+     * Build k-nearest neighbor index using the KD-tree.
+     * 
+     * <p>Waypoints are compared as 3D unit vectors, so neighbors across the antimeridian are found
+     * without shifted copies. Queries are independent and run on the build pool; each query writes only
+     * its own {@value #K_NEIGHBORS} slots of the flat result array.
+     * 
+     * @return Neighbor indices, {@value #K_NEIGHBORS} per waypoint, nearest first, padded with -1
+     */
+    private int[] buildKNNIndex(WaypointArrays waypoints, SphereKdTree kdTree) {
+        int[] neighbors = new int[waypoints.size() * K_NEIGHBORS];
+        Arrays.fill(neighbors, -1);
+        
+        parallelFor(waypoints.size(), i -> {
+            int[] nearest = new int[K_NEIGHBORS];
+            double[] chordSq = new double[K_NEIGHBORS];
+            int found = kdTree.nearest(waypoints.lat(i), waypoints.lon(i), K_NEIGHBORS, i, nearest, chordSq);
+            System.arraycopy(nearest, 0, neighbors, i * K_NEIGHBORS, found);
+        });
         
         return neighbors;
     }
     
     /**
-     * Compute distance considering dateline wrap-around.
-     * For KNN, check both the original point and its ±360° shifted version.
+     * Collect the unique undirected KNN edges in deterministic order.
+     * 
+     * @return Packed edge keys, see {@link #edgeKey(int, int)}
+     */
+    private static long[] collectCandidateEdges(int[] neighbors, int waypointCount) {
+        LongArrayList candidates = new LongArrayList(waypointCount * K_NEIGHBORS / 2);
+        LongHashSet seenEdges = new LongHashSet(waypointCount * K_NEIGHBORS / 2);  // Prevent duplicate edges
+        for (int i = 0; i < waypointCount; i++) {
+            for (int n = 0; n < K_NEIGHBORS; n++) {
+                int neighbor = neighbors[i * K_NEIGHBORS + n];
+                if (neighbor < 0) break;
+                
+                long key = edgeKey(i, neighbor);
+                if (seenEdges.add(key)) {
+                    candidates.add(key);
+                }
+            }
+        }
+        return candidates.toArray();
+    }
+    
+    /**
+     * Pack an undirected edge into a long: the smaller node in the high word, the larger in the low word.
      */
-    private double antimeridianAwareDistance(double lat1, double lon1, double lat2, double lon2) {
-        double directDist = haversineDistanceKm(lat1, lon1, lat2, lon2);
-        double wrappedDist1 = haversineDistanceKm(lat1, lon1 + 360, lat2, lon2);
-        double wrappedDist2 = haversineDistanceKm(lat1, lon1 - 360, lat2, lon2);
-        return Math.min(directDist, Math.min(wrappedDist1, wrappedDist2));
+    static long edgeKey(int a, int b) {
+        return ((long) Math.min(a, b) << 32) | Math.max(a, b);
+    }
+    
+    static int edgeFrom(long key) {
+        return (int) (key >>> 32);
+    }
+    
+    static int edgeTo(long key) {
+        return (int) key;
     }
     
     /**
-     * Haversine distance in kilometers.
+     * Haversine distance in kilometers (periodic in longitude, so dateline-safe).
      */
     private double haversineDistanceKm(double lat1, double lon1, double lat2, double lon2) {
         double dLat = Math.toRadians(lat2 - lat1);
@@ -447,57 +1063,42 @@ public class SeaLaneGraphBuilder {
     }
     
     private boolean edgeCrossesLandSegment(double lat1, double lon1, double lat2, double lon2) {
-        Coordinate[] coords = new Coordinate[] {
-            new Coordinate(lon1, lat1),
-            new Coordinate(lon2, lat2)
-        };
-        LineString line = geometryFactory.createLineString(coords);
-        return landGeometry.intersects(line);
+        return landIndex.intersectsSegment(lat1, lon1, lat2, lon2);
     }
     
     /**
      * Validate global connectivity using connected components.
+     * 
+     * <p>Besides the unrestricted components, one variant per chokepoint is computed with that
+     * chokepoint's nodes excluded. At runtime these answer "disconnected" for a pair without a search,
+     * also for requests that exclude chokepoints.
      */
-    private ConnectivityResult validateConnectivity(BaseGraph graph, List<Waypoint> waypoints) {
-        int nodeCount = waypoints.size();
-        int[] component = new int[nodeCount];
-        Arrays.fill(component, -1);
-        
-        int componentId = 0;
-        int largestSize = 0;
+    private ConnectivityResult validateConnectivity(BaseGraph graph, Map<String, Set<Integer>> chokepointNodeMap) {
+        ComponentIndex components = ComponentIndex.compute(graph, EdgeFilter.ALL_EDGES);
         
-        for (int i = 0; i < nodeCount; i++) {
-            if (component[i] == -1) {
-                int size = bfs(graph, i, component, componentId);
-                largestSize = Math.max(largestSize, size);
-                componentId++;
-            }
+        Map<String, ComponentIndex> chokepointComponents = new LinkedHashMap<>();
+        for (ChokepointDefinition cp : MANDATORY_CHOKEPOINTS) {
+            Set<Integer> nodeIds = chokepointNodeMap.getOrDefault(cp.id, Collections.emptySet());
+            ComponentIndex variant = ComponentIndex.compute(graph,
+                new ChokepointAwareEdgeFilter(nodeIds, List.of(cp.id)));
+            chokepointComponents.put(cp.id, variant);
+            LOGGER.fine(() -> String.format("Components with %s excluded: %d",
+                cp.id, variant.getComponentCount()));
         }
         
-        return new ConnectivityResult(componentId, largestSize);
+        return new ConnectivityResult(components.getComponentCount(), components.getLargestComponentSize(),
+            components, chokepointComponents);
     }
     
-    private int bfs(BaseGraph graph, int start, int[] component, int componentId) {
-        Queue<Integer> queue = new LinkedList<>();
-        queue.offer(start);
-        component[start] = componentId;
-        int size = 0;
-        
-        while (!queue.isEmpty()) {
-            int node = queue.poll();
-            size++;
-            
-            var edgeIterator = graph.createEdgeExplorer().setBaseNode(node);
-            while (edgeIterator.next()) {
-                int neighbor = edgeIterator.getAdjNode();
-                if (component[neighbor] == -1) {
-                    component[neighbor] = componentId;
-                    queue.offer(neighbor);
-                }
-            }
+    /**
+     * Persist the component indexes next to the graph.
+     */
+    private void saveComponentIndexes(ConnectivityResult connectivity) throws IOException {
+        connectivity.components.saveTo(outputDir.resolve(ComponentIndex.FILE_NAME));
+        for (Map.Entry<String, ComponentIndex> entry : connectivity.chokepointComponents.entrySet()) {
+            entry.getValue().saveTo(outputDir.resolve(ComponentIndex.fileName(entry.getKey())));
         }
-        
-        return size;
+        LOGGER.info("Saved component indexes (" + connectivity.chokepointComponents.size() + " chokepoint variants)");
     }
     
     /**
@@ -525,30 +1126,51 @@ public class SeaLaneGraphBuilder {
     /**
      * Save build summary to JSON.
      */
-    private void saveBuildSummary(Path summaryPath, BuildResult result) throws IOException {
+    private void saveBuildSummary(Path summaryPath, BuildResult result, String inputHash) throws IOException {
         String json = String.format("""
             {
               "sea_graph_version": "%s",
+              "input_hash": "%s",
+              "builder_version": "%s",
               "node_count": %d,
               "edge_count": %d,
               "connected_component_count": %d,
               "largest_component_size": %d,
+              "port_access_node_count": %d,
+              "port_forced_connector_count": %d,
               "build_duration_ms": %d,
+              "build_threads": %d,
+              "phase_timings_ms": %s,
+              "connectivity_repair": %s,
+              "sparsification": %s,
               "waypoint_grid_step_degrees": %.1f,
+              "waypoint_grid_mode": "%s",
+              "waypoint_grid_min_step_degrees": %s,
               "chokepoint_densification_step_degrees": %.1f,
-              "land_mask_source": "ne_50m_land.shp",
+              "land_mask_source": "%s",
               "graphhopper_version": "11.0",
               "build_timestamp": "%s"
             }
             """,
             result.graphVersion,
+            inputHash,
+            BUILDER_VERSION,
             result.nodeCount,
             result.edgeCount,
             result.componentCount,
             result.largestComponentSize,
+            result.portAccessNodeCount,
+            result.portForcedConnectorCount,
             result.buildDurationMs,
+            result.threads,
+            formatPhaseTimings(result.phaseTimingsMs),
+            formatConnectivityRepair(),
+            formatSparsification(),
             result.gridStepDegrees,
+            isAdaptive() ? "adaptive" : "uniform",
+            isAdaptive() ? String.valueOf(adaptiveMinStepDegrees) : String.valueOf(result.gridStepDegrees),
             result.chokepointStepDegrees,
+            landmaskPath.getFileName(),
             Instant.now().toString()
         );
         
@@ -556,25 +1178,149 @@ public class SeaLaneGraphBuilder {
         LOGGER.info("Build summary saved to " + summaryPath);
     }
     
+    private String formatConnectivityRepair() {
+        if (connectivityRepair == null) {
+            return "{\"components_before\": 1, \"linked_components\": 0, \"connector_edges\": 0, " +
+                "\"dropped_components\": 0, \"dropped_nodes\": 0}";
+        }
+        return String.format(Locale.ROOT,
+            "{\"components_before\": %d, \"linked_components\": %d, \"connector_edges\": %d, " +
+            "\"dropped_components\": %d, \"dropped_nodes\": %d}",
+            connectivityRepair.componentsBefore, connectivityRepair.linkedComponents,
+            connectivityRepair.connectorEdges, connectivityRepair.droppedComponents, connectivityRepair.droppedNodes);
+    }
+    
+    private String formatSparsification() {
+        if (sparsification == null) {
+            return "{\"enabled\": false}";
+        }
+        return String.format(Locale.ROOT,
+            "{\"enabled\": true, \"stretch_factor\": %s, \"edges_before\": %d, \"edges_after\": %d, " +
+            "\"edge_reduction_pct\": %.2f, \"sample_queries\": %d, \"sample_query_work_speedup\": %.3f, " +
+            "\"sample_query_time_speedup\": %.3f}",
+            sparsification.stretchFactor, sparsification.edgesBefore, sparsification.edgesAfter,
+            sparsification.edgeReductionPercent(), SPARSIFY_SAMPLE_QUERIES, sparsification.workSpeedup(),
+            sparsification.timeSpeedup());
+    }
+    
+    private static String formatPhaseTimings(Map<String, Long> phaseTimingsMs) {
+        StringJoiner joiner = new StringJoiner(", ", "{", "}");
+        phaseTimingsMs.forEach((phase, ms) -> joiner.add("\"" + phase + "\": " + ms));
+        return joiner.toString();
+    }
+    
     /**
-     * Compute a stable hash of the graph for cache invalidation.
+     * Compute a deterministic hash of everything that determines the graph: the land mask files, the
+     * grid parameters, the chokepoint definitions, the seaports and {@link #BUILDER_VERSION}.
+     * Thread count and storage mode do not change the output and are not included.
+     * 
+     * <p>The hash extends the chained stage keys (waypoints → candidates → edges) with the port inputs,
+     * so a build whose stage checkpoints are valid has the same inputs up to the ports.
+     * 
+     * @return Lower-case hex SHA-256 digest
+     * @throws IOException if the land mask cannot be read
      */
-    private String computeGraphHash(BaseGraph graph) {
-        try {
-            MessageDigest digest = MessageDigest.getInstance("SHA-256");
-            digest.update(String.valueOf(graph.getNodes()).getBytes());
-            digest.update(String.valueOf(graph.getEdges()).getBytes());
-            digest.update(String.valueOf(System.currentTimeMillis()).getBytes());
-            
-            byte[] hash = digest.digest();
-            StringBuilder sb = new StringBuilder("sha256:");
-            for (byte b : hash) {
-                sb.append(String.format("%02x", b));
+    String computeInputHash() throws IOException {
+        String edgesKey = chainKey(chainKey(waypointStageKey(), "candidates:k=" + K_NEIGHBORS), "edges");
+        
+        StringBuilder params = new StringBuilder();
+        params.append("port_connectors=").append(PORT_CONNECTOR_CANDIDATES).append(',').append(PORT_MAX_CONNECTORS)
+            .append(',').append(PORT_MAX_CONNECTOR_KM).append(',').append(PORT_LAND_TOLERANCE_KM).append('\n');
+        for (Port port : seaports) {
+            params.append("port=").append(port.getUnlocode()).append(',').append(port.getLat())
+                .append(',').append(port.getLon()).append('\n');
+        }
+        params.append("sparsify=").append(sparsifyStretch).append('\n');
+        params.append("land_mask=").append(landMaskResolution).append('\n');
+        return chainKey(edgesKey, params.toString());
+    }
+    
+    /**
+     * Key of the waypoint stage: builder version, grid parameters, chokepoints and land mask.
+     */
+    private String waypointStageKey() throws IOException {
+        StringBuilder params = new StringBuilder();
+        params.append("builder=").append(BUILDER_VERSION).append('\n');
+        params.append("grid=").append(gridStepDegrees).append(',').append(isAdaptive() ? adaptiveMinStepDegrees : 0.0)
+            .append(',').append(MIN_LAT).append(',').append(MAX_LAT).append(',').append(MIN_LON).append(',').append(MAX_LON)
+            .append('\n');
+        for (ChokepointDefinition cp : MANDATORY_CHOKEPOINTS) {
+            params.append("chokepoint=").append(cp.id).append(',').append(cp.lat).append(',').append(cp.lon)
+                .append(',').append(cp.radiusDegrees).append(',').append(cp.stepDegrees).append('\n');
+        }
+        params.append("land=").append(landmaskDigest());
+        
+        MessageDigest digest = sha256();
+        digest.update(params.toString().getBytes(StandardCharsets.UTF_8));
+        return toHex(digest.digest());
+    }
+    
+    /**
+     * Digest of the shapefile and its sidecars (attribute/index files do not change geometry, but are
+     * cheap to include). Computed once per builder.
+     */
+    private String landmaskDigest() throws IOException {
+        if (landmaskDigest != null) {
+            return landmaskDigest;
+        }
+        MessageDigest digest = sha256();
+        String baseName = landmaskPath.getFileName().toString().replaceFirst("\\.[^.]*$", "");
+        for (String extension : List.of(".shp", ".shx", ".dbf", ".prj")) {
+            Path file = landmaskPath.resolveSibling(baseName + extension);
+            if (Files.isRegularFile(file)) {
+                digest.update(("file=" + extension + "\n").getBytes(StandardCharsets.UTF_8));
+                try (InputStream in = new DigestInputStream(Files.newInputStream(file), digest)) {
+                    in.transferTo(OutputStream.nullOutputStream());
+                }
             }
-            return sb.substring(0, 20);  // Truncate for readability
-        } catch (Exception e) {
-            return "unknown";
         }
+        landmaskDigest = toHex(digest.digest());
+        return landmaskDigest;
+    }
+    
+    /**
+     * Key of a stage that depends on a previous stage's output plus its own parameters.
+     */
+    private static String chainKey(String parentKey, String stageParams) {
+        MessageDigest digest = sha256();
+        digest.update(parentKey.getBytes(StandardCharsets.UTF_8));
+        digest.update((byte) '\n');
+        digest.update(stageParams.getBytes(StandardCharsets.UTF_8));
+        return toHex(digest.digest());
+    }
+    
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+    
+    private static String toHex(byte[] hash) {
+        StringBuilder sb = new StringBuilder(hash.length * 2);
+        for (byte b : hash) {
+            sb.append(String.format("%02x", b));
+        }
+        return sb.toString();
+    }
+    
+    private static String graphVersion(String inputHash) {
+        return "sha256:" + inputHash.substring(0, 16);
+    }
+    
+    /**
+     * Run {@code body} for every index in {@code [0, count)} on the build's fork/join pool.
+     * Bodies must only write to their own index of shared arrays.
+     */
+    private void parallelFor(int count, IntConsumer body) {
+        pool.submit(() -> IntStream.range(0, count).parallel().forEach(body)).join();
+    }
+    
+    private void recordPhase(String phase, long startNanos) {
+        long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+        phaseTimingsMs.merge(phase, elapsedMs, Long::sum);
+        LOGGER.fine(() -> String.format("Phase %s took %d ms", phase, elapsedMs));
     }
     
     private static double normalizeLongitude(double lon) {
@@ -587,13 +1333,25 @@ public class SeaLaneGraphBuilder {
     
     public static void main(String[] args) {
         if (args.length < 2) {
-            System.err.println("Usage: SeaLaneGraphBuilder --output <dir> --landmask <shapefile> [--step <degrees>]");
+            System.err.println("Usage: SeaLaneGraphBuilder --output <dir> --landmask <shapefile> " +
+                "[--step <degrees>] [--unlocode <dir>] [--min-step <degrees>] [--sparsify <stretch>] [--land-mask-resolution <degrees>] [--threads <n>] [--dataaccess RAM_STORE|MMAP] [--cache <dir>] [--force] " +
+                "[--checkpoint-dir <dir>] [--resume-from waypoints|candidates|edges|graph]");
             System.exit(1);
         }
         
         Path outputDir = null;
         Path landmaskPath = null;
         double step = DEFAULT_GRID_STEP_DEGREES;
+        double minStep = 0;
+        double sparsify = 0;
+        double landMaskResolution = LandMaskRasterBuilder.DEFAULT_CELL_DEGREES;
+        Path unlocodeDir = null;
+        int threads = 0;
+        DAType dataAccess = SeaGraphDataAccess.DEFAULT;
+        Path cacheDir = null;
+        boolean force = false;
+        Path checkpointDir = null;
+        String resumeFrom = null;
         
         for (int i = 0; i < args.length; i++) {
             switch (args[i]) {
@@ -606,6 +1364,36 @@ public class SeaLaneGraphBuilder {
                 case "--step":
                     step = Double.parseDouble(args[++i]);
                     break;
+                case "--min-step":
+                    minStep = Double.parseDouble(args[++i]);
+                    break;
+                case "--sparsify":
+                    sparsify = Double.parseDouble(args[++i]);
+                    break;
+                case "--land-mask-resolution":
+                    landMaskResolution = Double.parseDouble(args[++i]);
+                    break;
+                case "--unlocode":
+                    unlocodeDir = Path.of(args[++i]);
+                    break;
+                case "--threads":
+                    threads = Integer.parseInt(args[++i]);
+                    break;
+                case "--dataaccess":
+                    dataAccess = SeaGraphDataAccess.parse(args[++i]);
+                    break;
+                case "--cache":
+                    cacheDir = Path.of(args[++i]);
+                    break;
+                case "--force":
+                    force = true;
+                    break;
+                case "--checkpoint-dir":
+                    checkpointDir = Path.of(args[++i]);
+                    break;
+                case "--resume-from":
+                    resumeFrom = args[++i];
+                    break;
             }
         }
         
@@ -615,13 +1403,28 @@ public class SeaLaneGraphBuilder {
         }
         
         try {
-            SeaLaneGraphBuilder builder = new SeaLaneGraphBuilder(outputDir, landmaskPath, step);
+            List<Port> seaports = unlocodeDir != null
+                ? new UnlocodePortLoader().loadSeaportsFromDirectory(unlocodeDir)
+                : List.of();
+            SeaLaneGraphBuilder builder = new SeaLaneGraphBuilder(outputDir, landmaskPath, step, seaports)
+                .setAdaptiveMinStep(minStep)
+                .setSparsifyStretch(sparsify)
+                .setLandMaskResolution(landMaskResolution)
+                .setThreads(threads)
+                .setDataAccess(dataAccess)
+                .setArtifactCache(cacheDir)
+                .setForceRebuild(force)
+                .setResumeFrom(resumeFrom);
+            if (checkpointDir != null) {
+                builder.setCheckpointDir(checkpointDir);
+            }
             BuildResult result = builder.build();
             
             System.out.println("Build completed successfully!");
             System.out.println("  Nodes: " + result.nodeCount);
             System.out.println("  Edges: " + result.edgeCount);
             System.out.println("  Components: " + result.componentCount);
+            System.out.println("  Port access nodes: " + result.portAccessNodeCount);
             System.out.println("  Duration: " + result.buildDurationMs + " ms");
             
         } catch (Exception e) {
@@ -633,20 +1436,6 @@ public class SeaLaneGraphBuilder {
     
     // ========== Internal types ==========
     
-    private static class Waypoint {
-        final int index;
-        final double lat;
-        final double lon;
-        final String chokepointId;
-        
-        Waypoint(int index, double lat, double lon, String chokepointId) {
-            this.index = index;
-            this.lat = lat;
-            this.lon = lon;
-            this.chokepointId = chokepointId;
-        }
-    }
-    
     private static class NeighborEntry {
         final int index;
         final double distance;
@@ -657,6 +1446,10 @@ public class SeaLaneGraphBuilder {
         }
     }
     
+    private interface CheckpointReader<T> {
+        T read(String key) throws IOException;
+    }
+    
     private static class ChokepointDefinition {
         final String id;
         final String name;
@@ -681,26 +1474,81 @@ public class SeaLaneGraphBuilder {
     
     private static class GraphBuildResult {
         final BaseGraph graph;
+        final EncodingManager encodingManager;
         final int nodeCount;
         final int edgeCount;
         final Map<String, Set<Integer>> chokepointNodeMap;
+        final Map<String, Integer> portNodeMap;
+        final int forcedPortConnectorCount;
         
-        GraphBuildResult(BaseGraph graph, int nodeCount, int edgeCount, 
-                        Map<String, Set<Integer>> chokepointNodeMap) {
+        GraphBuildResult(BaseGraph graph, EncodingManager encodingManager, int nodeCount, int edgeCount, 
+                        Map<String, Set<Integer>> chokepointNodeMap,
+                        Map<String, Integer> portNodeMap, int forcedPortConnectorCount) {
             this.graph = graph;
+            this.encodingManager = encodingManager;
             this.nodeCount = nodeCount;
             this.edgeCount = edgeCount;
             this.chokepointNodeMap = chokepointNodeMap;
+            this.portNodeMap = portNodeMap;
+            this.forcedPortConnectorCount = forcedPortConnectorCount;
+        }
+    }
+    
+    private static class SparsificationReport {
+        final double stretchFactor;
+        final int edgesBefore;
+        final int edgesAfter;
+        final long workBefore;
+        final long workAfter;
+        final long nanosBefore;
+        final long nanosAfter;
+        
+        SparsificationReport(double stretchFactor, int edgesBefore, int edgesAfter,
+                             long workBefore, long workAfter, long nanosBefore, long nanosAfter) {
+            this.stretchFactor = stretchFactor;
+            this.edgesBefore = edgesBefore;
+            this.edgesAfter = edgesAfter;
+            this.workBefore = workBefore;
+            this.workAfter = workAfter;
+            this.nanosBefore = nanosBefore;
+            this.nanosAfter = nanosAfter;
+        }
+        
+        double edgeReductionPercent() {
+            return edgesBefore == 0 ? 0 : 100.0 * (edgesBefore - edgesAfter) / edgesBefore;
+        }
+        
+        double workSpeedup() {
+            return workAfter == 0 ? 1.0 : (double) workBefore / workAfter;
+        }
+        
+        double timeSpeedup() {
+            return nanosAfter == 0 ? 1.0 : (double) nanosBefore / nanosAfter;
+        }
+    }
+    
+    private static class PortConnection {
+        final int connectorCount;
+        final boolean forced;
+        
+        PortConnection(int connectorCount, boolean forced) {
+            this.connectorCount = connectorCount;
+            this.forced = forced;
         }
     }
     
     private static class ConnectivityResult {
         final int componentCount;
         final int largestComponentSize;
+        final ComponentIndex components;
+        final Map<String, ComponentIndex> chokepointComponents;
         
-        ConnectivityResult(int componentCount, int largestComponentSize) {
+        ConnectivityResult(int componentCount, int largestComponentSize,
+                          ComponentIndex components, Map<String, ComponentIndex> chokepointComponents) {
             this.componentCount = componentCount;
             this.largestComponentSize = largestComponentSize;
+            this.components = components;
+            this.chokepointComponents = chokepointComponents;
         }
     }
     
@@ -716,11 +1564,16 @@ public class SeaLaneGraphBuilder {
         public final double gridStepDegrees;
         public final double chokepointStepDegrees;
         public final String graphVersion;
+        public final int portAccessNodeCount;
+        public final int portForcedConnectorCount;
+        public final int threads;
+        public final Map<String, Long> phaseTimingsMs;
         
         public BuildResult(int nodeCount, int edgeCount, int componentCount,
                           int largestComponentSize, long buildDurationMs,
                           double gridStepDegrees, double chokepointStepDegrees,
-                          String graphVersion) {
+                          String graphVersion, int portAccessNodeCount, int portForcedConnectorCount,
+                          int threads, Map<String, Long> phaseTimingsMs) {
             this.nodeCount = nodeCount;
             this.edgeCount = edgeCount;
             this.componentCount = componentCount;
@@ -729,6 +1582,38 @@ public class SeaLaneGraphBuilder {
             this.gridStepDegrees = gridStepDegrees;
             this.chokepointStepDegrees = chokepointStepDegrees;
             this.graphVersion = graphVersion;
+            this.portAccessNodeCount = portAccessNodeCount;
+            this.portForcedConnectorCount = portForcedConnectorCount;
+            this.threads = threads;
+            this.phaseTimingsMs = Collections.unmodifiableMap(new LinkedHashMap<>(phaseTimingsMs));
+        }
+        
+        /**
+         * Read the result of an earlier build from its {@code build_summary.json}.
+         * 
+         * @param summaryPath Path to the build summary
+         * @return Result of the summarized build
+         * @throws IOException if the summary cannot be read
+         */
+        public static BuildResult fromSummary(Path summaryPath) throws IOException {
+            JsonNode summary = new ObjectMapper().readTree(summaryPath.toFile());
+            Map<String, Long> phaseTimings = new LinkedHashMap<>();
+            JsonNode timings = summary.path("phase_timings_ms");
+            timings.fieldNames().forEachRemaining(phase -> phaseTimings.put(phase, timings.get(phase).asLong()));
+            return new BuildResult(
+                summary.path("node_count").asInt(),
+                summary.path("edge_count").asInt(),
+                summary.path("connected_component_count").asInt(),
+                summary.path("largest_component_size").asInt(),
+                summary.path("build_duration_ms").asLong(),
+                summary.path("waypoint_grid_step_degrees").asDouble(),
+                summary.path("chokepoint_densification_step_degrees").asDouble(),
+                summary.path("sea_graph_version").asText(),
+                summary.path("port_access_node_count").asInt(),
+                summary.path("port_forced_connector_count").asInt(),
+                summary.path("build_threads").asInt(1),
+                phaseTimings
+            );
         }
     }
 }
@@ -0,0 +1,190 @@
+package com.dynop.graphhopper.matrix.sea.builder;
+
+/**
+ * Static KD-tree over points on the unit sphere for k-nearest-neighbor queries.
+ *
+ * <p>Latitude/longitude pairs are converted to 3D unit vectors, so Euclidean (chord) distance is
+ * monotonic in great-circle distance and the antimeridian needs no special handling. The tree is
+ * stored implicitly in a permutation array: the median of each range is the node, the halves are its
+ * subtrees. After construction the tree is immutable and safe for concurrent queries.
+ */
+final class SphereKdTree {
+
+    private final double[] xs;
+    private final double[] ys;
+    private final double[] zs;
+    private final int[] order;
+
+    /**
+     * Build the tree over the given points.
+     *
+     * @param lats Latitudes in degrees, indexed by point
+     * @param lons Longitudes in degrees, indexed by point
+     */
+    SphereKdTree(double[] lats, double[] lons) {
+        this(lats, lons, lats.length);
+    }
+
+    /**
+     * Build the tree over the first {@code count} points.
+     *
+     * @param lats  Latitudes in degrees, indexed by point
+     * @param lons  Longitudes in degrees, indexed by point
+     * @param count Number of points to index
+     */
+    SphereKdTree(double[] lats, double[] lons, int count) {
+        xs = new double[count];
+        ys = new double[count];
+        zs = new double[count];
+        order = new int[count];
+        for (int i = 0; i < count; i++) {
+            double latRad = Math.toRadians(lats[i]);
+            double lonRad = Math.toRadians(lons[i]);
+            double cosLat = Math.cos(latRad);
+            xs[i] = cosLat * Math.cos(lonRad);
+            ys[i] = cosLat * Math.sin(lonRad);
+            zs[i] = Math.sin(latRad);
+            order[i] = i;
+        }
+        build(0, count, 0);
+    }
+
+    /**
+     * @return Number of indexed points
+     */
+    int size() {
+        return order.length;
+    }
+
+    /**
+     * Find the k nearest points to a coordinate.
+     *
+     * @param lat         Query latitude in degrees
+     * @param lon         Query longitude in degrees
+     * @param k           Number of neighbors
+     * @param exclude     Point index to skip (e.g. the query point itself), or -1
+     * @param outIndices  Receives neighbor indices, nearest first (length ≥ k)
+     * @param outChordSq  Receives squared chord distances on the unit sphere (length ≥ k)
+     * @return Number of neighbors found (less than k only if the tree is small)
+     */
+    int nearest(double lat, double lon, int k, int exclude, int[] outIndices, double[] outChordSq) {
+        double latRad = Math.toRadians(lat);
+        double lonRad = Math.toRadians(lon);
+        double cosLat = Math.cos(latRad);
+        double[] query = {cosLat * Math.cos(lonRad), cosLat * Math.sin(lonRad), Math.sin(latRad)};
+        int[] count = {0};
+        search(0, order.length, 0, query, k, exclude, outIndices, outChordSq, count);
+        return count[0];
+    }
+
+    /**
+     * Convert a squared chord distance on the unit sphere to a great-circle distance.
+     *
+     * @param chordSq       Squared chord distance
+     * @param earthRadiusKm Sphere radius in kilometers
+     * @return Great-circle distance in kilometers
+     */
+    static double chordSqToKm(double chordSq, double earthRadiusKm) {
+        double halfChord = Math.min(1.0, Math.sqrt(chordSq) / 2);
+        return 2 * earthRadiusKm * Math.asin(halfChord);
+    }
+
+    private void build(int lo, int hi, int depth) {
+        if (hi - lo <= 1) {
+            return;
+        }
+        int mid = (lo + hi) >>> 1;
+        select(lo, hi - 1, mid, axis(depth));
+        build(lo, mid, depth + 1);
+        build(mid + 1, hi, depth + 1);
+    }
+
+    private void search(int lo, int hi, int depth, double[] query, int k, int exclude,
+                        int[] outIndices, double[] outChordSq, int[] count) {
+        if (lo >= hi) {
+            return;
+        }
+        int mid = (lo + hi) >>> 1;
+        int point = order[mid];
+        if (point != exclude) {
+            double dx = xs[point] - query[0];
+            double dy = ys[point] - query[1];
+            double dz = zs[point] - query[2];
+            offer(point, dx * dx + dy * dy + dz * dz, k, outIndices, outChordSq, count);
+        }
+
+        int axis = axis(depth);
+        double diff = query[axis] - coordinate(point, axis);
+        boolean leftFirst = diff < 0;
+        if (leftFirst) {
+            search(lo, mid, depth + 1, query, k, exclude, outIndices, outChordSq, count);
+        } else {
+            search(mid + 1, hi, depth + 1, query, k, exclude, outIndices, outChordSq, count);
+        }
+        if (count[0] < k || diff * diff < outChordSq[count[0] - 1]) {
+            if (leftFirst) {
+                search(mid + 1, hi, depth + 1, query, k, exclude, outIndices, outChordSq, count);
+            } else {
+                search(lo, mid, depth + 1, query, k, exclude, outIndices, outChordSq, count);
+            }
+        }
+    }
+
+    /**
+     * Insert a candidate into the sorted result arrays, keeping at most k entries.
+     */
+    private static void offer(int point, double chordSq, int k, int[] outIndices, double[] outChordSq, int[] count) {
+        int n = count[0];
+        if (n == k && chordSq >= outChordSq[n - 1]) {
+            return;
+        }
+        int pos = n < k ? n : k - 1;
+        while (pos > 0 && outChordSq[pos - 1] > chordSq) {
+            outIndices[pos] = outIndices[pos - 1];
+            outChordSq[pos] = outChordSq[pos - 1];
+            pos--;
+        }
+        outIndices[pos] = point;
+        outChordSq[pos] = chordSq;
+        if (n < k) {
+            count[0] = n + 1;
+        }
+    }
+
+    /**
+     * Quickselect on {@code order[lo..hi]} so that position {@code target} holds the median on the axis.
+     */
+    private void select(int lo, int hi, int target, int axis) {
+        while (hi > lo) {
+            double pivot = coordinate(order[(lo + hi) >>> 1], axis);
+            int i = lo;
+            int j = hi;
+            while (i <= j) {
+                while (coordinate(order[i], axis) < pivot) i++;
+                while (coordinate(order[j], axis) > pivot) j--;
+                if (i <= j) {
+                    int tmp = order[i];
+                    order[i] = order[j];
+                    order[j] = tmp;
+                    i++;
+                    j--;
+                }
+            }
+            if (target <= j) {
+                hi = j;
+            } else if (target >= i) {
+                lo = i;
+            } else {
+                return;
+            }
+        }
+    }
+
+    private double coordinate(int point, int axis) {
+        return axis == 0 ? xs[point] : axis == 1 ? ys[point] : zs[point];
+    }
+
+    private static int axis(int depth) {
+        return depth % 3;
+    }
+}
@@ -0,0 +1,123 @@
+package com.dynop.graphhopper.matrix.sea.builder;
+
+import java.util.Arrays;
+
+/**
+ * Growable struct-of-arrays store for builder waypoints.
+ *
+ * <p>A waypoint is its index into parallel primitive arrays: latitude, longitude and the ordinal of
+ * the chokepoint it densifies ({@link #NO_CHOKEPOINT} for plain grid points). At 17 bytes per
+ * waypoint, a 0.1° global grid (about 6M candidates) fits in ~100 MB, where one object per waypoint
+ * with a boxed chokepoint id needed several times that.
+ */
+final class WaypointArrays {
+
+    static final byte NO_CHOKEPOINT = -1;
+
+    private double[] lats;
+    private double[] lons;
+    private byte[] chokepoints;
+    private int size;
+
+    /**
+     * @param initialCapacity Expected number of waypoints
+     */
+    WaypointArrays(int initialCapacity) {
+        int capacity = Math.max(16, initialCapacity);
+        lats = new double[capacity];
+        lons = new double[capacity];
+        chokepoints = new byte[capacity];
+    }
+
+    /**
+     * Append a waypoint.
+     *
+     * @param lat        Latitude
+     * @param lon        Longitude
+     * @param chokepoint Chokepoint ordinal, or {@link #NO_CHOKEPOINT}
+     * @return Index of the new waypoint
+     */
+    int add(double lat, double lon, byte chokepoint) {
+        if (size == lats.length) {
+            int capacity = size + (size >> 1);
+            lats = Arrays.copyOf(lats, capacity);
+            lons = Arrays.copyOf(lons, capacity);
+            chokepoints = Arrays.copyOf(chokepoints, capacity);
+        }
+        lats[size] = lat;
+        lons[size] = lon;
+        chokepoints[size] = chokepoint;
+        return size++;
+    }
+
+    /**
+     * Copy the waypoints not flagged in {@code drop} into a new store, renumbered densely in order.
+     *
+     * @param drop Per-waypoint flag, true to remove
+     * @return Compacted waypoints
+     */
+    WaypointArrays without(boolean[] drop) {
+        int kept = 0;
+        for (int i = 0; i < size; i++) {
+            if (!drop[i]) kept++;
+        }
+        WaypointArrays result = new WaypointArrays(kept);
+        for (int i = 0; i < size; i++) {
+            if (!drop[i]) {
+                result.add(lats[i], lons[i], chokepoints[i]);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Copy the waypoints into a new store in the given order.
+     *
+     * @param order {@code order[newIndex] = oldIndex}, a permutation of {@code [0, size())}
+     * @return Reordered waypoints
+     */
+    WaypointArrays permute(int[] order) {
+        WaypointArrays result = new WaypointArrays(order.length);
+        for (int oldIndex : order) {
+            result.add(lats[oldIndex], lons[oldIndex], chokepoints[oldIndex]);
+        }
+        return result;
+    }
+
+    /**
+     * @return Number of waypoints
+     */
+    int size() {
+        return size;
+    }
+
+    double lat(int index) {
+        return lats[index];
+    }
+
+    double lon(int index) {
+        return lons[index];
+    }
+
+    /**
+     * @param index Waypoint index
+     * @return Chokepoint ordinal, or {@link #NO_CHOKEPOINT}
+     */
+    byte chokepoint(int index) {
+        return chokepoints[index];
+    }
+
+    /**
+     * @return Backing latitude array; only the first {@link #size()} entries are valid
+     */
+    double[] latArray() {
+        return lats;
+    }
+
+    /**
+     * @return Backing longitude array; only the first {@link #size()} entries are valid
+     */
+    double[] lonArray() {
+        return lons;
+    }
+}
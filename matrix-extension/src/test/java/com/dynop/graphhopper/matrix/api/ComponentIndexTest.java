@@ -0,0 +1,99 @@
+package com.dynop.graphhopper.matrix.api;
+
+import com.dynop.graphhopper.matrix.sea.ChokepointAwareEdgeFilter;
+import com.graphhopper.routing.ev.BooleanEncodedValue;
+import com.graphhopper.routing.ev.VehicleAccess;
+import com.graphhopper.routing.util.EdgeFilter;
+import com.graphhopper.routing.util.EncodingManager;
+import com.graphhopper.storage.BaseGraph;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link ComponentIndex}.
+ */
+class ComponentIndexTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void separatesDisconnectedIslands() {
+        BaseGraph graph = createGraph(6);
+        graph.edge(0, 1).setDistance(10);
+        graph.edge(1, 2).setDistance(10);
+        graph.edge(3, 4).setDistance(10);
+
+        ComponentIndex index = ComponentIndex.compute(graph, EdgeFilter.ALL_EDGES);
+
+        assertEquals(3, index.getComponentCount());
+        assertEquals(3, index.getLargestComponentSize());
+        assertTrue(index.isConnected(0, 2));
+        assertTrue(index.isConnected(3, 4));
+        assertFalse(index.isConnected(2, 3));
+        assertFalse(index.isConnected(4, 5));
+    }
+
+    @Test
+    void chokepointVariantSplitsAtExcludedNodes() {
+        BaseGraph graph = createGraph(5);
+        graph.edge(0, 1).setDistance(10);
+        graph.edge(1, 2).setDistance(10);  // node 2 is the only passage
+        graph.edge(2, 3).setDistance(10);
+        graph.edge(3, 4).setDistance(10);
+
+        ComponentIndex variant = ComponentIndex.compute(graph,
+                new ChokepointAwareEdgeFilter(Set.of(2), List.of("SUEZ")));
+
+        assertTrue(variant.isConnected(0, 1));
+        assertTrue(variant.isConnected(3, 4));
+        assertFalse(variant.isConnected(1, 3));
+    }
+
+    @Test
+    void roundTripsAndRejectsIndexOfOtherGraph() throws IOException {
+        BaseGraph graph = createGraph(4);
+        graph.edge(0, 1).setDistance(10);
+        graph.edge(2, 3).setDistance(10);
+        Path file = tempDir.resolve(ComponentIndex.FILE_NAME);
+
+        ComponentIndex.compute(graph, EdgeFilter.ALL_EDGES).saveTo(file);
+        ComponentIndex loaded = ComponentIndex.loadFrom(file, graph);
+
+        assertNotNull(loaded);
+        assertEquals(2, loaded.getComponentCount());
+        assertFalse(loaded.isConnected(1, 2));
+
+        BaseGraph otherGraph = createGraph(5);
+        assertNull(ComponentIndex.loadFrom(file, otherGraph));
+        assertNull(ComponentIndex.loadFrom(tempDir.resolve("missing.bin"), graph));
+    }
+
+    @Test
+    void treatsNodesOutsideIndexAsConnected() {
+        BaseGraph graph = createGraph(2);
+
+        ComponentIndex index = ComponentIndex.compute(graph, EdgeFilter.ALL_EDGES);
+
+        assertFalse(index.isConnected(0, 1));
+        assertTrue(index.isConnected(0, 7));
+        assertTrue(index.isConnected(-1, 1));
+    }
+
+    private static BaseGraph createGraph(int nodeCount) {
+        BooleanEncodedValue accessEnc = VehicleAccess.create("car");
+        EncodingManager encodingManager = EncodingManager.start().add(accessEnc).build();
+        BaseGraph graph = new BaseGraph.Builder(encodingManager).create();
+        for (int i = 0; i < nodeCount; i++) {
+            graph.getNodeAccess().setNode(i, i * 0.1, i * 0.1);
+        }
+        return graph;
+    }
+}
@@ -0,0 +1,121 @@
+package com.dynop.graphhopper.matrix.api;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.exc.ValueInstantiationException;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the closure scenarios, vessel classes, avoid areas and chokepoint transits of
+ * {@link MatrixRequest} and {@link MatrixResponse}.
+ */
+class MatrixRequestTest {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final String POINTS = "\"points\": [[51.9, 4.1], [1.3, 103.8]], "
+        + "\"profile\": \"ship\", \"metrics\": [\"distance\", \"time\"]";
+
+    @Test
+    void parsesScenarios() throws Exception {
+        MatrixRequest request = MAPPER.readValue("{" + POINTS + ", \"mode\": \"sea\", \"scenarios\": ["
+            + "{\"id\": \"baseline\"}, {\"id\": \"no_suez\", \"excluded_chokepoints\": [\"SUEZ\"]}]}",
+            MatrixRequest.class);
+
+        assertTrue(request.hasScenarios());
+        assertEquals(List.of(new MatrixScenario("baseline", List.of()), new MatrixScenario("no_suez", List.of("SUEZ"))),
+            request.getScenarios());
+    }
+
+    @Test
+    void requestWithoutScenariosHasNone() throws Exception {
+        MatrixRequest request = MAPPER.readValue("{" + POINTS + ", \"mode\": \"sea\"}", MatrixRequest.class);
+
+        assertFalse(request.hasScenarios());
+        assertEquals(List.of(), request.getScenarios());
+    }
+
+    @Test
+    void rejectsInvalidScenarios() {
+        assertRejected("{" + POINTS + ", \"scenarios\": [{\"id\": \"a\"}]}");
+        assertRejected("{" + POINTS + ", \"mode\": \"sea\", \"scenarios\": [{\"id\": \"a\"}, {\"id\": \"a\"}]}");
+        assertRejected("{" + POINTS + ", \"mode\": \"sea\", \"excluded_chokepoints\": [\"SUEZ\"], "
+            + "\"scenarios\": [{\"id\": \"a\"}]}");
+        assertRejected("{" + POINTS + ", \"mode\": \"sea\", \"scenarios\": [{\"id\": \" \"}]}");
+    }
+
+    @Test
+    void scenarioResponseOmitsTopLevelMatrices() {
+        ScenarioMatrix noSuez = new ScenarioMatrix("no_suez", List.of("SUEZ"),
+            new long[][] {{0, 21_000_000}}, new long[][] {{0, 3_024_000_000L}}, List.of());
+
+        JsonNode json = MAPPER.valueToTree(MatrixResponse.forScenarios(List.of(2), List.of(), List.of(noSuez)));
+
+        assertFalse(json.has("distances"));
+        assertEquals("SEA", json.get("mode").asText());
+        assertEquals(2, json.get("failures").get(0).asInt());
+        assertEquals("no_suez", json.get("scenarios").get(0).get("id").asText());
+        assertEquals("SUEZ", json.get("scenarios").get(0).get("excluded_chokepoints").get(0).asText());
+        assertEquals(21_000_000, json.get("scenarios").get(0).get("distances").get(0).get(1).asLong());
+    }
+
+    @Test
+    void chokepointTransitsAreSeaOnly() throws Exception {
+        MatrixRequest request = MAPPER.readValue("{" + POINTS + ", \"mode\": \"sea\", "
+            + "\"include_chokepoint_transits\": true}", MatrixRequest.class);
+
+        assertTrue(request.isIncludeChokepointTransits());
+        assertRejected("{" + POINTS + ", \"include_chokepoint_transits\": true}");
+    }
+
+    @Test
+    void parsesVesselClasses() throws Exception {
+        MatrixRequest request = MAPPER.readValue("{" + POINTS + ", \"mode\": \"sea\", "
+            + "\"vessel_classes\": [\"FEEDER\", \"ULCV\"]}", MatrixRequest.class);
+
+        assertTrue(request.hasVesselClasses());
+        assertEquals(List.of("FEEDER", "ULCV"), request.getVesselClasses());
+    }
+
+    @Test
+    void rejectsInvalidVesselClasses() {
+        assertRejected("{" + POINTS + ", \"vessel_classes\": [\"FEEDER\"]}");
+        assertRejected("{" + POINTS + ", \"mode\": \"sea\", \"vessel_classes\": [\"FEEDER\", \"FEEDER\"]}");
+        assertRejected("{" + POINTS + ", \"mode\": \"sea\", \"vessel_classes\": [\"FEEDER\"], "
+            + "\"scenarios\": [{\"id\": \"a\"}]}");
+    }
+
+    @Test
+    void parsesAvoidAreas() throws Exception {
+        MatrixRequest request = MAPPER.readValue("{" + POINTS + ", \"mode\": \"sea\", \"avoid_zones\": [\"HRA\"], "
+            + "\"avoid_areas\": [{\"type\": \"Polygon\", \"coordinates\": "
+            + "[[[43.0, 11.0], [52.0, 11.0], [52.0, 16.0], [43.0, 16.0], [43.0, 11.0]]]}]}", MatrixRequest.class);
+
+        assertTrue(request.hasAvoidAreas());
+        assertEquals(1, request.getAvoidAreas().size());
+        assertEquals(List.of("HRA"), request.getAvoidZones());
+        assertRejected("{" + POINTS + ", \"avoid_zones\": [\"HRA\"]}");
+        assertRejected("{" + POINTS + ", \"mode\": \"sea\", "
+            + "\"avoid_areas\": [{\"type\": \"LineString\", \"coordinates\": [[43.0, 11.0], [52.0, 11.0]]}]}");
+    }
+
+    @Test
+    void responseCarriesTransitBitOrder() {
+        MatrixResponse response = new MatrixResponse(new long[][] {{0, 21_000_000}}, new long[][] {{0, 1}}, List.of(),
+            RoutingMode.SEA, List.of(), List.of(), List.of("BAB_EL_MANDEB", "SUEZ"), new long[][] {{0, 0b11}});
+
+        JsonNode json = MAPPER.valueToTree(response);
+
+        assertEquals("SUEZ", json.get("chokepoint_ids").get(1).asText());
+        assertEquals(3, json.get("chokepoint_transits").get(0).get(1).asLong());
+        assertFalse(MAPPER.valueToTree(new MatrixResponse(new long[][] {{0}}, new long[][] {{0}}, List.of()))
+            .has("chokepoint_transits"));
+    }
+
+    private static void assertRejected(String json) {
+        assertThrows(ValueInstantiationException.class, () -> MAPPER.readValue(json, MatrixRequest.class));
+    }
+}
@@ -0,0 +1,428 @@
+package com.dynop.graphhopper.matrix.api;
+
+import com.codahale.metrics.MetricRegistry;
+import com.dynop.graphhopper.matrix.config.SeaHopperHolder;
+import com.dynop.graphhopper.matrix.sea.AvoidAreaMasks;
+import com.dynop.graphhopper.matrix.sea.Chokepoint;
+import com.dynop.graphhopper.matrix.sea.ChokepointClosures;
+import com.dynop.graphhopper.matrix.sea.ChokepointOrdinals;
+import com.dynop.graphhopper.matrix.sea.ChokepointRegistry;
+import com.dynop.graphhopper.matrix.sea.LandMaskRaster;
+import com.dynop.graphhopper.matrix.sea.Port;
+import com.dynop.graphhopper.matrix.sea.PortDistanceTable;
+import com.dynop.graphhopper.matrix.sea.PortNodeTable;
+import com.dynop.graphhopper.matrix.sea.SeaGraphArtifacts;
+import com.dynop.graphhopper.matrix.sea.UnlocodePortSnapper;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.graphhopper.GraphHopper;
+import com.graphhopper.config.Profile;
+import com.graphhopper.routing.Dijkstra;
+import com.graphhopper.routing.RouterConfig;
+import com.graphhopper.routing.ev.BooleanEncodedValue;
+import com.graphhopper.routing.ev.DecimalEncodedValue;
+import com.graphhopper.routing.ev.VehicleAccess;
+import com.graphhopper.routing.ev.VehicleSpeed;
+import com.graphhopper.routing.util.EncodingManager;
+import com.graphhopper.routing.util.TraversalMode;
+import com.graphhopper.routing.weighting.Weighting;
+import com.graphhopper.storage.BaseGraph;
+import com.graphhopper.storage.RAMDirectory;
+import com.graphhopper.storage.index.LocationIndexTree;
+import com.graphhopper.util.PMap;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.GeometryFactory;
+import org.locationtech.jts.geom.Polygon;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Sea matrices routed on a small grid graph, checking where cells come from the port distance table and
+ * that exclusions change the routes themselves.
+ */
+class MatrixResourceSeaRoutingTest {
+
+    private static final int SIDE = 6;
+    private static final List<String> METRICS = List.of("distance", "time");
+
+    // Ports at the two ends of the bottom row; its shortest route passes node 2 (PANAMA)
+    private static final List<List<Double>> POINTS = List.of(List.of(0d, 0d), List.of(0d, 5d));
+    private static final long BASELINE = 5 * 111_000;
+    // Node without edges west of the grid
+    private static final int ISOLATED_NODE = SIDE * SIDE;
+    private static final int TABLE_DISTANCE = 123_456;
+    private static final long PANAMA_BIT = 0b01;
+    private static final long SUEZ_BIT = 0b10;
+
+    @TempDir
+    Path tempDir;
+
+    private ExecutorService executor;
+    private BaseGraph graph;
+    private Weighting weighting;
+    private ChokepointRegistry registry;
+    private UnlocodePortSnapper portSnapper;
+
+    @BeforeEach
+    void setUp() {
+        executor = Executors.newFixedThreadPool(2);
+        EncodingManager encodingManager = SeaGraphArtifacts.createEncodingManager();
+        graph = grid(encodingManager);
+        weighting = SeaGraphArtifacts.createWeighting(encodingManager);
+        registry = new ChokepointRegistry(Map.of(
+            "PANAMA", new Chokepoint("PANAMA", "Panama Canal", "", 0, 2, 0.5, 0.5, Set.of(2)),
+            "SUEZ", new Chokepoint("SUEZ", "Suez Canal", "", 5, 0, 0.5, 0.5, Set.of(30))));
+        portSnapper = new UnlocodePortSnapper(List.of(
+            new Port("AAAAA", "West", "AA", "", 0, 0, "1-------", "AI"),
+            new Port("BBBBB", "East", "BB", "", 0, 5, "1-------", "AI")));
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void portsOnTheirAccessNodesAreLookedUpInTheTable() throws IOException {
+        MatrixResource resource = resource(0, fixedTable(TABLE_DISTANCE));
+
+        MatrixResponse response = compute(resource, List.of());
+
+        assertEquals(TABLE_DISTANCE, response.getDistances()[0][1]);
+    }
+
+    @Test
+    void portsSnappedAwayFromTheirAccessNodeAreRouted() throws IOException {
+        // The access node has no edges, so Stage 2 falls back to the location index (node 0);
+        // the table row belongs to the isolated node and must not be used
+        MatrixResource resource = resource(ISOLATED_NODE, fixedTable(-1));
+
+        MatrixResponse response = compute(resource, List.of());
+
+        assertEquals(BASELINE, response.getDistances()[0][1]);
+        assertEquals(BASELINE, response.getDistances()[1][0]);
+    }
+
+    @Test
+    void excludedChokepointIsRoutedAround() {
+        MatrixResource resource = resource(0, PortDistanceTable.empty());
+
+        MatrixResponse open = compute(resource, List.of());
+        MatrixResponse closed = compute(resource, List.of("PANAMA"));
+
+        assertEquals(BASELINE, open.getDistances()[0][1]);
+        assertEquals(PANAMA_BIT, open.getChokepointTransits()[0][1]);
+        assertTrue(closed.getDistances()[0][1] > BASELINE);
+        assertEquals(0, closed.getChokepointTransits()[0][1]);
+    }
+
+    @Test
+    void tableCellsCrossingAnExcludedChokepointAreSearchedWithTheExclusion() throws IOException {
+        MatrixResource resource = resource(0, distanceTable());
+
+        MatrixResponse open = compute(resource, List.of());
+        MatrixResponse closed = compute(resource, List.of("PANAMA"));
+        MatrixResponse unrelated = compute(resource, List.of("SUEZ"));
+
+        assertEquals(BASELINE, open.getDistances()[0][1]);
+        assertTrue(closed.getDistances()[0][1] > BASELINE);
+        assertEquals(0, closed.getChokepointTransits()[0][1]);
+        // The baseline route does not pass SUEZ, so the table value stands
+        assertEquals(BASELINE, unrelated.getDistances()[0][1]);
+    }
+
+    @Test
+    void scenariosRouteWithTheirOwnExclusions() {
+        MatrixResource resource = resource(0, PortDistanceTable.empty());
+        List<MatrixScenario> scenarios = List.of(
+            new MatrixScenario("open", List.of()),
+            new MatrixScenario("no-panama", List.of("PANAMA")),
+            new MatrixScenario("no-suez", List.of("SUEZ")));
+
+        MatrixResponse response = compute(resource, new MatrixRequest(POINTS, null, null,
+            SeaGraphArtifacts.PROFILE_NAME, METRICS, true, "sea", null, false, scenarios, true, null, null, null));
+
+        ScenarioMatrix open = response.getScenarios().get(0);
+        ScenarioMatrix noPanama = response.getScenarios().get(1);
+        ScenarioMatrix noSuez = response.getScenarios().get(2);
+        assertEquals(BASELINE, open.getDistances()[0][1]);
+        assertEquals(PANAMA_BIT, open.getChokepointTransits()[0][1]);
+        assertTrue(noPanama.getDistances()[0][1] > BASELINE);
+        assertTrue(noPanama.getTimes()[0][1] > open.getTimes()[0][1]);
+        assertEquals(0, noPanama.getChokepointTransits()[0][1]);
+        assertEquals(BASELINE, noSuez.getDistances()[0][1]);
+        assertEquals(PANAMA_BIT, noSuez.getChokepointTransits()[0][1]);
+    }
+
+    @Test
+    void unknownChokepointsAreDropped() throws IOException {
+        MatrixResource resource = resource(0, distanceTable());
+        List<MatrixScenario> scenarios = List.of(
+            new MatrixScenario("no-panama", List.of("KIEL", "PANAMA")),
+            new MatrixScenario("unknown", List.of("KIEL")));
+
+        MatrixResponse response = compute(resource, new MatrixRequest(POINTS, null, null,
+            SeaGraphArtifacts.PROFILE_NAME, METRICS, true, "sea", null, false, scenarios, true, null, null, null));
+
+        ScenarioMatrix noPanama = response.getScenarios().get(0);
+        ScenarioMatrix unknown = response.getScenarios().get(1);
+        assertEquals(List.of("PANAMA"), noPanama.getExcludedChokepoints());
+        assertTrue(noPanama.getDistances()[0][1] > BASELINE);
+        assertEquals(List.of(), unknown.getExcludedChokepoints());
+        assertEquals(BASELINE, unknown.getDistances()[0][1]);
+    }
+
+    @Test
+    void vesselClassesAreRoutedAroundChokepointsTheirDraftExceeds() {
+        MatrixResource resource = resource(0, PortDistanceTable.empty());
+
+        MatrixResponse response = compute(resource, new MatrixRequest(POINTS, null, null,
+            SeaGraphArtifacts.PROFILE_NAME, METRICS, true, "sea", null, false, null, true,
+            List.of("PANAMAX", "ULCV"), null, null));
+
+        ScenarioMatrix panamax = response.getScenarios().get(0);
+        ScenarioMatrix ulcv = response.getScenarios().get(1);
+        assertEquals(BASELINE, panamax.getDistances()[0][1]);
+        assertEquals(PANAMA_BIT, panamax.getChokepointTransits()[0][1]);
+        assertEquals(List.of("PANAMA"), ulcv.getExcludedChokepoints());
+        assertTrue(ulcv.getDistances()[0][1] > BASELINE);
+        assertEquals(0, ulcv.getChokepointTransits()[0][1]);
+    }
+
+    @Test
+    void routesGoAroundAvoidZones() {
+        AvoidAreaMasks avoidAreaMasks = new AvoidAreaMasks(graph, 4);
+        // Covers node 2 only
+        avoidAreaMasks.register("CANAL", square(-0.5, 1.5, 1.0));
+        MatrixResource resource = resource(0, PortDistanceTable.empty(), avoidAreaMasks, null, null, null);
+
+        MatrixResponse response = compute(resource, avoidRequest(null, List.of("CANAL")));
+
+        assertTrue(response.getDistances()[0][1] > BASELINE);
+        assertEquals(0, response.getChokepointTransits()[0][1]);
+    }
+
+    @Test
+    void inlineAvoidAreasBypassTheSnapCache() throws IOException {
+        AvoidAreaMasks avoidAreaMasks = new AvoidAreaMasks(graph, 4);
+        avoidAreaMasks.register("CANAL", square(-0.5, 1.5, 1.0));
+        SnapCache snapCache = new SnapCache();
+        // The west port's access node is isolated, so its Stage 2 snap goes through the location index
+        MatrixResource resource = resource(ISOLATED_NODE, PortDistanceTable.empty(), avoidAreaMasks, null,
+            snapCache, null);
+        compute(resource, List.of());
+        int engines = snapCache.getEngineCount();
+
+        for (int i = 0; i < 2 * SnapCache.MAX_ENGINES; i++) {
+            // A distinct polygon per request, away from all sea nodes
+            compute(resource, avoidRequest(List.of(squareGeoJson(3.2, 0.2 + i * 0.001, 0.5)), null));
+        }
+        assertEquals(engines, snapCache.getEngineCount());
+
+        compute(resource, avoidRequest(null, List.of("CANAL")));
+        compute(resource, avoidRequest(null, List.of("CANAL")));
+        assertEquals(engines + 1, snapCache.getEngineCount());
+    }
+
+    @Test
+    void inlandPointsFailAloneWhileTheOthersAreRouted() throws IOException {
+        // Land from lat 0 to 10 and lon 5 to 15 in 1° cells; (1.5, 6.5) is two cells from the sea
+        Path file = tempDir.resolve(LandMaskRaster.FILE_NAME);
+        try (LandMaskRaster.Writer writer = new LandMaskRaster.Writer(file, 1.0, true)) {
+            for (int row = 90; row < 100; row++) {
+                writer.setLand(row, 185, 195);
+            }
+            writer.computeCoastDistance();
+        }
+        LandMaskRaster landMask = LandMaskRaster.loadFrom(file).withInlandTolerance(0);
+        MatrixResource resource = resource(0, PortDistanceTable.empty(), null, null, null, landMask);
+        List<List<Double>> points = List.of(List.of(0d, 0d), List.of(0d, 5d), List.of(1.5, 6.5));
+
+        MatrixResponse validated = compute(resource, new MatrixRequest(points, null, null,
+            SeaGraphArtifacts.PROFILE_NAME, METRICS, true, "sea", null, true, null, false, null, null, null));
+        MatrixResponse unvalidated = compute(resource, new MatrixRequest(points, null, null,
+            SeaGraphArtifacts.PROFILE_NAME, METRICS, true, "sea", null, false, null, false, null, null, null));
+
+        assertEquals(List.of(2), validated.getFailures());
+        assertEquals(BASELINE, validated.getDistances()[0][1]);
+        assertEquals(-1, validated.getDistances()[0][2]);
+        assertEquals(List.of(), unvalidated.getFailures());
+        assertTrue(unvalidated.getDistances()[0][2] > 0);
+    }
+
+    private static MatrixRequest avoidRequest(List<JsonNode> avoidAreas, List<String> avoidZones) {
+        return new MatrixRequest(POINTS, null, null, SeaGraphArtifacts.PROFILE_NAME, METRICS, true, "sea", null,
+            false, null, true, null, avoidAreas, avoidZones);
+    }
+
+    @Test
+    void closedChokepointLeavesRoutesAndTransits() throws IOException {
+        ChokepointClosures closures = new ChokepointClosures(registry, graph, weighting, executor);
+        MatrixResource resource = resource(0, distanceTable(), null, closures, null, null);
+
+        MatrixResponse open = compute(resource, List.of());
+        closures.setClosed("PANAMA", true).join();
+        MatrixResponse closed = compute(resource, List.of());
+
+        assertEquals(BASELINE, open.getDistances()[0][1]);
+        assertEquals(PANAMA_BIT, open.getChokepointTransits()[0][1]);
+        assertEquals(List.of("PANAMA"), closed.getExcludedChokepoints());
+        assertTrue(closed.getDistances()[0][1] > BASELINE);
+        assertEquals(0, closed.getChokepointTransits()[0][1]);
+    }
+
+    private MatrixResponse compute(MatrixResource resource, List<String> excludedChokepoints) {
+        return compute(resource, new MatrixRequest(POINTS, null, null, SeaGraphArtifacts.PROFILE_NAME, METRICS, true,
+            "sea", excludedChokepoints, false, null, true, null, null, null));
+    }
+
+    private MatrixResponse compute(MatrixResource resource, MatrixRequest request) {
+        MatrixResponse response = (MatrixResponse) resource.compute(request).getEntity();
+        assertFalse(response.isError(), response::getError);
+        return response;
+    }
+
+    private MatrixResource resource(int westAccessNode, PortDistanceTable portDistanceTable) {
+        return resource(westAccessNode, portDistanceTable, null, null, null, null);
+    }
+
+    private MatrixResource resource(int westAccessNode, PortDistanceTable portDistanceTable,
+                                    AvoidAreaMasks avoidAreaMasks, ChokepointClosures closures,
+                                    SnapCache snapCache, LandMaskRaster landMask) {
+        Profile profile = SeaGraphArtifacts.createProfile();
+        GraphHopper seaHopper = mock(GraphHopper.class);
+        when(seaHopper.getProfile(SeaGraphArtifacts.PROFILE_NAME)).thenReturn(profile);
+        when(seaHopper.getCHGraphs()).thenReturn(Map.of());
+        when(seaHopper.getLandmarks()).thenReturn(Map.of());
+        when(seaHopper.createWeighting(eq(profile), any(PMap.class))).thenReturn(weighting);
+        when(seaHopper.getRouterConfig()).thenReturn(new RouterConfig());
+        when(seaHopper.getBaseGraph()).thenReturn(graph);
+        LocationIndexTree locationIndex = new LocationIndexTree(graph, new RAMDirectory());
+        locationIndex.prepareIndex();
+        when(seaHopper.getLocationIndex()).thenReturn(locationIndex);
+
+        PortNodeTable portNodes = new PortNodeTable(Map.of("AAAAA", westAccessNode, "BBBBB", SIDE - 1))
+            .alignTo(portSnapper);
+        SeaHopperHolder holder = SeaHopperHolder.builder(seaHopper)
+            .setPortNodeTable(portNodes)
+            .setPortDistanceTable(portDistanceTable.alignTo(portSnapper))
+            .setChokepointOrdinals(ChokepointOrdinals.of(registry, graph.getNodes()))
+            .setAvoidAreaMasks(avoidAreaMasks)
+            .setChokepointClosures(closures)
+            .setLandMask(landMask)
+            .build();
+        return new MatrixResource(mock(GraphHopper.class), executor, new MetricRegistry(), holder, registry,
+            portSnapper, snapCache, null);
+    }
+
+    private static JsonNode squareGeoJson(double minLat, double minLon, double size) throws IOException {
+        double maxLat = minLat + size;
+        double maxLon = minLon + size;
+        return new ObjectMapper().readTree(String.format(Locale.ROOT,
+            "{\"type\": \"Polygon\", \"coordinates\": [[[%s, %s], [%s, %s], [%s, %s], [%s, %s], [%s, %s]]]}",
+            minLon, minLat, maxLon, minLat, maxLon, maxLat, minLon, maxLat, minLon, minLat));
+    }
+
+    private static Polygon square(double minLat, double minLon, double size) {
+        return new GeometryFactory().createPolygon(new Coordinate[] {
+            new Coordinate(minLon, minLat),
+            new Coordinate(minLon + size, minLat),
+            new Coordinate(minLon + size, minLat + size),
+            new Coordinate(minLon, minLat + size),
+            new Coordinate(minLon, minLat)
+        });
+    }
+
+    /**
+     * Baseline table of both ports, as the builder writes it.
+     */
+    private PortDistanceTable distanceTable() throws IOException {
+        int[] portNodes = {0, SIDE - 1};
+        Path file = tempDir.resolve(PortDistanceTable.FILE_NAME);
+        try (PortDistanceTable.Writer writer = new PortDistanceTable.Writer(file, graph,
+                new String[] {"AAAAA", "BBBBB"}, List.of("PANAMA", "SUEZ"))) {
+            for (int row = 0; row < portNodes.length; row++) {
+                int[] distances = new int[portNodes.length];
+                long[] times = new long[portNodes.length];
+                long[] masks = new long[portNodes.length];
+                for (int col = 0; col < portNodes.length; col++) {
+                    com.graphhopper.routing.Path path = new Dijkstra(graph, weighting, TraversalMode.NODE_BASED)
+                        .calcPath(portNodes[row], portNodes[col]);
+                    distances[col] = (int) Math.round(path.getDistance());
+                    times[col] = path.getTime();
+                    masks[col] = maskOf(path.calcNodes().toArray());
+                }
+                writer.writeRow(row, distances, times, masks);
+            }
+        }
+        return PortDistanceTable.loadFrom(file, graph);
+    }
+
+    /**
+     * Table of both ports with the given distance between them and no chokepoint transits.
+     */
+    private PortDistanceTable fixedTable(int distance) throws IOException {
+        Path file = tempDir.resolve(PortDistanceTable.FILE_NAME);
+        try (PortDistanceTable.Writer writer = new PortDistanceTable.Writer(file, graph,
+                new String[] {"AAAAA", "BBBBB"}, List.of("PANAMA", "SUEZ"))) {
+            long time = distance < 0 ? -1 : 1_000L * distance;
+            writer.writeRow(0, new int[] {0, distance}, new long[] {0, time}, new long[2]);
+            writer.writeRow(1, new int[] {distance, 0}, new long[] {time, 0}, new long[2]);
+        }
+        return PortDistanceTable.loadFrom(file, graph);
+    }
+
+    private static long maskOf(int[] nodes) {
+        long mask = 0;
+        for (int node : nodes) {
+            mask |= node == 2 ? PANAMA_BIT : node == 30 ? SUEZ_BIT : 0;
+        }
+        return mask;
+    }
+
+    /**
+     * 1° grid with 4-neighbour edges; north-south edges get longer towards the east. One extra node
+     * without edges lies west of the grid.
+     */
+    private static BaseGraph grid(EncodingManager encodingManager) {
+        BooleanEncodedValue accessEnc = encodingManager.getBooleanEncodedValue(VehicleAccess.key("car"));
+        DecimalEncodedValue speedEnc = encodingManager.getDecimalEncodedValue(VehicleSpeed.key("car"));
+        BaseGraph graph = new BaseGraph.Builder(encodingManager).create();
+        for (int y = 0; y < SIDE; y++) {
+            for (int x = 0; x < SIDE; x++) {
+                graph.getNodeAccess().setNode(y * SIDE + x, y, x);
+            }
+        }
+        graph.getNodeAccess().setNode(ISOLATED_NODE, 0, -0.5);
+        for (int y = 0; y < SIDE; y++) {
+            for (int x = 0; x < SIDE; x++) {
+                int node = y * SIDE + x;
+                if (x + 1 < SIDE) {
+                    graph.edge(node, node + 1).setDistance(111_000).set(accessEnc, true, true).set(speedEnc, 30.0);
+                }
+                if (y + 1 < SIDE) {
+                    graph.edge(node, node + SIDE).setDistance(111_000 + 1_000 * x).set(accessEnc, true, true)
+                        .set(speedEnc, 30.0);
+                }
+            }
+        }
+        return graph;
+    }
+}
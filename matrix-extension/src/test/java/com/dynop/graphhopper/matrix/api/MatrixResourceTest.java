@@ -1,6 +1,11 @@
 package com.dynop.graphhopper.matrix.api;
 
 import com.codahale.metrics.MetricRegistry;
+import com.dynop.graphhopper.matrix.config.SeaHopperHolder;
+import com.dynop.graphhopper.matrix.sea.Chokepoint;
+import com.dynop.graphhopper.matrix.sea.ChokepointRegistry;
+import com.dynop.graphhopper.matrix.sea.Port;
+import com.dynop.graphhopper.matrix.sea.UnlocodePortSnapper;
 import com.graphhopper.GraphHopper;
 import com.graphhopper.config.Profile;
 import com.graphhopper.routing.weighting.Weighting;
@@ -19,9 +24,11 @@ import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.Callable;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
@@ -30,6 +37,8 @@ import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 class MatrixResourceTest {
@@ -136,6 +145,74 @@ class MatrixResourceTest {
         assertTrue(body.getFailures().isEmpty());
     }
 
+    @Test
+    void largeRequestsSnapInParallelChunksAndRecordSnapLatency() throws Exception {
+        int pointCount = MatrixResource.SNAP_CHUNK_SIZE * 2 + 17;
+        List<List<Double>> points = new ArrayList<>(pointCount);
+        for (int i = 0; i < pointCount; i++) {
+            points.add(List.of(i * 0.001, i * 0.001));
+        }
+        when(locationIndex.findClosest(any(Double.class), any(Double.class), any()))
+                .thenAnswer(invocation -> invalidSnap(invocation.getArgument(0), invocation.getArgument(1)));
+
+        ExecutorService realExecutor = Executors.newFixedThreadPool(3);
+        try {
+            MetricRegistry metrics = new MetricRegistry();
+            MatrixResource parallelResource = new MatrixResource(graphHopper, realExecutor, metrics, null, null, null);
+            MatrixRequest request = new MatrixRequest(points, List.of(0, 1), List.of(2), PROFILE, METRICS, true);
+
+            MatrixResponse body = (MatrixResponse) parallelResource.compute(request).getEntity();
+
+            assertEquals(pointCount, body.getFailures().size());
+            assertEquals(pointCount - 1, body.getFailures().get(pointCount - 1));
+            verify(locationIndex, times(pointCount)).findClosest(any(Double.class), any(Double.class), any());
+            assertEquals(1, metrics.timer("matrix.snap.latency").getCount());
+        } finally {
+            realExecutor.shutdownNow();
+        }
+    }
+
+    @Test
+    void seaRequestsRecordOneSnapLatencySamplePerRequest() {
+        GraphHopper seaHopper = mock(GraphHopper.class);
+        LocationIndex seaLocationIndex = mock(LocationIndex.class);
+        Profile shipProfile = new Profile("ship").setWeighting("fastest");
+        when(seaHopper.getProfile("ship")).thenReturn(shipProfile);
+        when(seaHopper.getLocationIndex()).thenReturn(seaLocationIndex);
+        when(seaHopper.getRouterConfig()).thenReturn(new com.graphhopper.routing.RouterConfig());
+        when(seaHopper.createWeighting(eq(shipProfile), any(PMap.class))).thenReturn(mock(Weighting.class));
+        when(seaHopper.getCHGraphs()).thenReturn(new HashMap<>());
+        when(seaHopper.getLandmarks()).thenReturn(new HashMap<>());
+        when(seaHopper.getBaseGraph()).thenReturn(mock(BaseGraph.class));
+        when(seaLocationIndex.findClosest(any(Double.class), any(Double.class), any()))
+                .thenAnswer(invocation -> invalidSnap(invocation.getArgument(0), invocation.getArgument(1)));
+        UnlocodePortSnapper portSnapper = new UnlocodePortSnapper(List.of(
+                port("NLRTM", 51.95, 4.14), port("SGSIN", 1.26, 103.84)));
+
+        ChokepointRegistry registry = new ChokepointRegistry(Map.of(
+                "SUEZ", new Chokepoint("SUEZ", "Suez Canal", "", 30.5, 32.3, 0.5, 0.5, Set.of(1))));
+
+        MetricRegistry metrics = new MetricRegistry();
+        MatrixResource seaResource = new MatrixResource(graphHopper, executorService, metrics,
+                SeaHopperHolder.builder(seaHopper).build(), registry, portSnapper);
+        // Stage 2 runs once per scenario with its own exclusion set
+        List<MatrixScenario> scenarios = List.of(
+                new MatrixScenario("open", List.of()), new MatrixScenario("no-suez", List.of("SUEZ")));
+        MatrixRequest request = new MatrixRequest(List.of(List.of(51.9, 4.0), List.of(1.2, 103.9)), null, null,
+                "ship", METRICS, true, "sea", null, false, scenarios, false, null, null, null);
+
+        MatrixResponse body = (MatrixResponse) seaResource.compute(request).getEntity();
+
+        // Both points reach a port in Stage 1 and fail Stage 2 in both scenarios, so every stage ran
+        assertEquals(List.of(0, 1), body.getScenarios().get(1).getFailures());
+        verify(seaLocationIndex, times(4)).findClosest(any(Double.class), any(Double.class), any());
+        assertEquals(1, metrics.timer("matrix.snap.latency").getCount());
+    }
+
+    private static Port port(String unlocode, double lat, double lon) {
+        return new Port(unlocode, unlocode, unlocode.substring(0, 2), "", lat, lon, "1-------", "AI");
+    }
+
     private static Snap validSnap(int nodeId) {
         Snap snap = new Snap(0, 0);
         snap.setClosestNode(nodeId);
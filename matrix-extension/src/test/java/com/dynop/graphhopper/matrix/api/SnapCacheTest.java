@@ -0,0 +1,140 @@
+package com.dynop.graphhopper.matrix.api;
+
+import com.graphhopper.storage.BaseGraph;
+import com.graphhopper.storage.index.Snap;
+import com.graphhopper.util.shapes.GHPoint3D;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Unit tests for {@link SnapCache}.
+ */
+class SnapCacheTest {
+
+    private final BaseGraph graph = mock(BaseGraph.class);
+
+    @Test
+    void materializesFreshSnapFromCachedRecord() {
+        SnapCache cache = new SnapCache(10);
+        cache.putGraphSnap("road", graph, 52.0, 4.3, towerSnap(52.0, 4.3, 7));
+
+        Snap first = cache.getGraphSnap("road", graph, 52.0, 4.3);
+        Snap second = cache.getGraphSnap("road", graph, 52.0, 4.3);
+
+        assertNotNull(first);
+        assertNotSame(first, second);
+        assertEquals(7, first.getClosestNode());
+        assertEquals(Snap.Position.TOWER, first.getSnappedPosition());
+        assertEquals(52.0, first.getSnappedPoint().getLat(), 1e-9);
+        assertEquals(2, cache.getHitCount());
+    }
+
+    @Test
+    void quantizesToRoughlyOneMeter() {
+        SnapCache cache = new SnapCache(10);
+        cache.putGraphSnap("road", graph, 52.0, 4.3, towerSnap(52.0, 4.3, 7));
+
+        assertNotNull(cache.getGraphSnap("road", graph, 52.000001, 4.300001));
+        assertNull(cache.getGraphSnap("road", graph, 52.0001, 4.3));
+        assertEquals(SnapCache.quantize(10.0, 20.0), SnapCache.quantize(10.000002, 19.999998));
+    }
+
+    @Test
+    void separatesEnginesAndInvalidatesOnGraphReload() {
+        SnapCache cache = new SnapCache(10);
+        cache.putGraphSnap("road", graph, 52.0, 4.3, towerSnap(52.0, 4.3, 7));
+
+        assertNull(cache.getGraphSnap("sea-graph", graph, 52.0, 4.3));
+        assertNull(cache.getGraphSnap("road", mock(BaseGraph.class), 52.0, 4.3));
+
+        cache.invalidateAll();
+        assertNull(cache.getGraphSnap("road", graph, 52.0, 4.3));
+    }
+
+    @Test
+    void cachesInvalidSnapsAndPortEntries() {
+        SnapCache cache = new SnapCache(10);
+        Object ports = new Object();
+        cache.putGraphSnap("road", graph, 1.0, 1.0, new Snap(1.0, 1.0));
+        cache.putPortSnap("sea-port", ports, 1.0, 1.0, new SnapCache.PortSnapEntry(-1, 3));
+
+        Snap invalid = cache.getGraphSnap("road", graph, 1.0, 1.0);
+        assertNotNull(invalid);
+        assertFalse(invalid.isValid());
+        assertEquals(3, cache.getPortSnap("sea-port", ports, 1.0, 1.0).nearestPortIndex());
+    }
+
+    @Test
+    void boundsEntriesWithTwoGenerations() {
+        SnapCache cache = new SnapCache(4);
+        for (int i = 0; i < 20; i++) {
+            cache.putGraphSnap("road", graph, i, i, towerSnap(i, i, i));
+        }
+
+        int retained = 0;
+        for (int i = 0; i < 20; i++) {
+            if (cache.getGraphSnap("road", graph, i, i) != null) {
+                retained++;
+            }
+        }
+        assertTrue(retained <= 10, "Retained " + retained + " entries");
+        assertNotNull(cache.getGraphSnap("road", graph, 19, 19));
+    }
+
+    @Test
+    void recomputesSnapDistanceForTheQueriedCoordinate() {
+        SnapCache cache = new SnapCache(10);
+        Snap snap = towerSnap(52.0, 4.3, 7);
+        snap.setQueryDistance(0);
+        cache.putGraphSnap("road", graph, 52.0, 4.3, snap);
+
+        Snap same = cache.getGraphSnap("road", graph, 52.0, 4.3);
+        Snap neighbour = cache.getGraphSnap("road", graph, 52.000004, 4.3);
+
+        assertEquals(0, same.getQueryDistance(), 1e-6);
+        assertEquals(0.44, neighbour.getQueryDistance(), 0.01);
+    }
+
+    @Test
+    void promotionsRespectTheBound() {
+        SnapCache cache = new SnapCache(4);
+        for (int round = 0; round < 20; round++) {
+            cache.putGraphSnap("road", graph, round, round, towerSnap(round, round, round));
+            for (int i = 0; i <= round; i++) {
+                cache.getGraphSnap("road", graph, i, i);
+            }
+        }
+
+        assertTrue(cache.size() <= 10, "Holding " + cache.size() + " entries");
+    }
+
+    @Test
+    void boundsTheNumberOfEngines() {
+        SnapCache cache = new SnapCache(10);
+        for (int i = 0; i <= SnapCache.MAX_ENGINES; i++) {
+            cache.putGraphSnap("sea-graph|" + i, graph, 1.0, 1.0, towerSnap(1.0, 1.0, i));
+        }
+
+        assertTrue(cache.getEngineCount() <= SnapCache.MAX_ENGINES);
+        assertNotNull(cache.getGraphSnap("sea-graph|" + SnapCache.MAX_ENGINES, graph, 1.0, 1.0));
+    }
+
+    @Test
+    void disabledCacheNeverStores() {
+        SnapCache cache = new SnapCache(0);
+        cache.putGraphSnap("road", graph, 52.0, 4.3, towerSnap(52.0, 4.3, 7));
+
+        assertFalse(cache.isEnabled());
+        assertNull(cache.getGraphSnap("road", graph, 52.0, 4.3));
+    }
+
+    private static Snap towerSnap(double lat, double lon, int node) {
+        Snap snap = new Snap(lat, lon);
+        snap.setClosestNode(node);
+        snap.setSnappedPosition(Snap.Position.TOWER);
+        snap.setSnappedPoint(new GHPoint3D(lat, lon, Double.NaN));
+        return snap;
+    }
+}
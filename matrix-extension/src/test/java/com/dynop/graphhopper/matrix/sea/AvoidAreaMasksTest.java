@@ -0,0 +1,106 @@
+package com.dynop.graphhopper.matrix.sea;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.graphhopper.storage.BaseGraph;
+import org.junit.jupiter.api.Test;
+import org.locationtech.jts.geom.Geometry;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link AvoidAreaMasks} and {@link AvoidAreaEdgeFilter}.
+ */
+class AvoidAreaMasksTest {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final int SIDE = 4;
+
+    // Covers the nodes at lat 1..2, lon 1..2 of the 1° grid
+    private static final String SQUARE = "{\"type\": \"Polygon\", \"coordinates\": "
+        + "[[[0.5, 0.5], [2.5, 0.5], [2.5, 2.5], [0.5, 2.5], [0.5, 0.5]]]}";
+
+    @Test
+    void maskHoldsNodesInsidePolygon() throws Exception {
+        AvoidAreaMasks masks = new AvoidAreaMasks(grid(), AvoidAreaMasks.DEFAULT_MAX_ENTRIES);
+
+        AvoidAreaMasks.Mask mask = masks.resolve(parse(SQUARE));
+
+        assertEquals(4, mask.getNodeCount());
+        assertTrue(mask.contains(node(1, 1)));
+        assertTrue(mask.contains(node(2, 2)));
+        assertFalse(mask.contains(node(0, 0)));
+        assertFalse(mask.contains(node(3, 1)));
+    }
+
+    @Test
+    void samePolygonIsResolvedOnce() throws Exception {
+        AvoidAreaMasks masks = new AvoidAreaMasks(grid(), AvoidAreaMasks.DEFAULT_MAX_ENTRIES);
+        // Same ring, other start vertex and orientation
+        Geometry reordered = parse("{\"type\": \"Polygon\", \"coordinates\": "
+            + "[[[2.5, 2.5], [2.5, 0.5], [0.5, 0.5], [0.5, 2.5], [2.5, 2.5]]]}");
+
+        AvoidAreaMasks.Mask first = masks.resolve(parse(SQUARE));
+        AvoidAreaMasks.Mask second = masks.resolve(reordered);
+
+        assertSame(first, second);
+        assertEquals(1, masks.getMissCount());
+        assertEquals(1, masks.getHitCount());
+    }
+
+    @Test
+    void registeredZonesCanBeRemoved() throws Exception {
+        AvoidAreaMasks masks = new AvoidAreaMasks(grid(), 1);
+
+        masks.register("SQUARE", parse(SQUARE));
+
+        assertEquals(4, masks.getZone("SQUARE").getNodeCount());
+        assertTrue(masks.unregister("SQUARE"));
+        assertNull(masks.getZone("SQUARE"));
+    }
+
+    @Test
+    void parsesFeaturesAndRejectsNonPolygons() throws Exception {
+        Geometry feature = AvoidAreaMasks.parseGeoJson(MAPPER.readTree(
+            "{\"type\": \"Feature\", \"properties\": {}, \"geometry\": " + SQUARE + "}"));
+
+        assertEquals("Polygon", feature.getGeometryType());
+        assertThrows(IllegalArgumentException.class, () -> AvoidAreaMasks.parseGeoJson(
+            MAPPER.readTree("{\"type\": \"Point\", \"coordinates\": [1.0, 1.0]}")));
+        assertThrows(IllegalArgumentException.class, () -> AvoidAreaMasks.parseGeoJson(
+            MAPPER.readTree("{\"type\": \"Polygon\", \"coordinates\": \"nope\"}")));
+    }
+
+    @Test
+    void edgeFilterRejectsEdgesTouchingArea() throws Exception {
+        BaseGraph graph = grid();
+        AvoidAreaEdgeFilter filter = new AvoidAreaEdgeFilter(
+            List.of(new AvoidAreaMasks(graph, 8).resolve(parse(SQUARE))));
+
+        assertFalse(filter.accept(graph.getEdgeIteratorState(edge(graph, node(0, 1), node(1, 1)), node(1, 1))));
+        assertTrue(filter.accept(graph.getEdgeIteratorState(edge(graph, node(0, 0), node(0, 1)), node(0, 1))));
+    }
+
+    private static Geometry parse(String json) throws Exception {
+        return AvoidAreaMasks.parseGeoJson(MAPPER.readTree(json));
+    }
+
+    private static int node(int lat, int lon) {
+        return lat * SIDE + lon;
+    }
+
+    private static int edge(BaseGraph graph, int from, int to) {
+        return graph.edge(from, to).setDistance(111_000).getEdge();
+    }
+
+    private static BaseGraph grid() {
+        BaseGraph graph = new BaseGraph.Builder(SeaGraphArtifacts.createEncodingManager()).create();
+        for (int lat = 0; lat < SIDE; lat++) {
+            for (int lon = 0; lon < SIDE; lon++) {
+                graph.getNodeAccess().setNode(node(lat, lon), lat, lon);
+            }
+        }
+        return graph;
+    }
+}
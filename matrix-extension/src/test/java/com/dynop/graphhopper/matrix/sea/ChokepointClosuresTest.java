@@ -0,0 +1,146 @@
+package com.dynop.graphhopper.matrix.sea;
+
+import com.graphhopper.routing.ev.BooleanEncodedValue;
+import com.graphhopper.routing.ev.VehicleAccess;
+import com.graphhopper.routing.util.EdgeFilter;
+import com.graphhopper.routing.util.EncodingManager;
+import com.graphhopper.routing.weighting.Weighting;
+import com.graphhopper.storage.BaseGraph;
+import com.graphhopper.util.EdgeIteratorState;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for {@link ChokepointClosures}.
+ */
+class ChokepointClosuresTest {
+
+    private static ChokepointRegistry registry() {
+        return new ChokepointRegistry(Map.of(
+            "SUEZ", new Chokepoint("SUEZ", "Suez Canal", "", 30.0, 32.5, 0.5, 0.5, Set.of(3, 4)),
+            "PANAMA", new Chokepoint("PANAMA", "Panama Canal", "", 9.0, -79.6, 0.5, 0.5, Set.of(7))));
+    }
+
+    /**
+     * Path 0-1-...-8, so closing SUEZ (nodes 3, 4) splits it in two.
+     */
+    private static BaseGraph graph() {
+        BooleanEncodedValue accessEnc = VehicleAccess.create("ship");
+        EncodingManager encodingManager = EncodingManager.start().add(accessEnc).build();
+        BaseGraph graph = new BaseGraph.Builder(encodingManager).create();
+        for (int i = 0; i < 9; i++) {
+            graph.getNodeAccess().setNode(i, i * 0.1, i * 0.1);
+        }
+        for (int i = 0; i < 8; i++) {
+            graph.edge(i, i + 1).setDistance(10);
+        }
+        return graph;
+    }
+
+    private static Weighting weighting() {
+        Weighting weighting = mock(Weighting.class);
+        when(weighting.calcEdgeWeight(any(), anyBoolean())).thenReturn(1.0);
+        return weighting;
+    }
+
+    private static EdgeIteratorState edge(int base, int adj) {
+        EdgeIteratorState edge = mock(EdgeIteratorState.class);
+        when(edge.getBaseNode()).thenReturn(base);
+        when(edge.getAdjNode()).thenReturn(adj);
+        return edge;
+    }
+
+    @Test
+    void startsWithoutClosures() {
+        ChokepointClosures closures = new ChokepointClosures(registry(), graph(), weighting(), Runnable::run);
+
+        assertSame(ChokepointClosures.State.NONE, closures.current());
+        assertFalse(closures.current().hasClosures());
+        assertSame(EdgeFilter.ALL_EDGES, closures.current().getEdgeFilter());
+        assertNull(closures.current().getWeighting());
+        assertNull(closures.current().getComponentIndex());
+    }
+
+    @Test
+    void closingSwapsInStateExcludingChokepointNodes() {
+        ChokepointRegistry registry = registry();
+        ChokepointClosures closures = new ChokepointClosures(registry, graph(), weighting(), Runnable::run);
+
+        ChokepointClosures.State state = closures.setClosed("SUEZ", true).join();
+
+        assertSame(state, closures.current());
+        assertEquals(List.of("SUEZ"), state.getClosedChokepoints());
+        assertFalse(state.getEdgeFilter().accept(edge(1, 3)));
+        assertTrue(state.getEdgeFilter().accept(edge(6, 7)));
+        assertEquals(Double.POSITIVE_INFINITY, state.getWeighting().calcEdgeWeight(edge(1, 3), false));
+        assertEquals(1.0, state.getWeighting().calcEdgeWeight(edge(6, 7), false));
+        assertTrue(state.getComponentIndex().isConnected(0, 2));
+        assertFalse(state.getComponentIndex().isConnected(2, 5));
+        assertFalse(registry.getChokepoint("SUEZ").isEnabled());
+        assertTrue(registry.getChokepoint("PANAMA").isEnabled());
+    }
+
+    @Test
+    void reopeningRestoresChokepoint() {
+        ChokepointRegistry registry = registry();
+        ChokepointClosures closures = new ChokepointClosures(registry, graph(), weighting(), Runnable::run);
+
+        closures.setClosed("SUEZ", true);
+        closures.setClosed("PANAMA", true);
+        ChokepointClosures.State state = closures.setClosed("SUEZ", false).join();
+
+        assertEquals(List.of("PANAMA"), state.getClosedChokepoints());
+        assertTrue(state.getEdgeFilter().accept(edge(1, 3)));
+        assertTrue(registry.getChokepoint("SUEZ").isEnabled());
+        assertFalse(registry.getChokepoint("PANAMA").isEnabled());
+    }
+
+    @Test
+    void requestsKeepTheirSnapshotUntilTheBuildCompletes() {
+        List<Runnable> pending = new ArrayList<>();
+        ChokepointClosures closures = new ChokepointClosures(registry(), graph(), weighting(), pending::add);
+
+        ChokepointClosures.State snapshot = closures.current();
+        CompletableFuture<ChokepointClosures.State> update = closures.setClosed("SUEZ", true);
+
+        // Not built yet: requests still see the old state
+        assertFalse(update.isDone());
+        assertSame(snapshot, closures.current());
+
+        pending.remove(0).run();
+
+        assertTrue(update.isDone());
+        assertEquals(List.of("SUEZ"), closures.current().getClosedChokepoints());
+        assertTrue(snapshot.getClosedChokepoints().isEmpty());
+    }
+
+    @Test
+    void chainedUpdatesAreNotLost() {
+        List<Runnable> pending = new ArrayList<>();
+        ChokepointClosures closures = new ChokepointClosures(registry(), graph(), weighting(), pending::add);
+
+        closures.setClosed("SUEZ", true);
+        CompletableFuture<ChokepointClosures.State> second = closures.setClosed("PANAMA", true);
+        while (!pending.isEmpty()) {
+            pending.remove(0).run();
+        }
+
+        assertEquals(List.of("PANAMA", "SUEZ"), second.join().getClosedChokepoints());
+    }
+
+    @Test
+    void rejectsUnknownChokepoint() {
+        ChokepointClosures closures = new ChokepointClosures(registry(), graph(), weighting(), Runnable::run);
+
+        assertThrows(IllegalArgumentException.class, () -> closures.setClosed("KIEL", true));
+        assertSame(ChokepointClosures.State.NONE, closures.current());
+    }
+}
@@ -0,0 +1,58 @@
+package com.dynop.graphhopper.matrix.sea;
+
+import com.carrotsearch.hppc.IntArrayList;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link ChokepointOrdinals}.
+ */
+class ChokepointOrdinalsTest {
+
+    private static final ChokepointRegistry REGISTRY = new ChokepointRegistry(Map.of(
+        "SUEZ", new Chokepoint("SUEZ", "Suez Canal", "", 30.0, 32.5, 0.5, 0.5, Set.of(3, 4)),
+        "PANAMA", new Chokepoint("PANAMA", "Panama Canal", "", 9.0, -79.6, 0.5, 0.5, Set.of(7, 99))));
+
+    @Test
+    void ordinalsFollowSortedIds() {
+        ChokepointOrdinals ordinals = ChokepointOrdinals.of(REGISTRY, 10);
+
+        assertEquals(List.of("PANAMA", "SUEZ"), ordinals.getIds());
+        assertEquals(0b01, ordinals.bitOf(7));
+        assertEquals(0b10, ordinals.bitOf(3));
+        assertEquals(0, ordinals.bitOf(0));
+    }
+
+    @Test
+    void nodesOutsideTheGraphHaveNoChokepoint() {
+        ChokepointOrdinals ordinals = ChokepointOrdinals.of(REGISTRY, 10);
+
+        // Node 99 exceeds the node count, like virtual query graph nodes
+        assertEquals(0, ordinals.bitOf(99));
+        assertEquals(0, ordinals.bitOf(-1));
+    }
+
+    @Test
+    void maskCollectsChokepointsOfPath() {
+        ChokepointOrdinals ordinals = ChokepointOrdinals.of(REGISTRY, 10);
+
+        assertEquals(0b10, ordinals.maskOf(IntArrayList.from(1, 2, 3, 4, 5)));
+        assertEquals(0b11, ordinals.maskOf(IntArrayList.from(3, 6, 7)));
+        assertEquals(0, ordinals.maskOf(IntArrayList.from(0, 1, 2)));
+    }
+
+    @Test
+    void translatesMasksOfAnotherOrder() {
+        ChokepointOrdinals ordinals = ChokepointOrdinals.of(REGISTRY, 10);
+
+        assertEquals(0b10, ordinals.translate(0b01, List.of("SUEZ", "HORMUZ")));
+        assertEquals(0b01, ordinals.translate(0b10, List.of("SUEZ", "PANAMA")));
+        assertEquals(0, ordinals.translate(0b10, List.of("SUEZ", "HORMUZ")));
+        assertEquals(0b11, ordinals.translate(0b11, List.of("PANAMA", "SUEZ")));
+    }
+}
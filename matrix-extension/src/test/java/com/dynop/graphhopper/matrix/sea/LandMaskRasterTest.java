@@ -0,0 +1,109 @@
+package com.dynop.graphhopper.matrix.sea;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link LandMaskRaster}.
+ */
+class LandMaskRasterTest {
+
+    // 1° cells: 360 columns, 180 rows
+    private static final double CELL_DEGREES = 1.0;
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void looksUpLandCells() throws IOException {
+        LandMaskRaster raster = write(false);
+
+        assertTrue(raster.isLand(5.5, 5.5));
+        assertTrue(raster.isLand(0.0, 0.0));
+        assertFalse(raster.isLand(-0.5, 0.0));
+        assertFalse(raster.isLand(10.0, 5.5));
+        assertFalse(raster.isLand(40.0, -100.0));
+        assertFalse(raster.hasCoastDistance());
+        assertEquals(LandMaskRaster.NO_COAST_DISTANCE, raster.getCoastDistance(5.5, 5.5));
+    }
+
+    @Test
+    void clampsCoordinatesAtTheEdges() throws IOException {
+        LandMaskRaster raster = write(false);
+
+        assertFalse(raster.isLand(90.0, 180.0));
+        assertFalse(raster.isLand(-90.0, -180.0));
+    }
+
+    @Test
+    void coastDistanceCountsCellsToTheOtherClass() throws IOException {
+        LandMaskRaster raster = write(true);
+
+        // Land block spans lat/lon [0, 10): its center is 5 cells from the sea
+        assertEquals(1, raster.getCoastDistance(0.5, 0.5));
+        assertEquals(1, raster.getCoastDistance(0.5, 5.5));
+        assertEquals(5, raster.getCoastDistance(5.5, 5.5));
+        assertEquals(1, raster.getCoastDistance(-0.5, 5.5));
+        assertEquals(3, raster.getCoastDistance(-2.5, 5.5));
+        // Chessboard distance: the larger of the row and column offsets to the nearest land cell
+        assertEquals(170, raster.getCoastDistance(-60.5, 179.5));
+    }
+
+    @Test
+    void inlandPointsExceedTheTolerance() throws IOException {
+        LandMaskRaster raster = write(true).withInlandTolerance(200);
+
+        assertFalse(raster.isInland(0.5, 0.5));
+        assertFalse(raster.isInland(20.5, 20.5));
+        assertTrue(raster.isInland(5.5, 5.5));
+        assertEquals(200, raster.getInlandToleranceKm());
+        assertFalse(raster.withInlandTolerance(1000).isInland(5.5, 5.5));
+    }
+
+    @Test
+    void withoutCoastDistanceEveryLandPointIsInland() throws IOException {
+        LandMaskRaster raster = write(false);
+
+        assertTrue(raster.isInland(0.5, 0.5));
+        assertFalse(raster.isInland(-0.5, 0.5));
+    }
+
+    @Test
+    void missingFileIsNotLoaded() throws IOException {
+        assertNull(LandMaskRaster.loadFrom(tempDir.resolve("missing.bin")));
+    }
+
+    @Test
+    void rejectsOtherFiles() throws IOException {
+        Path file = tempDir.resolve("other.bin");
+        Files.write(file, new byte[64]);
+
+        assertThrows(IOException.class, () -> LandMaskRaster.loadFrom(file));
+    }
+
+    @Test
+    void rejectsCellSizeNotDividing180() {
+        assertThrows(IllegalArgumentException.class,
+            () -> new LandMaskRaster.Writer(tempDir.resolve("bad.bin"), 7.0, false));
+    }
+
+    private LandMaskRaster write(boolean coastDistance) throws IOException {
+        Path file = tempDir.resolve(LandMaskRaster.FILE_NAME);
+        try (LandMaskRaster.Writer writer = new LandMaskRaster.Writer(file, CELL_DEGREES, coastDistance)) {
+            assertEquals(360, writer.getColumns());
+            assertEquals(180, writer.getRows());
+            // Land block lat [0, 10), lon [0, 10)
+            for (int row = 90; row < 100; row++) {
+                writer.setLand(row, 180, 190);
+            }
+            writer.computeCoastDistance();
+        }
+        return LandMaskRaster.loadFrom(file);
+    }
+}
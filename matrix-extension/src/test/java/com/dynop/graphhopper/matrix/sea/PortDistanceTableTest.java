@@ -0,0 +1,121 @@
+package com.dynop.graphhopper.matrix.sea;
+
+import com.graphhopper.storage.BaseGraph;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link PortDistanceTable}.
+ */
+class PortDistanceTableTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void roundTripsThroughMappedFile() throws IOException {
+        BaseGraph graph = graph(3);
+        Path file = writeTable(graph);
+
+        PortDistanceTable table = PortDistanceTable.loadFrom(file, graph);
+
+        assertNotNull(table);
+        assertEquals(2, table.size());
+        assertEquals(0, table.getDistance(0, 0));
+        assertEquals(10_500_000, table.getDistance(0, 1));
+        assertEquals(1_512_000_000L, table.getTime(0, 1));
+        assertEquals(-1, table.getDistance(1, 0));
+        assertEquals(-1, table.getTime(1, 0));
+    }
+
+    @Test
+    void reusesCellsWhoseRouteAvoidsExcludedChokepoints() throws IOException {
+        BaseGraph graph = graph(3);
+        PortDistanceTable table = PortDistanceTable.loadFrom(writeTable(graph), graph);
+
+        assertEquals(List.of("MALACCA", "SUEZ"), table.getChokepointIds());
+        assertEquals(0b11, table.getChokepointMask(0, 1));
+        long suez = table.getChokepointBits(List.of("SUEZ"));
+        assertEquals(0b10, suez);
+        assertFalse(table.isUnaffected(0, 1, suez));
+        assertTrue(table.isUnaffected(0, 0, suez));
+        assertTrue(table.isUnaffected(1, 0, suez));
+        assertTrue(table.isUnaffected(0, 1, table.getChokepointBits(List.of())));
+        assertFalse(table.isUnaffected(0, 0, table.getChokepointBits(List.of("PANAMA"))));
+    }
+
+    @Test
+    void alignsToSnapperPortIndices() throws IOException {
+        BaseGraph graph = graph(3);
+        UnlocodePortSnapper snapper = new UnlocodePortSnapper(List.of(
+            port("SGSIN", 1.26, 103.84),
+            port("USNYC", 40.68, -74.04),
+            port("NLRTM", 51.95, 4.14)
+        ));
+
+        PortDistanceTable table = PortDistanceTable.loadFrom(writeTable(graph), graph).alignTo(snapper);
+
+        assertEquals(1, table.getRow(0));
+        assertEquals(PortDistanceTable.NO_ROW, table.getRow(1));
+        assertEquals(0, table.getRow(2));
+        assertEquals(PortDistanceTable.NO_ROW, table.getRow(3));
+        assertEquals(10_500_000, table.getDistance(table.getRow(2), table.getRow(0)));
+    }
+
+    @Test
+    void tableOfOtherGraphIsIgnored() throws IOException {
+        Path file = writeTable(graph(3));
+
+        assertNull(PortDistanceTable.loadFrom(file, graph(4)));
+    }
+
+    @Test
+    void missingFileLoadsAsNull() throws IOException {
+        assertNull(PortDistanceTable.loadFrom(tempDir.resolve(PortDistanceTable.FILE_NAME), graph(3)));
+        assertEquals(PortDistanceTable.NO_ROW, PortDistanceTable.empty().getRow(0));
+    }
+
+    @Test
+    void rejectsTruncatedFile() throws IOException {
+        BaseGraph graph = graph(3);
+        Path file = writeTable(graph);
+        byte[] bytes = Files.readAllBytes(file);
+        Files.write(file, Arrays.copyOf(bytes, bytes.length - 8));
+
+        assertThrows(IOException.class, () -> PortDistanceTable.loadFrom(file, graph));
+    }
+
+    /**
+     * Rotterdam → Singapore reachable via Suez and Malacca, the reverse direction not (rows are written
+     * out of order).
+     */
+    private Path writeTable(BaseGraph graph) throws IOException {
+        Path file = tempDir.resolve(PortDistanceTable.FILE_NAME);
+        try (PortDistanceTable.Writer writer = new PortDistanceTable.Writer(file, graph,
+                new String[] {"NLRTM", "SGSIN"}, List.of("MALACCA", "SUEZ"))) {
+            writer.writeRow(1, new int[] {-1, 0}, new long[] {-1, 0}, new long[] {0, 0});
+            writer.writeRow(0, new int[] {0, 10_500_000}, new long[] {0, 1_512_000_000L}, new long[] {0, 0b11});
+        }
+        return file;
+    }
+
+    private static BaseGraph graph(int nodes) {
+        BaseGraph graph = new BaseGraph.Builder(SeaGraphArtifacts.createEncodingManager()).create();
+        for (int i = 0; i < nodes; i++) {
+            graph.getNodeAccess().setNode(i, 0, i);
+        }
+        return graph;
+    }
+
+    private static Port port(String unlocode, double lat, double lon) {
+        return new Port(unlocode, unlocode, unlocode.substring(0, 2), "", lat, lon, "1-------", "AI");
+    }
+}
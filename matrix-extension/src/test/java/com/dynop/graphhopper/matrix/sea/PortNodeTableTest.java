@@ -0,0 +1,65 @@
+package com.dynop.graphhopper.matrix.sea;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link PortNodeTable}.
+ */
+class PortNodeTableTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void roundTripsThroughJson() throws IOException {
+        Map<String, Integer> nodes = new LinkedHashMap<>();
+        nodes.put("NLRTM", 2400);
+        nodes.put("SGSIN", 2401);
+        Path file = tempDir.resolve(PortNodeTable.FILE_NAME);
+
+        new PortNodeTable(nodes).saveTo(file);
+        PortNodeTable loaded = PortNodeTable.loadFrom(file);
+
+        assertEquals(2, loaded.size());
+        assertEquals(2400, loaded.getNode("NLRTM"));
+        assertEquals(2401, loaded.getNode("SGSIN"));
+        assertEquals(PortNodeTable.NO_NODE, loaded.getNode("USNYC"));
+    }
+
+    @Test
+    void alignsToSnapperPortIndices() {
+        UnlocodePortSnapper snapper = new UnlocodePortSnapper(List.of(
+            port("SGSIN", 1.26, 103.84),
+            port("USNYC", 40.68, -74.04),
+            port("NLRTM", 51.95, 4.14)
+        ));
+        PortNodeTable table = new PortNodeTable(Map.of("NLRTM", 10, "SGSIN", 11)).alignTo(snapper);
+
+        assertEquals(11, table.getNode(0));
+        assertEquals(PortNodeTable.NO_NODE, table.getNode(1));
+        assertEquals(10, table.getNode(2));
+        assertEquals(PortNodeTable.NO_NODE, table.getNode(3));
+        assertEquals(PortNodeTable.NO_NODE, table.getNode(-1));
+    }
+
+    @Test
+    void missingFileYieldsEmptyTable() throws IOException {
+        PortNodeTable table = PortNodeTable.loadFrom(tempDir.resolve("missing.json"));
+
+        assertEquals(0, table.size());
+        assertEquals(PortNodeTable.NO_NODE, table.getNode(0));
+    }
+
+    private static Port port(String unlocode, double lat, double lon) {
+        return new Port(unlocode, unlocode, unlocode.substring(0, 2), "", lat, lon, "1-------", "AI");
+    }
+}
@@ -0,0 +1,86 @@
+package com.dynop.graphhopper.matrix.sea;
+
+import com.graphhopper.routing.util.EncodingManager;
+import com.graphhopper.storage.BaseGraph;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link SeaArtifactManifest}.
+ */
+class SeaArtifactManifestTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void roundTripsAndVerifiesUnchangedDirectory() throws IOException {
+        BaseGraph graph = graph(2);
+        writeArtifacts();
+
+        SeaArtifactManifest.create(tempDir, "sha256:abc", graph, List.of("build_summary.json"))
+            .saveTo(tempDir.resolve(SeaArtifactManifest.FILE_NAME));
+        SeaArtifactManifest loaded = SeaArtifactManifest.loadFrom(tempDir.resolve(SeaArtifactManifest.FILE_NAME));
+
+        assertNotNull(loaded);
+        assertEquals("sha256:abc", loaded.getGraphVersion());
+        assertEquals(Set.of("components.bin", "location_index"), loaded.getArtifactNames());
+        assertEquals(List.of(), loaded.verify(tempDir, graph, true));
+    }
+
+    @Test
+    void reportsMissingResizedAndAlteredFiles() throws IOException {
+        BaseGraph graph = graph(2);
+        writeArtifacts();
+        SeaArtifactManifest manifest = SeaArtifactManifest.create(tempDir, "v", graph, List.of());
+
+        Files.delete(tempDir.resolve("location_index"));
+        Files.writeString(tempDir.resolve("components.bin"), "COMPONENTz");
+        Files.writeString(tempDir.resolve("build_summary.json"), "{\"x\": 1}");
+
+        List<String> sizesOnly = manifest.verify(tempDir, graph, false);
+        assertEquals(List.of("build_summary.json has 8 bytes, manifest expects 2", "missing location_index"),
+            sizesOnly);
+        assertTrue(manifest.verify(tempDir, graph, true).contains("checksum mismatch for components.bin"));
+    }
+
+    @Test
+    void reportsGraphOfOtherBuild() throws IOException {
+        writeArtifacts();
+        SeaArtifactManifest manifest = SeaArtifactManifest.create(tempDir, "v", graph(2), List.of());
+
+        List<String> problems = manifest.verify(tempDir, graph(3), false);
+
+        assertEquals(1, problems.size());
+        assertTrue(problems.get(0).startsWith("graph has 3 nodes"));
+    }
+
+    @Test
+    void missingManifestLoadsAsNull() throws IOException {
+        assertNull(SeaArtifactManifest.loadFrom(tempDir.resolve(SeaArtifactManifest.FILE_NAME)));
+    }
+
+    private void writeArtifacts() throws IOException {
+        Files.writeString(tempDir.resolve("location_index"), "INDEX");
+        Files.writeString(tempDir.resolve("components.bin"), "COMPONENTS");
+        Files.writeString(tempDir.resolve("build_summary.json"), "{}");
+        Files.createDirectories(tempDir.resolve("checkpoints"));
+    }
+
+    private static BaseGraph graph(int nodes) {
+        EncodingManager encodingManager = SeaGraphArtifacts.createEncodingManager();
+        BaseGraph graph = new BaseGraph.Builder(encodingManager).create();
+        for (int i = 0; i < nodes; i++) {
+            graph.getNodeAccess().setNode(i, 0, i);
+        }
+        return graph;
+    }
+}
@@ -0,0 +1,125 @@
+package com.dynop.graphhopper.matrix.sea;
+
+import com.graphhopper.routing.ev.BooleanEncodedValue;
+import com.graphhopper.routing.ev.DecimalEncodedValue;
+import com.graphhopper.routing.ev.VehicleAccess;
+import com.graphhopper.routing.ev.VehicleSpeed;
+import com.graphhopper.routing.lm.LandmarkStorage;
+import com.graphhopper.routing.util.EdgeFilter;
+import com.graphhopper.routing.util.EncodingManager;
+import com.graphhopper.routing.weighting.Weighting;
+import com.graphhopper.storage.BaseGraph;
+import com.graphhopper.storage.CHStorage;
+import com.graphhopper.storage.DAType;
+import com.graphhopper.storage.Directory;
+import com.graphhopper.storage.RoutingCHGraph;
+import com.graphhopper.storage.index.LocationIndexTree;
+import com.graphhopper.storage.index.Snap;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link SeaGraphArtifacts}.
+ */
+class SeaGraphArtifactsTest {
+
+    private static final int SIDE = 8;
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void preparedArtifactsLoadWithoutPreparation() {
+        String location = tempDir.toString();
+        EncodingManager encodingManager = SeaGraphArtifacts.createEncodingManager();
+        Directory buildDir = SeaGraphDataAccess.createDirectory(location, DAType.RAM_STORE);
+        BaseGraph built = new BaseGraph.Builder(encodingManager).setDir(buildDir).create();
+        fillGrid(built, encodingManager);
+        built.freeze();
+        built.flush();
+
+        Weighting weighting = SeaGraphArtifacts.createWeighting(encodingManager);
+        LocationIndexTree index = SeaGraphArtifacts.prepareLocationIndex(built, buildDir);
+        CHStorage ch = SeaGraphArtifacts.prepareCH(built, weighting);
+        LandmarkStorage landmarks = SeaGraphArtifacts.prepareLandmarks(built, encodingManager, buildDir, weighting);
+        index.close();
+        ch.close();
+        landmarks.close();
+        built.close();
+
+        Directory loadDir = SeaGraphDataAccess.createDirectory(location, DAType.RAM_STORE);
+        BaseGraph loaded = new BaseGraph.Builder(encodingManager).setDir(loadDir).build();
+        assertTrue(loaded.loadExisting());
+
+        LocationIndexTree loadedIndex = SeaGraphArtifacts.loadLocationIndex(loaded, loadDir);
+        assertNotNull(loadedIndex);
+        Snap snap = loadedIndex.findClosest(3.1, 4.9, EdgeFilter.ALL_EDGES);
+        assertTrue(snap.isValid());
+
+        RoutingCHGraph chGraph = SeaGraphArtifacts.loadCH(loaded, loadDir, weighting);
+        assertNotNull(chGraph);
+        assertEquals(SIDE * SIDE, chGraph.getNodes());
+
+        LandmarkStorage loadedLandmarks = SeaGraphArtifacts.loadLandmarks(loaded, encodingManager, loadDir, weighting);
+        assertNotNull(loadedLandmarks);
+        assertEquals(SeaGraphArtifacts.LANDMARKS, loadedLandmarks.getLandmarkCount());
+        loaded.close();
+    }
+
+    @Test
+    void missingArtifactsLoadAsNull() {
+        String location = tempDir.toString();
+        EncodingManager encodingManager = SeaGraphArtifacts.createEncodingManager();
+        Directory dir = SeaGraphDataAccess.createDirectory(location, DAType.RAM_STORE);
+        BaseGraph graph = new BaseGraph.Builder(encodingManager).setDir(dir).create();
+        fillGrid(graph, encodingManager);
+        graph.freeze();
+        Weighting weighting = SeaGraphArtifacts.createWeighting(encodingManager);
+
+        assertNull(SeaGraphArtifacts.loadLocationIndex(graph, dir));
+        assertNull(SeaGraphArtifacts.loadCH(graph, dir, weighting));
+        assertNull(SeaGraphArtifacts.loadLandmarks(graph, encodingManager, dir, weighting));
+        graph.close();
+    }
+
+    @Test
+    void weightingUsesShipSpeed() {
+        EncodingManager encodingManager = SeaGraphArtifacts.createEncodingManager();
+        BaseGraph graph = new BaseGraph.Builder(encodingManager).create();
+        fillGrid(graph, encodingManager);
+        Weighting weighting = SeaGraphArtifacts.createWeighting(encodingManager);
+
+        double millis = weighting.calcEdgeMillis(graph.getEdgeIteratorState(0, Integer.MIN_VALUE), false);
+
+        // 1° of longitude at 0°N (~111 km) at 25 km/h
+        assertEquals(111.0 / 25 * 3_600_000, millis, 0.01 * millis);
+    }
+
+    /**
+     * 1° grid with 4-neighbour edges, set up like the builder's sea edges.
+     */
+    private static void fillGrid(BaseGraph graph, EncodingManager encodingManager) {
+        BooleanEncodedValue accessEnc = encodingManager.getBooleanEncodedValue(VehicleAccess.key("car"));
+        DecimalEncodedValue speedEnc = encodingManager.getDecimalEncodedValue(VehicleSpeed.key("car"));
+        for (int y = 0; y < SIDE; y++) {
+            for (int x = 0; x < SIDE; x++) {
+                graph.getNodeAccess().setNode(y * SIDE + x, y, x);
+            }
+        }
+        for (int y = 0; y < SIDE; y++) {
+            for (int x = 0; x < SIDE; x++) {
+                int node = y * SIDE + x;
+                if (x + 1 < SIDE) {
+                    graph.edge(node, node + 1).setDistance(111_000).set(accessEnc, true, true).set(speedEnc, 30.0);
+                }
+                if (y + 1 < SIDE) {
+                    graph.edge(node, node + SIDE).setDistance(111_000).set(accessEnc, true, true).set(speedEnc, 30.0);
+                }
+            }
+        }
+    }
+}
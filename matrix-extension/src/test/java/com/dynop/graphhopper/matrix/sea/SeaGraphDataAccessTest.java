@@ -0,0 +1,59 @@
+package com.dynop.graphhopper.matrix.sea;
+
+import com.graphhopper.routing.ev.BooleanEncodedValue;
+import com.graphhopper.routing.ev.VehicleAccess;
+import com.graphhopper.routing.util.EncodingManager;
+import com.graphhopper.storage.BaseGraph;
+import com.graphhopper.storage.DAType;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link SeaGraphDataAccess}.
+ */
+class SeaGraphDataAccessTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void parsesSupportedModes() {
+        assertEquals(DAType.RAM_STORE, SeaGraphDataAccess.parse(null));
+        assertEquals(DAType.RAM_STORE, SeaGraphDataAccess.parse(" "));
+        assertEquals(DAType.RAM_STORE, SeaGraphDataAccess.parse("ram_store"));
+        assertEquals(DAType.MMAP, SeaGraphDataAccess.parse("MMAP"));
+        assertThrows(IllegalArgumentException.class, () -> SeaGraphDataAccess.parse("RAM"));
+    }
+
+    @Test
+    void loadsRamBuiltGraphMemoryMapped() {
+        String location = tempDir.toString();
+        BaseGraph built = new BaseGraph.Builder(encodingManager())
+                .setDir(SeaGraphDataAccess.createDirectory(location, DAType.RAM_STORE))
+                .create();
+        built.getNodeAccess().setNode(0, 1.0, 2.0);
+        built.getNodeAccess().setNode(1, 3.0, 4.0);
+        built.edge(0, 1).setDistance(1000);
+        built.flush();
+        built.close();
+
+        BaseGraph loaded = new BaseGraph.Builder(encodingManager())
+                .setDir(SeaGraphDataAccess.createDirectory(location, DAType.MMAP))
+                .build();
+
+        assertTrue(loaded.loadExisting());
+        assertEquals(2, loaded.getNodes());
+        assertEquals(1, loaded.getEdges());
+        assertEquals(3.0, loaded.getNodeAccess().getLat(1), 1e-6);
+        loaded.close();
+    }
+
+    private static EncodingManager encodingManager() {
+        BooleanEncodedValue accessEnc = VehicleAccess.create("car");
+        return EncodingManager.start().add(accessEnc).build();
+    }
+}
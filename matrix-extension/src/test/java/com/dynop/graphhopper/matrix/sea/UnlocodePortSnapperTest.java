@@ -5,7 +5,10 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.CsvSource;
 
+import java.util.BitSet;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -156,6 +159,72 @@ class UnlocodePortSnapperTest {
                 "Should be very close: " + result.getSnapDistanceKm());
     }
 
+    @Test
+    void batchSnapMatchesSingleSnaps() throws Exception {
+        double[] coordinates = {52.0, 4.3, 1.5, 104.0, -33.5, 151.0};
+        BitSet sources = new BitSet();
+        sources.set(0);
+        
+        PortSnapBatch batch = snapper.snapBatch(coordinates, sources, null);
+        
+        assertEquals(3, batch.size());
+        for (int i = 0; i < batch.size(); i++) {
+            PortSnapResult single = snapper.snap(coordinates[2 * i], coordinates[2 * i + 1], PortRole.PORT_OF_LOADING);
+            assertTrue(batch.isSnapped(i));
+            assertEquals(single.getUnlocode(), batch.toResult(i).getUnlocode());
+            assertEquals(single.getSnapDistanceKm(), batch.getSnapDistanceKm(i), 1e-9);
+        }
+        assertEquals(PortRole.PORT_OF_LOADING, batch.toResult(0).getRole());
+        assertEquals(PortRole.PORT_OF_DISCHARGE, batch.toResult(1).getRole());
+    }
+
+    @Test
+    void batchSnapReportsFailuresWithoutThrowing() throws Exception {
+        // Second point is in the middle of the Pacific, far from every test port
+        double[] coordinates = {52.0, 4.3, -10.0, -140.0};
+        
+        PortSnapBatch batch = snapper.snapBatch(coordinates, new BitSet(), null);
+        
+        assertTrue(batch.isSnapped(0));
+        assertFalse(batch.isSnapped(1));
+        assertEquals(PortSnapBatch.NO_PORT, batch.getPortIndex(1));
+        assertEquals("NO_SEAPORT_WITHIN_RANGE", batch.toException(1).getErrorCode());
+    }
+
+    @Test
+    void parallelBatchSnapMatchesSequentialBatch() throws Exception {
+        int pointCount = UnlocodePortSnapper.BATCH_CHUNK_SIZE * 3 + 17;
+        double[] coordinates = new double[pointCount * 2];
+        for (int i = 0; i < pointCount; i++) {
+            coordinates[2 * i] = -60 + (i * 7919 % 120);
+            coordinates[2 * i + 1] = -180 + (i * 104729 % 360);
+        }
+        BitSet sources = new BitSet();
+        sources.set(0, pointCount / 2);
+        
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            PortSnapBatch parallel = snapper.snapBatch(coordinates, sources, executor);
+            PortSnapBatch sequential = snapper.snapBatch(coordinates, sources, null);
+            
+            assertArrayEquals(sequential.portIndices(), parallel.portIndices());
+            assertArrayEquals(sequential.snapDistancesKm(), parallel.snapDistancesKm());
+            assertEquals(PortRole.PORT_OF_DISCHARGE, parallel.getRole(pointCount - 1));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void batchSnapWithoutPortsReportsNoSeaportFound() throws Exception {
+        UnlocodePortSnapper emptySnapper = new UnlocodePortSnapper(List.of(), 300.0);
+        
+        PortSnapBatch batch = emptySnapper.snapBatch(new double[] {51.9, 4.5}, new BitSet(), null);
+        
+        assertFalse(batch.isSnapped(0));
+        assertEquals("NO_SEAPORT_FOUND", batch.toException(0).getErrorCode());
+    }
+
     private Port createPort(String unlocode, String name, double lat, double lon) {
         return new Port(
             unlocode,
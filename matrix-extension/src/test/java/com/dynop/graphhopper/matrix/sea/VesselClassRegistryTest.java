@@ -0,0 +1,56 @@
+package com.dynop.graphhopper.matrix.sea;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link VesselClassRegistry} and {@link VesselClass}.
+ */
+class VesselClassRegistryTest {
+
+    @Test
+    void draftAboveLimitRestrictsChokepoint() {
+        VesselClassRegistry registry = VesselClassRegistry.defaults();
+
+        assertEquals(List.of("PANAMA"), registry.getRestrictedChokepoints(registry.getVesselClass("ULCV")));
+        assertEquals(List.of(), registry.getRestrictedChokepoints(registry.getVesselClass("FEEDER")));
+        // A draft equal to the limit still passes
+        assertEquals(List.of(), registry.getRestrictedChokepoints(registry.getVesselClass("NEO_PANAMAX")));
+    }
+
+    @Test
+    void restrictedChokepointsAreSorted() {
+        VesselClass deep = new VesselClass("DEEP", "Deep", 15.0, 22.0);
+        VesselClassRegistry registry = new VesselClassRegistry(List.of(deep),
+            Map.of("SUEZ", 20.1, "MALACCA", 20.5, "PANAMA", 15.2, "BOSPHORUS", 25.0));
+
+        assertEquals(List.of("MALACCA", "PANAMA", "SUEZ"), registry.getRestrictedChokepoints(deep));
+    }
+
+    @Test
+    void unknownVesselClassIsNull() {
+        assertNull(VesselClassRegistry.defaults().getVesselClass("CANOE"));
+    }
+
+    @Test
+    void rejectsDuplicateIds() {
+        VesselClass feeder = new VesselClass("FEEDER", "Feeder", 18.0, 9.5);
+
+        assertThrows(IllegalArgumentException.class, () -> new VesselClassRegistry(List.of(feeder, feeder), Map.of()));
+    }
+
+    @Test
+    void timeScalesWithServiceSpeed() {
+        // 10 knots = 18.52 km/h: 18.52 km take one hour
+        VesselClass slow = new VesselClass("SLOW", "Slow", 10.0, 5.0);
+        VesselClass fast = new VesselClass("FAST", "Fast", 20.0, 5.0);
+
+        assertEquals(3_600_000, slow.timeMillis(18_520));
+        assertEquals(1_800_000, fast.timeMillis(18_520));
+        assertEquals(-1, fast.timeMillis(-1));
+    }
+}
@@ -0,0 +1,81 @@
+package com.dynop.graphhopper.matrix.sea.builder;
+
+import com.carrotsearch.hppc.DoubleArrayList;
+import org.junit.jupiter.api.Test;
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.GeometryFactory;
+import org.locationtech.jts.geom.Polygon;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link AdaptiveGrid}.
+ */
+class AdaptiveGridTest {
+
+    private final GeometryFactory factory = new GeometryFactory();
+
+    @Test
+    void keepsOpenOceanCoarse() {
+        LandIndex noLand = new LandIndex(List.of(), factory);
+        AdaptiveGrid grid = new AdaptiveGrid(noLand, 10.0, 1.25, -20, 20, -20, 20);
+
+        DoubleArrayList leaves = refineAll(grid);
+
+        assertEquals(16, grid.topCellCount());
+        assertEquals(16, leaves.size() / 3);
+        for (int i = 0; i < leaves.size(); i += 3) {
+            assertEquals(10.0, leaves.get(i + 2));
+        }
+    }
+
+    @Test
+    void refinesNearLandAndDropsCellsInsideLand() {
+        LandIndex land = new LandIndex(List.of(square(0, 0, 10)), factory);
+        AdaptiveGrid grid = new AdaptiveGrid(land, 10.0, 1.25, -20, 20, -20, 20);
+
+        DoubleArrayList leaves = refineAll(grid);
+
+        boolean sawMinStepOnCoast = false;
+        for (int i = 0; i < leaves.size(); i += 3) {
+            double lat = leaves.get(i);
+            double lon = leaves.get(i + 1);
+            double size = leaves.get(i + 2);
+            assertFalse(lat > 1 && lat < 9 && lon > 1 && lon < 9, "leaf inside land at " + lat + "," + lon);
+            if (size == 1.25 && (lat < 0 || lon < 0 || lat > 10 || lon > 10)) {
+                sawMinStepOnCoast = true;
+            }
+            if (lat < -12 || lon < -12) {
+                assertTrue(size >= 5.0, "far ocean should stay coarse: " + size);
+            }
+        }
+        assertTrue(sawMinStepOnCoast);
+        assertTrue(leaves.size() / 3 > 16);
+    }
+
+    @Test
+    void rejectsMinimumStepAboveCoarseStep() {
+        LandIndex noLand = new LandIndex(List.of(), factory);
+        assertThrows(IllegalArgumentException.class, () -> new AdaptiveGrid(noLand, 1.0, 2.0, -10, 10, -10, 10));
+    }
+
+    private static DoubleArrayList refineAll(AdaptiveGrid grid) {
+        DoubleArrayList leaves = new DoubleArrayList();
+        for (int i = 0; i < grid.topCellCount(); i++) {
+            grid.refine(i, leaves);
+        }
+        return leaves;
+    }
+
+    private Polygon square(double minLat, double minLon, double size) {
+        return factory.createPolygon(new Coordinate[] {
+            new Coordinate(minLon, minLat),
+            new Coordinate(minLon + size, minLat),
+            new Coordinate(minLon + size, minLat + size),
+            new Coordinate(minLon, minLat + size),
+            new Coordinate(minLon, minLat)
+        });
+    }
+}
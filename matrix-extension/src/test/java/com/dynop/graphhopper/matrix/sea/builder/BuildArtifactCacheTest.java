@@ -0,0 +1,60 @@
+package com.dynop.graphhopper.matrix.sea.builder;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link BuildArtifactCache}.
+ */
+class BuildArtifactCacheTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void storesAndRestoresBuildOutputs() throws IOException {
+        Path output = Files.createDirectories(tempDir.resolve("sea"));
+        Files.writeString(output.resolve("nodes"), "node-data");
+        Files.writeString(output.resolve(BuildArtifactCache.SUMMARY_FILE), "{}");
+        BuildArtifactCache cache = new BuildArtifactCache(tempDir.resolve("cache"));
+
+        assertFalse(cache.contains("abc"));
+        cache.store("abc", output);
+        assertTrue(cache.contains("abc"));
+
+        Path restored = tempDir.resolve("restored");
+        cache.restore("abc", restored);
+        assertEquals("node-data", Files.readString(restored.resolve("nodes")));
+        assertTrue(Files.exists(restored.resolve(BuildArtifactCache.SUMMARY_FILE)));
+    }
+
+    @Test
+    void keepsFirstEntryForAKey() throws IOException {
+        Path output = Files.createDirectories(tempDir.resolve("sea"));
+        Files.writeString(output.resolve("nodes"), "first");
+        Files.writeString(output.resolve(BuildArtifactCache.SUMMARY_FILE), "{}");
+        BuildArtifactCache cache = new BuildArtifactCache(tempDir.resolve("cache"));
+        cache.store("abc", output);
+
+        Files.writeString(output.resolve("nodes"), "second");
+        cache.store("abc", output);
+
+        assertEquals("first", Files.readString(tempDir.resolve("cache").resolve("abc").resolve("nodes")));
+        try (var entries = Files.list(tempDir.resolve("cache"))) {
+            assertEquals(1, entries.count());
+        }
+    }
+
+    @Test
+    void ignoresIncompleteEntries() throws IOException {
+        Files.createDirectories(tempDir.resolve("cache").resolve("abc"));
+
+        assertFalse(new BuildArtifactCache(tempDir.resolve("cache")).contains("abc"));
+    }
+}
@@ -0,0 +1,57 @@
+package com.dynop.graphhopper.matrix.sea.builder;
+
+import com.dynop.graphhopper.matrix.sea.builder.BuildCheckpoints.Stage;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link BuildCheckpoints}.
+ */
+class BuildCheckpointsTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void roundTripsWaypoints() throws IOException {
+        WaypointArrays waypoints = new WaypointArrays(2);
+        waypoints.add(10.5, -20.25, WaypointArrays.NO_CHOKEPOINT);
+        waypoints.add(30.8, 32.3, (byte) 0);
+        BuildCheckpoints checkpoints = new BuildCheckpoints(tempDir);
+
+        checkpoints.saveWaypoints("key-1", waypoints);
+        WaypointArrays loaded = checkpoints.loadWaypoints("key-1");
+
+        assertNotNull(loaded);
+        assertEquals(2, loaded.size());
+        assertEquals(-20.25, loaded.lon(0));
+        assertEquals(WaypointArrays.NO_CHOKEPOINT, loaded.chokepoint(0));
+        assertEquals(30.8, loaded.lat(1));
+        assertEquals(0, loaded.chokepoint(1));
+    }
+
+    @Test
+    void rejectsCheckpointsOfOtherInputs() throws IOException {
+        BuildCheckpoints checkpoints = new BuildCheckpoints(tempDir);
+        long[] edges = {SeaLaneGraphBuilder.edgeKey(0, 1), SeaLaneGraphBuilder.edgeKey(2, 1)};
+
+        checkpoints.saveEdges(Stage.CANDIDATES, "key-1", edges);
+
+        assertArrayEquals(edges, checkpoints.loadEdges(Stage.CANDIDATES, "key-1"));
+        assertNull(checkpoints.loadEdges(Stage.CANDIDATES, "key-2"));
+        assertNull(checkpoints.loadEdges(Stage.EDGES, "key-1"));
+        assertNull(checkpoints.loadWaypoints("key-1"));
+    }
+
+    @Test
+    void parsesStageNames() {
+        assertEquals(Stage.EDGES, Stage.fromId("edges"));
+        assertEquals(Stage.WAYPOINTS, Stage.fromId("WAYPOINTS"));
+        assertThrows(IllegalArgumentException.class, () -> Stage.fromId("knn"));
+    }
+}
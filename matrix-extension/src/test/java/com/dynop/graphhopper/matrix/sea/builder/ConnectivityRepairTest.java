@@ -0,0 +1,122 @@
+package com.dynop.graphhopper.matrix.sea.builder;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link ConnectivityRepair}.
+ */
+class ConnectivityRepairTest {
+
+    /**
+     * Main chain 0-1-2-3 along the equator, pocket 4-5 just north of node 3.
+     */
+    private static WaypointArrays mainAndPocket() {
+        WaypointArrays waypoints = new WaypointArrays(6);
+        for (int i = 0; i < 4; i++) {
+            waypoints.add(0.0, i, WaypointArrays.NO_CHOKEPOINT);
+        }
+        waypoints.add(2.0, 3.0, WaypointArrays.NO_CHOKEPOINT);
+        waypoints.add(3.0, 3.0, WaypointArrays.NO_CHOKEPOINT);
+        return waypoints;
+    }
+
+    private static long[] mainAndPocketEdges() {
+        return new long[] {
+            SeaLaneGraphBuilder.edgeKey(0, 1),
+            SeaLaneGraphBuilder.edgeKey(1, 2),
+            SeaLaneGraphBuilder.edgeKey(2, 3),
+            SeaLaneGraphBuilder.edgeKey(4, 5)
+        };
+    }
+
+    private static SphereKdTree kdTree(WaypointArrays waypoints) {
+        return new SphereKdTree(waypoints.latArray(), waypoints.lonArray(), waypoints.size());
+    }
+
+    @Test
+    void countsComponents() {
+        assertEquals(2, new ConnectivityRepair(mainAndPocket(), mainAndPocketEdges()).componentCount());
+    }
+
+    @Test
+    void linksPocketByShortestConnector() {
+        WaypointArrays waypoints = mainAndPocket();
+        ConnectivityRepair repair = new ConnectivityRepair(waypoints, mainAndPocketEdges());
+
+        ConnectivityRepair.Result result = repair.repair(kdTree(waypoints), (a, b) -> true);
+
+        assertEquals(1, result.linkedComponents);
+        assertEquals(1, result.connectorEdges);
+        assertEquals(0, result.droppedNodes);
+        assertEquals(6, result.waypoints.size());
+        assertEquals(5, result.edges.length);
+        assertEquals(SeaLaneGraphBuilder.edgeKey(3, 4), result.edges[4]);
+        assertEquals(1, new ConnectivityRepair(result.waypoints, result.edges).componentCount());
+    }
+
+    @Test
+    void skipsConnectorsThatCrossLand() {
+        WaypointArrays waypoints = mainAndPocket();
+        ConnectivityRepair repair = new ConnectivityRepair(waypoints, mainAndPocketEdges());
+
+        // The direct connector 3-4 crosses land, the next shortest one from node 4 is used instead
+        ConnectivityRepair.Result result = repair.repair(kdTree(waypoints),
+            (a, b) -> SeaLaneGraphBuilder.edgeKey(a, b) != SeaLaneGraphBuilder.edgeKey(3, 4));
+
+        assertEquals(1, result.connectorEdges);
+        assertEquals(SeaLaneGraphBuilder.edgeKey(2, 4), result.edges[4]);
+    }
+
+    @Test
+    void dropsAndRenumbersUnconnectablePocket() {
+        WaypointArrays waypoints = new WaypointArrays(5);
+        waypoints.add(2.0, 3.0, WaypointArrays.NO_CHOKEPOINT);       // pocket
+        waypoints.add(0.0, 0.0, WaypointArrays.NO_CHOKEPOINT);
+        waypoints.add(0.0, 1.0, (byte) 2);
+        waypoints.add(3.0, 3.0, WaypointArrays.NO_CHOKEPOINT);       // pocket
+        waypoints.add(0.0, 2.0, WaypointArrays.NO_CHOKEPOINT);
+        long[] edges = {
+            SeaLaneGraphBuilder.edgeKey(1, 2),
+            SeaLaneGraphBuilder.edgeKey(2, 4),
+            SeaLaneGraphBuilder.edgeKey(0, 3)
+        };
+
+        ConnectivityRepair.Result result = new ConnectivityRepair(waypoints, edges)
+            .repair(kdTree(waypoints), (a, b) -> false);
+
+        assertEquals(1, result.droppedComponents);
+        assertEquals(2, result.droppedNodes);
+        assertEquals(0, result.linkedComponents);
+        assertEquals(3, result.waypoints.size());
+        assertEquals(0.0, result.waypoints.lon(0));
+        assertEquals(2, result.waypoints.chokepoint(1));
+        assertArrayEquals(new long[] {SeaLaneGraphBuilder.edgeKey(0, 1), SeaLaneGraphBuilder.edgeKey(1, 2)},
+            result.edges);
+    }
+
+    @Test
+    void linksPocketThroughAnotherPocket() {
+        // Pocket 4 only reaches the main chain through pocket 5
+        WaypointArrays waypoints = new WaypointArrays(6);
+        for (int i = 0; i < 4; i++) {
+            waypoints.add(0.0, i, WaypointArrays.NO_CHOKEPOINT);
+        }
+        waypoints.add(4.0, 0.0, WaypointArrays.NO_CHOKEPOINT);
+        waypoints.add(2.0, 0.0, WaypointArrays.NO_CHOKEPOINT);
+        long[] edges = {
+            SeaLaneGraphBuilder.edgeKey(0, 1),
+            SeaLaneGraphBuilder.edgeKey(1, 2),
+            SeaLaneGraphBuilder.edgeKey(2, 3)
+        };
+
+        ConnectivityRepair.Result result = new ConnectivityRepair(waypoints, edges)
+            .repair(kdTree(waypoints), (a, b) -> !(a == 4 || b == 4) || a == 5 || b == 5);
+
+        assertEquals(3, result.componentsBefore);
+        assertEquals(2, result.linkedComponents);
+        assertEquals(0, result.droppedNodes);
+        assertEquals(1, new ConnectivityRepair(result.waypoints, result.edges).componentCount());
+    }
+}
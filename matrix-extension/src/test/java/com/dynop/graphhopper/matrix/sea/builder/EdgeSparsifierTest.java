@@ -0,0 +1,129 @@
+package com.dynop.graphhopper.matrix.sea.builder;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link EdgeSparsifier}.
+ */
+class EdgeSparsifierTest {
+
+    private static long edge(int a, int b) {
+        return SeaLaneGraphBuilder.edgeKey(a, b);
+    }
+
+    @Test
+    void dropsEdgeMatchedByShortDetour() {
+        // 0-1 and 1-2 are 1.0 each, the direct 0-2 is 1.99: the detour stretches it by ~0.5%
+        long[] edges = {edge(0, 1), edge(1, 2), edge(0, 2)};
+        double[] lengths = {1.0, 1.0, 1.99};
+
+        boolean[] keep = new EdgeSparsifier(3, edges, lengths, new boolean[3]).sparsify(1.01);
+
+        assertArrayEquals(new boolean[] {true, true, false}, keep);
+    }
+
+    @Test
+    void keepsEdgeWhenDetourExceedsStretch() {
+        long[] edges = {edge(0, 1), edge(1, 2), edge(0, 2)};
+        double[] lengths = {1.0, 1.0, 1.9};
+
+        boolean[] keep = new EdgeSparsifier(3, edges, lengths, new boolean[3]).sparsify(1.01);
+
+        assertArrayEquals(new boolean[] {true, true, true}, keep);
+    }
+
+    @Test
+    void neverDropsEdgesOfProtectedNodes() {
+        long[] edges = {edge(0, 1), edge(1, 2), edge(0, 2)};
+        double[] lengths = {1.0, 1.0, 1.99};
+
+        // Node 1 is a chokepoint: it must not carry the detour, so 0-2 stays
+        boolean[] keep = new EdgeSparsifier(3, edges, lengths, new boolean[] {false, true, false}).sparsify(1.01);
+
+        assertArrayEquals(new boolean[] {true, true, true}, keep);
+    }
+
+    @Test
+    void preservesConnectivityOfDenseGrid() {
+        // 10x10 grid with straight and diagonal edges
+        int side = 10;
+        int count = 0;
+        long[] edges = new long[4 * side * side];
+        double[] lengths = new double[edges.length];
+        for (int y = 0; y < side; y++) {
+            for (int x = 0; x < side; x++) {
+                int n = y * side + x;
+                if (x + 1 < side) {
+                    edges[count] = edge(n, n + 1);
+                    lengths[count++] = 1.0;
+                }
+                if (y + 1 < side) {
+                    edges[count] = edge(n, n + side);
+                    lengths[count++] = 1.0;
+                }
+                if (x + 1 < side && y + 1 < side) {
+                    edges[count] = edge(n, n + side + 1);
+                    lengths[count++] = Math.sqrt(2);
+                }
+            }
+        }
+        edges = Arrays.copyOf(edges, count);
+        lengths = Arrays.copyOf(lengths, count);
+
+        EdgeSparsifier sparsifier = new EdgeSparsifier(side * side, edges, lengths, new boolean[side * side]);
+        boolean[] keep = sparsifier.sparsify(1.5);
+
+        int kept = 0;
+        for (boolean k : keep) {
+            if (k) kept++;
+        }
+        assertTrue(kept < count, "diagonals should be dropped at stretch 1.5");
+
+        // Every node is still reachable from node 0
+        int[] sources = new int[side * side];
+        int[] targets = new int[side * side];
+        for (int n = 0; n < targets.length; n++) {
+            targets[n] = n;
+        }
+        boolean[] all = new boolean[count];
+        Arrays.fill(all, true);
+        assertTrue(sparsifier.queryWork(keep, sources, targets) < sparsifier.queryWork(all, sources, targets));
+        assertEquals(side * side, reachable(side * side, edges, keep));
+    }
+
+    @Test
+    void rejectsStretchBelowOne() {
+        EdgeSparsifier sparsifier = new EdgeSparsifier(2, new long[] {edge(0, 1)}, new double[] {1.0}, new boolean[2]);
+
+        assertThrows(IllegalArgumentException.class, () -> sparsifier.sparsify(0.99));
+    }
+
+    private static int reachable(int nodeCount, long[] edges, boolean[] keep) {
+        int[] parent = new int[nodeCount];
+        for (int i = 0; i < nodeCount; i++) {
+            parent[i] = i;
+        }
+        for (int e = 0; e < edges.length; e++) {
+            if (keep[e]) {
+                parent[find(parent, SeaLaneGraphBuilder.edgeFrom(edges[e]))] = find(parent, SeaLaneGraphBuilder.edgeTo(edges[e]));
+            }
+        }
+        int root = find(parent, 0);
+        int count = 0;
+        for (int i = 0; i < nodeCount; i++) {
+            if (find(parent, i) == root) count++;
+        }
+        return count;
+    }
+
+    private static int find(int[] parent, int n) {
+        while (parent[n] != n) {
+            n = parent[n] = parent[parent[n]];
+        }
+        return n;
+    }
+}
@@ -0,0 +1,64 @@
+package com.dynop.graphhopper.matrix.sea.builder;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link HilbertCurve}.
+ */
+class HilbertCurveTest {
+
+    @Test
+    void sortOrderIsAPermutationThatKeepsNeighborsClose() {
+        WaypointArrays waypoints = new WaypointArrays(0);
+        for (double lat = -60; lat < 60; lat += 2) {
+            for (double lon = -180; lon < 180; lon += 2) {
+                waypoints.add(lat, lon, WaypointArrays.NO_CHOKEPOINT);
+            }
+        }
+
+        int[] order = HilbertCurve.sortOrder(waypoints);
+
+        int[] sorted = order.clone();
+        Arrays.sort(sorted);
+        for (int i = 0; i < sorted.length; i++) {
+            assertEquals(i, sorted[i]);
+        }
+        // Row-major order jumps across the globe at every row end; the curve only between quadrants
+        assertTrue(stepLength(waypoints, order) < 0.8 * stepLength(waypoints, identity(order.length)));
+    }
+
+    @Test
+    void indexIsDeterministicAndSeparatesQuadrants() {
+        long southWest = HilbertCurve.index(-45, -90);
+        long northWest = HilbertCurve.index(45, -90);
+        long northEast = HilbertCurve.index(45, 90);
+        long southEast = HilbertCurve.index(-45, 90);
+
+        assertEquals(southWest, HilbertCurve.index(-45, -90));
+        // The first-order curve visits the quadrants as SW, NW, NE, SE
+        assertTrue(southWest < northWest);
+        assertTrue(northWest < northEast);
+        assertTrue(northEast < southEast);
+    }
+
+    private static double stepLength(WaypointArrays waypoints, int[] order) {
+        double total = 0;
+        for (int i = 1; i < order.length; i++) {
+            total += Math.hypot(waypoints.lat(order[i]) - waypoints.lat(order[i - 1]),
+                    waypoints.lon(order[i]) - waypoints.lon(order[i - 1]));
+        }
+        return total;
+    }
+
+    private static int[] identity(int size) {
+        int[] ids = new int[size];
+        for (int i = 0; i < size; i++) {
+            ids[i] = i;
+        }
+        return ids;
+    }
+}
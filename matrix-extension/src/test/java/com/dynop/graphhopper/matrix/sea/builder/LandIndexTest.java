@@ -0,0 +1,56 @@
+package com.dynop.graphhopper.matrix.sea.builder;
+
+import org.junit.jupiter.api.Test;
+import org.locationtech.jts.geom.*;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link LandIndex}.
+ */
+class LandIndexTest {
+
+    private final GeometryFactory factory = new GeometryFactory();
+
+    @Test
+    void testsPointsAgainstIndexedPolygons() {
+        LandIndex index = new LandIndex(List.of(square(0, 0, 10), square(50, 50, 5)), factory);
+
+        assertEquals(2, index.getPolygonCount());
+        assertTrue(index.containsPoint(5, 5));
+        assertTrue(index.containsPoint(52, 52));
+        assertFalse(index.containsPoint(20, 20));
+        assertFalse(index.containsPoint(-5, 5));
+    }
+
+    @Test
+    void splitsMultiPolygonsIntoParts() {
+        MultiPolygon islands = factory.createMultiPolygon(new Polygon[] {square(0, 0, 1), square(0, 10, 1)});
+        LandIndex index = new LandIndex(List.of(islands), factory);
+
+        assertEquals(2, index.getPolygonCount());
+        assertTrue(index.containsPoint(0.5, 10.5));
+        assertFalse(index.containsPoint(0.5, 5));
+    }
+
+    @Test
+    void detectsSegmentsCrossingLand() {
+        LandIndex index = new LandIndex(List.of(square(0, 0, 10)), factory);
+
+        assertTrue(index.intersectsSegment(5, -5, 5, 15));
+        assertFalse(index.intersectsSegment(-5, -5, -5, 15));
+        assertFalse(index.intersectsSegment(20, 20, 30, 30));
+    }
+
+    private Polygon square(double minLat, double minLon, double size) {
+        return factory.createPolygon(new Coordinate[] {
+            new Coordinate(minLon, minLat),
+            new Coordinate(minLon + size, minLat),
+            new Coordinate(minLon + size, minLat + size),
+            new Coordinate(minLon, minLat + size),
+            new Coordinate(minLon, minLat)
+        });
+    }
+}
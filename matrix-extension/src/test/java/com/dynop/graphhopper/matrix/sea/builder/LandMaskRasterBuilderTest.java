@@ -0,0 +1,82 @@
+package com.dynop.graphhopper.matrix.sea.builder;
+
+import com.dynop.graphhopper.matrix.sea.LandMaskRaster;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.GeometryFactory;
+import org.locationtech.jts.geom.Polygon;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link LandMaskRasterBuilder}.
+ */
+class LandMaskRasterBuilderTest {
+
+    private final GeometryFactory factory = new GeometryFactory();
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void rasterMatchesLandPolygons() throws IOException {
+        // A large block filled at once and a small island only reached by splitting tiles
+        LandIndex land = new LandIndex(List.of(square(10, 20, 30), square(-40.3, 100.1, 0.6)), factory);
+        Path file = tempDir.resolve(LandMaskRaster.FILE_NAME);
+
+        new LandMaskRasterBuilder(land, 0.1, true, 2).build(file);
+        LandMaskRaster raster = LandMaskRaster.loadFrom(file);
+
+        assertNotNull(raster);
+        assertEquals(0.1, raster.getCellDegrees());
+        assertTrue(raster.isLand(25.0, 35.0));
+        assertTrue(raster.isLand(10.05, 20.05));
+        assertFalse(raster.isLand(9.95, 20.05));
+        assertFalse(raster.isLand(25.0, 50.05));
+        assertTrue(raster.isLand(-40.0, 100.4));
+        assertFalse(raster.isLand(-40.0, 100.8));
+        assertFalse(raster.isLand(0.0, 0.0));
+    }
+
+    @Test
+    void coastDistanceSeparatesCoastFromInland() throws IOException {
+        LandIndex land = new LandIndex(List.of(square(10, 20, 30)), factory);
+        Path file = tempDir.resolve(LandMaskRaster.FILE_NAME);
+
+        new LandMaskRasterBuilder(land, 0.1, true, 2).build(file);
+        LandMaskRaster raster = LandMaskRaster.loadFrom(file).withInlandTolerance(50);
+
+        assertEquals(1, raster.getCoastDistance(10.05, 35.0));
+        assertEquals(150, raster.getCoastDistance(25.0, 35.0));
+        assertFalse(raster.isInland(10.15, 35.0));
+        assertTrue(raster.isInland(25.0, 35.0));
+        assertFalse(raster.isInland(0.0, 0.0));
+    }
+
+    @Test
+    void coastDistanceLayerIsOptional() throws IOException {
+        LandIndex land = new LandIndex(List.of(square(10, 20, 30)), factory);
+        Path file = tempDir.resolve(LandMaskRaster.FILE_NAME);
+
+        new LandMaskRasterBuilder(land, 0.5, false, 1).build(file);
+        LandMaskRaster raster = LandMaskRaster.loadFrom(file);
+
+        assertFalse(raster.hasCoastDistance());
+        assertTrue(raster.isLand(25.0, 35.0));
+    }
+
+    private Polygon square(double minLat, double minLon, double size) {
+        return factory.createPolygon(new Coordinate[] {
+            new Coordinate(minLon, minLat),
+            new Coordinate(minLon + size, minLat),
+            new Coordinate(minLon + size, minLat + size),
+            new Coordinate(minLon, minLat + size),
+            new Coordinate(minLon, minLat)
+        });
+    }
+}
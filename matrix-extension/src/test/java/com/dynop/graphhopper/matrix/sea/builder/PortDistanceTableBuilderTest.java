@@ -0,0 +1,125 @@
+package com.dynop.graphhopper.matrix.sea.builder;
+
+import com.dynop.graphhopper.matrix.sea.Chokepoint;
+import com.dynop.graphhopper.matrix.sea.ChokepointRegistry;
+import com.dynop.graphhopper.matrix.sea.PortDistanceTable;
+import com.dynop.graphhopper.matrix.sea.SeaGraphArtifacts;
+import com.graphhopper.routing.Dijkstra;
+import com.graphhopper.routing.ev.BooleanEncodedValue;
+import com.graphhopper.routing.ev.DecimalEncodedValue;
+import com.graphhopper.routing.ev.VehicleAccess;
+import com.graphhopper.routing.ev.VehicleSpeed;
+import com.graphhopper.routing.util.EncodingManager;
+import com.graphhopper.routing.util.TraversalMode;
+import com.graphhopper.routing.weighting.Weighting;
+import com.graphhopper.storage.BaseGraph;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link PortDistanceTableBuilder}.
+ */
+class PortDistanceTableBuilderTest {
+
+    private static final int SIDE = 6;
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void tableCellsMatchRoutedPaths() throws IOException {
+        EncodingManager encodingManager = SeaGraphArtifacts.createEncodingManager();
+        BaseGraph graph = grid(encodingManager);
+        Weighting weighting = SeaGraphArtifacts.createWeighting(encodingManager);
+        int[] portNodes = {0, 14, SIDE * SIDE - 1, 14};
+        String[] unlocodes = {"AAAAA", "BBBBB", "CCCCC", "DDDDD"};
+        Path file = tempDir.resolve(PortDistanceTable.FILE_NAME);
+
+        new PortDistanceTableBuilder(graph, weighting, new ChokepointRegistry(), 2).build(file, unlocodes, portNodes);
+        PortDistanceTable table = PortDistanceTable.loadFrom(file, graph);
+
+        assertNotNull(table);
+        for (int row = 0; row < portNodes.length; row++) {
+            for (int col = 0; col < portNodes.length; col++) {
+                com.graphhopper.routing.Path path = new Dijkstra(graph, weighting, TraversalMode.NODE_BASED)
+                    .calcPath(portNodes[row], portNodes[col]);
+                assertEquals(Math.round(path.getDistance()), table.getDistance(row, col), row + "→" + col);
+                assertEquals(path.getTime(), table.getTime(row, col), row + "→" + col);
+            }
+        }
+    }
+
+    @Test
+    void unreachablePortsAreMarked() {
+        EncodingManager encodingManager = SeaGraphArtifacts.createEncodingManager();
+        BaseGraph graph = grid(encodingManager);
+        int isolated = graph.getNodes();
+        graph.getNodeAccess().setNode(isolated, -10, -10);
+        int[] distances = new int[2];
+        long[] times = new long[2];
+        long[] masks = new long[2];
+
+        new PortDistanceTableBuilder(graph, SeaGraphArtifacts.createWeighting(encodingManager),
+            new ChokepointRegistry(), 1).search(0, new int[] {isolated, 1}, distances, times, masks);
+
+        assertEquals(-1, distances[0]);
+        assertEquals(-1, times[0]);
+        assertEquals(0, masks[0]);
+        assertEquals(111_000, distances[1]);
+        assertTrue(times[1] > 0);
+    }
+
+    @Test
+    void masksRecordChokepointsOnRoute() {
+        EncodingManager encodingManager = SeaGraphArtifacts.createEncodingManager();
+        BaseGraph graph = grid(encodingManager);
+        // Node 2 lies on the only shortest route along the bottom row; node 30 is off it
+        ChokepointRegistry chokepoints = new ChokepointRegistry(Map.of(
+            "BOTTOM", new Chokepoint("BOTTOM", "Bottom", "", 0, 2, 0.5, 0.5, Set.of(2)),
+            "TOP", new Chokepoint("TOP", "Top", "", 5, 0, 0.5, 0.5, Set.of(30))));
+        int[] distances = new int[2];
+        long[] times = new long[2];
+        long[] masks = new long[2];
+
+        new PortDistanceTableBuilder(graph, SeaGraphArtifacts.createWeighting(encodingManager), chokepoints, 1)
+            .search(0, new int[] {SIDE - 1, 30}, distances, times, masks);
+
+        // Bits follow the sorted IDs: BOTTOM = 1, TOP = 2
+        assertEquals(0b01, masks[0]);
+        assertEquals(0b10, masks[1]);
+    }
+
+    /**
+     * 1° grid with 4-neighbour edges; north-south edges get longer towards the east.
+     */
+    private static BaseGraph grid(EncodingManager encodingManager) {
+        BooleanEncodedValue accessEnc = encodingManager.getBooleanEncodedValue(VehicleAccess.key("car"));
+        DecimalEncodedValue speedEnc = encodingManager.getDecimalEncodedValue(VehicleSpeed.key("car"));
+        BaseGraph graph = new BaseGraph.Builder(encodingManager).create();
+        for (int y = 0; y < SIDE; y++) {
+            for (int x = 0; x < SIDE; x++) {
+                graph.getNodeAccess().setNode(y * SIDE + x, y, x);
+            }
+        }
+        for (int y = 0; y < SIDE; y++) {
+            for (int x = 0; x < SIDE; x++) {
+                int node = y * SIDE + x;
+                if (x + 1 < SIDE) {
+                    graph.edge(node, node + 1).setDistance(111_000).set(accessEnc, true, true).set(speedEnc, 30.0);
+                }
+                if (y + 1 < SIDE) {
+                    graph.edge(node, node + SIDE).setDistance(111_000 + 1_000 * x).set(accessEnc, true, true)
+                        .set(speedEnc, 30.0);
+                }
+            }
+        }
+        return graph;
+    }
+}
@@ -0,0 +1,74 @@
+package com.dynop.graphhopper.matrix.sea.builder;
+
+import com.dynop.graphhopper.matrix.sea.Port;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link SeaLaneGraphBuilder} input hashing and build summaries.
+ */
+class SeaLaneGraphBuilderTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void inputHashIsDeterministicAndTracksInputs() throws IOException {
+        Path landmask = tempDir.resolve("land.shp");
+        Files.write(landmask, new byte[] {1, 2, 3});
+        Path output = tempDir.resolve("sea");
+
+        String hash = new SeaLaneGraphBuilder(output, landmask, 5.0).computeInputHash();
+
+        assertEquals(64, hash.length());
+        assertEquals(hash, new SeaLaneGraphBuilder(tempDir.resolve("other"), landmask, 5.0)
+                .setThreads(3).computeInputHash());
+        assertNotEquals(hash, new SeaLaneGraphBuilder(output, landmask, 2.5).computeInputHash());
+        assertNotEquals(hash, new SeaLaneGraphBuilder(output, landmask, 5.0).setAdaptiveMinStep(1.0).computeInputHash());
+        assertNotEquals(hash, new SeaLaneGraphBuilder(output, landmask, 5.0).setLandMaskResolution(0).computeInputHash());
+        assertNotEquals(hash, new SeaLaneGraphBuilder(output, landmask, 5.0,
+                List.of(new Port("NLRTM", "Rotterdam", "NL", "", 51.9, 4.1, "1-------", "AI"))).computeInputHash());
+
+        Files.write(tempDir.resolve("land.dbf"), new byte[] {4});
+        assertNotEquals(hash, new SeaLaneGraphBuilder(output, landmask, 5.0).computeInputHash());
+    }
+
+    @Test
+    void readsResultFromBuildSummary() throws IOException {
+        Path summary = tempDir.resolve("build_summary.json");
+        Files.writeString(summary, """
+            {
+              "sea_graph_version": "sha256:0123456789abcdef",
+              "input_hash": "0123456789abcdef",
+              "node_count": 120,
+              "edge_count": 300,
+              "connected_component_count": 2,
+              "largest_component_size": 110,
+              "port_access_node_count": 5,
+              "port_forced_connector_count": 1,
+              "build_duration_ms": 42,
+              "build_threads": 4,
+              "phase_timings_ms": {"knn": 7, "persist": 3},
+              "waypoint_grid_step_degrees": 5.0,
+              "chokepoint_densification_step_degrees": 0.5
+            }
+            """);
+
+        SeaLaneGraphBuilder.BuildResult result = SeaLaneGraphBuilder.BuildResult.fromSummary(summary);
+
+        assertEquals("sha256:0123456789abcdef", result.graphVersion);
+        assertEquals(120, result.nodeCount);
+        assertEquals(300, result.edgeCount);
+        assertEquals(2, result.componentCount);
+        assertEquals(5, result.portAccessNodeCount);
+        assertEquals(4, result.threads);
+        assertEquals(7L, result.phaseTimingsMs.get("knn"));
+    }
+}
@@ -0,0 +1,90 @@
+package com.dynop.graphhopper.matrix.sea.builder;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link SphereKdTree}.
+ */
+class SphereKdTreeTest {
+
+    private static final double EARTH_RADIUS_KM = 6371.0;
+
+    @Test
+    void matchesBruteForceNearestNeighbors() {
+        Random random = new Random(42);
+        int count = 2000;
+        double[] lats = new double[count];
+        double[] lons = new double[count];
+        for (int i = 0; i < count; i++) {
+            lats[i] = -80 + random.nextDouble() * 160;
+            lons[i] = -180 + random.nextDouble() * 360;
+        }
+        SphereKdTree tree = new SphereKdTree(lats, lons);
+
+        int k = 6;
+        int[] indices = new int[k];
+        double[] chordSq = new double[k];
+        for (int q = 0; q < count; q += 37) {
+            int query = q;
+            int found = tree.nearest(lats[q], lons[q], k, q, indices, chordSq);
+
+            double[] expected = IntStream.range(0, count)
+                .filter(i -> i != query)
+                .mapToDouble(i -> haversineKm(lats[query], lons[query], lats[i], lons[i]))
+                .sorted()
+                .limit(k)
+                .toArray();
+
+            assertEquals(k, found);
+            for (int n = 0; n < k; n++) {
+                double actual = haversineKm(lats[q], lons[q], lats[indices[n]], lons[indices[n]]);
+                assertEquals(expected[n], actual, 1e-6);
+                assertEquals(expected[n], SphereKdTree.chordSqToKm(chordSq[n], EARTH_RADIUS_KM), 1e-3);
+            }
+        }
+    }
+
+    @Test
+    void findsNeighborsAcrossAntimeridian() {
+        double[] lats = {0.0, 0.0, 0.0};
+        double[] lons = {179.5, -179.5, 90.0};
+        SphereKdTree tree = new SphereKdTree(lats, lons);
+
+        int[] indices = new int[1];
+        double[] chordSq = new double[1];
+        int found = tree.nearest(0.0, 179.5, 1, 0, indices, chordSq);
+
+        assertEquals(1, found);
+        assertEquals(1, indices[0]);
+        assertEquals(111.2, SphereKdTree.chordSqToKm(chordSq[0], EARTH_RADIUS_KM), 0.5);
+    }
+
+    @Test
+    void returnsFewerNeighborsForSmallTrees() {
+        SphereKdTree tree = new SphereKdTree(new double[]{10.0, 20.0}, new double[]{10.0, 20.0});
+
+        int[] indices = new int[6];
+        double[] chordSq = new double[6];
+
+        assertEquals(1, tree.nearest(10.0, 10.0, 6, 0, indices, chordSq));
+        assertEquals(1, indices[0]);
+        assertEquals(2, tree.nearest(0.0, 0.0, 6, -1, indices, chordSq));
+        assertTrue(chordSq[0] <= chordSq[1]);
+    }
+
+    private static double haversineKm(double lat1, double lon1, double lat2, double lon2) {
+        double dLat = Math.toRadians(lat2 - lat1);
+        double dLon = Math.toRadians(lon2 - lon1);
+        double a = Math.sin(dLat / 2) * Math.sin(dLat / 2) +
+                   Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2)) *
+                   Math.sin(dLon / 2) * Math.sin(dLon / 2);
+        return EARTH_RADIUS_KM * 2 * Math.atan2(Math.sqrt(a), Math.sqrt(1 - a));
+    }
+}
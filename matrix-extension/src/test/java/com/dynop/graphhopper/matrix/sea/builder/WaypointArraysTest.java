@@ -0,0 +1,65 @@
+package com.dynop.graphhopper.matrix.sea.builder;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for {@link WaypointArrays} and the builder's packed edge keys.
+ */
+class WaypointArraysTest {
+
+    @Test
+    void growsBeyondInitialCapacity() {
+        WaypointArrays waypoints = new WaypointArrays(1);
+        for (int i = 0; i < 100; i++) {
+            assertEquals(i, waypoints.add(i * 0.5, -i * 0.5, i == 42 ? (byte) 3 : WaypointArrays.NO_CHOKEPOINT));
+        }
+
+        assertEquals(100, waypoints.size());
+        assertEquals(21.0, waypoints.lat(42));
+        assertEquals(-21.0, waypoints.lon(42));
+        assertEquals(3, waypoints.chokepoint(42));
+        assertEquals(WaypointArrays.NO_CHOKEPOINT, waypoints.chokepoint(43));
+    }
+
+    @Test
+    void compactsAndRenumbersKeptWaypoints() {
+        WaypointArrays waypoints = new WaypointArrays(4);
+        waypoints.add(1.0, 1.0, WaypointArrays.NO_CHOKEPOINT);
+        waypoints.add(2.0, 2.0, (byte) 0);
+        waypoints.add(3.0, 3.0, (byte) 1);
+
+        WaypointArrays kept = waypoints.without(new boolean[] {true, false, false});
+
+        assertEquals(2, kept.size());
+        assertEquals(2.0, kept.lat(0));
+        assertEquals(0, kept.chokepoint(0));
+        assertEquals(3.0, kept.lon(1));
+        assertEquals(1, kept.chokepoint(1));
+    }
+
+    @Test
+    void permutesWaypointsWithTheirChokepoints() {
+        WaypointArrays waypoints = new WaypointArrays(3);
+        waypoints.add(1.0, 1.0, WaypointArrays.NO_CHOKEPOINT);
+        waypoints.add(2.0, 2.0, (byte) 5);
+        waypoints.add(3.0, 3.0, WaypointArrays.NO_CHOKEPOINT);
+
+        WaypointArrays permuted = waypoints.permute(new int[] {1, 2, 0});
+
+        assertEquals(2.0, permuted.lat(0));
+        assertEquals(5, permuted.chokepoint(0));
+        assertEquals(3.0, permuted.lon(1));
+        assertEquals(1.0, permuted.lat(2));
+    }
+
+    @Test
+    void packsUndirectedEdgeKeys() {
+        long key = SeaLaneGraphBuilder.edgeKey(6_000_000, 17);
+
+        assertEquals(key, SeaLaneGraphBuilder.edgeKey(17, 6_000_000));
+        assertEquals(17, SeaLaneGraphBuilder.edgeFrom(key));
+        assertEquals(6_000_000, SeaLaneGraphBuilder.edgeTo(key));
+    }
+}